@@ -108,4 +108,17 @@ class ReadTest extends AbstractAppTest {
 			.withExpectedResponse("response.json")
 			.sendRequestAndVerifyResponse();
 	}
+
+	@Test
+	void test8_readAffectedsByDisturbanceId() {
+
+		final var disturbanceId = "disturbance-2";
+
+		setupCall()
+			.withServicePath(PATH + "/COMMUNICATION/" + disturbanceId + "/affecteds?limit=2")
+			.withHttpMethod(GET)
+			.withExpectedResponseStatus(OK)
+			.withExpectedResponse("response.json")
+			.sendRequestAndVerifyResponse();
+	}
 }
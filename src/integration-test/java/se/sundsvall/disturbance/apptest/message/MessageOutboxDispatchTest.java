@@ -0,0 +1,147 @@
+package se.sundsvall.disturbance.apptest.message;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.PENDING;
+import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toParty;
+
+import generated.se.sundsvall.messaging.Message;
+import generated.se.sundsvall.messaging.MessageRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import se.sundsvall.dept44.test.AbstractAppTest;
+import se.sundsvall.dept44.test.annotation.wiremock.WireMockAppTestSuite;
+import se.sundsvall.disturbance.Application;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.service.message.MessageOutboxDispatcher;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Message outbox dispatch application tests, against a slow and a failing api-messaging. Each test uses a municipality
+ * of its own, so the adaptive limit of the municipality starts at initialLimit (2), below maxConcurrentChunks (4).
+ *
+ * The latency threshold is lowered (in a context of its own) so that the 500 ms delay of the slow stub counts as
+ * overload.
+ */
+@WireMockAppTestSuite(files = "classpath:/message/MessageOutboxDispatchTest/", classes = Application.class)
+@TestPropertySource(properties = "integration.messaging.limiter.latencyThreshold=PT0.2S")
+@Sql(scripts = {
+	"/db/scripts/truncate.sql",
+	"/db/scripts/testdata-it.sql"
+})
+class MessageOutboxDispatchTest extends AbstractAppTest {
+
+	private static final String METRIC_LIMIT = "disturbance.messaging.limiter.limit";
+	private static final String METRIC_IN_FLIGHT = "disturbance.messaging.limiter.inflight";
+	private static final String TAG_MUNICIPALITY = "municipality";
+	private static final int CHUNK_COUNT = 8;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	@Autowired
+	private MessageOutboxRepository messageOutboxRepository;
+
+	@Autowired
+	private MessageOutboxDispatcher messageOutboxDispatcher;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void test1_dispatchWhenMessagingIsSlow() throws InterruptedException {
+
+		final var municipalityId = "2262";
+		setupCall();
+		messageOutboxRepository.saveAll(createChunks(municipalityId));
+
+		final var maxInFlight = dispatchAndSampleInFlight(municipalityId);
+
+		// All chunks are sent, but never more than the initial limit (2) at the same time, although the dispatcher allows 4.
+		assertThat(messageOutboxRepository.findAll()).isEmpty();
+		assertThat(maxInFlight).isEqualTo(2);
+		// The slow requests have decreased the limit to minLimit.
+		assertThat(meterRegistry.get(METRIC_LIMIT).tag(TAG_MUNICIPALITY, municipalityId).gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void test2_dispatchWhenMessagingFails() throws InterruptedException {
+
+		final var municipalityId = "2260";
+		setupCall();
+		messageOutboxRepository.saveAll(createChunks(municipalityId));
+
+		final var maxInFlight = dispatchAndSampleInFlight(municipalityId);
+
+		// All chunks are kept for a later attempt (with backoff).
+		assertThat(messageOutboxRepository.findAll())
+			.hasSize(CHUNK_COUNT)
+			.allSatisfy(chunk -> {
+				assertThat(chunk.getStatus()).isEqualTo(PENDING);
+				assertThat(chunk.getAttempts()).isOne();
+				assertThat(chunk.getLastError()).isNotBlank();
+				assertThat(chunk.getNextAttempt()).isAfter(now(systemDefault()));
+			});
+		assertThat(maxInFlight).isLessThanOrEqualTo(2);
+		// The failed requests have decreased the limit to minLimit.
+		assertThat(meterRegistry.get(METRIC_LIMIT).tag(TAG_MUNICIPALITY, municipalityId).gauge().value()).isEqualTo(1);
+	}
+
+	/**
+	 * Dispatch the outbox, and return the highest number of requests in flight for the municipality that was observed
+	 * meanwhile.
+	 */
+	private int dispatchAndSampleInFlight(final String municipalityId) throws InterruptedException {
+		final var done = new AtomicBoolean();
+		final var maxInFlight = new AtomicInteger();
+		final var sampler = Thread.ofVirtual().start(() -> {
+			while (!done.get()) {
+				meterRegistry.find(METRIC_IN_FLIGHT).tag(TAG_MUNICIPALITY, municipalityId).gauges()
+					.forEach(gauge -> maxInFlight.accumulateAndGet((int) gauge.value(), Math::max));
+				sleep(1);
+			}
+		});
+
+		try {
+			assertThat(messageOutboxDispatcher.dispatch()).isEqualTo(CHUNK_COUNT);
+		} finally {
+			done.set(true);
+			sampler.join();
+		}
+		return maxInFlight.get();
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private List<MessageOutboxEntity> createChunks(final String municipalityId) {
+		final var batchId = randomUUID().toString();
+		return IntStream.range(0, CHUNK_COUNT)
+			.mapToObj(i -> MessageOutboxEntity.create()
+				.withMunicipalityId(municipalityId)
+				.withBatchId(batchId)
+				.withPayload(jsonMapper.writeValueAsString(new MessageRequest().messages(List.of(new Message()
+					.party(toParty(randomUUID().toString()))
+					.subject("subject-" + i)
+					.message("message")))))
+				.withMessageCount(1)
+				.withStatus(PENDING)
+				.withNextAttempt(now(systemDefault()).minusMinutes(1)))
+			.toList();
+	}
+}
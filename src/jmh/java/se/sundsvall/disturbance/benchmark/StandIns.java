@@ -0,0 +1,72 @@
+package se.sundsvall.disturbance.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.SubscriptionOptOutRow;
+
+/**
+ * In-memory stand-ins for the repositories (and other interfaces) used by the benchmarked code paths, so that the
+ * benchmarks measure the service code and not a database or a mock framework.
+ */
+public final class StandIns {
+
+	private StandIns() {}
+
+	/**
+	 * Create a stand-in for an interface, where each implemented method is a function of the invocation arguments.
+	 * Invoking any other method throws UnsupportedOperationException.
+	 *
+	 * @param  type    the interface.
+	 * @param  methods the implemented methods, by method name.
+	 * @return         the stand-in.
+	 */
+	public static <T> T standIn(final Class<T> type, final Map<String, Function<Object[], Object>> methods) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {
+			type
+		}, (proxy, method, args) -> {
+			final var implementation = methods.get(method.getName());
+			if (implementation == null) {
+				throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+			}
+			return implementation.apply(args);
+		}));
+	}
+
+	/**
+	 * The partyId of affected number i.
+	 */
+	public static String partyId(final int i) {
+		return "party-" + i;
+	}
+
+	/**
+	 * The facilityId of affected number i.
+	 */
+	public static String facilityId(final int i) {
+		return "facility-" + i;
+	}
+
+	/**
+	 * Returns true if affected number i has opted out of its own facility, spreading the opt-outs evenly with the
+	 * provided density (0.0 - 1.0).
+	 */
+	public static boolean hasOptOut(final int i, final double optOutDensity) {
+		return Math.floor((i + 1) * optOutDensity) > Math.floor(i * optOutDensity);
+	}
+
+	/**
+	 * Subscription opt-out rows for the parties of affecteds 0 to affectedCount. All parties have a subscription, and the
+	 * parties selected by the opt-out density have opted out of their facility in the provided category.
+	 */
+	public static Map<String, SubscriptionOptOutRow> optOutRows(final int affectedCount, final double optOutDensity, final Category category) {
+		final var rows = new HashMap<String, SubscriptionOptOutRow>();
+		IntStream.range(0, affectedCount).forEach(i -> rows.put(partyId(i), hasOptOut(i, optOutDensity)
+			? new SubscriptionOptOutRow(partyId(i), (long) i, category, "facilityId", facilityId(i))
+			: new SubscriptionOptOutRow(partyId(i), null, null, null, null)));
+		return rows;
+	}
+}
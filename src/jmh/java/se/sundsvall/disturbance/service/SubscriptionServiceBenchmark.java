@@ -0,0 +1,95 @@
+package se.sundsvall.disturbance.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.SubscriptionRepository;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.service.optout.OptOutIndex;
+import se.sundsvall.disturbance.service.optout.OptOutIndexProperties;
+
+import static java.util.Objects.nonNull;
+import static se.sundsvall.disturbance.benchmark.StandIns.facilityId;
+import static se.sundsvall.disturbance.benchmark.StandIns.optOutRows;
+import static se.sundsvall.disturbance.benchmark.StandIns.partyId;
+import static se.sundsvall.disturbance.benchmark.StandIns.standIn;
+
+/**
+ * Compares opt-out matching of the affecteds of a disturbance, one affected at a time against the OptOutIndex and in
+ * bulk with getApplicableAffecteds.
+ *
+ * The subscriptions are served by an in-memory repository stand-in. The opt-out index is warmed up in setup, so the
+ * benchmarks measure the steady state where the parties with a subscription are already indexed. Parties without a
+ * subscription are not indexed, and are looked up in the stand-in on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubscriptionServiceBenchmark {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final Category CATEGORY = Category.ELECTRICITY;
+
+	@Param({ "100", "10000", "100000" })
+	private int affectedCount;
+
+	@Param({ "0.0", "0.1", "0.5" })
+	private double optOutDensity;
+
+	private OptOutIndex optOutIndex;
+	private SubscriptionService subscriptionService;
+	private List<AffectedEntity> affectedEntities;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		final var rows = optOutRows(affectedCount, optOutDensity, CATEGORY);
+		final var subscriptionRepository = standIn(SubscriptionRepository.class, Map.of(
+			"findOptOutRowsByMunicipalityIdAndPartyIdIn", args -> ((Collection<String>) args[1]).stream()
+				.map(rows::get)
+				.toList()));
+
+		optOutIndex = new OptOutIndex(subscriptionRepository, new OptOutIndexProperties(null));
+		subscriptionService = new SubscriptionService(subscriptionRepository, optOutIndex);
+
+		affectedEntities = IntStream.range(0, affectedCount)
+			.mapToObj(i -> AffectedEntity.create()
+				.withPartyId(partyId(i))
+				.withFacilityId(facilityId(i))
+				.withReference("Storgatan " + i))
+			.toList();
+
+		subscriptionService.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, affectedEntities);
+	}
+
+	@Benchmark
+	public void optOutIndexPerAffected(Blackhole blackhole) {
+		for (final var affectedEntity : affectedEntities) {
+			final var optOutRules = optOutIndex.getOptOutRules(MUNICIPALITY_ID, List.of(affectedEntity.getPartyId())).get(affectedEntity.getPartyId());
+			blackhole.consume(nonNull(optOutRules) && !optOutRules.matches(CATEGORY, affectedEntity.getFacilityId()));
+		}
+	}
+
+	@Benchmark
+	public void getApplicableAffecteds(Blackhole blackhole) {
+		blackhole.consume(subscriptionService.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, affectedEntities));
+	}
+}
@@ -0,0 +1,79 @@
+package se.sundsvall.disturbance.service.mapper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.sundsvall.disturbance.api.model.Affected;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static se.sundsvall.disturbance.benchmark.StandIns.facilityId;
+import static se.sundsvall.disturbance.benchmark.StandIns.partyId;
+
+/**
+ * Measures the mapping of a disturbance between the API model and the entity, in both directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DisturbanceMapperBenchmark {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Param({ "1", "100", "10000", "100000" })
+	private int affectedCount;
+
+	private DisturbanceCreateRequest disturbanceCreateRequest;
+	private DisturbanceEntity disturbanceEntity;
+
+	@Setup
+	public void setup() {
+		disturbanceCreateRequest = DisturbanceCreateRequest.create()
+			.withId("disturbance-1")
+			.withCategory(Category.ELECTRICITY)
+			.withStatus(Status.OPEN)
+			.withTitle("Elavbrott i centrum")
+			.withDescription("Vi byter ut en transformator i centrala Sundsvall.")
+			.withPlannedStartDate(now(systemDefault()))
+			.withPlannedStopDate(now(systemDefault()).plusDays(1))
+			.withAffecteds(IntStream.range(0, affectedCount)
+				.mapToObj(i -> Affected.create()
+					.withPartyId(partyId(i))
+					.withFacilityId(facilityId(i))
+					.withReference("Storgatan " + i)
+					.withCoordinates("62.39 17.30"))
+				.toList());
+
+		disturbanceEntity = DisturbanceMapper.toDisturbanceEntity(MUNICIPALITY_ID, disturbanceCreateRequest)
+			.withId(1L)
+			.withCreated(now(systemDefault()));
+	}
+
+	@Benchmark
+	public Disturbance toDisturbance() {
+		return DisturbanceMapper.toDisturbance(disturbanceEntity);
+	}
+
+	@Benchmark
+	public DisturbanceEntity toDisturbanceEntity() {
+		return DisturbanceMapper.toDisturbanceEntity(MUNICIPALITY_ID, disturbanceCreateRequest);
+	}
+}
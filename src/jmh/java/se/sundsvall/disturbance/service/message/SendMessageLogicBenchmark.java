@@ -0,0 +1,146 @@
+package se.sundsvall.disturbance.service.message;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
+import se.sundsvall.disturbance.integration.db.SubscriptionRepository;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.scheduler.MessageOutboxSchedulerProperties;
+import se.sundsvall.disturbance.service.SubscriptionService;
+import se.sundsvall.disturbance.service.message.configuration.MessageConfiguration;
+import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping;
+import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping.CategoryConfig;
+import se.sundsvall.disturbance.service.message.template.MessageTemplates;
+import se.sundsvall.disturbance.service.metrics.DisturbanceMetrics;
+import se.sundsvall.disturbance.service.optout.OptOutIndex;
+import se.sundsvall.disturbance.service.optout.OptOutIndexProperties;
+import tools.jackson.databind.json.JsonMapper;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static se.sundsvall.disturbance.benchmark.StandIns.facilityId;
+import static se.sundsvall.disturbance.benchmark.StandIns.optOutRows;
+import static se.sundsvall.disturbance.benchmark.StandIns.partyId;
+import static se.sundsvall.disturbance.benchmark.StandIns.standIn;
+
+/**
+ * Measures the notification fan-out of a disturbance: opt-out matching of all affecteds, rendering of one message per
+ * applicable affected and serialization of the messages into the message outbox.
+ *
+ * The subscriptions and the message outbox are in-memory repository stand-ins, and the outbox dispatch is turned off,
+ * so nothing is sent. The opt-out index is warmed up in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SendMessageLogicBenchmark {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final Category CATEGORY = Category.ELECTRICITY;
+
+	@Param({ "100", "10000" })
+	private int affectedCount;
+
+	@Param({ "0.0", "0.1", "0.5" })
+	private double optOutDensity;
+
+	private SendMessageLogic sendMessageLogic;
+	private DisturbanceEntity disturbanceEntity;
+
+	// Written by the outbox stand-in, so the enqueued messages can't be optimized away.
+	private volatile Object enqueued;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		final var rows = optOutRows(affectedCount, optOutDensity, CATEGORY);
+		final var subscriptionRepository = standIn(SubscriptionRepository.class, Map.of(
+			"findOptOutRowsByMunicipalityIdAndPartyIdIn", args -> ((Collection<String>) args[1]).stream()
+				.map(rows::get)
+				.toList()));
+		final var messageOutboxRepository = standIn(MessageOutboxRepository.class, Map.of(
+			"saveAll", args -> enqueued = args[0]));
+
+		final var subscriptionService = new SubscriptionService(subscriptionRepository, new OptOutIndex(subscriptionRepository, new OptOutIndexProperties(null)));
+		final var messageOutbox = new MessageOutbox(messageOutboxRepository, event -> {},
+			new MessageOutboxSchedulerProperties(100, 5, Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMinutes(5), 100, 4, false, false), JsonMapper.builder().build());
+
+		sendMessageLogic = new SendMessageLogic(subscriptionService, new MessageTemplates(new MessageConfiguration(toMessageConfigurationMapping())), messageOutbox,
+			new DisturbanceMetrics(new SimpleMeterRegistry()));
+
+		disturbanceEntity = DisturbanceEntity.create()
+			.withId(1L)
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withCategory(CATEGORY)
+			.withDisturbanceId("disturbance-1")
+			.withTitle("Elavbrott i centrum")
+			.withDescription("Vi byter ut en transformator i centrala Sundsvall.")
+			.withPlannedStartDate(now(systemDefault()))
+			.withPlannedStopDate(now(systemDefault()).plusDays(1))
+			.withAffectedEntities(IntStream.range(0, affectedCount)
+				.mapToObj(i -> AffectedEntity.create()
+					.withPartyId(partyId(i))
+					.withFacilityId(facilityId(i))
+					.withReference("Storgatan " + i))
+				.toList());
+
+		sendMessageLogic.sendCreateMessageToAllApplicableAffecteds(disturbanceEntity);
+	}
+
+	@Benchmark
+	public Object sendCreateMessageToAllApplicableAffecteds() {
+		sendMessageLogic.sendCreateMessageToAllApplicableAffecteds(disturbanceEntity);
+		return enqueued;
+	}
+
+	@Benchmark
+	public Object sendUpdateMessage() {
+		sendMessageLogic.sendUpdateMessage(disturbanceEntity);
+		return enqueued;
+	}
+
+	private static MessageConfigurationMapping toMessageConfigurationMapping() {
+		final var categoryConfig = new CategoryConfig();
+		categoryConfig.setActive(true);
+		categoryConfig.setSubjectNew("Driftstörning på ${disturbance.affected.reference}");
+		categoryConfig.setSubjectUpdate("Uppdatering av driftstörning på ${disturbance.affected.reference}");
+		categoryConfig.setSubjectClose("Driftstörning på ${disturbance.affected.reference} är åtgärdad");
+		categoryConfig.setMessageNew(message("Det är ett planerat avbrott på ${disturbance.title}"));
+		categoryConfig.setMessageUpdate(message("Det planerade avbrottet på ${disturbance.title} är uppdaterat"));
+		categoryConfig.setMessageClose(message("Avbrottet på ${disturbance.title} är åtgärdat"));
+		categoryConfig.setSenderEmailName("Sundsvall Elnät");
+		categoryConfig.setSenderEmailAddress("noreply@sundsvallelnat.se");
+		categoryConfig.setSenderSmsName("SundsvElnat");
+
+		final var mapping = new MessageConfigurationMapping();
+		mapping.setTemplate(Map.of(CATEGORY.toString().toLowerCase(), categoryConfig));
+		return mapping;
+	}
+
+	private static String message(final String introduction) {
+		return String.join("${newline}",
+			"Hej!", "", introduction + " som påverkar anläggningen ${disturbance.affected.reference}.", "", "${disturbance.description}", "",
+			"Planerad start: ${disturbance.plannedStartDate}", "Planerat slut: ${disturbance.plannedStopDate}", "",
+			"Med vänliga hälsningar", "Sundsvall Elnät");
+	}
+}
@@ -0,0 +1,76 @@
+package se.sundsvall.disturbance.service.message.template;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.apache.commons.text.StringSubstitutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares rendering of one message per affected with StringSubstitutor (the template is parsed once per affected) and
+ * with a precompiled MessageTemplate (the template is parsed once and the disturbance variables are bound once).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageTemplateBenchmark {
+
+	private static final String AFFECTED_REFERENCE = "disturbance.affected.reference";
+	private static final String TEMPLATE = "Hej!${newline}${newline}Det är ett planerat avbrott på ${disturbance.title} som påverkar anläggningen "
+		+ "${disturbance.affected.reference}.${newline}${newline}${disturbance.description}${newline}${newline}"
+		+ "Planerad start: ${disturbance.plannedStartDate}${newline}Planerat slut: ${disturbance.plannedStopDate}${newline}${newline}"
+		+ "Med vänliga hälsningar${newline}Sundsvall Elnät";
+
+	@Param({ "1", "100", "10000" })
+	private int affectedCount;
+
+	private Map<String, String> disturbanceValues;
+	private List<String> references;
+
+	@Setup
+	public void setup() {
+		disturbanceValues = new HashMap<>();
+		disturbanceValues.put("newline", System.lineSeparator());
+		disturbanceValues.put("disturbance.title", "Elavbrott i centrum");
+		disturbanceValues.put("disturbance.description", "Vi byter ut en transformator i centrala Sundsvall.");
+		disturbanceValues.put("disturbance.plannedStartDate", "2021-11-01 12:00");
+		disturbanceValues.put("disturbance.plannedStopDate", "2021-11-10 18:30");
+
+		references = IntStream.range(0, affectedCount)
+			.mapToObj(i -> "Storgatan " + i)
+			.toList();
+	}
+
+	@Benchmark
+	public void stringSubstitutorPerAffected(Blackhole blackhole) {
+		for (final var reference : references) {
+			final var values = new HashMap<>(disturbanceValues);
+			values.put(AFFECTED_REFERENCE, reference);
+			blackhole.consume(new StringSubstitutor(values).replace(TEMPLATE));
+		}
+	}
+
+	@Benchmark
+	public void compiledTemplateBoundOnce(Blackhole blackhole) {
+		final var template = MessageTemplate.compile(TEMPLATE).bind(disturbanceValues);
+		for (final var reference : references) {
+			blackhole.consume(template.render(AFFECTED_REFERENCE, reference));
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package se.sundsvall.disturbance.service.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.apache.commons.lang3.Strings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+
+/**
+ * Compares diffing of an old and a new list of affecteds (where a tenth of the affecteds are replaced, and the
+ * retained affecteds differ in case) with pairwise case insensitive comparisons and with the hashed
+ * MappingUtils.diffAffectedEntities.
+ *
+ * The pairwise diff is quadratic, so with 100000 affecteds a single invocation takes minutes. Exclude it with
+ * -Dbenchmark.includes=MappingUtilsBenchmark.hashed when only the hashed diff is of interest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingUtilsBenchmark {
+
+	@Param({ "1000", "10000", "100000" })
+	private int affectedCount;
+
+	private List<AffectedEntity> oldAffectedEntities;
+	private List<AffectedEntity> newAffectedEntities;
+
+	@Setup
+	public void setup() {
+		final var replacedCount = affectedCount / 10;
+
+		oldAffectedEntities = IntStream.range(0, affectedCount)
+			.mapToObj(i -> toAffectedEntity(i, "partyId-", "Storgatan "))
+			.toList();
+
+		newAffectedEntities = IntStream.range(replacedCount, affectedCount + replacedCount)
+			.mapToObj(i -> toAffectedEntity(i, "PARTYID-", "STORGATAN "))
+			.toList();
+	}
+
+	@Benchmark
+	public void pairwise(Blackhole blackhole) {
+		blackhole.consume(newAffectedEntities.stream()
+			.filter(newEntity -> !existsInList(newEntity, oldAffectedEntities))
+			.toList());
+		blackhole.consume(oldAffectedEntities.stream()
+			.filter(oldEntity -> !existsInList(oldEntity, newAffectedEntities))
+			.toList());
+	}
+
+	@Benchmark
+	public void hashed(Blackhole blackhole) {
+		blackhole.consume(MappingUtils.diffAffectedEntities(oldAffectedEntities, newAffectedEntities));
+	}
+
+	private static boolean existsInList(final AffectedEntity objectToCheck, final List<AffectedEntity> list) {
+		return list.stream()
+			.anyMatch(entity -> Strings.CI.equals(entity.getPartyId(), objectToCheck.getPartyId()) &&
+				Strings.CI.equals(entity.getReference(), objectToCheck.getReference()) &&
+				Strings.CI.equals(entity.getFacilityId(), objectToCheck.getFacilityId()));
+	}
+
+	private static AffectedEntity toAffectedEntity(final int i, final String partyIdPrefix, final String referencePrefix) {
+		return AffectedEntity.create()
+			.withPartyId(partyIdPrefix + i)
+			.withReference(referencePrefix + i)
+			.withFacilityId("facility-" + i);
+	}
+}
@@ -3,12 +3,18 @@ package se.sundsvall.disturbance.api;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import java.util.List;
+import java.util.Optional;
+import org.apache.commons.lang3.Strings;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,28 +23,48 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import se.sundsvall.dept44.common.validators.annotation.ValidMunicipalityId;
 import se.sundsvall.dept44.common.validators.annotation.ValidUuid;
 import se.sundsvall.dept44.problem.Problem;
 import se.sundsvall.dept44.problem.violations.ConstraintViolationProblem;
+import se.sundsvall.disturbance.api.model.Affected;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Disturbance;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
 import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.service.DisturbanceArchiveService;
 import se.sundsvall.disturbance.service.DisturbanceService;
+import se.sundsvall.disturbance.service.conditional.DisturbanceETag;
+import se.sundsvall.disturbance.service.paging.AffectedPage;
+import se.sundsvall.disturbance.service.paging.DisturbancePage;
+import tools.jackson.databind.json.JsonMapper;
 
+import static java.util.Objects.isNull;
+import static org.springframework.http.HttpHeaders.ACCEPT;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
+import static org.springframework.http.HttpHeaders.LINK;
 import static org.springframework.http.HttpHeaders.LOCATION;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
 import static org.springframework.http.MediaType.ALL_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
 import static org.springframework.http.ResponseEntity.created;
 import static org.springframework.http.ResponseEntity.noContent;
 import static org.springframework.http.ResponseEntity.ok;
+import static org.springframework.http.ResponseEntity.status;
+import static org.springframework.web.servlet.support.ServletUriComponentsBuilder.fromCurrentRequest;
 import static org.springframework.web.util.UriComponentsBuilder.fromPath;
 
 @RestController
@@ -47,10 +73,19 @@ import static org.springframework.web.util.UriComponentsBuilder.fromPath;
 @Tag(name = "Disturbance", description = "Disturbance operations")
 class DisturbanceResource {
 
+	private static final int DEFAULT_LIMIT = 100;
+	private static final int MAX_LIMIT = 1000;
+
+	private static final String NDJSON_SEPARATOR = "\n";
+
 	private final DisturbanceService disturbanceService;
+	private final DisturbanceArchiveService disturbanceArchiveService;
+	private final JsonMapper jsonMapper;
 
-	DisturbanceResource(DisturbanceService disturbanceService) {
+	DisturbanceResource(DisturbanceService disturbanceService, DisturbanceArchiveService disturbanceArchiveService, JsonMapper jsonMapper) {
 		this.disturbanceService = disturbanceService;
+		this.disturbanceArchiveService = disturbanceArchiveService;
+		this.jsonMapper = jsonMapper;
 	}
 
 	@PostMapping(consumes = APPLICATION_JSON_VALUE)
@@ -75,7 +110,13 @@ class DisturbanceResource {
 
 	@GetMapping(produces = APPLICATION_JSON_VALUE)
 	@Operation(summary = "Return all disturbances filtered on status and category.", responses = {
-		@ApiResponse(responseCode = "200", description = "Successful operation", useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "200", headers = {
+			@Header(name = LINK, description = "Link to the next page (rel=\"next\"), when the result is paged and there are more disturbances.", schema = @Schema(type = "string")),
+			@Header(name = ETAG, description = "Entity tag of the disturbances in the municipality.", schema = @Schema(type = "string")),
+			@Header(name = LAST_MODIFIED, description = "Time of the last change of the disturbances in the municipality.", schema = @Schema(type = "string"))
+		}, description = "Successful operation",
+			useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "304", description = "Not modified"),
 		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
 			Problem.class, ConstraintViolationProblem.class
 		}))),
@@ -85,14 +126,95 @@ class DisturbanceResource {
 	ResponseEntity<List<Disturbance>> getDisturbances(
 		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281", required = true) @ValidMunicipalityId @PathVariable final String municipalityId,
 		@Parameter(name = "status", description = "Status filter parameter") @RequestParam(required = false) final List<Status> status,
-		@Parameter(name = "category", description = "Category filter parameter") @RequestParam(required = false) final List<Category> category) {
+		@Parameter(name = "category", description = "Category filter parameter") @RequestParam(required = false) final List<Category> category,
+		@Parameter(name = "limit", description = "Maximum number of disturbances to return. When limit or cursor is set, the result is paged and the next page (if any) is provided in the Link header.", example = "100") @RequestParam(
+			required = false) @Min(1) @Max(MAX_LIMIT) final Integer limit,
+		@Parameter(name = "cursor", description = "Cursor to the next page, as provided in the Link header of the previous page") @RequestParam(required = false) final String cursor,
+		@Parameter(name = "includeAffecteds", description = "If the affecteds should be included. If false, only the number of affecteds is returned for each disturbance") @RequestParam(
+			defaultValue = "true") final boolean includeAffecteds,
+		final WebRequest webRequest) {
+
+		if (isNotModified(webRequest, disturbanceService.findETag(municipalityId))) {
+			return status(NOT_MODIFIED).build();
+		}
+
+		if (isNull(limit) && isNull(cursor)) {
+			return ok(includeAffecteds
+				? disturbanceService.findByMunicipalityIdAndStatusAndCategory(municipalityId, status, category)
+				: disturbanceService.findSummariesByMunicipalityIdAndStatusAndCategory(municipalityId, status, category));
+		}
+
+		final var pageLimit = Optional.ofNullable(limit).orElse(DEFAULT_LIMIT);
+		final var page = includeAffecteds
+			? disturbanceService.findByMunicipalityIdAndStatusAndCategory(municipalityId, status, category, pageLimit, cursor)
+			: disturbanceService.findSummariesByMunicipalityIdAndStatusAndCategory(municipalityId, status, category, pageLimit, cursor);
+
+		return toPagedResponse(page, pageLimit);
+	}
+
+	@GetMapping(path = "/archive", produces = APPLICATION_JSON_VALUE)
+	@Operation(summary = "Return archived disturbances filtered on category and disturbance ID, ordered by creation time. The result is always paged.", responses = {
+		@ApiResponse(responseCode = "200", headers = @Header(name = LINK, description = "Link to the next page (rel=\"next\"), when there are more archived disturbances.", schema = @Schema(type = "string")), description = "Successful operation",
+			useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+			Problem.class, ConstraintViolationProblem.class
+		}))),
+		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "502", description = "Bad Gateway", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+	})
+	ResponseEntity<List<Disturbance>> getArchivedDisturbances(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281", required = true) @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "category", description = "Category filter parameter") @RequestParam(required = false) final List<Category> category,
+		@Parameter(name = "disturbanceId", description = "Disturbance ID filter parameter", example = "435553") @RequestParam(required = false) final String disturbanceId,
+		@Parameter(name = "limit", description = "Maximum number of disturbances to return. The next page (if any) is provided in the Link header.", example = "100") @RequestParam(required = false) @Min(1) @Max(MAX_LIMIT) final Integer limit,
+		@Parameter(name = "cursor", description = "Cursor to the next page, as provided in the Link header of the previous page") @RequestParam(required = false) final String cursor) {
+
+		final var pageLimit = Optional.ofNullable(limit).orElse(DEFAULT_LIMIT);
+		return toPagedResponse(disturbanceArchiveService.findArchivedDisturbances(municipalityId, category, disturbanceId, pageLimit, cursor), pageLimit);
+	}
+
+	@GetMapping(path = "/export", produces = {
+		APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE
+	})
+	@Operation(summary = "Export all disturbances filtered on status and category, ordered by creation time. The disturbances are streamed as a JSON array, or as newline delimited JSON if application/x-ndjson is requested.", responses = {
+		@ApiResponse(responseCode = "200", description = "Successful operation", content = {
+			@Content(mediaType = APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Disturbance.class))),
+			@Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = Disturbance.class))
+		}),
+		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+			Problem.class, ConstraintViolationProblem.class
+		}))),
+		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "502", description = "Bad Gateway", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+	})
+	ResponseEntity<StreamingResponseBody> exportDisturbances(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281", required = true) @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "status", description = "Status filter parameter") @RequestParam(required = false) final List<Status> status,
+		@Parameter(name = "category", description = "Category filter parameter") @RequestParam(required = false) final List<Category> category,
+		@Parameter(hidden = true) @RequestHeader(name = ACCEPT, required = false) final String accept) {
+
+		final var ndjson = Strings.CI.contains(accept, APPLICATION_NDJSON_VALUE);
 
-		return ok(disturbanceService.findByMunicipalityIdAndStatusAndCategory(municipalityId, status, category));
+		// The disturbances are written one by one while they are read from the database.
+		final StreamingResponseBody body = outputStream -> {
+			final var writer = jsonMapper.writer().withRootValueSeparator(NDJSON_SEPARATOR);
+			try (final var sequenceWriter = ndjson ? writer.writeValues(outputStream) : writer.writeValuesAsArray(outputStream)) {
+				disturbanceService.exportByMunicipalityIdAndStatusAndCategory(municipalityId, status, category, sequenceWriter::write);
+			}
+		};
+
+		return ok()
+			.contentType(ndjson ? APPLICATION_NDJSON : APPLICATION_JSON)
+			.body(body);
 	}
 
 	@GetMapping(path = "/{category}/{disturbanceId}", produces = APPLICATION_JSON_VALUE)
 	@Operation(summary = "Return information about a specific disturbance.", responses = {
-		@ApiResponse(responseCode = "200", description = "Successful operation", useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "200", headers = {
+			@Header(name = ETAG, description = "Entity tag of the disturbance.", schema = @Schema(type = "string")),
+			@Header(name = LAST_MODIFIED, description = "Time of the last change of the disturbance.", schema = @Schema(type = "string"))
+		}, description = "Successful operation", useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "304", description = "Not modified"),
 		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
 			Problem.class, ConstraintViolationProblem.class
 		}))),
@@ -103,14 +225,93 @@ class DisturbanceResource {
 	ResponseEntity<Disturbance> getDisturbance(
 		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281", required = true) @ValidMunicipalityId @PathVariable final String municipalityId,
 		@Parameter(name = "category", description = "Disturbance category", required = true) @PathVariable final Category category,
-		@Parameter(name = "disturbanceId", description = "Disturbance ID", required = true, example = "435553") @PathVariable final String disturbanceId) {
+		@Parameter(name = "disturbanceId", description = "Disturbance ID", required = true, example = "435553") @PathVariable final String disturbanceId,
+		final WebRequest webRequest) {
+
+		// The entity tag is read from the version row, so a not modified disturbance is never loaded. A missing disturbance
+		// (no entity tag) is reported by the lookup below.
+		final var eTag = disturbanceService.findETag(municipalityId, category, disturbanceId);
+		if (eTag.isPresent() && isNotModified(webRequest, eTag.get())) {
+			return status(NOT_MODIFIED).build();
+		}
 
 		return ok(disturbanceService.findByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, category, disturbanceId));
 	}
 
+	@GetMapping(path = "/{category}/{disturbanceId}/affecteds", produces = APPLICATION_JSON_VALUE)
+	@Operation(summary = "Return the affecteds of a specific disturbance filtered on party ID and facility ID, ordered by id. The result is always paged.", responses = {
+		@ApiResponse(responseCode = "200", headers = @Header(name = LINK, description = "Link to the next page (rel=\"next\"), when there are more affecteds.", schema = @Schema(type = "string")), description = "Successful operation",
+			useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+			Problem.class, ConstraintViolationProblem.class
+		}))),
+		@ApiResponse(responseCode = "404", description = "Not found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "502", description = "Bad Gateway", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+	})
+	ResponseEntity<List<Affected>> getAffecteds(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281", required = true) @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "category", description = "Disturbance category", required = true) @PathVariable final Category category,
+		@Parameter(name = "disturbanceId", description = "Disturbance ID", required = true, example = "435553") @PathVariable final String disturbanceId,
+		@Parameter(name = "partyId", description = "PartyId filter parameter", example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid(nullable = true) @RequestParam(required = false) final String partyId,
+		@Parameter(name = "facilityId", description = "Facility ID filter parameter", example = "735999109175011012") @RequestParam(required = false) final String facilityId,
+		@Parameter(name = "limit", description = "Maximum number of affecteds to return. The next page (if any) is provided in the Link header.", example = "100") @RequestParam(required = false) @Min(1) @Max(MAX_LIMIT) final Integer limit,
+		@Parameter(name = "cursor", description = "Cursor to the next page, as provided in the Link header of the previous page") @RequestParam(required = false) final String cursor) {
+
+		final var pageLimit = Optional.ofNullable(limit).orElse(DEFAULT_LIMIT);
+		return toPagedResponse(disturbanceService.findAffecteds(municipalityId, category, disturbanceId, partyId, facilityId, pageLimit, cursor), pageLimit);
+	}
+
+	@PostMapping(path = "/{category}/{disturbanceId}/affecteds", consumes = APPLICATION_JSON_VALUE)
+	@Operation(summary = "Add affecteds to a disturbance. Affecteds that already exist in the disturbance are ignored. Added persons/organizations (with notification subscriptions) will be notified of the disturbance.", responses = {
+		@ApiResponse(responseCode = "204", description = "Successful operation", useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+			Problem.class, ConstraintViolationProblem.class
+		}))),
+		@ApiResponse(responseCode = "404", description = "Not found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "409", description = "Conflict", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "502", description = "Bad Gateway", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+	})
+	ResponseEntity<Void> addAffecteds(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281", required = true) @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "category", description = "Disturbance category", required = true) @PathVariable final Category category,
+		@Parameter(name = "disturbanceId", description = "Disturbance ID", required = true, example = "435553") @PathVariable final String disturbanceId,
+		@RequestBody @NotEmpty final List<@Valid Affected> body) {
+
+		disturbanceService.addAffecteds(municipalityId, category, disturbanceId, body);
+		return noContent().build();
+	}
+
+	@DeleteMapping(path = "/{category}/{disturbanceId}/affecteds")
+	@Operation(summary = "Remove the affecteds of a person/organization (optionally only for one facility) from a disturbance. Removed persons/organizations (with notification subscriptions) will be notified of the resolved disturbance.", responses = {
+		@ApiResponse(responseCode = "204", description = "Successful operation", useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
+			Problem.class, ConstraintViolationProblem.class
+		}))),
+		@ApiResponse(responseCode = "404", description = "Not found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "409", description = "Conflict", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "500", description = "Internal Server error", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+		@ApiResponse(responseCode = "502", description = "Bad Gateway", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+	})
+	ResponseEntity<Void> removeAffecteds(
+		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281", required = true) @ValidMunicipalityId @PathVariable final String municipalityId,
+		@Parameter(name = "category", description = "Disturbance category", required = true) @PathVariable final Category category,
+		@Parameter(name = "disturbanceId", description = "Disturbance ID", required = true, example = "435553") @PathVariable final String disturbanceId,
+		@Parameter(name = "partyId", description = "PartyId (e.g. a personId or an organizationId)", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @RequestParam final String partyId,
+		@Parameter(name = "facilityId", description = "Facility ID. If not set, the affecteds of all facilities of the party are removed", example = "735999109175011012") @RequestParam(required = false) final String facilityId) {
+
+		disturbanceService.removeAffecteds(municipalityId, category, disturbanceId, partyId, facilityId);
+		return noContent().build();
+	}
+
 	@GetMapping(path = "/affecteds/{partyId}", produces = APPLICATION_JSON_VALUE)
 	@Operation(summary = "Return all present disturbances for a person or an organization.", responses = {
-		@ApiResponse(responseCode = "200", description = "Successful operation", useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "200", headers = {
+			@Header(name = ETAG, description = "Entity tag of the disturbances in the municipality.", schema = @Schema(type = "string")),
+			@Header(name = LAST_MODIFIED, description = "Time of the last change of the disturbances in the municipality.", schema = @Schema(type = "string"))
+		}, description = "Successful operation", useReturnTypeSchema = true),
+		@ApiResponse(responseCode = "304", description = "Not modified"),
 		@ApiResponse(responseCode = "400", description = "Bad request", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(oneOf = {
 			Problem.class, ConstraintViolationProblem.class
 		}))),
@@ -122,9 +323,15 @@ class DisturbanceResource {
 		@Parameter(name = "municipalityId", description = "Municipality id", example = "2281", required = true) @ValidMunicipalityId @PathVariable final String municipalityId,
 		@Parameter(name = "partyId", description = "PartyId (e.g. a personId or an organizationId)", required = true, example = "81471222-5798-11e9-ae24-57fa13b361e1") @ValidUuid @PathVariable final String partyId,
 		@Parameter(name = "status", description = "Status filter parameter") @RequestParam(required = false) final List<Status> status,
-		@Parameter(name = "category", description = "Category filter parameter") @RequestParam(required = false) final List<Category> category) {
+		@Parameter(name = "category", description = "Category filter parameter") @RequestParam(required = false) final List<Category> category,
+		@Parameter(name = "ownAffectedsOnly", description = "If only the affecteds of the provided party should be included. If false, all affecteds of each disturbance are returned") @RequestParam(defaultValue = "true") final boolean ownAffectedsOnly,
+		final WebRequest webRequest) {
 
-		return ok(disturbanceService.findByMunicipalityIdAndPartyIdAndCategoryAndStatus(municipalityId, partyId, category, status));
+		if (isNotModified(webRequest, disturbanceService.findETag(municipalityId))) {
+			return status(NOT_MODIFIED).build();
+		}
+
+		return ok(disturbanceService.findByMunicipalityIdAndPartyIdAndCategoryAndStatus(municipalityId, partyId, category, status, ownAffectedsOnly));
 	}
 
 	@PatchMapping(path = "/{category}/{disturbanceId}", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
@@ -165,4 +372,37 @@ class DisturbanceResource {
 		disturbanceService.deleteDisturbance(municipalityId, category, disturbanceId);
 		return noContent().build();
 	}
+
+	/**
+	 * Check the conditional request headers (If-None-Match and If-Modified-Since) against the entity tag. The entity tag is
+	 * read before the disturbances, so a change in between results in a stale tag (and a full response on the next
+	 * request) rather than a missed change. The ETag and Last-Modified response headers are set in both cases.
+	 */
+	private static boolean isNotModified(final WebRequest webRequest, final DisturbanceETag eTag) {
+		return webRequest.checkNotModified(eTag.value(), eTag.lastModifiedMillis());
+	}
+
+	private static ResponseEntity<List<Disturbance>> toPagedResponse(final DisturbancePage page, final int pageLimit) {
+		return toPagedResponse(page.disturbances(), page.next(), pageLimit);
+	}
+
+	private static ResponseEntity<List<Affected>> toPagedResponse(final AffectedPage page, final int pageLimit) {
+		return toPagedResponse(page.affecteds(), page.next(), pageLimit);
+	}
+
+	private static <T> ResponseEntity<List<T>> toPagedResponse(final List<T> content, final String next, final int pageLimit) {
+		if (isNull(next)) {
+			return ok(content);
+		}
+
+		final var nextUri = fromCurrentRequest()
+			.replaceQueryParam("limit", pageLimit)
+			.replaceQueryParam("cursor", next)
+			.build()
+			.toUriString();
+
+		return ok()
+			.header(LINK, "<%s>; rel=\"next\"".formatted(nextUri))
+			.body(content);
+	}
 }
@@ -47,6 +47,9 @@ public class Disturbance {
 	@ArraySchema(schema = @Schema(implementation = Affected.class))
 	private List<Affected> affecteds;
 
+	@Schema(description = "Number of affecteds. Only present when the affecteds are excluded from the response", examples = "42", accessMode = READ_ONLY)
+	private Integer affectedCount;
+
 	public static Disturbance create() {
 		return new Disturbance();
 	}
@@ -168,6 +171,19 @@ public class Disturbance {
 		return this;
 	}
 
+	public Integer getAffectedCount() {
+		return affectedCount;
+	}
+
+	public void setAffectedCount(Integer affectedCount) {
+		this.affectedCount = affectedCount;
+	}
+
+	public Disturbance withAffectedCount(Integer affectedCount) {
+		this.affectedCount = affectedCount;
+		return this;
+	}
+
 	public OffsetDateTime getCreated() {
 		return created;
 	}
@@ -196,7 +212,7 @@ public class Disturbance {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(affecteds, category, created, description, id, municipalityId, plannedStartDate, plannedStopDate, status, title, updated);
+		return Objects.hash(affectedCount, affecteds, category, created, description, id, municipalityId, plannedStartDate, plannedStopDate, status, title, updated);
 	}
 
 	@Override
@@ -207,7 +223,7 @@ public class Disturbance {
 		if (!(obj instanceof final Disturbance other)) {
 			return false;
 		}
-		return Objects.equals(affecteds, other.affecteds) && (category == other.category) && Objects.equals(created, other.created) && Objects.equals(description, other.description) && Objects.equals(id, other.id) && Objects.equals(municipalityId,
+		return Objects.equals(affectedCount, other.affectedCount) && Objects.equals(affecteds, other.affecteds) && (category == other.category) && Objects.equals(created, other.created) && Objects.equals(description, other.description) && Objects.equals(id, other.id) && Objects.equals(municipalityId,
 			other.municipalityId) && Objects.equals(plannedStartDate, other.plannedStartDate) && Objects.equals(plannedStopDate, other.plannedStopDate) && (status == other.status) && Objects.equals(title, other.title) && Objects.equals(updated,
 				other.updated);
 	}
@@ -226,6 +242,7 @@ public class Disturbance {
 			", created=" + created +
 			", updated=" + updated +
 			", affecteds=" + affecteds +
+			", affectedCount=" + affectedCount +
 			'}';
 	}
 }
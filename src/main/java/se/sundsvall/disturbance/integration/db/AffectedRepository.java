@@ -0,0 +1,35 @@
+package se.sundsvall.disturbance.integration.db;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+
+@Transactional
+@CircuitBreaker(name = "affectedRepository")
+public interface AffectedRepository extends JpaRepository<AffectedEntity, Long> {
+
+	/**
+	 * Find the affecteds of the provided parties in a disturbance. The collection of affecteds of the disturbance is never
+	 * loaded.
+	 *
+	 * @param  disturbanceId the (database) id of the disturbance.
+	 * @param  partyIds      the partyIds.
+	 * @return               a List of AffectedEntity, ordered by id.
+	 */
+	@Query("SELECT a FROM AffectedEntity a WHERE a.disturbanceEntity.id = :disturbanceId AND a.partyId IN :partyIds ORDER BY a.id")
+	List<AffectedEntity> findByDisturbanceIdAndPartyIdIn(@Param("disturbanceId") long disturbanceId, @Param("partyIds") Collection<String> partyIds);
+
+	/**
+	 * Count the affecteds of a disturbance. The collection of affecteds of the disturbance is never loaded.
+	 *
+	 * @param  disturbanceId the (database) id of the disturbance.
+	 * @return               the number of affecteds.
+	 */
+	@Query("SELECT count(a) FROM AffectedEntity a WHERE a.disturbanceEntity.id = :disturbanceId")
+	long countByDisturbanceId(@Param("disturbanceId") long disturbanceId);
+}
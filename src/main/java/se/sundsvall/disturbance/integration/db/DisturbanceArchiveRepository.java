@@ -0,0 +1,42 @@
+package se.sundsvall.disturbance.integration.db;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity_;
+
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceArchiveSpecification.withCategoryFilter;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceArchiveSpecification.withCreatedAndIdAfter;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceArchiveSpecification.withDisturbanceIdFilter;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceArchiveSpecification.withMunicipalityId;
+
+@Transactional
+@CircuitBreaker(name = "disturbanceArchiveRepository")
+public interface DisturbanceArchiveRepository extends JpaRepository<DisturbanceArchiveEntity, Long>, JpaSpecificationExecutor<DisturbanceArchiveEntity> {
+
+	/**
+	 * Find a page of archived disturbances (ordered by created and id), starting after the provided (created, id) keyset
+	 * position.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  categoryFilter a List of categories to filter by (no filtering is applied if null or empty).
+	 * @param  disturbanceId  the disturbanceId to filter by (no filtering is applied if null).
+	 * @param  createdAfter   the created timestamp of the last disturbance on the previous page (null for the first page).
+	 * @param  idAfter        the id of the last disturbance on the previous page (null for the first page).
+	 * @param  limit          the maximum number of disturbances to return.
+	 * @return                a List of DisturbanceArchiveEntity.
+	 */
+	default List<DisturbanceArchiveEntity> findByMunicipalityIdAndCategoryAndDisturbanceId(String municipalityId, List<Category> categoryFilter, String disturbanceId, OffsetDateTime createdAfter, Long idAfter, int limit) {
+		return this.findBy(withMunicipalityId(municipalityId)
+			.and(withCategoryFilter(categoryFilter))
+			.and(withDisturbanceIdFilter(disturbanceId))
+			.and(withCreatedAndIdAfter(createdAfter, idAfter)),
+			query -> query.sortBy(Sort.by(DisturbanceArchiveEntity_.CREATED, DisturbanceArchiveEntity_.ID)).limit(limit).all());
+	}
+}
@@ -0,0 +1,43 @@
+package se.sundsvall.disturbance.integration.db;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.time.OffsetDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceChangeCounterEntity;
+
+@Transactional
+@CircuitBreaker(name = "disturbanceChangeCounterRepository")
+public interface DisturbanceChangeCounterRepository extends JpaRepository<DisturbanceChangeCounterEntity, String> {
+
+	/**
+	 * Increment the change counter of a municipality (the counter is created if it doesn't exist). The counter row is
+	 * locked until the surrounding transaction ends, so concurrent changes in the same municipality never get the same
+	 * version. Pending changes are flushed first, so that the increment is the last statement when it is called just
+	 * before the commit.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  modified       the time of the change.
+	 * @return                the number of affected rows.
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query(value = """
+		INSERT INTO disturbance_change_counter (municipality_id, version, modified) VALUES (:municipalityId, 1, :modified)
+		ON DUPLICATE KEY UPDATE version = version + 1, modified = :modified
+		""", nativeQuery = true)
+	int increment(@Param("municipalityId") String municipalityId, @Param("modified") OffsetDateTime modified);
+
+	/**
+	 * Increment the change counters of all municipalities. Used when disturbances are removed in bulk, without knowing
+	 * which municipalities they belong to.
+	 *
+	 * @param  modified the time of the change.
+	 * @return          the number of incremented counters.
+	 */
+	@Modifying
+	@Query("UPDATE DisturbanceChangeCounterEntity c SET c.version = c.version + 1, c.modified = :modified")
+	int incrementAll(@Param("modified") OffsetDateTime modified);
+}
@@ -2,50 +2,255 @@ package se.sundsvall.disturbance.integration.db;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.model.AffectedRow;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity_;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceVersionRow;
 
 import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withCategory;
 import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withCategoryFilter;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withCreatedAndIdAfter;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withDeleted;
 import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withDisturbanceId;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withIdIn;
 import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withMunicipalityId;
-import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withPartyId;
 import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withStatusFilter;
 
 @Transactional
 @CircuitBreaker(name = "disturbanceRepository")
-public interface DisturbanceRepository extends JpaRepository<DisturbanceEntity, Long>, JpaSpecificationExecutor<DisturbanceEntity> {
+public interface DisturbanceRepository extends JpaRepository<DisturbanceEntity, Long>, JpaSpecificationExecutor<DisturbanceEntity>, DisturbanceStreamRepository, DisturbanceSummaryRepository {
 
-	default Optional<DisturbanceEntity> findByMunicipalityIdAndCategoryAndDisturbanceId(String municipalityId, Category category, String disturbanceId) {
-		return this.findOne(withMunicipalityId(municipalityId)
+	/**
+	 * Find a (not deleted) disturbance, with its affecteds fetched in the same query.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  category       the category.
+	 * @param  disturbanceId  the disturbanceId.
+	 * @return                an Optional DisturbanceEntity.
+	 */
+	@EntityGraph(attributePaths = DisturbanceEntity_.AFFECTED_ENTITIES)
+	@Query("""
+		SELECT d FROM DisturbanceEntity d
+		WHERE d.municipalityId = :municipalityId AND d.category = :category AND d.disturbanceId = :disturbanceId AND d.deleted = false
+		""")
+	Optional<DisturbanceEntity> findByMunicipalityIdAndCategoryAndDisturbanceId(@Param("municipalityId") String municipalityId, @Param("category") Category category, @Param("disturbanceId") String disturbanceId);
+
+	/**
+	 * Find a (not deleted) disturbance, without fetching its affecteds. Used when affecteds are added or removed one by one,
+	 * so the (possibly large) collection of affecteds is never loaded.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  category       the category.
+	 * @param  disturbanceId  the disturbanceId.
+	 * @return                an Optional DisturbanceEntity.
+	 */
+	@Query("""
+		SELECT d FROM DisturbanceEntity d
+		WHERE d.municipalityId = :municipalityId AND d.category = :category AND d.disturbanceId = :disturbanceId AND d.deleted = false
+		""")
+	Optional<DisturbanceEntity> findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(@Param("municipalityId") String municipalityId, @Param("category") Category category, @Param("disturbanceId") String disturbanceId);
+
+	/**
+	 * Find the version of a (not deleted) disturbance, without fetching the disturbance itself.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  category       the category.
+	 * @param  disturbanceId  the disturbanceId.
+	 * @return                an Optional DisturbanceVersionRow.
+	 */
+	@Query("""
+		SELECT new se.sundsvall.disturbance.integration.db.model.DisturbanceVersionRow(d.id, d.created, d.updated) FROM DisturbanceEntity d
+		WHERE d.municipalityId = :municipalityId AND d.category = :category AND d.disturbanceId = :disturbanceId AND d.deleted = false
+		""")
+	Optional<DisturbanceVersionRow> findVersionByMunicipalityIdAndCategoryAndDisturbanceId(@Param("municipalityId") String municipalityId, @Param("category") Category category, @Param("disturbanceId") String disturbanceId);
+
+	/**
+	 * Check if a disturbance exists. Deleted disturbances are included, since they occupy the (municipalityId, category,
+	 * disturbanceId) key until they are purged by the retention policies.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  category       the category.
+	 * @param  disturbanceId  the disturbanceId.
+	 * @return                true if the disturbance exists, false otherwise.
+	 */
+	default boolean existsByMunicipalityIdAndCategoryAndDisturbanceId(String municipalityId, Category category, String disturbanceId) {
+		return this.exists(withMunicipalityId(municipalityId)
 			.and(withCategory(category))
 			.and(withDisturbanceId(disturbanceId)));
 	}
 
-	default List<DisturbanceEntity> findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(String municipalityId, String partyId, List<Category> categoryFilter, List<Status> statusFilter) {
+	/**
+	 * Find the ids of the (not deleted) disturbances where the provided party is affected. Only the affected index
+	 * (party_id, parent_id) and the disturbance primary key are used.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  partyId        the partyId.
+	 * @return                a List of disturbance ids.
+	 */
+	@Query("""
+		SELECT DISTINCT d.id FROM DisturbanceEntity d JOIN d.affectedEntities a
+		WHERE a.partyId = :partyId AND d.municipalityId = :municipalityId AND d.deleted = false
+		""")
+	List<Long> findIdsByMunicipalityIdAndAffectedEntitiesPartyId(@Param("municipalityId") String municipalityId, @Param("partyId") String partyId);
+
+	/**
+	 * Find the affecteds of the provided party in the provided disturbances. The affecteds of other parties are neither
+	 * read nor loaded.
+	 *
+	 * @param  disturbanceIds the (database) ids of the disturbances.
+	 * @param  partyId        the partyId.
+	 * @return                a List of AffectedRow, ordered by id.
+	 */
+	@Query("""
+		SELECT new se.sundsvall.disturbance.integration.db.model.AffectedRow(a.id, a.disturbanceEntity.id, a.partyId, a.reference, a.facilityId, a.coordinates) FROM AffectedEntity a
+		WHERE a.partyId = :partyId AND a.disturbanceEntity.id IN :disturbanceIds
+		ORDER BY a.id
+		""")
+	List<AffectedRow> findAffectedRowsByDisturbanceIdInAndPartyId(@Param("disturbanceIds") Collection<Long> disturbanceIds, @Param("partyId") String partyId);
+
+	/**
+	 * Find (at most limit) affecteds of a disturbance, ordered by id and starting after the provided id (keyset). The
+	 * collection of affecteds of the disturbance is never loaded.
+	 *
+	 * @param  disturbanceId the (database) id of the disturbance.
+	 * @param  partyId       the partyId to filter by, or null for all parties.
+	 * @param  facilityId    the facilityId to filter by, or null for all facilities.
+	 * @param  idAfter       the keyset. Only affecteds with a greater id are returned.
+	 * @param  limit         the maximum number of affecteds to return.
+	 * @return               a List of AffectedRow, in ascending id order.
+	 */
+	@Query("""
+		SELECT new se.sundsvall.disturbance.integration.db.model.AffectedRow(a.id, a.disturbanceEntity.id, a.partyId, a.reference, a.facilityId, a.coordinates) FROM AffectedEntity a
+		WHERE a.disturbanceEntity.id = :disturbanceId AND a.id > :idAfter
+		AND (:partyId IS NULL OR a.partyId = :partyId) AND (:facilityId IS NULL OR a.facilityId = :facilityId)
+		ORDER BY a.id
+		""")
+	List<AffectedRow> findAffectedRowsByDisturbanceIdAndIdGreaterThan(@Param("disturbanceId") long disturbanceId, @Param("partyId") String partyId, @Param("facilityId") String facilityId, @Param("idAfter") long idAfter, Limit limit);
+
+	default List<DisturbanceEntity> findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(String municipalityId, Collection<Long> ids, List<Category> categoryFilter, List<Status> statusFilter) {
 		return this.findAll(withMunicipalityId(municipalityId)
-			.and(withPartyId(partyId))
+			.and(withDeleted(false))
+			.and(withIdIn(ids))
 			.and(withCategoryFilter(categoryFilter))
 			.and(withStatusFilter(statusFilter)));
 	}
 
 	default List<DisturbanceEntity> findByMunicipalityIdAndStatusAndCategory(String municipalityId, List<Status> statusFilter, List<Category> categoryFilter) {
 		return this.findAll(withMunicipalityId(municipalityId)
+			.and(withDeleted(false))
 			.and(withStatusFilter(statusFilter))
 			.and(withCategoryFilter(categoryFilter)));
 	}
 
 	/**
-	 * Delete all disturbances older than the provided date and with the provided statuses.
+	 * Find a page of disturbances (ordered by created and id), starting after the provided (created, id) keyset position.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  statusFilter   a List of statuses to filter by (no filtering is applied if null or empty).
+	 * @param  categoryFilter a List of categories to filter by (no filtering is applied if null or empty).
+	 * @param  createdAfter   the created timestamp of the last disturbance on the previous page (null for the first page).
+	 * @param  idAfter        the id of the last disturbance on the previous page (null for the first page).
+	 * @param  limit          the maximum number of disturbances to return.
+	 * @return                a List of DisturbanceEntity.
+	 */
+	default List<DisturbanceEntity> findByMunicipalityIdAndStatusAndCategory(String municipalityId, List<Status> statusFilter, List<Category> categoryFilter, OffsetDateTime createdAfter, Long idAfter, int limit) {
+		return this.findBy(withMunicipalityId(municipalityId)
+			.and(withDeleted(false))
+			.and(withStatusFilter(statusFilter))
+			.and(withCategoryFilter(categoryFilter))
+			.and(withCreatedAndIdAfter(createdAfter, idAfter)),
+			query -> query.sortBy(Sort.by(DisturbanceEntity_.CREATED, DisturbanceEntity_.ID)).limit(limit).all());
+	}
+
+	/**
+	 * Find the ids of the (not deleted) disturbances that were created before the provided date and matches the provided
+	 * categories and statuses, starting after the provided id (watermark).
+	 *
+	 * @param  categories the categories to filter by.
+	 * @param  statuses   the statuses to filter by.
+	 * @param  expiryDate the expiryDate. Only disturbances created before this date are returned.
+	 * @param  idAfter    the watermark. Only disturbances with a greater id are returned.
+	 * @param  limit      the maximum number of ids to return.
+	 * @return            a List of disturbance ids, in ascending order.
+	 */
+	@Query("""
+		SELECT d.id FROM DisturbanceEntity d
+		WHERE d.deleted = false AND d.category IN :categories AND d.status IN :statuses AND d.created < :expiryDate AND d.id > :idAfter
+		ORDER BY d.id
+		""")
+	List<Long> findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(@Param("categories") Collection<Category> categories, @Param("statuses") Collection<Status> statuses, @Param("expiryDate") OffsetDateTime expiryDate, @Param("idAfter") long idAfter, Limit limit);
+
+	/**
+	 * Find the ids of the deleted disturbances that were deleted (i.e. last updated) before the provided date and matches
+	 * the provided categories and statuses, starting after the provided id (watermark).
+	 *
+	 * @param  categories the categories to filter by.
+	 * @param  statuses   the statuses to filter by.
+	 * @param  expiryDate the expiryDate. Only disturbances deleted before this date are returned.
+	 * @param  idAfter    the watermark. Only disturbances with a greater id are returned.
+	 * @param  limit      the maximum number of ids to return.
+	 * @return            a List of disturbance ids, in ascending order.
+	 */
+	@Query("""
+		SELECT d.id FROM DisturbanceEntity d
+		WHERE d.deleted = true AND d.category IN :categories AND d.status IN :statuses AND COALESCE(d.updated, d.created) < :expiryDate AND d.id > :idAfter
+		ORDER BY d.id
+		""")
+	List<Long> findDeletedIdsByCategoryInAndStatusInAndUpdatedBeforeAndIdGreaterThan(@Param("categories") Collection<Category> categories, @Param("statuses") Collection<Status> statuses, @Param("expiryDate") OffsetDateTime expiryDate, @Param("idAfter") long idAfter, Limit limit);
+
+	/**
+	 * Find the municipalities of the provided disturbances. No entities are loaded.
+	 *
+	 * @param  ids the ids of the disturbances.
+	 * @return     a Set of municipalityIds.
+	 */
+	@Query("SELECT DISTINCT d.municipalityId FROM DisturbanceEntity d WHERE d.id IN :ids")
+	Set<String> findMunicipalityIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Bulk delete (at most limit) affecteds that belongs to the provided disturbances. No entities are loaded.
+	 *
+	 * @param  disturbanceIds the ids of the disturbances.
+	 * @param  limit          the maximum number of affecteds to delete.
+	 * @return                the number of deleted affecteds.
+	 */
+	@Modifying
+	@Query(value = "DELETE FROM affected WHERE parent_id IN (:disturbanceIds) LIMIT :limit", nativeQuery = true)
+	int deleteAffectedByDisturbanceIdIn(@Param("disturbanceIds") Collection<Long> disturbanceIds, @Param("limit") int limit);
+
+	/**
+	 * Bulk delete the party index rows (see PartyDisturbanceEntity) of the provided disturbances. No entities are loaded.
+	 *
+	 * @param  disturbanceIds the ids of the disturbances.
+	 * @return                the number of deleted party index rows.
+	 */
+	@Modifying
+	@Query(value = "DELETE FROM party_disturbance WHERE disturbance_id IN (:disturbanceIds)", nativeQuery = true)
+	int deletePartyDisturbanceByDisturbanceIdIn(@Param("disturbanceIds") Collection<Long> disturbanceIds);
+
+	/**
+	 * Bulk delete the provided disturbances. The affecteds must be deleted first (see
+	 * {@link #deleteAffectedByDisturbanceIdIn(Collection, int)}), since cascades aren't applied to bulk deletes.
 	 *
-	 * @param expiryDate the expiryDate. All disturbances older than this date will be deleted.
-	 * @param statuses   a List of statuses to delete by.
+	 * @param  ids the ids of the disturbances.
+	 * @return     the number of deleted disturbances.
 	 */
-	void deleteByCreatedBeforeAndStatusIn(OffsetDateTime expiryDate, Status... statuses);
+	@Modifying
+	@Query("DELETE FROM DisturbanceEntity d WHERE d.id IN :ids")
+	int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,34 @@
+package se.sundsvall.disturbance.integration.db;
+
+import java.util.List;
+import java.util.stream.Stream;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+
+/**
+ * Repository fragment for reading (large amounts of) disturbances as a stream.
+ */
+public interface DisturbanceStreamRepository {
+
+	/**
+	 * Stream all disturbances (with affecteds) ordered by created and id. The rows are fetched from the database in chunks,
+	 * so the stream must be consumed within a transaction and closed afterwards.
+	 *
+	 * Each entity should be detached (see {@link #detach(DisturbanceEntity)}) when it has been processed, otherwise all
+	 * streamed entities are kept in the persistence context.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  statusFilter   a List of statuses to filter by (no filtering is applied if null or empty).
+	 * @param  categoryFilter a List of categories to filter by (no filtering is applied if null or empty).
+	 * @return                a Stream of DisturbanceEntity.
+	 */
+	Stream<DisturbanceEntity> streamByMunicipalityIdAndStatusAndCategory(String municipalityId, List<Status> statusFilter, List<Category> categoryFilter);
+
+	/**
+	 * Remove a (streamed) disturbance, and its affecteds, from the persistence context.
+	 *
+	 * @param disturbanceEntity the DisturbanceEntity to detach.
+	 */
+	void detach(DisturbanceEntity disturbanceEntity);
+}
@@ -0,0 +1,57 @@
+package se.sundsvall.disturbance.integration.db;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Stream;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity_;
+
+import static jakarta.persistence.criteria.JoinType.LEFT;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withCategoryFilter;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withDeleted;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withMunicipalityId;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withStatusFilter;
+
+class DisturbanceStreamRepositoryImpl implements DisturbanceStreamRepository {
+
+	static final int FETCH_SIZE = 500;
+
+	private final EntityManager entityManager;
+
+	DisturbanceStreamRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public Stream<DisturbanceEntity> streamByMunicipalityIdAndStatusAndCategory(String municipalityId, List<Status> statusFilter, List<Category> categoryFilter) {
+		final var specification = withMunicipalityId(municipalityId)
+			.and(withDeleted(false))
+			.and(withStatusFilter(statusFilter))
+			.and(withCategoryFilter(categoryFilter));
+
+		final var criteriaBuilder = entityManager.getCriteriaBuilder();
+		final var criteriaQuery = criteriaBuilder.createQuery(DisturbanceEntity.class);
+		final var root = criteriaQuery.from(DisturbanceEntity.class);
+
+		// Fetch the affecteds in the same query, since secondary selects on the same connection would force the driver to
+		// read the whole (streamed) result into memory. The rows for one disturbance are kept together by the ordering.
+		root.fetch(DisturbanceEntity_.affectedEntities, LEFT);
+		criteriaQuery
+			.where(specification.toPredicate(root, criteriaQuery, criteriaBuilder))
+			.orderBy(criteriaBuilder.asc(root.get(DisturbanceEntity_.created)), criteriaBuilder.asc(root.get(DisturbanceEntity_.id)));
+
+		return entityManager.createQuery(criteriaQuery)
+			.setHint(HINT_FETCH_SIZE, FETCH_SIZE)
+			.setHint(HINT_READ_ONLY, true)
+			.getResultStream();
+	}
+
+	@Override
+	public void detach(DisturbanceEntity disturbanceEntity) {
+		entityManager.detach(disturbanceEntity);
+	}
+}
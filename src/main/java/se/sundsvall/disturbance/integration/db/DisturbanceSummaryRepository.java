@@ -0,0 +1,27 @@
+package se.sundsvall.disturbance.integration.db;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceSummaryRow;
+
+/**
+ * Repository fragment for reading disturbance summaries, i.e. disturbances without their affecteds.
+ */
+public interface DisturbanceSummaryRepository {
+
+	/**
+	 * Find disturbance summaries (ordered by created and id), starting after the provided (created, id) keyset position.
+	 * The affecteds are never loaded, only counted.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  statusFilter   a List of statuses to filter by (no filtering is applied if null or empty).
+	 * @param  categoryFilter a List of categories to filter by (no filtering is applied if null or empty).
+	 * @param  createdAfter   the created timestamp of the last disturbance on the previous page (null for the first page).
+	 * @param  idAfter        the id of the last disturbance on the previous page (null for the first page).
+	 * @param  limit          the maximum number of summaries to return (null for no limit).
+	 * @return                a List of DisturbanceSummaryRow.
+	 */
+	List<DisturbanceSummaryRow> findSummariesByMunicipalityIdAndStatusAndCategory(String municipalityId, List<Status> statusFilter, List<Category> categoryFilter, OffsetDateTime createdAfter, Long idAfter, Integer limit);
+}
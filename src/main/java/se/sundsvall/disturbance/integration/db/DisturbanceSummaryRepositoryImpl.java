@@ -0,0 +1,74 @@
+package se.sundsvall.disturbance.integration.db;
+
+import jakarta.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.util.List;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity_;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity_;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceSummaryRow;
+
+import static java.util.Objects.nonNull;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withCategoryFilter;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withCreatedAndIdAfter;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withDeleted;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withMunicipalityId;
+import static se.sundsvall.disturbance.integration.db.specification.DisturbanceSpecification.withStatusFilter;
+
+class DisturbanceSummaryRepositoryImpl implements DisturbanceSummaryRepository {
+
+	private final EntityManager entityManager;
+
+	DisturbanceSummaryRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public List<DisturbanceSummaryRow> findSummariesByMunicipalityIdAndStatusAndCategory(String municipalityId, List<Status> statusFilter, List<Category> categoryFilter, OffsetDateTime createdAfter, Long idAfter, Integer limit) {
+		final var specification = withMunicipalityId(municipalityId)
+			.and(withDeleted(false))
+			.and(withStatusFilter(statusFilter))
+			.and(withCategoryFilter(categoryFilter))
+			.and(withCreatedAndIdAfter(createdAfter, idAfter));
+
+		final var criteriaBuilder = entityManager.getCriteriaBuilder();
+		final var criteriaQuery = criteriaBuilder.createQuery(DisturbanceSummaryRow.class);
+		final var root = criteriaQuery.from(DisturbanceEntity.class);
+
+		// The affecteds are counted by a correlated subquery (using the disturbance_id foreign key index), so no affected
+		// rows are transferred or hydrated.
+		final var affectedCount = criteriaQuery.subquery(Long.class);
+		final var affected = affectedCount.from(AffectedEntity.class);
+		affectedCount
+			.select(criteriaBuilder.count(affected))
+			.where(criteriaBuilder.equal(affected.get(AffectedEntity_.disturbanceEntity), root));
+
+		criteriaQuery
+			.select(criteriaBuilder.construct(DisturbanceSummaryRow.class,
+				root.get(DisturbanceEntity_.id),
+				root.get(DisturbanceEntity_.municipalityId),
+				root.get(DisturbanceEntity_.disturbanceId),
+				root.get(DisturbanceEntity_.category),
+				root.get(DisturbanceEntity_.title),
+				root.get(DisturbanceEntity_.description),
+				root.get(DisturbanceEntity_.status),
+				root.get(DisturbanceEntity_.plannedStartDate),
+				root.get(DisturbanceEntity_.plannedStopDate),
+				root.get(DisturbanceEntity_.created),
+				root.get(DisturbanceEntity_.updated),
+				affectedCount))
+			.where(specification.toPredicate(root, criteriaQuery, criteriaBuilder))
+			.orderBy(criteriaBuilder.asc(root.get(DisturbanceEntity_.created)), criteriaBuilder.asc(root.get(DisturbanceEntity_.id)));
+
+		final var query = entityManager.createQuery(criteriaQuery);
+
+		if (nonNull(limit)) {
+			query.setMaxResults(limit);
+		}
+
+		return query.getResultList();
+	}
+}
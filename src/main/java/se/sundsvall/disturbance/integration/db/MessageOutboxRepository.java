@@ -0,0 +1,58 @@
+package se.sundsvall.disturbance.integration.db;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus;
+
+@Transactional
+@CircuitBreaker(name = "messageOutboxRepository")
+public interface MessageOutboxRepository extends JpaRepository<MessageOutboxEntity, Long> {
+
+	/**
+	 * Find chunks that are due for sending: pending chunks with a next attempt that has passed, and chunks with an expired
+	 * lease (claimed by a dispatch that never completed them). The returned rows are locked until the surrounding
+	 * transaction ends, and rows that already are locked (i.e. being claimed by another instance) are skipped.
+	 *
+	 * @param  now   the current time. Only chunks with a next attempt (or lease end) at, or before, this time are returned.
+	 * @param  limit the maximum number of chunks to return.
+	 * @return       a List of MessageOutboxEntity, in the order they were created.
+	 */
+	@Query(value = """
+		SELECT * FROM message_outbox
+		WHERE status IN ('PENDING', 'IN_FLIGHT') AND next_attempt <= :now
+		ORDER BY id
+		LIMIT :limit
+		FOR UPDATE SKIP LOCKED
+		""", nativeQuery = true)
+	List<MessageOutboxEntity> findDueForUpdate(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+	/**
+	 * Remove a chunk that has been sent. Nothing happens if the chunk doesn't exist.
+	 *
+	 * @param id the id of the chunk.
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM MessageOutboxEntity m WHERE m.id = :id")
+	void deleteSentChunk(@Param("id") long id);
+
+	/**
+	 * Update the attempt state of a chunk that could not be sent. A chunk that doesn't exist is never recreated.
+	 *
+	 * @param id          the id of the chunk.
+	 * @param status      the new status (PENDING or DEAD).
+	 * @param attempts    the number of attempts made.
+	 * @param lastError   the error of the last attempt.
+	 * @param nextAttempt the time of the next attempt.
+	 */
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE MessageOutboxEntity m SET m.status = :status, m.attempts = :attempts, m.lastError = :lastError, m.nextAttempt = :nextAttempt WHERE m.id = :id")
+	void updateFailedChunk(@Param("id") long id, @Param("status") MessageOutboxStatus status, @Param("attempts") int attempts, @Param("lastError") String lastError,
+		@Param("nextAttempt") OffsetDateTime nextAttempt);
+}
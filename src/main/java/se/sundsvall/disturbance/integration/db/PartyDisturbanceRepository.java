@@ -0,0 +1,68 @@
+package se.sundsvall.disturbance.integration.db;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.disturbance.integration.db.model.PartyDisturbanceEntity;
+
+@Transactional
+@CircuitBreaker(name = "partyDisturbanceRepository")
+public interface PartyDisturbanceRepository extends JpaRepository<PartyDisturbanceEntity, Long> {
+
+	/**
+	 * Find the ids of the non-closed (and not deleted) disturbances where the provided party is affected. Only the unique
+	 * index (municipality_id, party_id, disturbance_id) is used.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  partyId        the partyId.
+	 * @return                a List of disturbance ids.
+	 */
+	@Query("SELECT p.disturbanceId FROM PartyDisturbanceEntity p WHERE p.municipalityId = :municipalityId AND p.partyId = :partyId")
+	List<Long> findDisturbanceIdsByMunicipalityIdAndPartyId(@Param("municipalityId") String municipalityId, @Param("partyId") String partyId);
+
+	/**
+	 * Add the provided parties that have affecteds in the disturbance, unless the disturbance is closed or deleted. Parties
+	 * that are already present are ignored. Pending changes are flushed first, so that added affecteds are found.
+	 *
+	 * @param  disturbanceId the (database) id of the disturbance.
+	 * @param  partyIds      the partyIds.
+	 * @return               the number of added parties.
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query(value = """
+		INSERT IGNORE INTO party_disturbance (municipality_id, party_id, disturbance_id)
+		SELECT DISTINCT d.municipality_id, a.party_id, d.id FROM disturbance d JOIN affected a ON a.parent_id = d.id
+		WHERE d.id = :disturbanceId AND a.party_id IN (:partyIds) AND d.deleted = false AND d.status <> 'CLOSED'
+		""", nativeQuery = true)
+	int insertByDisturbanceIdAndPartyIdIn(@Param("disturbanceId") long disturbanceId, @Param("partyIds") Collection<String> partyIds);
+
+	/**
+	 * Remove the provided parties that no longer have any affecteds in the disturbance. Pending changes are flushed first,
+	 * so that removed affecteds aren't found.
+	 *
+	 * @param  disturbanceId the (database) id of the disturbance.
+	 * @param  partyIds      the partyIds.
+	 * @return               the number of removed parties.
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query("""
+		DELETE FROM PartyDisturbanceEntity p WHERE p.disturbanceId = :disturbanceId AND p.partyId IN :partyIds
+		AND NOT EXISTS (SELECT a.id FROM AffectedEntity a WHERE a.disturbanceEntity.id = :disturbanceId AND a.partyId = p.partyId)
+		""")
+	int deleteByDisturbanceIdAndPartyIdIn(@Param("disturbanceId") long disturbanceId, @Param("partyIds") Collection<String> partyIds);
+
+	/**
+	 * Remove all parties of a disturbance.
+	 *
+	 * @param  disturbanceId the (database) id of the disturbance.
+	 * @return               the number of removed parties.
+	 */
+	@Modifying
+	@Query("DELETE FROM PartyDisturbanceEntity p WHERE p.disturbanceId = :disturbanceId")
+	int deleteByDisturbanceId(@Param("disturbanceId") long disturbanceId);
+}
@@ -1,16 +1,45 @@
 package se.sundsvall.disturbance.integration.db;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.disturbance.integration.db.model.SubscriptionEntity;
+import se.sundsvall.disturbance.integration.db.model.SubscriptionEntity_;
+import se.sundsvall.disturbance.integration.db.model.SubscriptionOptOutRow;
 
 @Transactional
 @CircuitBreaker(name = "subscriptionRepository")
 public interface SubscriptionRepository extends JpaRepository<SubscriptionEntity, Long> {
 
+	@EntityGraph(attributePaths = SubscriptionEntity_.OPT_OUT_SETTINGS)
 	Optional<SubscriptionEntity> findByMunicipalityIdAndPartyId(String municipalityId, String partyId);
 
+	@EntityGraph(attributePaths = SubscriptionEntity_.OPT_OUT_SETTINGS)
 	Optional<SubscriptionEntity> findByMunicipalityIdAndId(String municipalityId, Long id);
+
+	boolean existsByMunicipalityIdAndPartyId(String municipalityId, String partyId);
+
+	/**
+	 * Fetch subscriptions and their opt-out settings for all provided partyIds in one query, flattened to one row per
+	 * opt-out key/value pair (see {@link SubscriptionOptOutRow}).
+	 *
+	 * @param  municipalityId the municipality ID.
+	 * @param  partyIds       the partyIds to fetch subscriptions for.
+	 * @return                a List of SubscriptionOptOutRow. PartyIds without a subscription are not present in the
+	 *                        result.
+	 */
+	@Query("""
+		SELECT new se.sundsvall.disturbance.integration.db.model.SubscriptionOptOutRow(s.partyId, o.id, o.category, KEY(v), VALUE(v))
+		FROM SubscriptionEntity s
+		LEFT JOIN s.optOutSettings o
+		LEFT JOIN o.optOuts v
+		WHERE s.municipalityId = :municipalityId AND s.partyId IN :partyIds
+		""")
+	List<SubscriptionOptOutRow> findOptOutRowsByMunicipalityIdAndPartyIdIn(@Param("municipalityId") String municipalityId, @Param("partyIds") Collection<String> partyIds);
 }
@@ -0,0 +1,53 @@
+package se.sundsvall.disturbance.integration.db.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import se.sundsvall.disturbance.integration.db.model.ArchivedAffected;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Stores the affecteds of an archived disturbance as one GZIP-compressed JSON array. The affecteds of an archived
+ * disturbance are always read (and written) together, so there is no need to keep them as rows of their own.
+ */
+@Converter
+public class ArchivedAffectedsConverter implements AttributeConverter<List<ArchivedAffected>, byte[]> {
+
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+	private static final TypeReference<List<ArchivedAffected>> TYPE_REFERENCE = new TypeReference<>() {};
+
+	@Override
+	public byte[] convertToDatabaseColumn(List<ArchivedAffected> attribute) {
+		if (attribute == null) {
+			return null;
+		}
+
+		final var outputStream = new ByteArrayOutputStream();
+		try (final var gzipOutputStream = new GZIPOutputStream(outputStream)) {
+			JSON_MAPPER.writeValue(gzipOutputStream, attribute);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return outputStream.toByteArray();
+	}
+
+	@Override
+	public List<ArchivedAffected> convertToEntityAttribute(byte[] dbData) {
+		if (dbData == null) {
+			return null;
+		}
+
+		try (final var gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(dbData))) {
+			return JSON_MAPPER.readValue(gzipInputStream, TYPE_REFERENCE);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
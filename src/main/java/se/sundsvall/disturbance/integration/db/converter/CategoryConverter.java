@@ -18,6 +18,10 @@ public class CategoryConverter implements AttributeConverter<Category, String> {
 
 	@Override
 	public Category convertToEntityAttribute(String dbData) {
-		return Category.valueOf(dbData);
+		if (dbData == null) {
+			return null;
+		} else {
+			return Category.valueOf(dbData);
+		}
 	}
 }
@@ -0,0 +1,23 @@
+package se.sundsvall.disturbance.integration.db.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus;
+
+@Converter(autoApply = true)
+public class MessageOutboxStatusConverter implements AttributeConverter<MessageOutboxStatus, String> {
+
+	@Override
+	public String convertToDatabaseColumn(MessageOutboxStatus attribute) {
+		if (attribute == null) {
+			return null;
+		} else {
+			return attribute.toString();
+		}
+	}
+
+	@Override
+	public MessageOutboxStatus convertToEntityAttribute(String dbData) {
+		return MessageOutboxStatus.valueOf(dbData);
+	}
+}
@@ -17,7 +17,7 @@ import java.util.Objects;
 @Entity
 @Table(name = "affected",
 	indexes = {
-		@Index(name = "party_id_index", columnList = "party_id")
+		@Index(name = "affected_party_id_parent_id_index", columnList = "party_id, parent_id")
 	})
 public class AffectedEntity implements Serializable {
 
@@ -0,0 +1,14 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+/**
+ * An affected, with the (database) id of its disturbance instead of the disturbance itself.
+ *
+ * @param id            the (database) id of the affected.
+ * @param disturbanceId the (database) id of the disturbance.
+ * @param partyId       the partyId.
+ * @param reference     the reference.
+ * @param facilityId    the facilityId.
+ * @param coordinates   the coordinates.
+ */
+public record AffectedRow(long id, long disturbanceId, String partyId, String reference, String facilityId, String coordinates) {
+}
@@ -0,0 +1,13 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+/**
+ * An affected of an archived disturbance. The affecteds are stored together with the archived disturbance (see
+ * {@link DisturbanceArchiveEntity}), instead of as rows of their own.
+ *
+ * @param partyId     the partyId.
+ * @param reference   the reference.
+ * @param facilityId  the facilityId.
+ * @param coordinates the coordinates.
+ */
+public record ArchivedAffected(String partyId, String reference, String facilityId, String coordinates) {
+}
@@ -0,0 +1,296 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.annotations.TimeZoneStorage;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.converter.ArchivedAffectedsConverter;
+
+import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+
+/**
+ * An archived disturbance. The affecteds are stored (compressed) in the same row, see
+ * {@link ArchivedAffectedsConverter}.
+ */
+@Entity
+@Table(name = "disturbance_archive",
+	indexes = {
+		@Index(name = "disturbance_archive_municipality_id_created_index", columnList = "municipality_id, created"),
+		@Index(name = "disturbance_archive_municipality_id_category_disturbance_id_index", columnList = "municipality_id, category, disturbance_id")
+	})
+public class DisturbanceArchiveEntity implements Serializable {
+
+	private static final long serialVersionUID = 2467387254126519366L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private long id;
+
+	@Column(name = "municipality_id", nullable = false)
+	private String municipalityId;
+
+	@Column(name = "disturbance_id", nullable = false)
+	private String disturbanceId;
+
+	@Column(name = "category", nullable = false)
+	private Category category;
+
+	@Column(name = "title")
+	private String title;
+
+	@Column(name = "description", nullable = false, length = 8192)
+	private String description;
+
+	@Column(name = "status", nullable = false)
+	private Status status;
+
+	@Column(name = "planned_start_date")
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime plannedStartDate;
+
+	@Column(name = "planned_stop_date")
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime plannedStopDate;
+
+	@Column(name = "created")
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime created;
+
+	@Column(name = "updated")
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime updated;
+
+	@Column(name = "archived", nullable = false)
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime archived;
+
+	@Column(name = "affected_count", nullable = false)
+	private int affectedCount;
+
+	@Lob
+	@Column(name = "affecteds", nullable = false)
+	@Convert(converter = ArchivedAffectedsConverter.class)
+	private List<ArchivedAffected> affecteds;
+
+	public static DisturbanceArchiveEntity create() {
+		return new DisturbanceArchiveEntity();
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public void setId(final long id) {
+		this.id = id;
+	}
+
+	public DisturbanceArchiveEntity withId(final long id) {
+		this.id = id;
+		return this;
+	}
+
+	public String getMunicipalityId() {
+		return municipalityId;
+	}
+
+	public void setMunicipalityId(final String municipalityId) {
+		this.municipalityId = municipalityId;
+	}
+
+	public DisturbanceArchiveEntity withMunicipalityId(final String municipalityId) {
+		this.municipalityId = municipalityId;
+		return this;
+	}
+
+	public String getDisturbanceId() {
+		return disturbanceId;
+	}
+
+	public void setDisturbanceId(final String disturbanceId) {
+		this.disturbanceId = disturbanceId;
+	}
+
+	public DisturbanceArchiveEntity withDisturbanceId(final String disturbanceId) {
+		this.disturbanceId = disturbanceId;
+		return this;
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public void setCategory(final Category category) {
+		this.category = category;
+	}
+
+	public DisturbanceArchiveEntity withCategory(final Category category) {
+		this.category = category;
+		return this;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(final String title) {
+		this.title = title;
+	}
+
+	public DisturbanceArchiveEntity withTitle(final String title) {
+		this.title = title;
+		return this;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(final String description) {
+		this.description = description;
+	}
+
+	public DisturbanceArchiveEntity withDescription(final String description) {
+		this.description = description;
+		return this;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(final Status status) {
+		this.status = status;
+	}
+
+	public DisturbanceArchiveEntity withStatus(final Status status) {
+		this.status = status;
+		return this;
+	}
+
+	public OffsetDateTime getPlannedStartDate() {
+		return plannedStartDate;
+	}
+
+	public void setPlannedStartDate(final OffsetDateTime plannedStartDate) {
+		this.plannedStartDate = plannedStartDate;
+	}
+
+	public DisturbanceArchiveEntity withPlannedStartDate(final OffsetDateTime plannedStartDate) {
+		this.plannedStartDate = plannedStartDate;
+		return this;
+	}
+
+	public OffsetDateTime getPlannedStopDate() {
+		return plannedStopDate;
+	}
+
+	public void setPlannedStopDate(final OffsetDateTime plannedStopDate) {
+		this.plannedStopDate = plannedStopDate;
+	}
+
+	public DisturbanceArchiveEntity withPlannedStopDate(final OffsetDateTime plannedStopDate) {
+		this.plannedStopDate = plannedStopDate;
+		return this;
+	}
+
+	public OffsetDateTime getCreated() {
+		return created;
+	}
+
+	public void setCreated(final OffsetDateTime created) {
+		this.created = created;
+	}
+
+	public DisturbanceArchiveEntity withCreated(final OffsetDateTime created) {
+		this.created = created;
+		return this;
+	}
+
+	public OffsetDateTime getUpdated() {
+		return updated;
+	}
+
+	public void setUpdated(final OffsetDateTime updated) {
+		this.updated = updated;
+	}
+
+	public DisturbanceArchiveEntity withUpdated(final OffsetDateTime updated) {
+		this.updated = updated;
+		return this;
+	}
+
+	public OffsetDateTime getArchived() {
+		return archived;
+	}
+
+	public void setArchived(final OffsetDateTime archived) {
+		this.archived = archived;
+	}
+
+	public DisturbanceArchiveEntity withArchived(final OffsetDateTime archived) {
+		this.archived = archived;
+		return this;
+	}
+
+	public int getAffectedCount() {
+		return affectedCount;
+	}
+
+	public void setAffectedCount(final int affectedCount) {
+		this.affectedCount = affectedCount;
+	}
+
+	public DisturbanceArchiveEntity withAffectedCount(final int affectedCount) {
+		this.affectedCount = affectedCount;
+		return this;
+	}
+
+	public List<ArchivedAffected> getAffecteds() {
+		return affecteds;
+	}
+
+	public void setAffecteds(final List<ArchivedAffected> affecteds) {
+		this.affecteds = affecteds;
+	}
+
+	public DisturbanceArchiveEntity withAffecteds(final List<ArchivedAffected> affecteds) {
+		this.affecteds = affecteds;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(affectedCount, affecteds, archived, category, created, description, disturbanceId, id, municipalityId, plannedStartDate, plannedStopDate, status, title, updated);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) { return true; }
+		if (!(obj instanceof final DisturbanceArchiveEntity other)) { return false; }
+		return (affectedCount == other.affectedCount) && Objects.equals(affecteds, other.affecteds) && Objects.equals(archived, other.archived) && (category == other.category) && Objects.equals(created, other.created) && Objects.equals(description,
+			other.description) && Objects.equals(disturbanceId, other.disturbanceId) && (id == other.id) && Objects.equals(municipalityId, other.municipalityId) && Objects.equals(plannedStartDate, other.plannedStartDate) && Objects.equals(plannedStopDate,
+				other.plannedStopDate) && (status == other.status) && Objects.equals(title, other.title) && Objects.equals(updated, other.updated);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("DisturbanceArchiveEntity [id=").append(id).append(", municipalityId=").append(municipalityId).append(", disturbanceId=").append(disturbanceId).append(", category=").append(category).append(", title=").append(title)
+			.append(", description=").append(description).append(", status=").append(status).append(", plannedStartDate=").append(plannedStartDate).append(", plannedStopDate=").append(plannedStopDate).append(", created=").append(created)
+			.append(", updated=").append(updated).append(", archived=").append(archived).append(", affectedCount=").append(affectedCount).append(", affecteds=").append(affecteds).append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,96 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import org.hibernate.annotations.TimeZoneStorage;
+
+import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+
+/**
+ * Change counter for the disturbances of a municipality. The version is incremented every time a disturbance in the
+ * municipality is created, updated, deleted or removed, and is used as ETag for the disturbance lists.
+ */
+@Entity
+@Table(name = "disturbance_change_counter")
+public class DisturbanceChangeCounterEntity implements Serializable {
+
+	private static final long serialVersionUID = -3316245380546357792L;
+
+	@Id
+	@Column(name = "municipality_id")
+	private String municipalityId;
+
+	@Column(name = "version", nullable = false)
+	private long version;
+
+	@Column(name = "modified", nullable = false)
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime modified;
+
+	public static DisturbanceChangeCounterEntity create() {
+		return new DisturbanceChangeCounterEntity();
+	}
+
+	public String getMunicipalityId() {
+		return municipalityId;
+	}
+
+	public void setMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+	}
+
+	public DisturbanceChangeCounterEntity withMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+		return this;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
+	public DisturbanceChangeCounterEntity withVersion(long version) {
+		this.version = version;
+		return this;
+	}
+
+	public OffsetDateTime getModified() {
+		return modified;
+	}
+
+	public void setModified(OffsetDateTime modified) {
+		this.modified = modified;
+	}
+
+	public DisturbanceChangeCounterEntity withModified(OffsetDateTime modified) {
+		this.modified = modified;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(modified, municipalityId, version);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) { return true; }
+		if (!(obj instanceof final DisturbanceChangeCounterEntity other)) { return false; }
+		return Objects.equals(modified, other.modified) && Objects.equals(municipalityId, other.municipalityId) && (version == other.version);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("DisturbanceChangeCounterEntity [municipalityId=").append(municipalityId).append(", version=").append(version).append(", modified=").append(modified).append("]");
+		return builder.toString();
+	}
+}
@@ -12,12 +12,14 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.io.Serializable;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.TimeZoneStorage;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Status;
@@ -31,9 +33,13 @@ import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
 @Entity
 @Table(name = "disturbance",
 	indexes = {
-		@Index(name = "disturbance_id_index", columnList = "disturbance_id"),
-		@Index(name = "municipality_id_index", columnList = "municipality_id"),
-		@Index(name = "category_index", columnList = "category")
+		@Index(name = "disturbance_municipality_id_deleted_status_category_created_index", columnList = "municipality_id, deleted, status, category, created"),
+		@Index(name = "disturbance_deleted_status_created_index", columnList = "deleted, status, created")
+	},
+	uniqueConstraints = {
+		@UniqueConstraint(name = "uk_disturbance_municipality_id_category_disturbance_id", columnNames = {
+			"municipality_id", "category", "disturbance_id"
+		})
 	})
 public class DisturbanceEntity implements Serializable {
 
@@ -81,7 +87,9 @@ public class DisturbanceEntity implements Serializable {
 	@Column(name = "deleted")
 	private boolean deleted;
 
-	@OneToMany(fetch = FetchType.EAGER, mappedBy = "disturbanceEntity", cascade = CascadeType.ALL, orphanRemoval = true)
+	// Fetched by entity graph when a single disturbance is read, and in batches when a list of disturbances is read.
+	@OneToMany(fetch = FetchType.LAZY, mappedBy = "disturbanceEntity", cascade = CascadeType.ALL, orphanRemoval = true)
+	@BatchSize(size = 100)
 	private List<AffectedEntity> affectedEntities;
 
 	@PrePersist
@@ -0,0 +1,25 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import java.time.OffsetDateTime;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
+
+/**
+ * Summary view of a disturbance, where the affecteds are represented by their count only.
+ *
+ * @param id               the (database) id of the disturbance.
+ * @param municipalityId   the municipalityId.
+ * @param disturbanceId    the disturbanceId.
+ * @param category         the category.
+ * @param title            the title.
+ * @param description      the description.
+ * @param status           the status.
+ * @param plannedStartDate the planned start date.
+ * @param plannedStopDate  the planned stop date.
+ * @param created          the created timestamp.
+ * @param updated          the updated timestamp.
+ * @param affectedCount    the number of affecteds.
+ */
+public record DisturbanceSummaryRow(long id, String municipalityId, String disturbanceId, Category category, String title, String description, Status status,
+	OffsetDateTime plannedStartDate, OffsetDateTime plannedStopDate, OffsetDateTime created, OffsetDateTime updated, long affectedCount) {
+}
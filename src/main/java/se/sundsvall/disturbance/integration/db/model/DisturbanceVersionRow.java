@@ -0,0 +1,13 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * The version of a disturbance, i.e. the columns needed to decide if a disturbance is modified, without fetching it.
+ *
+ * @param id      the (database) id of the disturbance.
+ * @param created the created timestamp.
+ * @param updated the updated timestamp.
+ */
+public record DisturbanceVersionRow(long id, OffsetDateTime created, OffsetDateTime updated) {
+}
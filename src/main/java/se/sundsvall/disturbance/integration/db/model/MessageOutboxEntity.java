@@ -0,0 +1,265 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import org.hibernate.annotations.TimeZoneStorage;
+import se.sundsvall.disturbance.api.model.Category;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+
+/**
+ * A chunk of rendered messages (a MessageRequest serialized as JSON) that is waiting to be sent to api-messaging. Each
+ * chunk is sent as one request.
+ *
+ * Chunks that were created by the same event share the same batchId. The category (of the disturbance) and the message
+ * type are only used to tag the dispatch metrics, and are missing for chunks that were created before they were added.
+ */
+@Entity
+@Table(name = "message_outbox",
+	indexes = {
+		@Index(name = "message_outbox_status_next_attempt_index", columnList = "status, next_attempt")
+	})
+public class MessageOutboxEntity implements Serializable {
+
+	private static final long serialVersionUID = 4265913830584136113L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "municipality_id", nullable = false)
+	private String municipalityId;
+
+	@Column(name = "batch_id", nullable = false)
+	private String batchId;
+
+	@Column(name = "category")
+	private Category category;
+
+	@Column(name = "message_type")
+	private String messageType;
+
+	@Lob
+	@Column(name = "payload", nullable = false)
+	private String payload;
+
+	@Column(name = "message_count", nullable = false)
+	private int messageCount;
+
+	@Column(name = "status", nullable = false)
+	private MessageOutboxStatus status;
+
+	@Column(name = "attempts", nullable = false)
+	private int attempts;
+
+	@Column(name = "next_attempt", nullable = false)
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime nextAttempt;
+
+	@Column(name = "last_error", length = 1024)
+	private String lastError;
+
+	@Column(name = "created")
+	@TimeZoneStorage(NORMALIZE)
+	private OffsetDateTime created;
+
+	@PrePersist
+	void prePersist() {
+		created = now(systemDefault()).truncatedTo(MILLIS);
+	}
+
+	public static MessageOutboxEntity create() {
+		return new MessageOutboxEntity();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public MessageOutboxEntity withId(Long id) {
+		this.id = id;
+		return this;
+	}
+
+	public String getMunicipalityId() {
+		return municipalityId;
+	}
+
+	public void setMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+	}
+
+	public MessageOutboxEntity withMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+		return this;
+	}
+
+	public String getBatchId() {
+		return batchId;
+	}
+
+	public void setBatchId(String batchId) {
+		this.batchId = batchId;
+	}
+
+	public MessageOutboxEntity withBatchId(String batchId) {
+		this.batchId = batchId;
+		return this;
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public void setCategory(Category category) {
+		this.category = category;
+	}
+
+	public MessageOutboxEntity withCategory(Category category) {
+		this.category = category;
+		return this;
+	}
+
+	public String getMessageType() {
+		return messageType;
+	}
+
+	public void setMessageType(String messageType) {
+		this.messageType = messageType;
+	}
+
+	public MessageOutboxEntity withMessageType(String messageType) {
+		this.messageType = messageType;
+		return this;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public void setPayload(String payload) {
+		this.payload = payload;
+	}
+
+	public MessageOutboxEntity withPayload(String payload) {
+		this.payload = payload;
+		return this;
+	}
+
+	public int getMessageCount() {
+		return messageCount;
+	}
+
+	public void setMessageCount(int messageCount) {
+		this.messageCount = messageCount;
+	}
+
+	public MessageOutboxEntity withMessageCount(int messageCount) {
+		this.messageCount = messageCount;
+		return this;
+	}
+
+	public MessageOutboxStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(MessageOutboxStatus status) {
+		this.status = status;
+	}
+
+	public MessageOutboxEntity withStatus(MessageOutboxStatus status) {
+		this.status = status;
+		return this;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public MessageOutboxEntity withAttempts(int attempts) {
+		this.attempts = attempts;
+		return this;
+	}
+
+	public OffsetDateTime getNextAttempt() {
+		return nextAttempt;
+	}
+
+	public void setNextAttempt(OffsetDateTime nextAttempt) {
+		this.nextAttempt = nextAttempt;
+	}
+
+	public MessageOutboxEntity withNextAttempt(OffsetDateTime nextAttempt) {
+		this.nextAttempt = nextAttempt;
+		return this;
+	}
+
+	public String getLastError() {
+		return lastError;
+	}
+
+	public void setLastError(String lastError) {
+		this.lastError = lastError;
+	}
+
+	public MessageOutboxEntity withLastError(String lastError) {
+		this.lastError = lastError;
+		return this;
+	}
+
+	public OffsetDateTime getCreated() {
+		return created;
+	}
+
+	public void setCreated(OffsetDateTime created) {
+		this.created = created;
+	}
+
+	public MessageOutboxEntity withCreated(OffsetDateTime created) {
+		this.created = created;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(attempts, batchId, category, created, id, lastError, messageCount, messageType, municipalityId, nextAttempt, payload, status);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) { return true; }
+		if (!(obj instanceof final MessageOutboxEntity other)) { return false; }
+		return (attempts == other.attempts) && Objects.equals(batchId, other.batchId) && (category == other.category) && Objects.equals(created, other.created) && Objects.equals(id, other.id) && Objects.equals(lastError, other.lastError) && (messageCount == other.messageCount)
+			&& Objects.equals(messageType, other.messageType) && Objects.equals(municipalityId, other.municipalityId) && Objects.equals(nextAttempt, other.nextAttempt) && Objects.equals(payload, other.payload) && (status == other.status);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("MessageOutboxEntity [id=").append(id).append(", municipalityId=").append(municipalityId).append(", batchId=").append(batchId).append(", category=").append(category).append(", messageType=").append(messageType).append(", payload=").append(payload).append(", messageCount=").append(messageCount).append(", status=").append(status).append(", attempts=")
+			.append(attempts).append(", nextAttempt=").append(nextAttempt).append(", lastError=").append(lastError).append(", created=").append(created).append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,10 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+public enum MessageOutboxStatus {
+	/** Waiting to be (re)sent. */
+	PENDING,
+	/** Claimed by a dispatch, that is sending it. Claimed again if next attempt (the end of the lease) has passed. */
+	IN_FLIGHT,
+	/** All send attempts failed. The message will not be sent again. */
+	DEAD
+}
@@ -14,6 +14,7 @@ import jakarta.persistence.Table;
 import java.io.Serializable;
 import java.util.Map;
 import java.util.Objects;
+import org.hibernate.annotations.BatchSize;
 import se.sundsvall.disturbance.api.model.Category;
 
 @Entity
@@ -37,7 +38,8 @@ public class OptOutSettingsEntity implements Serializable {
 			name = "opt_out_settings_id",
 			referencedColumnName = "id",
 			foreignKey = @ForeignKey(name = "fk_opt_out_settings_key_values_opt_out_settings_id")))
-	@ElementCollection(fetch = FetchType.EAGER)
+	@ElementCollection(fetch = FetchType.LAZY)
+	@BatchSize(size = 100)
 	private Map<String, String> optOuts;
 
 	public static OptOutSettingsEntity create() {
@@ -0,0 +1,121 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A party that is affected by a disturbance, in the index from (municipalityId, partyId) to the ids of the non-closed
+ * (and not deleted) disturbances where the party is affected. There is one row per party and disturbance, regardless
+ * of the number of affecteds (facilities) the party has in the disturbance.
+ */
+@Entity
+@Table(name = "party_disturbance",
+	indexes = {
+		@Index(name = "party_disturbance_disturbance_id_index", columnList = "disturbance_id")
+	},
+	uniqueConstraints = {
+		@UniqueConstraint(name = "uk_party_disturbance_municipality_id_party_id_disturbance_id", columnNames = {
+			"municipality_id", "party_id", "disturbance_id"
+		})
+	})
+public class PartyDisturbanceEntity implements Serializable {
+
+	private static final long serialVersionUID = 4436529771340813236L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "municipality_id", nullable = false)
+	private String municipalityId;
+
+	@Column(name = "party_id", nullable = false)
+	private String partyId;
+
+	@Column(name = "disturbance_id", nullable = false)
+	private long disturbanceId;
+
+	public static PartyDisturbanceEntity create() {
+		return new PartyDisturbanceEntity();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public PartyDisturbanceEntity withId(Long id) {
+		this.id = id;
+		return this;
+	}
+
+	public String getMunicipalityId() {
+		return municipalityId;
+	}
+
+	public void setMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+	}
+
+	public PartyDisturbanceEntity withMunicipalityId(String municipalityId) {
+		this.municipalityId = municipalityId;
+		return this;
+	}
+
+	public String getPartyId() {
+		return partyId;
+	}
+
+	public void setPartyId(String partyId) {
+		this.partyId = partyId;
+	}
+
+	public PartyDisturbanceEntity withPartyId(String partyId) {
+		this.partyId = partyId;
+		return this;
+	}
+
+	public long getDisturbanceId() {
+		return disturbanceId;
+	}
+
+	public void setDisturbanceId(long disturbanceId) {
+		this.disturbanceId = disturbanceId;
+	}
+
+	public PartyDisturbanceEntity withDisturbanceId(long disturbanceId) {
+		this.disturbanceId = disturbanceId;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(disturbanceId, id, municipalityId, partyId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) { return true; }
+		if (!(obj instanceof final PartyDisturbanceEntity other)) { return false; }
+		return (disturbanceId == other.disturbanceId) && Objects.equals(id, other.id) && Objects.equals(municipalityId, other.municipalityId) && Objects.equals(partyId, other.partyId);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("PartyDisturbanceEntity [id=").append(id).append(", municipalityId=").append(municipalityId).append(", partyId=").append(partyId).append(", disturbanceId=").append(disturbanceId).append("]");
+		return builder.toString();
+	}
+}
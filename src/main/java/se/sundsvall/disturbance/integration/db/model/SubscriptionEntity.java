@@ -8,17 +8,18 @@ import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.io.Serializable;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.TimeZoneStorage;
 
 import static java.time.OffsetDateTime.now;
@@ -29,9 +30,10 @@ import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
 
 @Entity
 @Table(name = "subscription",
-	indexes = {
-		@Index(name = "party_id_index", columnList = "party_id"),
-		@Index(name = "municipality_id_index", columnList = "municipality_id")
+	uniqueConstraints = {
+		@UniqueConstraint(name = "uk_subscription_municipality_id_party_id", columnNames = {
+			"municipality_id", "party_id"
+		})
 	})
 public class SubscriptionEntity implements Serializable {
 
@@ -48,7 +50,8 @@ public class SubscriptionEntity implements Serializable {
 	@Column(name = "party_id", nullable = false)
 	private String partyId;
 
-	@OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+	@OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+	@BatchSize(size = 100)
 	@JoinColumn(name = "subscription_id", foreignKey = @ForeignKey(name = "fk_opt_out_settings_subscription_id"))
 	private List<OptOutSettingsEntity> optOutSettings;
 
@@ -0,0 +1,17 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import se.sundsvall.disturbance.api.model.Category;
+
+/**
+ * Flattened view of a subscription and its opt-out settings. One row is produced per opt-out key/value pair. A
+ * subscription without opt-out settings is represented by a single row where all opt-out attributes are null, and an
+ * opt-out setting without key/values is represented by a row where optOutKey and optOutValue are null.
+ *
+ * @param partyId         the partyId of the subscription.
+ * @param optOutSettingId the id of the opt-out setting (or null).
+ * @param category        the category of the opt-out setting (or null).
+ * @param optOutKey       the opt-out key, e.g. "facilityId" (or null).
+ * @param optOutValue     the opt-out value, e.g. "123456" (or null).
+ */
+public record SubscriptionOptOutRow(String partyId, Long optOutSettingId, Category category, String optOutKey, String optOutValue) {
+}
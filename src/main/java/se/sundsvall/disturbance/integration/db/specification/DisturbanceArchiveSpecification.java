@@ -0,0 +1,60 @@
+package se.sundsvall.disturbance.integration.db.specification;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity_;
+
+import static java.util.Objects.nonNull;
+import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
+
+public interface DisturbanceArchiveSpecification {
+
+	static Specification<DisturbanceArchiveEntity> withMunicipalityId(String municipalityId) {
+		return (disturbanceArchiveEntity, cq, cb) -> cb.equal(disturbanceArchiveEntity.get(DisturbanceArchiveEntity_.MUNICIPALITY_ID), municipalityId);
+	}
+
+	static Specification<DisturbanceArchiveEntity> withCategoryFilter(List<Category> categoryList) {
+		return (disturbanceArchiveEntity, cq, cb) -> {
+			if (isNotEmpty(categoryList)) {
+				return disturbanceArchiveEntity.get(DisturbanceArchiveEntity_.CATEGORY).in(categoryList);
+			}
+			// always-true predicate, means that no filtering would be applied
+			return cb.and();
+		};
+	}
+
+	static Specification<DisturbanceArchiveEntity> withDisturbanceIdFilter(String disturbanceId) {
+		return (disturbanceArchiveEntity, cq, cb) -> {
+			if (nonNull(disturbanceId)) {
+				return cb.equal(disturbanceArchiveEntity.get(DisturbanceArchiveEntity_.DISTURBANCE_ID), disturbanceId);
+			}
+			// always-true predicate, means that no filtering would be applied
+			return cb.and();
+		};
+	}
+
+	/**
+	 * Keyset predicate that matches all archived disturbances after the provided (created, id) position, in the order
+	 * "created ascending, id ascending".
+	 *
+	 * @param  created the created timestamp of the last fetched disturbance (no filtering is applied if null).
+	 * @param  id      the id of the last fetched disturbance (no filtering is applied if null).
+	 * @return         the Specification.
+	 */
+	static Specification<DisturbanceArchiveEntity> withCreatedAndIdAfter(OffsetDateTime created, Long id) {
+		return (disturbanceArchiveEntity, cq, cb) -> {
+			if (nonNull(created) && nonNull(id)) {
+				return cb.or(
+					cb.greaterThan(disturbanceArchiveEntity.get(DisturbanceArchiveEntity_.CREATED), created),
+					cb.and(
+						cb.equal(disturbanceArchiveEntity.get(DisturbanceArchiveEntity_.CREATED), created),
+						cb.greaterThan(disturbanceArchiveEntity.get(DisturbanceArchiveEntity_.ID), id)));
+			}
+			// always-true predicate, means that no filtering would be applied
+			return cb.and();
+		};
+	}
+}
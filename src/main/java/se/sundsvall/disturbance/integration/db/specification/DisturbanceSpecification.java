@@ -1,13 +1,15 @@
 package se.sundsvall.disturbance.integration.db.specification;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.domain.Specification;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Status;
-import se.sundsvall.disturbance.integration.db.model.AffectedEntity_;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity_;
 
+import static java.util.Objects.nonNull;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 
 public interface DisturbanceSpecification {
@@ -32,8 +34,8 @@ public interface DisturbanceSpecification {
 		};
 	}
 
-	static Specification<DisturbanceEntity> withPartyId(String partyId) {
-		return (disturbanceEntity, cq, cb) -> cb.equal(disturbanceEntity.join(DisturbanceEntity_.AFFECTED_ENTITIES).get(AffectedEntity_.PARTY_ID), partyId);
+	static Specification<DisturbanceEntity> withIdIn(Collection<Long> ids) {
+		return (disturbanceEntity, cq, cb) -> disturbanceEntity.get(DisturbanceEntity_.ID).in(ids);
 	}
 
 	static Specification<DisturbanceEntity> withMunicipalityId(String municipalityId) {
@@ -47,4 +49,30 @@ public interface DisturbanceSpecification {
 	static Specification<DisturbanceEntity> withCategory(Category category) {
 		return (disturbanceEntity, cq, cb) -> cb.equal(disturbanceEntity.get(DisturbanceEntity_.CATEGORY), category);
 	}
+
+	static Specification<DisturbanceEntity> withDeleted(boolean deleted) {
+		return (disturbanceEntity, cq, cb) -> cb.equal(disturbanceEntity.get(DisturbanceEntity_.DELETED), deleted);
+	}
+
+	/**
+	 * Keyset predicate that matches all disturbances after the provided (created, id) position, in the order "created
+	 * ascending, id ascending".
+	 *
+	 * @param  created the created timestamp of the last fetched disturbance (no filtering is applied if null).
+	 * @param  id      the id of the last fetched disturbance (no filtering is applied if null).
+	 * @return         the Specification.
+	 */
+	static Specification<DisturbanceEntity> withCreatedAndIdAfter(OffsetDateTime created, Long id) {
+		return (disturbanceEntity, cq, cb) -> {
+			if (nonNull(created) && nonNull(id)) {
+				return cb.or(
+					cb.greaterThan(disturbanceEntity.get(DisturbanceEntity_.CREATED), created),
+					cb.and(
+						cb.equal(disturbanceEntity.get(DisturbanceEntity_.CREATED), created),
+						cb.greaterThan(disturbanceEntity.get(DisturbanceEntity_.ID), id)));
+			}
+			// always-true predicate, means that no filtering would be applied
+			return cb.and();
+		};
+	}
 }
@@ -1,7 +1,28 @@
 package se.sundsvall.disturbance.scheduler;
 
+import java.time.Duration;
+import java.time.Period;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
 
 @ConfigurationProperties("scheduler.dbcleaner")
-public record DatabaseCleanerSchedulerProperties(int deleteDisturbancesOlderThanMonths, String cron) {
+public record DatabaseCleanerSchedulerProperties(int deleteDisturbancesOlderThanMonths, String cron, int chunkSize, Duration maxDuration, Duration chunkPause, List<RetentionPolicy> retentionPolicies) {
+
+	/**
+	 * A retention policy. The disturbances matching the policy are removed (or archived) when they are older than the
+	 * retention period.
+	 * The age of a deleted disturbance is counted from when it was deleted, the age of other disturbances from when they
+	 * were created.
+	 *
+	 * @param name       the name of the policy (used in logs and metrics).
+	 * @param categories the categories that the policy applies to (all categories if empty).
+	 * @param statuses   the statuses that the policy applies to (all statuses if empty).
+	 * @param deleted    true if the policy applies to deleted disturbances, false if it applies to not deleted.
+	 * @param retention  the retention period.
+	 * @param archive    true if the disturbances should be moved to the archive, false if they should be removed.
+	 */
+	public record RetentionPolicy(String name, List<Category> categories, List<Status> statuses, boolean deleted, Period retention, boolean archive) {
+	}
 }
@@ -1,16 +1,36 @@
 package se.sundsvall.disturbance.scheduler;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.time.Period;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import se.sundsvall.dept44.scheduling.Dept44Scheduled;
+import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.DisturbanceChangeCounterRepository;
 import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
+import se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerProperties.RetentionPolicy;
+import se.sundsvall.disturbance.service.DisturbanceArchiveService;
+import se.sundsvall.disturbance.service.cache.DisturbanceCache;
 
+import static java.lang.System.nanoTime;
 import static java.time.OffsetDateTime.now;
 import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.Objects.nonNull;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static se.sundsvall.disturbance.api.model.Status.CLOSED;
 
 @Component
@@ -18,16 +38,38 @@ public class DatabaseCleanerSchedulerService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseCleanerSchedulerService.class);
 
-	private static final List<Status> STATUSES_ELIGIBLE_FOR_REMOVAL = List.of(CLOSED);
+	static final String DEFAULT_POLICY_NAME = "closed";
 
-	private static final String LOG_CLEANING_DELETE_RANGE = "Removing all disturbances older than '{}' and with status matching '{}'.";
+	private static final String LOG_CLEANING_DELETE_RANGE = "Retention policy '{}' (archive: {}): removing all {}disturbances older than '{}' with category matching '{}' and status matching '{}'.";
+	private static final String LOG_CLEANING_DONE = "Retention policy '{}': removed '{}' disturbances and '{}' affecteds in '{}' ms ('{}' rows/s).";
+	private static final String LOG_CLEANING_TIME_BUDGET_EXCEEDED = "Time budget '{}' exceeded. Stopped after disturbance id '{}' in retention policy '{}', the remaining disturbances will be removed by the next run.";
+	private static final String LOG_CLEANING_INTERRUPTED = "Interrupted. Stopped after disturbance id '{}' in retention policy '{}'.";
+
+	static final String METRIC_ROWS = "disturbance.purge.rows";
+	static final String METRIC_CHUNK = "disturbance.purge.chunk";
+	static final String METRIC_ARCHIVED = "disturbance.purge.archived";
+	static final String TAG_TABLE = "table";
+	static final String TAG_POLICY = "policy";
+	static final String TABLE_DISTURBANCE = "disturbance";
+	static final String TABLE_AFFECTED = "affected";
 
 	private final DatabaseCleanerSchedulerProperties properties;
 	private final DisturbanceRepository disturbanceRepository;
+	private final DisturbanceChangeCounterRepository disturbanceChangeCounterRepository;
+	private final DisturbanceArchiveService disturbanceArchiveService;
+	private final DisturbanceCache disturbanceCache;
+	private final MeterRegistry meterRegistry;
+	private final TransactionTemplate transactionTemplate;
 
-	public DatabaseCleanerSchedulerService(final DatabaseCleanerSchedulerProperties properties, final DisturbanceRepository disturbanceRepository) {
+	public DatabaseCleanerSchedulerService(final DatabaseCleanerSchedulerProperties properties, final DisturbanceRepository disturbanceRepository, final DisturbanceChangeCounterRepository disturbanceChangeCounterRepository,
+		final DisturbanceArchiveService disturbanceArchiveService, final DisturbanceCache disturbanceCache, final MeterRegistry meterRegistry, final PlatformTransactionManager transactionManager) {
 		this.properties = properties;
 		this.disturbanceRepository = disturbanceRepository;
+		this.disturbanceChangeCounterRepository = disturbanceChangeCounterRepository;
+		this.disturbanceArchiveService = disturbanceArchiveService;
+		this.disturbanceCache = disturbanceCache;
+		this.meterRegistry = meterRegistry;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
 	@Dept44Scheduled(
@@ -37,15 +79,192 @@ public class DatabaseCleanerSchedulerService {
 		maximumExecutionTime = "${scheduler.dbcleaner.maximum-execution-time}")
 	public void execute() {
 
-		final var statusesEligibleForRemoval = STATUSES_ELIGIBLE_FOR_REMOVAL.toArray(Status[]::new);
-		final var expiryDate = calculateExpiryDate();
+		final var deadline = nanoTime() + properties.maxDuration().toNanos();
+		final var changedMunicipalityIds = new TreeSet<String>();
+
+		try {
+			for (final var retentionPolicy : getRetentionPolicies()) {
+				if (!purge(retentionPolicy, deadline, changedMunicipalityIds)) {
+					return;
+				}
+			}
+		} finally {
+			registerChanges(changedMunicipalityIds);
+		}
+	}
+
+	/**
+	 * The CLOSED policy (deleteDisturbancesOlderThanMonths), which moves the disturbances to the archive, is always applied,
+	 * followed by the configured policies.
+	 */
+	List<RetentionPolicy> getRetentionPolicies() {
+		final var retentionPolicies = new ArrayList<RetentionPolicy>();
+		retentionPolicies.add(new RetentionPolicy(DEFAULT_POLICY_NAME, List.of(), List.of(CLOSED), false, Period.ofMonths(properties.deleteDisturbancesOlderThanMonths()), true));
+
+		if (nonNull(properties.retentionPolicies())) {
+			retentionPolicies.addAll(properties.retentionPolicies());
+		}
+		return retentionPolicies;
+	}
+
+	/**
+	 * Remove all disturbances matching the retention policy, chunk by chunk.
+	 *
+	 * Each chunk is removed (or archived) in a transaction of its own, so the locks are short and the undo log is limited.
+	 * The watermark (last removed disturbance id) makes sure that every chunk starts where the previous one ended. It is
+	 * only kept during the run: a stopped run is not resumed, but the next run finds the remaining disturbances since the
+	 * removed ones are gone.
+	 *
+	 * @return true if all matching disturbances were removed, false if the run was stopped (time budget exceeded or
+	 *         interrupted).
+	 */
+	private boolean purge(final RetentionPolicy retentionPolicy, final long deadline, final Set<String> changedMunicipalityIds) {
+		final var categories = isEmpty(retentionPolicy.categories()) ? List.of(Category.values()) : retentionPolicy.categories();
+		final var statuses = isEmpty(retentionPolicy.statuses()) ? List.of(Status.values()) : retentionPolicy.statuses();
+		final var expiryDate = calculateExpiryDate(retentionPolicy.retention());
+		final var startTime = nanoTime();
+
+		LOGGER.info(LOG_CLEANING_DELETE_RANGE, retentionPolicy.name(), retentionPolicy.archive(), retentionPolicy.deleted() ? "deleted " : "", expiryDate, categories, statuses);
+
+		var watermark = 0L;
+		var removedDisturbances = 0L;
+		var removedAffecteds = 0L;
+		var completed = true;
+		List<Long> disturbanceIds;
+		do {
+			if (nanoTime() - deadline >= 0) {
+				LOGGER.warn(LOG_CLEANING_TIME_BUDGET_EXCEEDED, properties.maxDuration(), watermark, retentionPolicy.name());
+				completed = false;
+				break;
+			}
+			if (!pause(watermark)) {
+				LOGGER.warn(LOG_CLEANING_INTERRUPTED, watermark, retentionPolicy.name());
+				completed = false;
+				break;
+			}
+
+			disturbanceIds = findIds(retentionPolicy.deleted(), categories, statuses, expiryDate, watermark);
+			if (!disturbanceIds.isEmpty()) {
+				final var sample = Timer.start(meterRegistry);
+				if (retentionPolicy.archive()) {
+					final var archived = archive(retentionPolicy, disturbanceIds);
+					removedAffecteds += archived.affecteds();
+					removedDisturbances += archived.disturbances();
+				} else {
+					final var removed = remove(retentionPolicy, disturbanceIds, changedMunicipalityIds);
+					removedAffecteds += removed.affecteds();
+					removedDisturbances += removed.disturbances();
+				}
+				sample.stop(meterRegistry.timer(METRIC_CHUNK, TAG_POLICY, retentionPolicy.name()));
+
+				watermark = disturbanceIds.getLast();
+			}
+		} while (disturbanceIds.size() >= properties.chunkSize());
+
+		if (removedDisturbances > 0) {
+			final var elapsed = Duration.ofNanos(nanoTime() - startTime);
+			LOGGER.info(LOG_CLEANING_DONE, retentionPolicy.name(), removedDisturbances, removedAffecteds, elapsed.toMillis(), calculateRowsPerSecond(removedDisturbances + removedAffecteds, elapsed));
+		}
+		return completed;
+	}
+
+	private List<Long> findIds(final boolean deleted, final List<Category> categories, final List<Status> statuses, final OffsetDateTime expiryDate, final long watermark) {
+		final var limit = Limit.of(properties.chunkSize());
+
+		return deleted
+			? disturbanceRepository.findDeletedIdsByCategoryInAndStatusInAndUpdatedBeforeAndIdGreaterThan(categories, statuses, expiryDate, watermark, limit)
+			: disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(categories, statuses, expiryDate, watermark, limit);
+	}
+
+	/**
+	 * Move the disturbances (and their affecteds) to the archive, in one transaction.
+	 */
+	private RemovedRows archive(final RetentionPolicy retentionPolicy, final List<Long> disturbanceIds) {
+		final var disturbanceArchiveEntities = disturbanceArchiveService.archive(disturbanceIds);
+		final var archivedRows = new RemovedRows(disturbanceArchiveEntities.size(), disturbanceArchiveEntities.stream()
+			.mapToLong(DisturbanceArchiveEntity::getAffectedCount)
+			.sum());
 
-		LOGGER.info(LOG_CLEANING_DELETE_RANGE, expiryDate, statusesEligibleForRemoval);
+		meterRegistry.counter(METRIC_ROWS, TAG_TABLE, TABLE_AFFECTED, TAG_POLICY, retentionPolicy.name()).increment(archivedRows.affecteds());
+		meterRegistry.counter(METRIC_ROWS, TAG_TABLE, TABLE_DISTURBANCE, TAG_POLICY, retentionPolicy.name()).increment(archivedRows.disturbances());
+		meterRegistry.counter(METRIC_ARCHIVED, TAG_POLICY, retentionPolicy.name()).increment(archivedRows.disturbances());
+
+		return archivedRows;
+	}
+
+	/**
+	 * Remove the disturbances (and their affecteds and party index rows) in one transaction. A disturbance can have any number of affecteds, so
+	 * they are removed with statements of (at most) chunkSize rows. The municipalities of the disturbances are collected,
+	 * so that their change counters can be incremented when the run is done.
+	 */
+	private RemovedRows remove(final RetentionPolicy retentionPolicy, final List<Long> disturbanceIds, final Set<String> changedMunicipalityIds) {
+		final var removedRows = transactionTemplate.execute(status -> {
+			changedMunicipalityIds.addAll(disturbanceRepository.findMunicipalityIdsByIdIn(disturbanceIds));
+
+			var removedAffecteds = 0L;
+			int deleted;
+			do {
+				deleted = disturbanceRepository.deleteAffectedByDisturbanceIdIn(disturbanceIds, properties.chunkSize());
+				removedAffecteds += deleted;
+			} while (deleted >= properties.chunkSize());
+			disturbanceRepository.deletePartyDisturbanceByDisturbanceIdIn(disturbanceIds);
+
+			return new RemovedRows(disturbanceRepository.deleteByIdIn(disturbanceIds), removedAffecteds);
+		});
+
+		meterRegistry.counter(METRIC_ROWS, TAG_TABLE, TABLE_AFFECTED, TAG_POLICY, retentionPolicy.name()).increment(removedRows.affecteds());
+		meterRegistry.counter(METRIC_ROWS, TAG_TABLE, TABLE_DISTURBANCE, TAG_POLICY, retentionPolicy.name()).increment(removedRows.disturbances());
+
+		return removedRows;
+	}
+
+	/**
+	 * Increment the change counters (ETags) of the municipalities whose disturbances were removed, once per run, and
+	 * invalidate the disturbance cache when the counters are committed. Archived disturbances are registered by the archive
+	 * itself.
+	 */
+	private void registerChanges(final Set<String> changedMunicipalityIds) {
+		if (changedMunicipalityIds.isEmpty()) {
+			return;
+		}
+
+		final var modified = now(systemDefault()).truncatedTo(MILLIS);
+		transactionTemplate.executeWithoutResult(status -> {
+			changedMunicipalityIds.forEach(municipalityId -> disturbanceChangeCounterRepository.increment(municipalityId, modified));
+			disturbanceCache.invalidateAll();
+		});
+	}
+
+	/**
+	 * Throttle the removal by pausing between the chunks (but not before the first one).
+	 *
+	 * @return false if the thread was interrupted while pausing.
+	 */
+	private boolean pause(final long watermark) {
+		if (watermark == 0 || isNullOrZero(properties.chunkPause())) {
+			return true;
+		}
+		try {
+			Thread.sleep(properties.chunkPause());
+			return true;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private record RemovedRows(long disturbances, long affecteds) {
+	}
+
+	private static boolean isNullOrZero(final Duration duration) {
+		return duration == null || duration.isZero();
+	}
 
-		disturbanceRepository.deleteByCreatedBeforeAndStatusIn(expiryDate, statusesEligibleForRemoval);
+	private static OffsetDateTime calculateExpiryDate(final Period retention) {
+		return now(systemDefault()).minus(retention);
 	}
 
-	private OffsetDateTime calculateExpiryDate() {
-		return now(systemDefault()).minusMonths(properties.deleteDisturbancesOlderThanMonths());
+	private static long calculateRowsPerSecond(final long rows, final Duration elapsed) {
+		return rows * 1_000 / Math.max(elapsed.toMillis(), 1);
 	}
 }
@@ -0,0 +1,37 @@
+package se.sundsvall.disturbance.scheduler;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static java.util.Objects.isNull;
+
+/**
+ * @param batchSize                   the maximum number of chunks claimed (and sent) by one dispatch. Must be at least
+ *                                    maxConcurrentChunks, or the chunks of one dispatch can't be sent in parallel.
+ * @param maxAttempts                 the number of attempts before a chunk is marked as DEAD.
+ * @param initialBackoff              the delay before the first retry of a failed chunk (doubled for each attempt).
+ * @param maxBackoff                  the longest delay between two attempts.
+ * @param lease                       how long claimed chunks are reserved for the dispatch that claimed them. Must be
+ *                                    longer than a dispatch takes, or chunks that are still being sent are claimed again.
+ * @param chunkSize                   the maximum number of messages in one chunk (outbox row and request).
+ * @param maxConcurrentChunks         the maximum number of requests in flight at the same time, per dispatch.
+ * @param dispatchOnCommit            true if the outbox should be dispatched after each commit that added messages.
+ * @param synchronousDispatchOnCommit true if the dispatch after commit should run on the committing thread.
+ */
+@ConfigurationProperties("scheduler.messageoutbox")
+public record MessageOutboxSchedulerProperties(int batchSize, int maxAttempts, Duration initialBackoff, Duration maxBackoff, Duration lease, int chunkSize, int maxConcurrentChunks, boolean dispatchOnCommit,
+	boolean synchronousDispatchOnCommit) {
+
+	public MessageOutboxSchedulerProperties {
+		if (isNull(lease) || lease.isNegative() || lease.isZero()) {
+			throw new IllegalArgumentException("scheduler.messageoutbox.lease (%s) must be positive".formatted(lease));
+		}
+		if (chunkSize < 1 || maxConcurrentChunks < 1) {
+			throw new IllegalArgumentException("scheduler.messageoutbox.chunkSize (%s) and maxConcurrentChunks (%s) must be positive".formatted(chunkSize, maxConcurrentChunks));
+		}
+		if (batchSize < maxConcurrentChunks) {
+			throw new IllegalArgumentException("scheduler.messageoutbox.batchSize (%s) must be at least maxConcurrentChunks (%s), or the chunks of a dispatch are never sent in parallel"
+				.formatted(batchSize, maxConcurrentChunks));
+		}
+	}
+}
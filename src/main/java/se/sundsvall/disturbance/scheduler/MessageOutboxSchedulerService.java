@@ -0,0 +1,44 @@
+package se.sundsvall.disturbance.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import se.sundsvall.dept44.scheduling.Dept44Scheduled;
+import se.sundsvall.disturbance.service.message.MessageOutboxDispatcher;
+
+@Component
+public class MessageOutboxSchedulerService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MessageOutboxSchedulerService.class);
+
+	private static final String LOG_DISPATCHED = "Dispatched '{}' message chunks from the message outbox.";
+
+	private final MessageOutboxSchedulerProperties properties;
+	private final MessageOutboxDispatcher messageOutboxDispatcher;
+
+	public MessageOutboxSchedulerService(final MessageOutboxSchedulerProperties properties, final MessageOutboxDispatcher messageOutboxDispatcher) {
+		this.properties = properties;
+		this.messageOutboxDispatcher = messageOutboxDispatcher;
+	}
+
+	@Dept44Scheduled(
+		cron = "${scheduler.messageoutbox.cron:-}",
+		name = "${scheduler.messageoutbox.name}",
+		lockAtMostFor = "${scheduler.messageoutbox.shedlock-lock-at-most-for}",
+		maximumExecutionTime = "${scheduler.messageoutbox.maximum-execution-time}")
+	public void execute() {
+
+		// Drain the outbox batch by batch. Failed messages are rescheduled to a later attempt, so a batch that isn't full
+		// means that there are no more messages due for sending right now.
+		var dispatched = 0;
+		int claimed;
+		do {
+			claimed = messageOutboxDispatcher.dispatch();
+			dispatched += claimed;
+		} while (claimed >= properties.batchSize());
+
+		if (dispatched > 0) {
+			LOGGER.info(LOG_DISPATCHED, dispatched);
+		}
+	}
+}
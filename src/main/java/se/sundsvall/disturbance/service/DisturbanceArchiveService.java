@@ -0,0 +1,92 @@
+package se.sundsvall.disturbance.service;
+
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.DisturbanceArchiveRepository;
+import se.sundsvall.disturbance.integration.db.DisturbanceChangeCounterRepository;
+import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
+import se.sundsvall.disturbance.service.cache.DisturbanceCache;
+import se.sundsvall.disturbance.service.paging.DisturbanceCursor;
+import se.sundsvall.disturbance.service.paging.DisturbancePage;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.Objects.nonNull;
+import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toArchivedDisturbances;
+import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbanceArchiveEntity;
+
+@Service
+public class DisturbanceArchiveService {
+
+	private final DisturbanceRepository disturbanceRepository;
+	private final DisturbanceArchiveRepository disturbanceArchiveRepository;
+	private final DisturbanceChangeCounterRepository disturbanceChangeCounterRepository;
+	private final DisturbanceCache disturbanceCache;
+
+	public DisturbanceArchiveService(DisturbanceRepository disturbanceRepository, DisturbanceArchiveRepository disturbanceArchiveRepository, DisturbanceChangeCounterRepository disturbanceChangeCounterRepository,
+		DisturbanceCache disturbanceCache) {
+		this.disturbanceRepository = disturbanceRepository;
+		this.disturbanceArchiveRepository = disturbanceArchiveRepository;
+		this.disturbanceChangeCounterRepository = disturbanceChangeCounterRepository;
+		this.disturbanceCache = disturbanceCache;
+	}
+
+	/**
+	 * Move the provided disturbances, with affecteds, to the archive. The disturbances are copied to the archive and
+	 * removed from the disturbance, affected and party_disturbance tables in the same transaction. The change counters are
+	 * incremented, since the archived disturbances are no longer part of the disturbance lists, and the disturbance cache
+	 * is invalidated when the transaction commits.
+	 *
+	 * @param  disturbanceIds the (database) ids of the disturbances to archive.
+	 * @return                the archived disturbances.
+	 */
+	@Transactional
+	public List<DisturbanceArchiveEntity> archive(final List<Long> disturbanceIds) {
+		final var archived = now(systemDefault()).truncatedTo(MILLIS);
+
+		// The affecteds are fetched in batches, when they are mapped.
+		final var disturbanceArchiveEntities = disturbanceRepository.findAllById(disturbanceIds).stream()
+			.map(disturbanceEntity -> toDisturbanceArchiveEntity(disturbanceEntity, archived))
+			.toList();
+
+		disturbanceArchiveRepository.saveAll(disturbanceArchiveEntities);
+		disturbanceRepository.deleteAffectedByDisturbanceIdIn(disturbanceIds, Integer.MAX_VALUE);
+		disturbanceRepository.deletePartyDisturbanceByDisturbanceIdIn(disturbanceIds);
+		disturbanceRepository.deleteByIdIn(disturbanceIds);
+		disturbanceChangeCounterRepository.incrementAll(archived);
+		disturbanceCache.invalidateAll();
+
+		return disturbanceArchiveEntities;
+	}
+
+	/**
+	 * Find one page of archived disturbances, ordered by created and id. The returned page contains a cursor that is used
+	 * to fetch the next page, if there are more archived disturbances.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  categoryFilter a List of categories to filter by.
+	 * @param  disturbanceId  the disturbanceId to filter by (no filtering is applied if null).
+	 * @param  limit          the maximum number of disturbances on the page.
+	 * @param  cursor         the cursor (from the previous page), or null for the first page.
+	 * @return                a DisturbancePage.
+	 */
+	@Transactional(readOnly = true)
+	public DisturbancePage findArchivedDisturbances(final String municipalityId, final List<Category> categoryFilter, final String disturbanceId, final int limit, final String cursor) {
+		final var after = DisturbanceCursor.decode(cursor);
+
+		// Fetch one extra disturbance, to find out if there is a next page.
+		final var disturbanceArchiveEntities = disturbanceArchiveRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, categoryFilter, disturbanceId,
+			nonNull(after) ? after.created() : null, nonNull(after) ? after.id() : null, limit + 1);
+
+		if (disturbanceArchiveEntities.size() <= limit) {
+			return new DisturbancePage(toArchivedDisturbances(disturbanceArchiveEntities), null);
+		}
+
+		final var pageEntities = disturbanceArchiveEntities.subList(0, limit);
+		return new DisturbancePage(toArchivedDisturbances(pageEntities), DisturbanceCursor.of(pageEntities.getLast()).encode());
+	}
+}
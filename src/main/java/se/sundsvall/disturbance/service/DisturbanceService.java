@@ -1,22 +1,58 @@
 package se.sundsvall.disturbance.service;
 
+import io.micrometer.observation.ObservationRegistry;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.disturbance.api.model.Affected;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Disturbance;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
+import se.sundsvall.disturbance.integration.db.AffectedRepository;
+import se.sundsvall.disturbance.integration.db.DisturbanceChangeCounterRepository;
 import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.service.cache.DisturbanceCache;
+import se.sundsvall.disturbance.service.conditional.DisturbanceETag;
+import se.sundsvall.disturbance.service.mapper.DisturbanceMapper;
 import se.sundsvall.disturbance.service.message.SendMessageLogic;
-
+import se.sundsvall.disturbance.service.metrics.DisturbanceMetrics;
+import se.sundsvall.disturbance.service.metrics.PhasedObservation;
+import se.sundsvall.disturbance.service.paging.AffectedCursor;
+import se.sundsvall.disturbance.service.paging.AffectedPage;
+import se.sundsvall.disturbance.service.paging.DisturbanceCursor;
+import se.sundsvall.disturbance.service.paging.DisturbancePage;
+import se.sundsvall.disturbance.service.party.PartyDisturbanceIndex;
+import se.sundsvall.disturbance.service.util.AffectedEntitiesDiff;
+
+import static java.lang.Math.toIntExact;
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toSet;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
+import static org.apache.commons.collections4.CollectionUtils.size;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static se.sundsvall.disturbance.api.model.Status.CLOSED;
@@ -25,35 +61,179 @@ import static se.sundsvall.disturbance.api.model.Status.PLANNED;
 import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANCE_ALREADY_EXISTS;
 import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANCE_CLOSED_NO_UPDATES_ALLOWED;
 import static se.sundsvall.disturbance.service.ServiceConstants.ERROR_DISTURBANCE_NOT_FOUND;
+import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toAffectedEntities;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbance;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbanceEntity;
+import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbanceSummaries;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbances;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toMergedDisturbanceEntity;
+import static se.sundsvall.disturbance.service.util.MappingUtils.diffAffectedEntities;
 import static se.sundsvall.disturbance.service.util.MappingUtils.getAddedAffectedEntities;
-import static se.sundsvall.disturbance.service.util.MappingUtils.getRemovedAffectedEntities;
 
 @Service
 public class DisturbanceService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(DisturbanceService.class);
 
+	static final String OBSERVATION_UPDATE_DISTURBANCE = "disturbance.update";
+	static final String PHASE_LOAD = "load";
+	static final String PHASE_DIFF = "diff";
+	static final String PHASE_MESSAGING = "messaging";
+	static final String PHASE_COMPARE = "compare";
+	static final String PHASE_MERGE = "merge";
+	static final String PHASE_REGISTER = "register";
+	static final String PHASE_SAVE = "save";
+	static final String PHASE_MAP = "map";
+
+	/**
+	 * Transaction resource key of the municipalities whose change counters are incremented when the transaction commits.
+	 */
+	private static final Object CHANGED_MUNICIPALITIES_KEY = new Object();
+
 	private final DisturbanceRepository disturbanceRepository;
+	private final AffectedRepository affectedRepository;
+	private final DisturbanceChangeCounterRepository disturbanceChangeCounterRepository;
+	private final DisturbanceCache disturbanceCache;
+	private final PartyDisturbanceIndex partyDisturbanceIndex;
 	private final SendMessageLogic sendMessageLogic;
+	private final DisturbanceMetrics disturbanceMetrics;
+	private final ObservationRegistry observationRegistry;
 
-	public DisturbanceService(DisturbanceRepository disturbanceRepository, SendMessageLogic sendMessageLogic) {
+	public DisturbanceService(DisturbanceRepository disturbanceRepository, AffectedRepository affectedRepository, DisturbanceChangeCounterRepository disturbanceChangeCounterRepository,
+		DisturbanceCache disturbanceCache, PartyDisturbanceIndex partyDisturbanceIndex, SendMessageLogic sendMessageLogic, DisturbanceMetrics disturbanceMetrics,
+		ObservationRegistry observationRegistry) {
 		this.disturbanceRepository = disturbanceRepository;
+		this.affectedRepository = affectedRepository;
+		this.disturbanceChangeCounterRepository = disturbanceChangeCounterRepository;
+		this.disturbanceCache = disturbanceCache;
+		this.partyDisturbanceIndex = partyDisturbanceIndex;
 		this.sendMessageLogic = sendMessageLogic;
+		this.disturbanceMetrics = disturbanceMetrics;
+		this.observationRegistry = observationRegistry;
 	}
 
-	@Transactional
+	/**
+	 * Find the entity tag of a (not deleted) disturbance, without fetching the disturbance.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  category       the category.
+	 * @param  disturbanceId  the disturbanceId.
+	 * @return                an Optional DisturbanceETag (empty if the disturbance doesn't exist).
+	 */
+	@Transactional(readOnly = true)
+	public Optional<DisturbanceETag> findETag(final String municipalityId, final Category category, final String disturbanceId) {
+		return disturbanceRepository.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, category, disturbanceId)
+			.map(DisturbanceETag::of);
+	}
+
+	/**
+	 * Find the entity tag of the disturbance lists of a municipality. The tag changes every time a disturbance in the
+	 * municipality is changed.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @return                a DisturbanceETag.
+	 */
+	@Transactional(readOnly = true)
+	public DisturbanceETag findETag(final String municipalityId) {
+		return disturbanceChangeCounterRepository.findById(municipalityId)
+			.map(DisturbanceETag::of)
+			.orElseGet(DisturbanceETag::initial);
+	}
+
+	/**
+	 * Find a (not deleted) disturbance, through the disturbance cache. No transaction is started for cached disturbances,
+	 * and the affecteds of a loaded disturbance are fetched in the same query (in the transaction of the repository).
+	 *
+	 * The version of the disturbance is always read from the database first. A cached disturbance that doesn't match it
+	 * (changed by another instance, or not yet invalidated after a commit) is reloaded, so the entity tag of the returned
+	 * disturbance (DisturbanceETag.of) is never older than the database version when the call started.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  category       the category.
+	 * @param  disturbanceId  the disturbanceId.
+	 * @return                the Disturbance.
+	 */
 	public Disturbance findByMunicipalityIdAndCategoryAndDisturbanceId(final String municipalityId, final Category category, final String disturbanceId) {
-		return toDisturbance(disturbanceRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, category, disturbanceId)
+		final var eTag = findETag(municipalityId, category, disturbanceId)
+			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_DISTURBANCE_NOT_FOUND.formatted(category, disturbanceId)));
+
+		final Supplier<Disturbance> loader = () -> toDisturbance(disturbanceRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, category, disturbanceId)
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_DISTURBANCE_NOT_FOUND.formatted(category, disturbanceId))));
+
+		final var disturbance = disturbanceCache.get(municipalityId, category, disturbanceId, loader);
+		if (eTag.value().equals(DisturbanceETag.of(disturbance).value())) {
+			return disturbance;
+		}
+
+		return disturbanceCache.reload(municipalityId, category, disturbanceId, loader);
+	}
+
+	/**
+	 * Find one page of the affecteds of a (not deleted) disturbance, ordered by id. The returned page contains a cursor
+	 * that is used to fetch the next page, if there are more affecteds. Neither the disturbance nor its collection of
+	 * affecteds is loaded.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  category       the category.
+	 * @param  disturbanceId  the disturbanceId.
+	 * @param  partyId        the partyId to filter by, or null for all parties.
+	 * @param  facilityId     the facilityId to filter by, or null for all facilities.
+	 * @param  limit          the maximum number of affecteds on the page.
+	 * @param  cursor         the cursor (from the previous page), or null for the first page.
+	 * @return                an AffectedPage.
+	 */
+	@Transactional(readOnly = true)
+	public AffectedPage findAffecteds(final String municipalityId, final Category category, final String disturbanceId, final String partyId, final String facilityId, final int limit, final String cursor) {
+		final var after = AffectedCursor.decode(cursor);
+		final var disturbanceVersion = disturbanceRepository.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, category, disturbanceId)
+			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_DISTURBANCE_NOT_FOUND.formatted(category, disturbanceId)));
+
+		// Fetch one extra affected, to find out if there is a next page.
+		final var affectedRows = disturbanceRepository.findAffectedRowsByDisturbanceIdAndIdGreaterThan(disturbanceVersion.id(), partyId, facilityId,
+			nonNull(after) ? after.id() : 0L, Limit.of(limit + 1));
+
+		if (affectedRows.size() <= limit) {
+			return new AffectedPage(affectedRows.stream().map(DisturbanceMapper::toAffected).toList(), null);
+		}
+
+		final var pageRows = affectedRows.subList(0, limit);
+		return new AffectedPage(pageRows.stream().map(DisturbanceMapper::toAffected).toList(), AffectedCursor.of(pageRows.getLast()).encode());
 	}
 
+	/**
+	 * Find the (not deleted) disturbances where the provided party is affected. The disturbances are fetched by primary key.
+	 * The ids are read from the party index, which only holds non-closed disturbances, unless closed disturbances are
+	 * requested (no status filter, or a status filter with CLOSED). Then the ids are read from the affecteds instead.
+	 *
+	 * If ownAffectedsOnly is true, only the affecteds of the provided party are read from the database and included in
+	 * the disturbances. Otherwise all affecteds of each disturbance are included.
+	 *
+	 * @param  municipalityId   the municipalityId.
+	 * @param  partyId          the partyId.
+	 * @param  categoryFilter   a List of categories to filter by.
+	 * @param  statusFilter     a List of statuses to filter by.
+	 * @param  ownAffectedsOnly if only the affecteds of the provided party should be included.
+	 * @return                  a List of Disturbance.
+	 */
 	@Transactional
-	public List<Disturbance> findByMunicipalityIdAndPartyIdAndCategoryAndStatus(final String municipalityId, final String partyId, final List<Category> categoryFilter, final List<se.sundsvall.disturbance.api.model.Status> statusFilter) {
-		return toDisturbances(disturbanceRepository.findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(municipalityId, partyId, categoryFilter, statusFilter));
+	public List<Disturbance> findByMunicipalityIdAndPartyIdAndCategoryAndStatus(final String municipalityId, final String partyId, final List<Category> categoryFilter, final List<se.sundsvall.disturbance.api.model.Status> statusFilter, final boolean ownAffectedsOnly) {
+		final var disturbanceIds = includesClosed(statusFilter)
+			? Set.copyOf(disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(municipalityId, partyId))
+			: partyDisturbanceIndex.getDisturbanceIds(municipalityId, partyId);
+		if (disturbanceIds.isEmpty()) {
+			return emptyList();
+		}
+
+		final var disturbanceEntities = disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(municipalityId, disturbanceIds, categoryFilter, statusFilter);
+		if (!ownAffectedsOnly) {
+			return toDisturbances(disturbanceEntities);
+		}
+		if (disturbanceEntities.isEmpty()) {
+			return emptyList();
+		}
+
+		final var affectedRows = disturbanceRepository.findAffectedRowsByDisturbanceIdInAndPartyId(disturbanceEntities.stream().map(DisturbanceEntity::getId).toList(), partyId);
+		return toDisturbances(disturbanceEntities, affectedRows);
 	}
 
 	@Transactional
@@ -61,16 +241,107 @@ public class DisturbanceService {
 		return toDisturbances(disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(municipalityId, statusFilter, categoryFilter));
 	}
 
+	/**
+	 * Find one page of disturbances, ordered by created and id. The returned page contains a cursor that is used to
+	 * fetch the next page, if there are more disturbances.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  statusFilter   a List of statuses to filter by.
+	 * @param  categoryFilter a List of categories to filter by.
+	 * @param  limit          the maximum number of disturbances on the page.
+	 * @param  cursor         the cursor (from the previous page), or null for the first page.
+	 * @return                a DisturbancePage.
+	 */
+	@Transactional
+	public DisturbancePage findByMunicipalityIdAndStatusAndCategory(final String municipalityId, final List<se.sundsvall.disturbance.api.model.Status> statusFilter, final List<Category> categoryFilter, final int limit, final String cursor) {
+		final var after = DisturbanceCursor.decode(cursor);
+
+		// Fetch one extra disturbance, to find out if there is a next page.
+		final var disturbanceEntities = disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(municipalityId, statusFilter, categoryFilter,
+			nonNull(after) ? after.created() : null, nonNull(after) ? after.id() : null, limit + 1);
+
+		if (disturbanceEntities.size() <= limit) {
+			return new DisturbancePage(toDisturbances(disturbanceEntities), null);
+		}
+
+		final var pageEntities = disturbanceEntities.subList(0, limit);
+		return new DisturbancePage(toDisturbances(pageEntities), DisturbanceCursor.of(pageEntities.getLast()).encode());
+	}
+
+	/**
+	 * Find all disturbances, without affecteds, ordered by created and id. Each disturbance contains the number of
+	 * affecteds instead.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  statusFilter   a List of statuses to filter by.
+	 * @param  categoryFilter a List of categories to filter by.
+	 * @return                a List of Disturbance.
+	 */
+	@Transactional(readOnly = true)
+	public List<Disturbance> findSummariesByMunicipalityIdAndStatusAndCategory(final String municipalityId, final List<se.sundsvall.disturbance.api.model.Status> statusFilter, final List<Category> categoryFilter) {
+		return toDisturbanceSummaries(disturbanceRepository.findSummariesByMunicipalityIdAndStatusAndCategory(municipalityId, statusFilter, categoryFilter, null, null, null));
+	}
+
+	/**
+	 * Find one page of disturbances, without affecteds, ordered by created and id. Each disturbance contains the number of
+	 * affecteds instead.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  statusFilter   a List of statuses to filter by.
+	 * @param  categoryFilter a List of categories to filter by.
+	 * @param  limit          the maximum number of disturbances on the page.
+	 * @param  cursor         the cursor (from the previous page), or null for the first page.
+	 * @return                a DisturbancePage.
+	 */
+	@Transactional(readOnly = true)
+	public DisturbancePage findSummariesByMunicipalityIdAndStatusAndCategory(final String municipalityId, final List<se.sundsvall.disturbance.api.model.Status> statusFilter, final List<Category> categoryFilter, final int limit, final String cursor) {
+		final var after = DisturbanceCursor.decode(cursor);
+
+		// Fetch one extra disturbance, to find out if there is a next page.
+		final var disturbanceSummaryRows = disturbanceRepository.findSummariesByMunicipalityIdAndStatusAndCategory(municipalityId, statusFilter, categoryFilter,
+			nonNull(after) ? after.created() : null, nonNull(after) ? after.id() : null, limit + 1);
+
+		if (disturbanceSummaryRows.size() <= limit) {
+			return new DisturbancePage(toDisturbanceSummaries(disturbanceSummaryRows), null);
+		}
+
+		final var pageRows = disturbanceSummaryRows.subList(0, limit);
+		return new DisturbancePage(toDisturbanceSummaries(pageRows), DisturbanceCursor.of(pageRows.getLast()).encode());
+	}
+
+	/**
+	 * Stream all disturbances (ordered by created and id) to the provided consumer, one at a time. The disturbances are
+	 * read from the database in chunks and each entity is released as soon as it has been mapped and consumed, so the
+	 * memory used does not depend on the number of disturbances.
+	 *
+	 * @param municipalityId the municipalityId.
+	 * @param statusFilter   a List of statuses to filter by.
+	 * @param categoryFilter a List of categories to filter by.
+	 * @param consumer       the consumer of the disturbances.
+	 */
+	@Transactional(readOnly = true)
+	public void exportByMunicipalityIdAndStatusAndCategory(final String municipalityId, final List<se.sundsvall.disturbance.api.model.Status> statusFilter, final List<Category> categoryFilter, final Consumer<Disturbance> consumer) {
+		try (final var disturbanceEntities = disturbanceRepository.streamByMunicipalityIdAndStatusAndCategory(municipalityId, statusFilter, categoryFilter)) {
+			disturbanceEntities.forEach(disturbanceEntity -> {
+				consumer.accept(toDisturbance(disturbanceEntity));
+				disturbanceRepository.detach(disturbanceEntity);
+			});
+		}
+	}
+
 	@Transactional
 	public Disturbance createDisturbance(final String municipalityId, final DisturbanceCreateRequest disturbanceCreateRequest) {
 
 		// Check if disturbance already exists.
-		if (disturbanceRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId()).isPresent()) {
+		if (disturbanceRepository.existsByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId())) {
 			throw Problem.valueOf(CONFLICT, ERROR_DISTURBANCE_ALREADY_EXISTS.formatted(disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId()));
 		}
 
 		// Persist disturbance entity.
 		final var persistedDisturbanceEntity = disturbanceRepository.save(toDisturbanceEntity(municipalityId, disturbanceCreateRequest));
+		registerChange(municipalityId, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
+		partyDisturbanceIndex.add(persistedDisturbanceEntity, getPartyIds(persistedDisturbanceEntity.getAffectedEntities()));
+		disturbanceMetrics.affecteds(municipalityId, disturbanceCreateRequest.getCategory(), size(persistedDisturbanceEntity.getAffectedEntities()));
 
 		if (isNotEmpty(persistedDisturbanceEntity.getAffectedEntities()) &&
 			!hasStatusClosed(persistedDisturbanceEntity) && hasStatusOpen(persistedDisturbanceEntity)) {
@@ -84,10 +355,23 @@ public class DisturbanceService {
 
 	@Transactional
 	public Disturbance updateDisturbance(final String municipalityId, final Category category, final String disturbanceId, final DisturbanceUpdateRequest disturbanceUpdateRequest) {
+		final var observation = PhasedObservation.start(observationRegistry, OBSERVATION_UPDATE_DISTURBANCE, municipalityId, category);
+		try {
+			return updateDisturbance(municipalityId, category, disturbanceId, disturbanceUpdateRequest, observation);
+		} catch (final RuntimeException e) {
+			observation.error(e);
+			throw e;
+		} finally {
+			observation.stop();
+		}
+	}
+
+	private Disturbance updateDisturbance(final String municipalityId, final Category category, final String disturbanceId, final DisturbanceUpdateRequest disturbanceUpdateRequest,
+		final PhasedObservation observation) {
 
 		// Get existing disturbance entity.
-		final var existingDisturbanceEntity = disturbanceRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, category, disturbanceId)
-			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_DISTURBANCE_NOT_FOUND.formatted(category, disturbanceId)));
+		final var existingDisturbanceEntity = observation.phase(PHASE_LOAD, () -> disturbanceRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, category, disturbanceId)
+			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_DISTURBANCE_NOT_FOUND.formatted(category, disturbanceId))));
 
 		// No updates allowed on closed disturbance.
 		if (hasStatusClosed(existingDisturbanceEntity)) {
@@ -97,51 +381,160 @@ public class DisturbanceService {
 		// Get new (incoming) disturbance entity.
 		final var incomingDisturbanceEntity = toDisturbanceEntity(category, disturbanceId, disturbanceUpdateRequest);
 
-		// Get added and removed affecteds.
-		final var removedAffecteds = getRemovedAffectedEntities(existingDisturbanceEntity, incomingDisturbanceEntity);
-		final var addedAffecteds = getAddedAffectedEntities(existingDisturbanceEntity, incomingDisturbanceEntity);
+		// Get added and removed affecteds. The difference is calculated once and shared with the merge.
+		// The (lazy) affecteds of the existing disturbance are fetched within this phase.
+		final var affectedsDiff = observation.phase(PHASE_DIFF, () -> diffAffectedEntities(existingDisturbanceEntity.getAffectedEntities(), incomingDisturbanceEntity.getAffectedEntities()));
+		final var removedAffecteds = affectedsDiff.removed();
+		final var addedAffecteds = affectedsDiff.added();
 
 		// Send "close" message if status is changed to CLOSED.
 		if (isChangedToStatusClosed(existingDisturbanceEntity, incomingDisturbanceEntity)) {
 			LOGGER.info("Disturbance status was changed to CLOSED: '{}'. Sending close messages.", incomingDisturbanceEntity);
-			sendMessageLogic.sendCloseMessageToAllApplicableAffecteds(existingDisturbanceEntity);
+			observation.phase(PHASE_MESSAGING, () -> sendMessageLogic.sendCloseMessageToAllApplicableAffecteds(existingDisturbanceEntity));
 
 			// Return since there is no need to continue after this.
-			return toDisturbance(disturbanceRepository.save(toMergedDisturbanceEntity(existingDisturbanceEntity, incomingDisturbanceEntity)));
+			final var mergedDisturbanceEntity = observation.phase(PHASE_MERGE, () -> toMergedDisturbanceEntity(existingDisturbanceEntity, incomingDisturbanceEntity, affectedsDiff));
+			return saveUpdatedDisturbance(municipalityId, category, disturbanceId, mergedDisturbanceEntity, affectedsDiff, true, observation);
 		}
 		// Send "close" message to affecteds that was removed from the disturbance (but not if status is PLANNED).
 		if (isNotEmpty(removedAffecteds) && !hasStatusPlanned(existingDisturbanceEntity)) {
 			LOGGER.info("Removed affecteds was discovered: '{}'. Sending close messages.", removedAffecteds);
-			sendMessageLogic.sendCloseMessageToProvidedApplicableAffecteds(existingDisturbanceEntity, removedAffecteds);
+			observation.phase(PHASE_MESSAGING, () -> sendMessageLogic.sendCloseMessageToProvidedApplicableAffecteds(existingDisturbanceEntity, removedAffecteds));
 		}
 		// Send "create" message to affecteds that was added to the disturbance (but not if status is PLANNED).
 		if (isNotEmpty(addedAffecteds) && !hasStatusPlanned(existingDisturbanceEntity)) {
 			LOGGER.info("Added affecteds was discovered: '{}'. Sending create messages.", addedAffecteds);
-			sendMessageLogic.sendCreateMessageToProvidedApplicableAffecteds(existingDisturbanceEntity, addedAffecteds);
+			observation.phase(PHASE_MESSAGING, () -> sendMessageLogic.sendCreateMessageToProvidedApplicableAffecteds(existingDisturbanceEntity, addedAffecteds));
 		}
 
 		/**
 		 * Perform attribute value checks. These checks must be performed before the toMergedDisturbanceEntity-call, since the
 		 * old disturbance entity will be modified with the new values.
 		 */
-		final var disturbanceContentIsChanged = contentIsChanged(existingDisturbanceEntity, incomingDisturbanceEntity);
+		final boolean disturbanceContentIsChanged = observation.phase(PHASE_COMPARE, () -> contentIsChanged(existingDisturbanceEntity, incomingDisturbanceEntity));
+		final var disturbanceIsChanged = affectedsDiff.isChanged() || isChanged(existingDisturbanceEntity, incomingDisturbanceEntity);
 		final var disturbanceStatusIsChangedFromPlannedToOpen = hasStatusPlanned(existingDisturbanceEntity) && hasStatusOpen(incomingDisturbanceEntity);
 
 		// Merge new and old entities.
-		final var mergedDisturbanceEntity = toMergedDisturbanceEntity(existingDisturbanceEntity, incomingDisturbanceEntity);
+		final var mergedDisturbanceEntity = observation.phase(PHASE_MERGE, () -> toMergedDisturbanceEntity(existingDisturbanceEntity, incomingDisturbanceEntity, affectedsDiff));
 
 		// Send "create" message to all affecteds, if the disturbance status is changed from PLANNED TO OPEN.
 		if (disturbanceStatusIsChangedFromPlannedToOpen) {
 			LOGGER.info("Disturbance status changed from PLANNED to OPEN: '{}'. Sending create messages.", mergedDisturbanceEntity);
-			sendMessageLogic.sendCreateMessageToAllApplicableAffecteds(mergedDisturbanceEntity);
+			observation.phase(PHASE_MESSAGING, () -> sendMessageLogic.sendCreateMessageToAllApplicableAffecteds(mergedDisturbanceEntity));
 		}
 		// Send "update" message to all affecteds, if the disturbance content is updated (but not for status PLANNED).
 		else if (disturbanceContentIsChanged && !hasStatusPlanned(mergedDisturbanceEntity)) {
 			LOGGER.info("Disturbance content was changed: '{}'. Sending update messages.", mergedDisturbanceEntity);
-			sendMessageLogic.sendUpdateMessage(mergedDisturbanceEntity);
+			observation.phase(PHASE_MESSAGING, () -> sendMessageLogic.sendUpdateMessage(mergedDisturbanceEntity));
 		}
 
-		return toDisturbance(disturbanceRepository.save(mergedDisturbanceEntity));
+		return saveUpdatedDisturbance(municipalityId, category, disturbanceId, mergedDisturbanceEntity, affectedsDiff, disturbanceIsChanged, observation);
+	}
+
+	/**
+	 * Save an updated disturbance and register the change (unless nothing was changed). The party index is updated after
+	 * the save, since it is updated from the saved affecteds. The returned disturbance is mapped from the saved entity.
+	 */
+	private Disturbance saveUpdatedDisturbance(final String municipalityId, final Category category, final String disturbanceId, final DisturbanceEntity mergedDisturbanceEntity,
+		final AffectedEntitiesDiff affectedsDiff, final boolean disturbanceIsChanged, final PhasedObservation observation) {
+		final var savedDisturbanceEntity = observation.phase(PHASE_SAVE, () -> disturbanceRepository.save(mergedDisturbanceEntity));
+		if (disturbanceIsChanged) {
+			observation.phase(PHASE_REGISTER, () -> {
+				registerChange(municipalityId, category, disturbanceId);
+				recordAffecteds(municipalityId, savedDisturbanceEntity, affectedsDiff);
+				updatePartyIndex(savedDisturbanceEntity, affectedsDiff);
+			});
+		}
+		return observation.phase(PHASE_MAP, () -> toDisturbance(savedDisturbanceEntity));
+	}
+
+	/**
+	 * Update the party index of an updated disturbance. All parties are removed if the disturbance is closed, otherwise
+	 * only the parties of the added and removed affecteds are updated.
+	 */
+	private void updatePartyIndex(final DisturbanceEntity disturbanceEntity, final AffectedEntitiesDiff affectedsDiff) {
+		if (hasStatusClosed(disturbanceEntity)) {
+			partyDisturbanceIndex.removeAll(disturbanceEntity);
+			return;
+		}
+		partyDisturbanceIndex.add(disturbanceEntity, getPartyIds(affectedsDiff.added()));
+		partyDisturbanceIndex.remove(disturbanceEntity, getPartyIds(affectedsDiff.removed()));
+	}
+
+	/**
+	 * Add affecteds to a disturbance. Only the added affecteds are written, and "create" messages are sent to the added
+	 * affecteds only (but not for status PLANNED). Affecteds that already exist in the disturbance are ignored. The
+	 * collection of affecteds of the disturbance is never loaded.
+	 *
+	 * @param municipalityId the municipalityId.
+	 * @param category       the category.
+	 * @param disturbanceId  the disturbanceId.
+	 * @param affecteds      the affecteds to add.
+	 */
+	@Transactional
+	public void addAffecteds(final String municipalityId, final Category category, final String disturbanceId, final List<Affected> affecteds) {
+
+		final var disturbanceEntity = findDisturbanceEntityForAffectedsUpdate(municipalityId, category, disturbanceId);
+
+		// Only the affecteds of the incoming parties are read, to find out which affecteds already exist.
+		final var incomingAffecteds = toAffectedEntities(affecteds);
+		final var existingAffecteds = affectedRepository.findByDisturbanceIdAndPartyIdIn(disturbanceEntity.getId(), getPartyIds(incomingAffecteds));
+		final var addedAffecteds = getAddedAffectedEntities(existingAffecteds, incomingAffecteds);
+		if (addedAffecteds.isEmpty()) {
+			return;
+		}
+
+		addedAffecteds.forEach(affectedEntity -> affectedEntity.setDisturbanceEntity(disturbanceEntity));
+
+		// Send "create" message to the added affecteds (but not if status is PLANNED).
+		if (!hasStatusPlanned(disturbanceEntity)) {
+			LOGGER.info("Affecteds was added: '{}'. Sending create messages.", addedAffecteds);
+			sendMessageLogic.sendCreateMessageToProvidedApplicableAffecteds(disturbanceEntity, addedAffecteds);
+		}
+
+		affectedRepository.saveAll(addedAffecteds);
+		disturbanceRepository.save(disturbanceEntity.withUpdated(now(systemDefault()).truncatedTo(MILLIS)));
+		partyDisturbanceIndex.add(disturbanceEntity, getPartyIds(addedAffecteds));
+		registerChange(municipalityId, category, disturbanceId);
+		recordAffecteds(municipalityId, disturbanceEntity);
+	}
+
+	/**
+	 * Remove the affecteds of a party (optionally only for one facility) from a disturbance. Only the removed affecteds are
+	 * deleted, and "close" messages are sent to the removed affecteds only (but not for status PLANNED). The collection of
+	 * affecteds of the disturbance is never loaded.
+	 *
+	 * @param municipalityId the municipalityId.
+	 * @param category       the category.
+	 * @param disturbanceId  the disturbanceId.
+	 * @param partyId        the partyId of the affecteds to remove.
+	 * @param facilityId     the facilityId of the affecteds to remove, or null for all facilities of the party.
+	 */
+	@Transactional
+	public void removeAffecteds(final String municipalityId, final Category category, final String disturbanceId, final String partyId, final String facilityId) {
+
+		final var disturbanceEntity = findDisturbanceEntityForAffectedsUpdate(municipalityId, category, disturbanceId);
+
+		final var partyAffecteds = affectedRepository.findByDisturbanceIdAndPartyIdIn(disturbanceEntity.getId(), Set.of(partyId));
+		final var removedAffecteds = partyAffecteds.stream()
+			.filter(affectedEntity -> isNull(facilityId) || Strings.CI.equals(affectedEntity.getFacilityId(), facilityId))
+			.toList();
+		if (removedAffecteds.isEmpty()) {
+			return;
+		}
+
+		// Send "close" message to the removed affecteds (but not if status is PLANNED).
+		if (!hasStatusPlanned(disturbanceEntity)) {
+			LOGGER.info("Affecteds was removed: '{}'. Sending close messages.", removedAffecteds);
+			sendMessageLogic.sendCloseMessageToProvidedApplicableAffecteds(disturbanceEntity, removedAffecteds);
+		}
+
+		affectedRepository.deleteAll(removedAffecteds);
+		disturbanceRepository.save(disturbanceEntity.withUpdated(now(systemDefault()).truncatedTo(MILLIS)));
+		partyDisturbanceIndex.remove(disturbanceEntity, Set.of(partyId));
+		registerChange(municipalityId, category, disturbanceId);
+		recordAffecteds(municipalityId, disturbanceEntity);
 	}
 
 	@Transactional
@@ -153,6 +546,93 @@ public class DisturbanceService {
 		// "Soft delete" disturbance entity.
 		disturbanceEntity.setDeleted(true);
 		disturbanceRepository.save(disturbanceEntity);
+		partyDisturbanceIndex.removeAll(disturbanceEntity);
+		registerChange(municipalityId, category, disturbanceId);
+	}
+
+	/**
+	 * Find a (not deleted) disturbance, without its affecteds, that is about to get affecteds added or removed.
+	 */
+	private DisturbanceEntity findDisturbanceEntityForAffectedsUpdate(final String municipalityId, final Category category, final String disturbanceId) {
+		final var disturbanceEntity = disturbanceRepository.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(municipalityId, category, disturbanceId)
+			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_DISTURBANCE_NOT_FOUND.formatted(category, disturbanceId)));
+
+		// No updates allowed on closed disturbance.
+		if (hasStatusClosed(disturbanceEntity)) {
+			throw Problem.valueOf(CONFLICT, ERROR_DISTURBANCE_CLOSED_NO_UPDATES_ALLOWED.formatted(category, disturbanceId));
+		}
+
+		return disturbanceEntity;
+	}
+
+	/**
+	 * Increment the change counter of the municipality, in the same transaction as the change itself, and invalidate the
+	 * cached disturbance when the transaction commits.
+	 */
+	private void registerChange(final String municipalityId, final Category category, final String disturbanceId) {
+		incrementChangeCounter(municipalityId);
+		disturbanceCache.invalidate(municipalityId, category, disturbanceId);
+	}
+
+	/**
+	 * Increment the change counter of the municipality as the last statement of the current transaction (once per
+	 * municipality), so that the counter row, that is shared by all changes in the municipality, is locked only for the
+	 * duration of the commit. The counter is incremented immediately if there is no transaction.
+	 */
+	private void incrementChangeCounter(final String municipalityId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			disturbanceChangeCounterRepository.increment(municipalityId, now(systemDefault()).truncatedTo(MILLIS));
+			return;
+		}
+
+		@SuppressWarnings("unchecked")
+		var changedMunicipalityIds = (Set<String>) TransactionSynchronizationManager.getResource(CHANGED_MUNICIPALITIES_KEY);
+		if (isNull(changedMunicipalityIds)) {
+			final var municipalityIds = new LinkedHashSet<String>();
+			TransactionSynchronizationManager.bindResource(CHANGED_MUNICIPALITIES_KEY, municipalityIds);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void beforeCommit(final boolean readOnly) {
+					final var modified = now(systemDefault()).truncatedTo(MILLIS);
+					municipalityIds.forEach(id -> disturbanceChangeCounterRepository.increment(id, modified));
+				}
+
+				@Override
+				public void afterCompletion(final int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(CHANGED_MUNICIPALITIES_KEY);
+				}
+			});
+			changedMunicipalityIds = municipalityIds;
+		}
+		changedMunicipalityIds.add(municipalityId);
+	}
+
+	/**
+	 * Record the number of affecteds of an updated disturbance, if the affecteds were changed.
+	 */
+	private void recordAffecteds(final String municipalityId, final DisturbanceEntity mergedDisturbanceEntity, final AffectedEntitiesDiff affectedsDiff) {
+		if (affectedsDiff.isChanged()) {
+			disturbanceMetrics.affecteds(municipalityId, mergedDisturbanceEntity.getCategory(), size(mergedDisturbanceEntity.getAffectedEntities()));
+		}
+	}
+
+	/**
+	 * Record the number of affecteds of a disturbance that got affecteds added or removed. The affecteds are counted in the
+	 * database (including the pending changes), since the collection of affecteds is never loaded.
+	 */
+	private void recordAffecteds(final String municipalityId, final DisturbanceEntity disturbanceEntity) {
+		disturbanceMetrics.affecteds(municipalityId, disturbanceEntity.getCategory(), toIntExact(affectedRepository.countByDisturbanceId(disturbanceEntity.getId())));
+	}
+
+	private static Set<String> getPartyIds(final Collection<AffectedEntity> affectedEntities) {
+		return ofNullable(affectedEntities).orElse(emptyList()).stream()
+			.map(AffectedEntity::getPartyId)
+			.filter(Objects::nonNull)
+			.collect(toSet());
+	}
+
+	private static boolean includesClosed(final List<se.sundsvall.disturbance.api.model.Status> statusFilter) {
+		return isEmpty(statusFilter) || statusFilter.contains(CLOSED);
 	}
 
 	private boolean isChangedToStatusClosed(final DisturbanceEntity oldDisturbanceEntity, final DisturbanceEntity newDisturbanceEntity) {
@@ -171,6 +651,27 @@ public class DisturbanceService {
 		return PLANNED.equals(disturbanceEntity.getStatus());
 	}
 
+	/**
+	 * Check if any (provided) attribute of the new entity differs from the old entity. Unlike contentIsChanged, every
+	 * difference counts (including the status and changes in letter case), since it is used to decide if the update is
+	 * registered as a change at all. The affecteds are not checked.
+	 *
+	 * @param  oldEntity the old entity
+	 * @param  newEntity the new (changed) entity
+	 * @return           true if any attribute is changed, false otherwise.
+	 */
+	private static boolean isChanged(final DisturbanceEntity oldEntity, final DisturbanceEntity newEntity) {
+		return isChanged(oldEntity.getDescription(), newEntity.getDescription()) ||
+			isChanged(oldEntity.getTitle(), newEntity.getTitle()) ||
+			isChanged(oldEntity.getPlannedStartDate(), newEntity.getPlannedStartDate()) ||
+			isChanged(oldEntity.getPlannedStopDate(), newEntity.getPlannedStopDate()) ||
+			isChanged(oldEntity.getStatus(), newEntity.getStatus());
+	}
+
+	private static boolean isChanged(final Object oldValue, final Object newValue) {
+		return nonNull(newValue) && !Objects.equals(oldValue, newValue);
+	}
+
 	/**
 	 * Check if parameters in the newEntity are not null (i.e. they are set in the PATCH request). If set (i.e. not null):
 	 * Check if the values differs from the existing ones that are stored in the oldEntity.
@@ -1,7 +1,8 @@
 package se.sundsvall.disturbance.service;
 
-import java.util.Map;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.dept44.problem.Problem;
@@ -10,13 +11,15 @@ import se.sundsvall.disturbance.api.model.Subscription;
 import se.sundsvall.disturbance.api.model.SubscriptionCreateRequest;
 import se.sundsvall.disturbance.api.model.SubscriptionUpdateRequest;
 import se.sundsvall.disturbance.integration.db.SubscriptionRepository;
-import se.sundsvall.disturbance.integration.db.model.OptOutSettingsEntity;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.service.optout.ApplicableAffecteds;
+import se.sundsvall.disturbance.service.optout.OptOutIndex;
 
 import static io.micrometer.common.util.StringUtils.isBlank;
 import static java.time.OffsetDateTime.now;
 import static java.time.ZoneId.systemDefault;
-import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.toCollection;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.util.CollectionUtils.isEmpty;
@@ -31,19 +34,24 @@ import static se.sundsvall.disturbance.service.mapper.SubscriptionMapper.toUpdat
 public class SubscriptionService {
 
 	private final SubscriptionRepository subscriptionRepository;
+	private final OptOutIndex optOutIndex;
 
-	public SubscriptionService(SubscriptionRepository subscriptionRepository) {
+	public SubscriptionService(SubscriptionRepository subscriptionRepository, OptOutIndex optOutIndex) {
 		this.subscriptionRepository = subscriptionRepository;
+		this.optOutIndex = optOutIndex;
 	}
 
 	@Transactional
 	public Subscription create(final String municipalityId, final SubscriptionCreateRequest request) {
 
-		if (subscriptionRepository.findByMunicipalityIdAndPartyId(municipalityId, request.getPartyId()).isPresent()) {
+		if (subscriptionRepository.existsByMunicipalityIdAndPartyId(municipalityId, request.getPartyId())) {
 			throw Problem.valueOf(CONFLICT, ERROR_SUBSCRIPTION_ALREADY_EXISTS.formatted(request.getPartyId()));
 		}
 
-		return toSubscription(subscriptionRepository.save(toSubscriptionEntity(municipalityId, request)));
+		final var subscriptionEntity = subscriptionRepository.save(toSubscriptionEntity(municipalityId, request));
+		optOutIndex.put(municipalityId, subscriptionEntity.getPartyId(), subscriptionEntity.getOptOutSettings());
+
+		return toSubscription(subscriptionEntity);
 	}
 
 	@Transactional
@@ -70,7 +78,10 @@ public class SubscriptionService {
 		final var subscriptionEntity = subscriptionRepository.findByMunicipalityIdAndId(municipalityId, id)
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_SUBSCRIPTION_NOT_FOUND_BY_ID.formatted(id)));
 
-		return toSubscription(subscriptionRepository.save(toUpdatedSubscriptionEntity(subscriptionEntity, request).withUpdated(now(systemDefault()))));
+		final var updatedSubscriptionEntity = subscriptionRepository.save(toUpdatedSubscriptionEntity(subscriptionEntity, request).withUpdated(now(systemDefault())));
+		optOutIndex.put(municipalityId, updatedSubscriptionEntity.getPartyId(), updatedSubscriptionEntity.getOptOutSettings());
+
+		return toSubscription(updatedSubscriptionEntity);
 	}
 
 	@Transactional
@@ -80,51 +91,49 @@ public class SubscriptionService {
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, ERROR_SUBSCRIPTION_NOT_FOUND_BY_ID.formatted(id)));
 
 		subscriptionRepository.delete(subscriptionEntity);
+		optOutIndex.remove(municipalityId, subscriptionEntity.getPartyId());
 	}
 
-	public boolean hasApplicableSubscription(final String municipalityId, String partyId, Category category, String facilityId) {
-		if (isBlank(partyId)) {
-			return false;
+	/**
+	 * Returns the affectedEntities that belongs to a person/organization with an applicable subscription without matching
+	 * opt-out.
+	 *
+	 * The opt-out rules for all distinct partyIds in the provided list are fetched from the opt-out index, which only
+	 * queries the database (in chunks) for parties that hasn't been indexed yet.
+	 *
+	 * @param  municipalityId   the municipality ID.
+	 * @param  category         the category of the disturbance.
+	 * @param  affectedEntities the affectedEntities to check.
+	 * @return                  the affectedEntities (in the provided order) that has an applicable subscription, and the
+	 *                          number of affectedEntities with a matching opt-out.
+	 */
+	public ApplicableAffecteds getApplicableAffecteds(final String municipalityId, final Category category, final List<AffectedEntity> affectedEntities) {
+		if (isEmpty(affectedEntities)) {
+			return ApplicableAffecteds.empty();
 		}
 
-		final var subscriptionEntity = subscriptionRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId);
+		final var partyIds = affectedEntities.stream()
+			.map(AffectedEntity::getPartyId)
+			.filter(partyId -> !isBlank(partyId))
+			.collect(toCollection(LinkedHashSet::new));
 
-		if (subscriptionEntity.isPresent()) {
-			// Check if parameters matches any current optOutValues on the subscription.
-			final var hasMatchingOptOut = Optional.ofNullable(subscriptionEntity.get().getOptOutSettings()).orElse(emptyList()).stream()
-				.anyMatch(optOutSetting -> hasMatchingOptOut(optOutSetting, category, facilityId));
+		final var optOutRulesByPartyId = optOutIndex.getOptOutRules(municipalityId, partyIds);
 
-			if (!hasMatchingOptOut) {
-				// Person/organization has active subscription without matching opt-outs.
-				return true;
+		final var applicableAffecteds = new ArrayList<AffectedEntity>();
+		var optedOut = 0;
+		for (final var affectedEntity : affectedEntities) {
+			// A missing entry means that the person/organization has no subscription.
+			final var optOutRules = isBlank(affectedEntity.getPartyId()) ? null : optOutRulesByPartyId.get(affectedEntity.getPartyId());
+			if (isNull(optOutRules)) {
+				continue;
+			}
+			if (optOutRules.matches(category, affectedEntity.getFacilityId())) {
+				optedOut++;
+			} else {
+				applicableAffecteds.add(affectedEntity);
 			}
 		}
 
-		// Subscription is missing or has matching opt-outs.
-		return false;
-	}
-
-	private boolean hasMatchingOptOut(OptOutSettingsEntity optOutSetting, Category category, String facilityId) {
-		if (isNull(optOutSetting)) {
-			return false;
-		}
-
-		final var categoryMatch = optOutSetting.getCategory().equals(category);
-		if (isEmpty(optOutSetting.getOptOuts())) {
-			return categoryMatch;
-		}
-
-		final var optOutValueMatch = matches(optOutSetting.getOptOuts(), Map.of("facilityId", facilityId));
-
-		return categoryMatch && optOutValueMatch;
-	}
-
-	private <K, V> boolean matches(Map<K, V> optOutSettingValues, Map<K, V> actualValues) {
-		if (isEmpty(optOutSettingValues) || isEmpty(actualValues)) {
-			return false;
-		}
-
-		return optOutSettingValues.entrySet().stream()
-			.allMatch(it -> actualValues.entrySet().contains(it));
+		return new ApplicableAffecteds(applicableAffecteds, optedOut);
 	}
 }
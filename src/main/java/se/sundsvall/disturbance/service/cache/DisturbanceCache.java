@@ -0,0 +1,111 @@
+package se.sundsvall.disturbance.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Disturbance;
+
+import static org.apache.commons.collections4.CollectionUtils.size;
+
+/**
+ * Bounded read-through cache of (mapped) single disturbances, keyed by municipalityId, category and disturbanceId.
+ *
+ * The cache is bounded by weight, where each disturbance weighs one plus its number of affecteds. Changes made by this
+ * instance invalidate the cached disturbance after the surrounding transaction has committed, so a rolled back change
+ * never reaches the cache. Since changes made by other instances can't be seen, each disturbance is discarded when it
+ * has reached the configured time to live. A cached disturbance must therefore be checked against the version of the
+ * disturbance in the database before it is served together with an entity tag.
+ *
+ * Hit, miss and eviction metrics are published as "cache.*" meters, tagged with cache "disturbance".
+ */
+@Component
+public class DisturbanceCache {
+
+	static final String CACHE_NAME = "disturbance";
+
+	private final Cache<Key, Disturbance> cache;
+
+	public DisturbanceCache(final DisturbanceCacheProperties properties, final MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+			.maximumWeight(properties.maximumWeight())
+			.weigher((Key key, Disturbance disturbance) -> 1 + size(disturbance.getAffecteds()))
+			.expireAfterWrite(properties.timeToLive())
+			.recordStats()
+			.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * Get a disturbance from the cache, or load (and cache) it if it isn't present. Exceptions thrown by the loader are
+	 * propagated and nothing is cached. The returned disturbance is shared and must not be modified.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  category       the category.
+	 * @param  disturbanceId  the disturbanceId.
+	 * @param  loader         the loader of the disturbance.
+	 * @return                the Disturbance.
+	 */
+	public Disturbance get(final String municipalityId, final Category category, final String disturbanceId, final Supplier<Disturbance> loader) {
+		return cache.get(new Key(municipalityId, category, disturbanceId), key -> loader.get());
+	}
+
+	/**
+	 * Load a disturbance and replace the cached disturbance with it. Used when the cached disturbance is found to be stale
+	 * (e.g. changed by another instance). Exceptions thrown by the loader are propagated and the cached disturbance is
+	 * removed.
+	 *
+	 * @param  municipalityId the municipalityId.
+	 * @param  category       the category.
+	 * @param  disturbanceId  the disturbanceId.
+	 * @param  loader         the loader of the disturbance.
+	 * @return                the Disturbance.
+	 */
+	public Disturbance reload(final String municipalityId, final Category category, final String disturbanceId, final Supplier<Disturbance> loader) {
+		final var key = new Key(municipalityId, category, disturbanceId);
+		cache.invalidate(key);
+		return get(municipalityId, category, disturbanceId, loader);
+	}
+
+	/**
+	 * Invalidate a changed disturbance, when the current transaction commits.
+	 *
+	 * @param municipalityId the municipalityId.
+	 * @param category       the category.
+	 * @param disturbanceId  the disturbanceId.
+	 */
+	public void invalidate(final String municipalityId, final Category category, final String disturbanceId) {
+		final var key = new Key(municipalityId, category, disturbanceId);
+		afterCommit(() -> cache.invalidate(key));
+	}
+
+	/**
+	 * Invalidate all disturbances, when the current transaction commits. Used when disturbances are removed in bulk.
+	 */
+	public void invalidateAll() {
+		afterCommit(cache::invalidateAll);
+	}
+
+	private static void afterCommit(final Runnable runnable) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			runnable.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				runnable.run();
+			}
+		});
+	}
+
+	private record Key(String municipalityId, Category category, String disturbanceId) {
+	}
+}
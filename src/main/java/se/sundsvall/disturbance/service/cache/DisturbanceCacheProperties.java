@@ -0,0 +1,13 @@
+package se.sundsvall.disturbance.service.cache;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param maximumWeight the maximum total weight of the cached disturbances (each disturbance weighs one plus its number
+ *                      of affecteds).
+ * @param timeToLive    the time a disturbance is kept after it was cached.
+ */
+@ConfigurationProperties("disturbance.cache")
+public record DisturbanceCacheProperties(long maximumWeight, Duration timeToLive) {
+}
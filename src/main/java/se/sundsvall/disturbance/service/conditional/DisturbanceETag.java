@@ -0,0 +1,58 @@
+package se.sundsvall.disturbance.service.conditional;
+
+import java.time.OffsetDateTime;
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceChangeCounterEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceVersionRow;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Strong entity tag (and last modified timestamp) of a disturbance, or of the disturbance lists of a municipality. Used
+ * to answer conditional requests (If-None-Match/If-Modified-Since) without fetching the disturbances.
+ *
+ * The tag of a disturbance is built from its created and updated timestamps, so the same tag is calculated from the
+ * version row of the disturbance and from the (mapped) disturbance itself.
+ *
+ * @param value        the entity tag value (unquoted).
+ * @param lastModified the last modified timestamp (null if unknown).
+ */
+public record DisturbanceETag(String value, OffsetDateTime lastModified) {
+
+	private static final String INITIAL_VERSION = "0";
+
+	public static DisturbanceETag of(final DisturbanceVersionRow disturbanceVersionRow) {
+		return of(disturbanceVersionRow.created(), disturbanceVersionRow.updated());
+	}
+
+	public static DisturbanceETag of(final Disturbance disturbance) {
+		return of(disturbance.getCreated(), disturbance.getUpdated());
+	}
+
+	public static DisturbanceETag of(final DisturbanceChangeCounterEntity disturbanceChangeCounterEntity) {
+		return new DisturbanceETag(String.valueOf(disturbanceChangeCounterEntity.getVersion()), disturbanceChangeCounterEntity.getModified());
+	}
+
+	/**
+	 * The entity tag of a municipality without a change counter, i.e. where no disturbances have been changed yet.
+	 */
+	public static DisturbanceETag initial() {
+		return new DisturbanceETag(INITIAL_VERSION, null);
+	}
+
+	private static DisturbanceETag of(final OffsetDateTime created, final OffsetDateTime updated) {
+		return new DisturbanceETag(toVersion(created) + "-" + toVersion(updated), nonNull(updated) ? updated : created);
+	}
+
+	private static String toVersion(final OffsetDateTime timestamp) {
+		return isNull(timestamp) ? INITIAL_VERSION : String.valueOf(timestamp.toInstant().toEpochMilli());
+	}
+
+	/**
+	 * @return the last modified timestamp in milliseconds, or -1 if unknown.
+	 */
+	public long lastModifiedMillis() {
+		return isNull(lastModified) ? -1 : lastModified.toInstant().toEpochMilli();
+	}
+}
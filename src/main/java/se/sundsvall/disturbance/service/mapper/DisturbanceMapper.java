@@ -1,21 +1,38 @@
 package se.sundsvall.disturbance.service.mapper;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import se.sundsvall.disturbance.api.model.Affected;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Disturbance;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.AffectedRow;
+import se.sundsvall.disturbance.integration.db.model.ArchivedAffected;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceSummaryRow;
+import se.sundsvall.disturbance.service.util.AffectedEntitiesDiff;
 import se.sundsvall.disturbance.service.util.MappingUtils;
 
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
 import static se.sundsvall.dept44.util.DateUtils.toOffsetDateTimeWithLocalOffset;
 
 public final class DisturbanceMapper {
@@ -23,6 +40,10 @@ public final class DisturbanceMapper {
 	private DisturbanceMapper() {}
 
 	public static Disturbance toDisturbance(final DisturbanceEntity disturbanceEntity) {
+		return toDisturbance(disturbanceEntity, toAffecteds(disturbanceEntity.getAffectedEntities()));
+	}
+
+	private static Disturbance toDisturbance(final DisturbanceEntity disturbanceEntity, final List<Affected> affecteds) {
 		return Disturbance.create()
 			.withMunicipalityId(disturbanceEntity.getMunicipalityId())
 			.withCategory(disturbanceEntity.getCategory())
@@ -30,7 +51,7 @@ public final class DisturbanceMapper {
 			.withDescription(disturbanceEntity.getDescription())
 			.withId(disturbanceEntity.getDisturbanceId())
 			.withDescription(disturbanceEntity.getDescription())
-			.withAffecteds(toAffecteds(disturbanceEntity.getAffectedEntities()))
+			.withAffecteds(affecteds)
 			.withStatus(disturbanceEntity.getStatus())
 			.withCreated(disturbanceEntity.getCreated())
 			.withPlannedStartDate(disturbanceEntity.getPlannedStartDate())
@@ -38,6 +59,58 @@ public final class DisturbanceMapper {
 			.withUpdated(disturbanceEntity.getUpdated());
 	}
 
+	public static Disturbance toDisturbance(final DisturbanceSummaryRow disturbanceSummaryRow) {
+		return Disturbance.create()
+			.withMunicipalityId(disturbanceSummaryRow.municipalityId())
+			.withCategory(disturbanceSummaryRow.category())
+			.withTitle(disturbanceSummaryRow.title())
+			.withDescription(disturbanceSummaryRow.description())
+			.withId(disturbanceSummaryRow.disturbanceId())
+			.withAffectedCount(Math.toIntExact(disturbanceSummaryRow.affectedCount()))
+			.withStatus(disturbanceSummaryRow.status())
+			.withCreated(disturbanceSummaryRow.created())
+			.withPlannedStartDate(disturbanceSummaryRow.plannedStartDate())
+			.withPlannedStopDate(disturbanceSummaryRow.plannedStopDate())
+			.withUpdated(disturbanceSummaryRow.updated());
+	}
+
+	public static Disturbance toDisturbance(final DisturbanceArchiveEntity disturbanceArchiveEntity) {
+		return Disturbance.create()
+			.withMunicipalityId(disturbanceArchiveEntity.getMunicipalityId())
+			.withCategory(disturbanceArchiveEntity.getCategory())
+			.withTitle(disturbanceArchiveEntity.getTitle())
+			.withDescription(disturbanceArchiveEntity.getDescription())
+			.withId(disturbanceArchiveEntity.getDisturbanceId())
+			.withAffecteds(toAffectedsFromArchive(disturbanceArchiveEntity.getAffecteds()))
+			.withStatus(disturbanceArchiveEntity.getStatus())
+			.withCreated(disturbanceArchiveEntity.getCreated())
+			.withPlannedStartDate(disturbanceArchiveEntity.getPlannedStartDate())
+			.withPlannedStopDate(disturbanceArchiveEntity.getPlannedStopDate())
+			.withUpdated(disturbanceArchiveEntity.getUpdated());
+	}
+
+	public static DisturbanceArchiveEntity toDisturbanceArchiveEntity(final DisturbanceEntity disturbanceEntity, final OffsetDateTime archived) {
+		final var archivedAffecteds = ofNullable(disturbanceEntity.getAffectedEntities()).orElse(emptyList()).stream()
+			.filter(Objects::nonNull)
+			.map(DisturbanceMapper::toArchivedAffected)
+			.toList();
+
+		return DisturbanceArchiveEntity.create()
+			.withMunicipalityId(disturbanceEntity.getMunicipalityId())
+			.withDisturbanceId(disturbanceEntity.getDisturbanceId())
+			.withCategory(disturbanceEntity.getCategory())
+			.withTitle(disturbanceEntity.getTitle())
+			.withDescription(disturbanceEntity.getDescription())
+			.withStatus(disturbanceEntity.getStatus())
+			.withPlannedStartDate(disturbanceEntity.getPlannedStartDate())
+			.withPlannedStopDate(disturbanceEntity.getPlannedStopDate())
+			.withCreated(disturbanceEntity.getCreated())
+			.withUpdated(disturbanceEntity.getUpdated())
+			.withArchived(archived)
+			.withAffectedCount(archivedAffecteds.size())
+			.withAffecteds(archivedAffecteds);
+	}
+
 	public static DisturbanceEntity toDisturbanceEntity(final String municipalityId, final DisturbanceCreateRequest disturbanceCreateRequest) {
 		return DisturbanceEntity.create()
 			.withMunicipalityId(municipalityId)
@@ -71,21 +144,36 @@ public final class DisturbanceMapper {
 	 * @return           the old entity with available (non-null) values from the new entity.
 	 */
 	public static DisturbanceEntity toMergedDisturbanceEntity(final DisturbanceEntity oldEntity, final DisturbanceEntity newEntity) {
+		return toMergedDisturbanceEntity(oldEntity, newEntity, MappingUtils.diffAffectedEntities(oldEntity.getAffectedEntities(), newEntity.getAffectedEntities()));
+	}
+
+	/**
+	 * Merge newEntity into oldEntity, using an already calculated difference between the affecteds of the entities.
+	 *
+	 * @param  oldEntity     the old (persisted) entity, that is modified and returned.
+	 * @param  newEntity     the new (incoming) entity.
+	 * @param  affectedsDiff the difference between the affecteds of oldEntity and newEntity.
+	 * @return               the merged oldEntity.
+	 */
+	public static DisturbanceEntity toMergedDisturbanceEntity(final DisturbanceEntity oldEntity, final DisturbanceEntity newEntity, final AffectedEntitiesDiff affectedsDiff) {
 
 		Optional.ofNullable(newEntity.getAffectedEntities()).ifPresent(ae -> {
-			final var removedAffectedEntities = MappingUtils.getRemovedAffectedEntities(oldEntity, newEntity);
-			final var addedAffectedEntities = MappingUtils.getAddedAffectedEntities(oldEntity, newEntity);
 
-			// Remove old affectedEntities that doesn't exist in the new affectedEntities list.
-			if (nonNull(oldEntity.getAffectedEntities())) {
-				oldEntity.getAffectedEntities().removeAll(removedAffectedEntities);
+			// Remove old affectedEntities that doesn't exist in the new affectedEntities list. The removed elements are the same
+			// instances as in the old list, so an identity set keeps the removal linear.
+			if (nonNull(oldEntity.getAffectedEntities()) && !affectedsDiff.removed().isEmpty()) {
+				final Set<AffectedEntity> removedAffectedEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+				removedAffectedEntities.addAll(affectedsDiff.removed());
+				oldEntity.getAffectedEntities().removeIf(removedAffectedEntities::contains);
 			}
 
-			// Remove new affectedEntities that isn't new (i.e. added).
-			newEntity.getAffectedEntities().retainAll(addedAffectedEntities);
+			// Add the new affectedEntities that were added to the old affectedEntities list.
+			oldEntity.addAffectedEntities(affectedsDiff.added());
 
-			// Add remaining new affectedEntities to the old affectedEntities list.
-			oldEntity.addAffectedEntities(newEntity.getAffectedEntities());
+			// The affecteds are not part of the disturbance row, so the updated timestamp (and the ETag) must be changed here.
+			if (affectedsDiff.isChanged()) {
+				oldEntity.setUpdated(now(systemDefault()).truncatedTo(MILLIS));
+			}
 		});
 
 		ofNullable(newEntity.getDescription()).ifPresent(oldEntity::setDescription);
@@ -97,7 +185,7 @@ public final class DisturbanceMapper {
 		return oldEntity;
 	}
 
-	private static List<AffectedEntity> toAffectedEntities(final List<Affected> affecteds) {
+	public static List<AffectedEntity> toAffectedEntities(final List<Affected> affecteds) {
 		if (isNull(affecteds)) {
 			return null;
 		}
@@ -136,10 +224,68 @@ public final class DisturbanceMapper {
 			.withReference(affectedEntity.getReference());
 	}
 
+	public static Affected toAffected(final AffectedRow affectedRow) {
+		return Affected.create()
+			.withFacilityId(affectedRow.facilityId())
+			.withCoordinates(affectedRow.coordinates())
+			.withPartyId(affectedRow.partyId())
+			.withReference(affectedRow.reference());
+	}
+
+	private static ArchivedAffected toArchivedAffected(final AffectedEntity affectedEntity) {
+		return new ArchivedAffected(affectedEntity.getPartyId(), affectedEntity.getReference(), affectedEntity.getFacilityId(), affectedEntity.getCoordinates());
+	}
+
+	private static List<Affected> toAffectedsFromArchive(final List<ArchivedAffected> archivedAffecteds) {
+		if (isNull(archivedAffecteds)) {
+			return null;
+		}
+
+		return archivedAffecteds.stream()
+			.filter(Objects::nonNull)
+			.map(archivedAffected -> Affected.create()
+				.withFacilityId(archivedAffected.facilityId())
+				.withCoordinates(archivedAffected.coordinates())
+				.withPartyId(archivedAffected.partyId())
+				.withReference(archivedAffected.reference()))
+			.toList();
+	}
+
 	public static List<Disturbance> toDisturbances(final List<DisturbanceEntity> disturbanceEntities) {
 		return disturbanceEntities.stream()
 			.filter(Objects::nonNull)
 			.map(DisturbanceMapper::toDisturbance)
 			.toList();
 	}
+
+	/**
+	 * Map the disturbances with the provided affecteds only (e.g. the affecteds of one party).
+	 *
+	 * @param  disturbanceEntities the disturbance entities.
+	 * @param  affectedRows        the affecteds to include, for all disturbances.
+	 * @return                     a List of Disturbance.
+	 */
+	public static List<Disturbance> toDisturbances(final List<DisturbanceEntity> disturbanceEntities, final List<AffectedRow> affectedRows) {
+		final Map<Long, List<Affected>> affectedsByDisturbanceId = affectedRows.stream()
+			.collect(groupingBy(AffectedRow::disturbanceId, mapping(DisturbanceMapper::toAffected, toList())));
+
+		return disturbanceEntities.stream()
+			.filter(Objects::nonNull)
+			.map(disturbanceEntity -> toDisturbance(disturbanceEntity, affectedsByDisturbanceId.getOrDefault(disturbanceEntity.getId(), emptyList())))
+			.toList();
+	}
+
+	public static List<Disturbance> toDisturbanceSummaries(final List<DisturbanceSummaryRow> disturbanceSummaryRows) {
+		return disturbanceSummaryRows.stream()
+			.filter(Objects::nonNull)
+			.map(DisturbanceMapper::toDisturbance)
+			.toList();
+	}
+
+	public static List<Disturbance> toArchivedDisturbances(final List<DisturbanceArchiveEntity> disturbanceArchiveEntities) {
+		return disturbanceArchiveEntities.stream()
+			.filter(Objects::nonNull)
+			.map(DisturbanceMapper::toDisturbance)
+			.toList();
+	}
 }
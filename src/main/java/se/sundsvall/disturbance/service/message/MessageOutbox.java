@@ -0,0 +1,80 @@
+package se.sundsvall.disturbance.service.message;
+
+import generated.se.sundsvall.messaging.Message;
+import generated.se.sundsvall.messaging.MessageRequest;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.scheduler.MessageOutboxSchedulerProperties;
+import se.sundsvall.disturbance.service.message.template.MessageType;
+import tools.jackson.databind.json.JsonMapper;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static org.apache.commons.collections4.ListUtils.partition;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.PENDING;
+
+/**
+ * Stores rendered messages in the message outbox, in the same transaction as the change that caused them. The messages
+ * are stored in chunks of at most chunkSize messages, one row per chunk, so the number of inserts (the outbox id is an
+ * IDENTITY column, which Hibernate can't batch) grows with the number of chunks instead of the number of recipients.
+ *
+ * The chunks are sent to api-messaging by the {@link MessageOutboxDispatcher}, either scheduled or (if dispatchOnCommit
+ * is enabled) by the {@link MessageOutboxDispatchListener} when the transaction has been committed.
+ */
+@Component
+public class MessageOutbox {
+
+	private final MessageOutboxRepository messageOutboxRepository;
+	private final ApplicationEventPublisher applicationEventPublisher;
+	private final MessageOutboxSchedulerProperties properties;
+	private final JsonMapper jsonMapper;
+
+	public MessageOutbox(MessageOutboxRepository messageOutboxRepository, ApplicationEventPublisher applicationEventPublisher, MessageOutboxSchedulerProperties properties, JsonMapper jsonMapper) {
+		this.messageOutboxRepository = messageOutboxRepository;
+		this.applicationEventPublisher = applicationEventPublisher;
+		this.properties = properties;
+		this.jsonMapper = jsonMapper;
+	}
+
+	/**
+	 * Add all messages in the messageRequest to the outbox, split into chunks of at most chunkSize messages. Each chunk
+	 * will be sent as one request. The category and the message type are stored on each chunk, to tag the dispatch metrics.
+	 *
+	 * @param municipalityId the municipality ID.
+	 * @param category       the category of the disturbance.
+	 * @param messageType    the type of the messages.
+	 * @param messageRequest the messageRequest with the messages to send.
+	 */
+	@Transactional
+	public void enqueue(final String municipalityId, final Category category, final MessageType messageType, final MessageRequest messageRequest) {
+		final var batchId = UUID.randomUUID().toString();
+		final var nextAttempt = now(systemDefault());
+
+		final var messageOutboxEntities = partition(messageRequest.getMessages(), properties.chunkSize()).stream()
+			.map(messages -> toMessageOutboxEntity(municipalityId, batchId, messages)
+				.withCategory(category)
+				.withMessageType(messageType.name())
+				.withNextAttempt(nextAttempt))
+			.toList();
+		messageOutboxRepository.saveAll(messageOutboxEntities);
+
+		if (properties.dispatchOnCommit()) {
+			applicationEventPublisher.publishEvent(new MessagesEnqueuedEvent(municipalityId, batchId, messageRequest.getMessages().size(), messageOutboxEntities.size()));
+		}
+	}
+
+	private MessageOutboxEntity toMessageOutboxEntity(final String municipalityId, final String batchId, final List<Message> messages) {
+		return MessageOutboxEntity.create()
+			.withMunicipalityId(municipalityId)
+			.withBatchId(batchId)
+			.withPayload(jsonMapper.writeValueAsString(new MessageRequest().messages(messages)))
+			.withMessageCount(messages.size())
+			.withStatus(PENDING);
+	}
+}
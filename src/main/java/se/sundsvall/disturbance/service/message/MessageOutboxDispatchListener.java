@@ -0,0 +1,101 @@
+package se.sundsvall.disturbance.service.message;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import se.sundsvall.disturbance.scheduler.MessageOutboxSchedulerProperties;
+
+import static org.springframework.transaction.event.TransactionPhase.AFTER_COMMIT;
+
+/**
+ * Dispatches the message outbox when a transaction that added messages has been committed.
+ *
+ * The dispatch runs on a virtual thread, so the committing (request) thread and its database connection are released
+ * without waiting for api-messaging. Events are coalesced: at most one dispatch runs at a time, and events that arrive
+ * while it runs cause one more dispatch when it is done. Since the messages are already committed to the outbox, a
+ * dispatch that fails (or never runs, e.g. on shutdown) is picked up by the scheduled dispatch.
+ *
+ * If synchronousDispatchOnCommit is enabled, the dispatch runs on the committing thread instead.
+ */
+@Component
+public class MessageOutboxDispatchListener implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MessageOutboxDispatchListener.class);
+
+	private final MessageOutboxDispatcher messageOutboxDispatcher;
+	private final MessageOutboxSchedulerProperties properties;
+	private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("message-outbox-dispatch-", 0).factory());
+	private final AtomicBoolean requested = new AtomicBoolean();
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	public MessageOutboxDispatchListener(final MessageOutboxDispatcher messageOutboxDispatcher, final MessageOutboxSchedulerProperties properties) {
+		this.messageOutboxDispatcher = messageOutboxDispatcher;
+		this.properties = properties;
+	}
+
+	@TransactionalEventListener(phase = AFTER_COMMIT)
+	public void onMessagesEnqueued(final MessagesEnqueuedEvent event) {
+		LOGGER.debug("'{}' messages in '{}' chunks for municipalityId '{}' were added to the message outbox (batch '{}')", event.messageCount(), event.chunkCount(), event.municipalityId(), event.batchId());
+
+		if (properties.synchronousDispatchOnCommit()) {
+			dispatch();
+			return;
+		}
+
+		requested.set(true);
+		startIfIdle();
+	}
+
+	/**
+	 * Wait for a running dispatch to finish, on shutdown.
+	 */
+	@Override
+	public void close() {
+		executor.close();
+	}
+
+	private void startIfIdle() {
+		if (running.compareAndSet(false, true)) {
+			try {
+				executor.execute(this::drain);
+			} catch (final RejectedExecutionException e) {
+				running.set(false);
+				LOGGER.warn("Dispatch of the message outbox after commit was rejected (shutting down), the messages are sent by the scheduled dispatch");
+			}
+		}
+	}
+
+	private void drain() {
+		try {
+			while (requested.getAndSet(false)) {
+				dispatch();
+			}
+		} finally {
+			running.set(false);
+		}
+
+		// An event may have arrived after the last check, but before running was cleared.
+		if (requested.get()) {
+			startIfIdle();
+		}
+	}
+
+	/**
+	 * Dispatch batch by batch, until a batch isn't full.
+	 */
+	private void dispatch() {
+		try {
+			int claimed;
+			do {
+				claimed = messageOutboxDispatcher.dispatch();
+			} while (claimed >= properties.batchSize());
+		} catch (final RuntimeException e) {
+			LOGGER.warn("Dispatch of the message outbox after commit failed, the messages are sent by the scheduled dispatch", e);
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package se.sundsvall.disturbance.service.message;
+
+import generated.se.sundsvall.messaging.MessageRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.dept44.exception.ClientProblem;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.integration.messaging.MessagingClient;
+import se.sundsvall.disturbance.scheduler.MessageOutboxSchedulerProperties;
+import se.sundsvall.disturbance.service.message.limiter.MessagingLimiter;
+import tools.jackson.databind.json.JsonMapper;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.isNull;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+import static org.apache.commons.lang3.StringUtils.abbreviate;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.DEAD;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.IN_FLIGHT;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.PENDING;
+
+/**
+ * Sends messages from the message outbox to api-messaging.
+ */
+@Component
+public class MessageOutboxDispatcher {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MessageOutboxDispatcher.class);
+
+	private static final int LAST_ERROR_MAX_LENGTH = 1024;
+
+	static final String METRIC_CHUNK = "disturbance.message.outbox.chunk";
+	static final String METRIC_MESSAGES = "disturbance.message.outbox.messages";
+	static final String TAG_OUTCOME = "outcome";
+	static final String TAG_MUNICIPALITY = "municipality";
+	static final String TAG_CATEGORY = "category";
+	static final String TAG_TYPE = "type";
+	static final String OUTCOME_SUCCESS = "success";
+	static final String OUTCOME_FAILURE = "failure";
+
+	private final MessageOutboxRepository messageOutboxRepository;
+	private final MessagingClient messagingClient;
+	private final MessageOutboxSchedulerProperties properties;
+	private final JsonMapper jsonMapper;
+	private final MeterRegistry meterRegistry;
+	private final MessagingLimiter messagingLimiter;
+	private final TransactionTemplate transactionTemplate;
+
+	public MessageOutboxDispatcher(MessageOutboxRepository messageOutboxRepository, MessagingClient messagingClient, MessageOutboxSchedulerProperties properties, JsonMapper jsonMapper, MeterRegistry meterRegistry,
+		MessagingLimiter messagingLimiter, PlatformTransactionManager transactionManager) {
+		this.messageOutboxRepository = messageOutboxRepository;
+		this.messagingClient = messagingClient;
+		this.properties = properties;
+		this.jsonMapper = jsonMapper;
+		this.meterRegistry = meterRegistry;
+		this.messagingLimiter = messagingLimiter;
+		// A new transaction is required, since the dispatch may run after the commit of (but still bound to) another transaction.
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Claim one batch of at most batchSize chunks that are due for sending and send them to api-messaging, one request per
+	 * chunk. The chunks are sent in parallel on virtual threads, with at most maxConcurrentChunks requests in flight at the
+	 * same time, and at most the current (adaptive) limit of the municipality in flight per municipality.
+	 *
+	 * Sent chunks are removed from the outbox. A chunk that could not be sent is retried with exponential backoff, and is
+	 * marked as DEAD when the maximum number of attempts is reached. A failing chunk does not affect the other chunks.
+	 *
+	 * The chunks are claimed in a short transaction of their own, by setting a lease (status IN_FLIGHT and next attempt at
+	 * the end of the lease) on the locked (FOR UPDATE SKIP LOCKED) rows, so that no other instance will send them
+	 * concurrently. No transaction or database connection is held while api-messaging is called. Each chunk is then
+	 * removed or rescheduled in a short transaction of its own, as soon as it has been sent. A chunk whose lease expires
+	 * (e.g. if the instance is stopped while sending) is claimed again.
+	 *
+	 * @return the number of claimed chunks.
+	 */
+	public int dispatch() {
+		final var chunks = claim();
+
+		sendChunks(chunks);
+
+		return chunks.size();
+	}
+
+	private List<MessageOutboxEntity> claim() {
+		final var chunks = transactionTemplate.execute(status -> {
+			final var now = now(systemDefault());
+			final var dueChunks = messageOutboxRepository.findDueForUpdate(now, properties.batchSize());
+			dueChunks.forEach(chunk -> chunk
+				.withStatus(IN_FLIGHT)
+				.withNextAttempt(now.plus(properties.lease())));
+			return dueChunks;
+		});
+
+		return isNull(chunks) ? emptyList() : chunks;
+	}
+
+	private void sendChunks(final List<MessageOutboxEntity> chunks) {
+		if (chunks.isEmpty()) {
+			return;
+		}
+
+		final var permits = new Semaphore(properties.maxConcurrentChunks());
+		try (final var executor = newVirtualThreadPerTaskExecutor()) {
+			chunks.forEach(chunk -> executor.submit(() -> complete(send(chunk, permits))));
+		}
+	}
+
+	private ChunkResult send(final MessageOutboxEntity chunk, final Semaphore permits) {
+		final var municipalityId = chunk.getMunicipalityId();
+
+		// The municipality limit is acquired first, so that a chunk waiting for its municipality doesn't hold a permit.
+		final var limiterPermit = messagingLimiter.acquire(municipalityId);
+		permits.acquireUninterruptibly();
+		final var sample = Timer.start(meterRegistry);
+		final var startNanos = System.nanoTime();
+		var overloaded = false;
+		try {
+			LOGGER.info("apiMessagingClient: Sending '{}' messages to api-messaging-service...", chunk.getMessageCount());
+			messagingClient.sendMessage(municipalityId, jsonMapper.readValue(chunk.getPayload(), MessageRequest.class));
+			LOGGER.info("apiMessagingClient: Messages sent!");
+
+			recordChunk(sample, chunk, OUTCOME_SUCCESS);
+			return new ChunkResult(chunk, null);
+		} catch (final Exception e) {
+			// Client errors (4xx) are caused by the request, not by the load on api-messaging.
+			overloaded = !(e instanceof ClientProblem);
+			recordChunk(sample, chunk, OUTCOME_FAILURE);
+			return new ChunkResult(chunk, e);
+		} finally {
+			permits.release();
+			limiterPermit.release(Duration.ofNanos(System.nanoTime() - startNanos), overloaded);
+		}
+	}
+
+	/**
+	 * Remove a sent chunk from the outbox, or reschedule a failed chunk, in a (short) transaction of its own. If this
+	 * fails, the chunk is claimed again when its lease expires.
+	 */
+	private void complete(final ChunkResult chunkResult) {
+		final var chunk = chunkResult.chunk();
+		try {
+			if (isNull(chunkResult.failure())) {
+				transactionTemplate.executeWithoutResult(status -> messageOutboxRepository.deleteSentChunk(chunk.getId()));
+				return;
+			}
+
+			LOGGER.warn("apiMessagingClient: Failed to send chunk with '{}' messages (outbox id {}) for municipalityId '{}'",
+				chunk.getMessageCount(), chunk.getId(), chunk.getMunicipalityId(), chunkResult.failure());
+			reschedule(chunk, chunkResult.failure(), now(systemDefault()));
+			transactionTemplate.executeWithoutResult(status -> messageOutboxRepository.updateFailedChunk(chunk.getId(), chunk.getStatus(), chunk.getAttempts(), chunk.getLastError(),
+				chunk.getNextAttempt()));
+		} catch (final RuntimeException e) {
+			LOGGER.error("Chunk with outbox id '{}' could not be updated, and is claimed again when its lease has expired", chunk.getId(), e);
+		}
+	}
+
+	/**
+	 * Record the sending of a chunk, tagged with the municipality, the category and the message type of the chunk ("none"
+	 * for chunks enqueued without them) and the outcome.
+	 */
+	private void recordChunk(final Timer.Sample sample, final MessageOutboxEntity chunk, final String outcome) {
+		final var tags = Tags.of(TAG_MUNICIPALITY, chunk.getMunicipalityId(), TAG_CATEGORY, tagValue(chunk.getCategory()), TAG_TYPE, tagValue(chunk.getMessageType()), TAG_OUTCOME, outcome);
+		sample.stop(meterRegistry.timer(METRIC_CHUNK, tags));
+		meterRegistry.counter(METRIC_MESSAGES, tags).increment(chunk.getMessageCount());
+	}
+
+	private static String tagValue(final Object value) {
+		return lowerCase(Objects.toString(value, "none"));
+	}
+
+	private void reschedule(final MessageOutboxEntity messageOutboxEntity, final Exception exception, final OffsetDateTime now) {
+		final var attempts = messageOutboxEntity.getAttempts() + 1;
+
+		messageOutboxEntity
+			.withAttempts(attempts)
+			.withLastError(abbreviate(exception.toString(), LAST_ERROR_MAX_LENGTH));
+
+		if (attempts >= properties.maxAttempts()) {
+			LOGGER.error("Chunk with outbox id '{}' could not be sent after '{}' attempts and is marked as {}", messageOutboxEntity.getId(), attempts, DEAD);
+			messageOutboxEntity.setStatus(DEAD);
+			return;
+		}
+
+		messageOutboxEntity.setStatus(PENDING);
+		messageOutboxEntity.setNextAttempt(now.plus(calculateBackoff(attempts)));
+	}
+
+	/**
+	 * Exponential backoff (initialBackoff * 2^(attempts - 1)), capped at maxBackoff.
+	 */
+	Duration calculateBackoff(final int attempts) {
+		final var multiplier = 1L << Math.min(attempts - 1, 30);
+		final var backoff = properties.initialBackoff().multipliedBy(multiplier);
+
+		return backoff.compareTo(properties.maxBackoff()) > 0 ? properties.maxBackoff() : backoff;
+	}
+
+	/**
+	 * The result of sending one chunk. The failure is null if the chunk was sent successfully.
+	 */
+	private record ChunkResult(MessageOutboxEntity chunk, Exception failure) {
+	}
+}
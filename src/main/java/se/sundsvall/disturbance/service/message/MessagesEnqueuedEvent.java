@@ -0,0 +1,12 @@
+package se.sundsvall.disturbance.service.message;
+
+/**
+ * Published when messages have been added to the message outbox.
+ *
+ * @param municipalityId the municipality ID.
+ * @param batchId        the batch id of the added messages.
+ * @param messageCount   the number of added messages.
+ * @param chunkCount     the number of added chunks (outbox rows), i.e. the number of inserts and requests.
+ */
+public record MessagesEnqueuedEvent(String municipalityId, String batchId, int messageCount, int chunkCount) {
+}
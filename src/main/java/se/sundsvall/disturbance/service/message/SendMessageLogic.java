@@ -2,12 +2,10 @@ package se.sundsvall.disturbance.service.message;
 
 import generated.se.sundsvall.messaging.Message;
 import generated.se.sundsvall.messaging.MessageRequest;
-import generated.se.sundsvall.messaging.MessageSender;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-import org.apache.commons.text.StringSubstitutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -15,18 +13,22 @@ import org.springframework.transaction.annotation.Transactional;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
-import se.sundsvall.disturbance.integration.messaging.MessagingClient;
 import se.sundsvall.disturbance.service.SubscriptionService;
-import se.sundsvall.disturbance.service.message.configuration.MessageConfiguration;
-import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping.CategoryConfig;
+import se.sundsvall.disturbance.service.message.template.MessageTemplate;
+import se.sundsvall.disturbance.service.message.template.MessageTemplates;
+import se.sundsvall.disturbance.service.message.template.MessageType;
+import se.sundsvall.disturbance.service.metrics.DisturbanceMetrics;
+import se.sundsvall.disturbance.service.optout.ApplicableAffecteds;
 
 import static java.lang.System.lineSeparator;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
-import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toEmail;
+import static org.apache.commons.collections4.CollectionUtils.size;
 import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toFilters;
 import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toMessage;
 import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toParty;
-import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toSms;
+import static se.sundsvall.disturbance.service.message.template.MessageType.CLOSE;
+import static se.sundsvall.disturbance.service.message.template.MessageType.NEW;
+import static se.sundsvall.disturbance.service.message.template.MessageType.UPDATE;
 import static se.sundsvall.disturbance.service.util.DateUtils.toMessageDateFormat;
 
 @Component
@@ -43,13 +45,15 @@ public class SendMessageLogic {
 	private static final String MSG_AFFECTED_REFERENCE = "disturbance.affected.reference";
 
 	private final SubscriptionService subscriptionService;
-	private final MessageConfiguration messageConfiguration;
-	private final MessagingClient messagingClient;
+	private final MessageTemplates messageTemplates;
+	private final MessageOutbox messageOutbox;
+	private final DisturbanceMetrics disturbanceMetrics;
 
-	public SendMessageLogic(SubscriptionService subscriptionService, MessageConfiguration messageConfiguration, MessagingClient messagingClient) {
+	public SendMessageLogic(SubscriptionService subscriptionService, MessageTemplates messageTemplates, MessageOutbox messageOutbox, DisturbanceMetrics disturbanceMetrics) {
 		this.subscriptionService = subscriptionService;
-		this.messageConfiguration = messageConfiguration;
-		this.messagingClient = messagingClient;
+		this.messageTemplates = messageTemplates;
+		this.messageOutbox = messageOutbox;
+		this.disturbanceMetrics = disturbanceMetrics;
 	}
 
 	/**
@@ -114,159 +118,101 @@ public class SendMessageLogic {
 	@Transactional
 	public void sendUpdateMessage(final DisturbanceEntity updatedDisturbanceEntity) {
 
-		// Create messages
-		final var municipalityId = updatedDisturbanceEntity.getMunicipalityId();
-		final var messages = updatedDisturbanceEntity.getAffectedEntities().stream()
-			.filter(this::hasApplicableSubscription)
-			.map(affectedEntity -> mapToUpdateMessage(updatedDisturbanceEntity, affectedEntity))
-			.filter(Objects::nonNull)
-			.toList();
-
-		// Send messages.
-		sendMessages(municipalityId, messages);
+		// Create and send messages
+		sendMessages(updatedDisturbanceEntity, updatedDisturbanceEntity.getAffectedEntities(), UPDATE);
 	}
 
 	private void sendCreateMessage(final DisturbanceEntity createdDisturbanceEntity, final List<AffectedEntity> affectedEntities) {
 
-		// Create messages
-		final var municipalityId = createdDisturbanceEntity.getMunicipalityId();
-		final var messages = affectedEntities.stream()
-			.filter(this::hasApplicableSubscription)
-			.map(affectedEntity -> mapToNewMessage(createdDisturbanceEntity, affectedEntity))
-			.filter(Objects::nonNull)
-			.toList();
-
-		// Send messages.
-		sendMessages(municipalityId, messages);
+		// Create and send messages
+		sendMessages(createdDisturbanceEntity, affectedEntities, NEW);
 	}
 
 	private void sendCloseMessage(final DisturbanceEntity disturbanceEntity, final List<AffectedEntity> affectedEntities) {
 
-		// Create messages
-		final var municipalityId = disturbanceEntity.getMunicipalityId();
-		final var messages = affectedEntities.stream()
-			.filter(this::hasApplicableSubscription)
-			.map(affectedEntity -> mapToCloseMessage(disturbanceEntity, affectedEntity))
-			.filter(Objects::nonNull)
-			.toList();
-
-		// Send messages.
-		sendMessages(municipalityId, messages);
+		// Create and send messages
+		sendMessages(disturbanceEntity, affectedEntities, CLOSE);
 	}
 
-	private Message mapToUpdateMessage(final DisturbanceEntity disturbanceEntity, final AffectedEntity affectedEntity) {
-
-		// Fetch message properties by category.
-		final var messageConfig = getMessageConfigByCategory(disturbanceEntity.getCategory()).orElse(new CategoryConfig());
-		if (!messageConfig.isActive()) {
-			return null;
-		}
-
-		final var propertyResolver = new StringSubstitutor(Map.of(
-			MSG_NEWLINE, lineSeparator(),
-			MSG_TITLE, disturbanceEntity.getTitle(),
-			MSG_DESCRIPTION, disturbanceEntity.getDescription(),
-			MSG_PLANNED_START_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStartDate()),
-			MSG_PLANNED_STOP_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStopDate()),
-			MSG_AFFECTED_REFERENCE, affectedEntity.getReference()));
-
-		// Assemble message and subject based on the properties.
-		final var sender = new MessageSender()
-			.email(toEmail(messageConfig.getSenderEmailName(), messageConfig.getSenderEmailAddress()))
-			.sms(toSms(messageConfig.getSenderSmsName()));
+	private void sendMessages(final DisturbanceEntity disturbanceEntity, final List<AffectedEntity> affectedEntities, final MessageType messageType) {
 
-		final var filters = toFilters(disturbanceEntity.getCategory(), affectedEntity.getFacilityId());
-		final var subject = propertyResolver.replace(messageConfig.getSubjectUpdate());
-		final var message = propertyResolver.replace(messageConfig.getMessageUpdate());
-
-		return toMessage(filters, sender, toParty(affectedEntity.getPartyId()), subject, message);
-	}
-
-	private Message mapToNewMessage(final DisturbanceEntity disturbanceEntity, final AffectedEntity affectedEntity) {
+		final var municipalityId = disturbanceEntity.getMunicipalityId();
+		final var category = disturbanceEntity.getCategory();
 
-		// Fetch message properties by category.
-		final var messageConfig = getMessageConfigByCategory(disturbanceEntity.getCategory()).orElse(new CategoryConfig());
-		if (!messageConfig.isActive()) {
-			return null;
+		// Fetch compiled templates by category (only present if the category is active).
+		final var categoryTemplates = messageTemplates.getCategoryTemplates(category);
+		if (categoryTemplates.isEmpty()) {
+			disturbanceMetrics.messagesSuppressedByInactiveCategory(municipalityId, category, messageType, size(affectedEntities));
+			return;
 		}
 
-		final var propertyResolver = new StringSubstitutor(Map.of(
-			MSG_NEWLINE, lineSeparator(),
-			MSG_TITLE, disturbanceEntity.getTitle(),
-			MSG_DESCRIPTION, disturbanceEntity.getDescription(),
-			MSG_PLANNED_START_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStartDate()),
-			MSG_PLANNED_STOP_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStopDate()),
-			MSG_AFFECTED_REFERENCE, affectedEntity.getReference()));
+		final var applicableAffecteds = getApplicableAffecteds(disturbanceEntity, affectedEntities);
+		disturbanceMetrics.messagesSuppressedByOptOut(municipalityId, category, messageType, applicableAffecteds.optedOut());
+		if (applicableAffecteds.affecteds().isEmpty()) {
+			return;
+		}
 
-		// Assemble message and subject based on the properties.
-		final var sender = new MessageSender()
-			.email(toEmail(messageConfig.getSenderEmailName(), messageConfig.getSenderEmailAddress()))
-			.sms(toSms(messageConfig.getSenderSmsName()));
+		// Render all disturbance level variables once, only the affected reference differs between the messages.
+		final var disturbanceValues = new HashMap<String, String>();
+		disturbanceValues.put(MSG_NEWLINE, lineSeparator());
+		disturbanceValues.put(MSG_TITLE, disturbanceEntity.getTitle());
+		disturbanceValues.put(MSG_DESCRIPTION, disturbanceEntity.getDescription());
+		disturbanceValues.put(MSG_PLANNED_START_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStartDate()));
+		disturbanceValues.put(MSG_PLANNED_STOP_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStopDate()));
+
+		final var subjectTemplate = bind(categoryTemplates.get().getSubject(messageType), disturbanceValues);
+		final var messageTemplate = bind(categoryTemplates.get().getMessage(messageType), disturbanceValues);
+		final var sender = categoryTemplates.get().toSender();
+
+		final var messages = applicableAffecteds.affecteds().stream()
+			.map(affectedEntity -> toMessage(
+				toFilters(category, affectedEntity.getFacilityId()),
+				sender,
+				toParty(affectedEntity.getPartyId()),
+				render(subjectTemplate, affectedEntity),
+				render(messageTemplate, affectedEntity)))
+			.toList();
 
-		final var filters = toFilters(disturbanceEntity.getCategory(), affectedEntity.getFacilityId());
-		final var subject = propertyResolver.replace(messageConfig.getSubjectNew());
-		final var message = propertyResolver.replace(messageConfig.getMessageNew());
+		disturbanceMetrics.messagesRendered(municipalityId, category, messageType, messages.size());
 
-		return toMessage(filters, sender, toParty(affectedEntity.getPartyId()), subject, message);
+		// Send messages.
+		sendMessages(municipalityId, category, messageType, messages);
 	}
 
-	private Message mapToCloseMessage(final DisturbanceEntity disturbanceEntity, final AffectedEntity affectedEntity) {
-
-		// Fetch message properties by category.
-		final var messageConfig = getMessageConfigByCategory(disturbanceEntity.getCategory()).orElse(new CategoryConfig());
-		if (!messageConfig.isActive()) {
-			return null;
-		}
+	private static MessageTemplate bind(final MessageTemplate template, final Map<String, String> values) {
+		return Optional.ofNullable(template)
+			.map(messageTemplate -> messageTemplate.bind(values))
+			.orElse(null);
+	}
 
-		final var propertyResolver = new StringSubstitutor(Map.of(
-			MSG_NEWLINE, lineSeparator(),
-			MSG_TITLE, disturbanceEntity.getTitle(),
-			MSG_DESCRIPTION, disturbanceEntity.getDescription(),
-			MSG_PLANNED_START_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStartDate()),
-			MSG_PLANNED_STOP_DATE, toMessageDateFormat(disturbanceEntity.getPlannedStopDate()),
-			MSG_AFFECTED_REFERENCE, affectedEntity.getReference()));
-
-		// Assemble message and subject based on the properties.
-		final var sender = new MessageSender()
-			.email(toEmail(messageConfig.getSenderEmailName(), messageConfig.getSenderEmailAddress()))
-			.sms(toSms(messageConfig.getSenderSmsName()));
-		final var filters = toFilters(disturbanceEntity.getCategory(), affectedEntity.getFacilityId());
-		final var subject = propertyResolver.replace(messageConfig.getSubjectClose());
-		final var message = propertyResolver.replace(messageConfig.getMessageClose());
-		final var party = toParty(affectedEntity.getPartyId());
-
-		return toMessage(filters, sender, party, subject, message);
+	private static String render(final MessageTemplate template, final AffectedEntity affectedEntity) {
+		return Optional.ofNullable(template)
+			.map(messageTemplate -> messageTemplate.render(MSG_AFFECTED_REFERENCE, affectedEntity.getReference()))
+			.orElse(null);
 	}
 
-	private void sendMessages(final String municipalityId, final List<Message> messages) {
+	private void sendMessages(final String municipalityId, final Category category, final MessageType messageType, final List<Message> messages) {
 
 		LOGGER.debug("Messages to send to api-messaging-service: '{}'", messages);
 
-		// Send messageRequest to api-messaging-service service (if it contains messages).
+		// Add messageRequest to the message outbox (if it contains messages). It is sent to api-messaging-service by the
+		// MessageOutboxDispatcher after the transaction has been committed.
 		if (isNotEmpty(messages)) {
-			LOGGER.info("apiMessagingClient: Sending '{}' messages to api-messaging-service...", messages.size());
-			messagingClient.sendMessage(municipalityId, new MessageRequest().messages(messages));
-			LOGGER.info("apiMessagingClient: Messages sent!");
+			LOGGER.info("Adding '{}' messages to the message outbox", messages.size());
+			messageOutbox.enqueue(municipalityId, category, messageType, new MessageRequest().messages(messages));
+			disturbanceMetrics.messageRequest(municipalityId, category, messageType, messages.size());
 		}
 	}
 
-	private Optional<CategoryConfig> getMessageConfigByCategory(final Category category) {
-		return Optional.ofNullable(messageConfiguration.getCategoryConfig(category));
-	}
-
 	/**
-	 * Returns true if the person/organization that belongs to the affectedEntity has an applicable subscription without
-	 * matching opt-out.
+	 * Returns the affectedEntities that belongs to a person/organization with an applicable subscription without matching
+	 * opt-out. All subscriptions are resolved in bulk for the whole list.
 	 *
-	 * @param  affectedEntity the affectedEntity to check.
-	 * @return                true if there is a match, false otherwise.
+	 * @param  disturbanceEntity the disturbanceEntity that the affectedEntities belongs to.
+	 * @param  affectedEntities  the affectedEntities to check.
+	 * @return                   the affectedEntities with an applicable subscription.
 	 */
-	private boolean hasApplicableSubscription(final AffectedEntity affectedEntity) {
-		final var category = affectedEntity.getDisturbanceEntity().getCategory();
-		final var partyId = affectedEntity.getPartyId();
-		final var municipalityId = affectedEntity.getDisturbanceEntity().getMunicipalityId();
-		final var facilityId = affectedEntity.getFacilityId();
-
-		return subscriptionService.hasApplicableSubscription(municipalityId, partyId, category, facilityId);
+	private ApplicableAffecteds getApplicableAffecteds(final DisturbanceEntity disturbanceEntity, final List<AffectedEntity> affectedEntities) {
+		return subscriptionService.getApplicableAffecteds(disturbanceEntity.getMunicipalityId(), disturbanceEntity.getCategory(), affectedEntities);
 	}
 }
@@ -0,0 +1,150 @@
+package se.sundsvall.disturbance.service.message.limiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adaptive (AIMD) limit of the number of concurrent requests to api-messaging, per municipality.
+ *
+ * Each successful request that is faster than the latency threshold increases the limit of its municipality by 1/limit
+ * (i.e. by about one per "round" of requests), up to maxLimit. Each request that fails, or is slower than the threshold,
+ * multiplies the limit with the backoff ratio (once per round of requests), down to minLimit. Requests that exceed the
+ * limit wait until a request of the same municipality is done, so a slow municipality doesn't hold back the others.
+ *
+ * The current limit, the number of requests in flight and the number of waiting requests are published as
+ * "disturbance.messaging.limiter.*" gauges, tagged with municipality.
+ */
+@Component
+public class MessagingLimiter {
+
+	static final String METRIC_LIMIT = "disturbance.messaging.limiter.limit";
+	static final String METRIC_IN_FLIGHT = "disturbance.messaging.limiter.inflight";
+	static final String METRIC_QUEUE = "disturbance.messaging.limiter.queue";
+	static final String TAG_MUNICIPALITY = "municipality";
+
+	private final MessagingLimiterProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, MunicipalityLimit> municipalityLimits = new ConcurrentHashMap<>();
+
+	public MessagingLimiter(final MessagingLimiterProperties properties, final MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Wait until a request to api-messaging is allowed for the municipality.
+	 *
+	 * @param  municipalityId the municipality ID.
+	 * @return                the permit, that must be released when the request is done.
+	 */
+	public Permit acquire(final String municipalityId) {
+		return getMunicipalityLimit(municipalityId).acquire();
+	}
+
+	double getLimit(final String municipalityId) {
+		return getMunicipalityLimit(municipalityId).limit;
+	}
+
+	private MunicipalityLimit getMunicipalityLimit(final String municipalityId) {
+		return municipalityLimits.computeIfAbsent(municipalityId, key -> {
+			final var municipalityLimit = new MunicipalityLimit(properties);
+			Gauge.builder(METRIC_LIMIT, municipalityLimit, limit -> limit.limit).tag(TAG_MUNICIPALITY, municipalityId).register(meterRegistry);
+			Gauge.builder(METRIC_IN_FLIGHT, municipalityLimit, limit -> limit.inFlight).tag(TAG_MUNICIPALITY, municipalityId).register(meterRegistry);
+			Gauge.builder(METRIC_QUEUE, municipalityLimit, limit -> limit.waiting).tag(TAG_MUNICIPALITY, municipalityId).register(meterRegistry);
+			return municipalityLimit;
+		});
+	}
+
+	/**
+	 * A permit to make one request to api-messaging.
+	 */
+	public static final class Permit {
+
+		private final MunicipalityLimit municipalityLimit;
+		private final long epoch;
+
+		private Permit(final MunicipalityLimit municipalityLimit, final long epoch) {
+			this.municipalityLimit = municipalityLimit;
+			this.epoch = epoch;
+		}
+
+		/**
+		 * Signal that the request is done, and adjust the limit of the municipality from the outcome.
+		 *
+		 * @param latency    the duration of the request.
+		 * @param overloaded true if the request failed in a way that indicates that api-messaging is overloaded.
+		 */
+		public void release(final Duration latency, final boolean overloaded) {
+			municipalityLimit.release(epoch, overloaded || latency.compareTo(municipalityLimit.properties.latencyThreshold()) > 0);
+		}
+	}
+
+	/**
+	 * The limit of one municipality. A lock (rather than synchronized) is used, since the requests are made on virtual
+	 * threads.
+	 *
+	 * The limit is decreased at most once for the requests that were in flight when the limit was last decreased (the
+	 * same epoch), since they were all made under the higher limit.
+	 */
+	private static final class MunicipalityLimit {
+
+		private final MessagingLimiterProperties properties;
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition available = lock.newCondition();
+
+		private volatile double limit;
+		private volatile int inFlight;
+		private volatile int waiting;
+		private long epoch;
+
+		private MunicipalityLimit(final MessagingLimiterProperties properties) {
+			this.properties = properties;
+			this.limit = clamp(properties.initialLimit());
+		}
+
+		private Permit acquire() {
+			lock.lock();
+			try {
+				waiting++;
+				try {
+					while (inFlight >= (int) limit) {
+						available.awaitUninterruptibly();
+					}
+				} finally {
+					waiting--;
+				}
+				inFlight++;
+				return new Permit(this, epoch);
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private void release(final long permitEpoch, final boolean overloaded) {
+			lock.lock();
+			try {
+				inFlight--;
+				if (!overloaded) {
+					limit = clamp(limit + 1 / limit);
+				} else if (permitEpoch == epoch) {
+					limit = clamp(limit * properties.backoffRatio());
+					epoch++;
+				}
+				available.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private double clamp(final double value) {
+			final var minLimit = Math.max(1, properties.minLimit());
+			return Math.clamp(value, minLimit, Math.max(minLimit, properties.maxLimit()));
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package se.sundsvall.disturbance.service.message.limiter;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param initialLimit     the number of concurrent requests allowed per municipality, before any requests are observed.
+ * @param minLimit         the lowest number of concurrent requests allowed per municipality.
+ * @param maxLimit         the highest number of concurrent requests allowed per municipality.
+ * @param latencyThreshold requests slower than this are treated as a sign of overload.
+ * @param backoffRatio     the factor the limit is multiplied with on overload (between 0 and 1).
+ */
+@ConfigurationProperties("integration.messaging.limiter")
+public record MessagingLimiterProperties(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+}
@@ -0,0 +1,53 @@
+package se.sundsvall.disturbance.service.message.template;
+
+import generated.se.sundsvall.messaging.MessageSender;
+import java.util.EnumMap;
+import java.util.Map;
+import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping.CategoryConfig;
+
+import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toEmail;
+import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toSms;
+
+/**
+ * The compiled subject and message templates (per message type) and the sender for one category.
+ */
+public final class CategoryTemplates {
+
+	private final Map<MessageType, MessageTemplate> subjects = new EnumMap<>(MessageType.class);
+	private final Map<MessageType, MessageTemplate> messages = new EnumMap<>(MessageType.class);
+	private final CategoryConfig categoryConfig;
+
+	private CategoryTemplates(final CategoryConfig categoryConfig) {
+		this.categoryConfig = categoryConfig;
+
+		subjects.put(MessageType.NEW, MessageTemplate.compile(categoryConfig.getSubjectNew()));
+		subjects.put(MessageType.UPDATE, MessageTemplate.compile(categoryConfig.getSubjectUpdate()));
+		subjects.put(MessageType.CLOSE, MessageTemplate.compile(categoryConfig.getSubjectClose()));
+		messages.put(MessageType.NEW, MessageTemplate.compile(categoryConfig.getMessageNew()));
+		messages.put(MessageType.UPDATE, MessageTemplate.compile(categoryConfig.getMessageUpdate()));
+		messages.put(MessageType.CLOSE, MessageTemplate.compile(categoryConfig.getMessageClose()));
+	}
+
+	public static CategoryTemplates compile(final CategoryConfig categoryConfig) {
+		return new CategoryTemplates(categoryConfig);
+	}
+
+	public MessageTemplate getSubject(final MessageType messageType) {
+		return subjects.get(messageType);
+	}
+
+	public MessageTemplate getMessage(final MessageType messageType) {
+		return messages.get(messageType);
+	}
+
+	/**
+	 * Returns a new MessageSender for this category.
+	 *
+	 * @return a MessageSender.
+	 */
+	public MessageSender toSender() {
+		return new MessageSender()
+			.email(toEmail(categoryConfig.getSenderEmailName(), categoryConfig.getSenderEmailAddress()))
+			.sms(toSms(categoryConfig.getSenderSmsName()));
+	}
+}
@@ -0,0 +1,184 @@
+package se.sundsvall.disturbance.service.message.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A message template that is parsed once into an array of segments, where each segment is either literal text or a
+ * ${variable}.
+ *
+ * The syntax is the same as the (default) syntax of org.apache.commons.text.StringSubstitutor:
+ * <ul>
+ * <li>${name} is replaced with the value of the variable "name".</li>
+ * <li>${name:-default} is replaced with "default" if the variable "name" has no value.</li>
+ * <li>$${name} is an escaped variable, and is rendered as ${name}.</li>
+ * <li>Variables without a value (and without default) are rendered as-is.</li>
+ * </ul>
+ * Unlike StringSubstitutor, variable values are never substituted recursively.
+ */
+public final class MessageTemplate {
+
+	private static final String VARIABLE_PREFIX = "${";
+	private static final String VARIABLE_SUFFIX = "}";
+	private static final String DEFAULT_VALUE_DELIMITER = ":-";
+	private static final char ESCAPE_CHAR = '$';
+
+	private final Segment[] segments;
+	private final int literalLength;
+
+	private MessageTemplate(final List<Segment> segments) {
+		this.segments = segments.toArray(Segment[]::new);
+		this.literalLength = segments.stream()
+			.filter(segment -> isNull(segment.variable()))
+			.mapToInt(segment -> segment.text().length())
+			.sum();
+	}
+
+	/**
+	 * Parse a template into a MessageTemplate.
+	 *
+	 * @param  template the template (may be null).
+	 * @return          the compiled MessageTemplate, or null if template is null.
+	 */
+	public static MessageTemplate compile(final String template) {
+		if (isNull(template)) {
+			return null;
+		}
+
+		final var segments = new SegmentListBuilder();
+		var position = 0;
+
+		while (position < template.length()) {
+			final var start = template.indexOf(VARIABLE_PREFIX, position);
+			if (start < 0) {
+				break;
+			}
+
+			final var end = template.indexOf(VARIABLE_SUFFIX, start + VARIABLE_PREFIX.length());
+			if (end < 0) {
+				break;
+			}
+
+			if ((start > 0) && (template.charAt(start - 1) == ESCAPE_CHAR)) {
+				// Escaped variable, the escape character is dropped and the variable is kept as text.
+				segments.addText(template.substring(position, start - 1));
+				segments.addText(template.substring(start, end + 1));
+			} else {
+				segments.addText(template.substring(position, start));
+				segments.addVariable(template.substring(start, end + 1), template.substring(start + VARIABLE_PREFIX.length(), end));
+			}
+			position = end + 1;
+		}
+		segments.addText(template.substring(position));
+
+		return new MessageTemplate(segments.build());
+	}
+
+	/**
+	 * Resolve all variables that has a value in the provided map, and return them as a new MessageTemplate. Variables
+	 * without a value are kept, so that they can be resolved later on.
+	 *
+	 * @param  values the variable values.
+	 * @return        a new MessageTemplate.
+	 */
+	public MessageTemplate bind(final Map<String, String> values) {
+		final var boundSegments = new SegmentListBuilder();
+
+		for (final var segment : segments) {
+			if (isNull(segment.variable())) {
+				boundSegments.addText(segment.text());
+			} else if (nonNull(values.get(segment.variable()))) {
+				boundSegments.addText(values.get(segment.variable()));
+			} else {
+				boundSegments.add(segment);
+			}
+		}
+
+		return new MessageTemplate(boundSegments.build());
+	}
+
+	/**
+	 * Render the template where the variable with the provided name gets the provided value.
+	 *
+	 * @param  variable the name of the variable.
+	 * @param  value    the value of the variable.
+	 * @return          the rendered text.
+	 */
+	public String render(final String variable, final String value) {
+		final var builder = new StringBuilder(literalLength + 32);
+
+		for (final var segment : segments) {
+			if (isNull(segment.variable())) {
+				builder.append(segment.text());
+			} else if (nonNull(value) && segment.variable().equals(variable)) {
+				builder.append(value);
+			} else {
+				builder.append(segment.unresolved());
+			}
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Render the template with the provided variable values.
+	 *
+	 * @param  values the variable values.
+	 * @return        the rendered text.
+	 */
+	public String render(final Map<String, String> values) {
+		return bind(values).render(null, null);
+	}
+
+	/**
+	 * A segment of a template. Either a text segment (variable is null), or a variable segment where text is the original
+	 * variable expression and defaultValue is the value (if any) to use when the variable has no value.
+	 */
+	private record Segment(String text, String variable, String defaultValue) {
+
+		String unresolved() {
+			return Objects.requireNonNullElse(defaultValue, text);
+		}
+	}
+
+	private static final class SegmentListBuilder {
+
+		private final List<Segment> segments = new ArrayList<>();
+		private final StringBuilder text = new StringBuilder();
+
+		void addText(final String value) {
+			text.append(value);
+		}
+
+		void addVariable(final String expression, final String name) {
+			final var delimiterIndex = name.indexOf(DEFAULT_VALUE_DELIMITER);
+			if (delimiterIndex < 0) {
+				add(new Segment(expression, name, null));
+			} else {
+				add(new Segment(expression, name.substring(0, delimiterIndex), name.substring(delimiterIndex + DEFAULT_VALUE_DELIMITER.length())));
+			}
+		}
+
+		void add(final Segment segment) {
+			flushText();
+			segments.add(segment);
+		}
+
+		List<Segment> build() {
+			flushText();
+			return segments;
+		}
+
+		private void flushText() {
+			if (!text.isEmpty()) {
+				segments.add(new Segment(text.toString(), null, null));
+				text.setLength(0);
+			}
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package se.sundsvall.disturbance.service.message.template;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.service.message.configuration.MessageConfiguration;
+import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping.CategoryConfig;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Holds the compiled message templates for all active categories. The templates are compiled once, when the
+ * application starts.
+ */
+@Component
+public class MessageTemplates {
+
+	private final Map<Category, CategoryTemplates> categoryTemplates = new EnumMap<>(Category.class);
+
+	public MessageTemplates(MessageConfiguration messageConfiguration) {
+		for (final var category : Category.values()) {
+			ofNullable(messageConfiguration.getCategoryConfig(category))
+				.filter(CategoryConfig::isActive)
+				.ifPresent(categoryConfig -> categoryTemplates.put(category, CategoryTemplates.compile(categoryConfig)));
+		}
+	}
+
+	/**
+	 * Get the compiled templates for a category.
+	 *
+	 * @param  category the category.
+	 * @return          the CategoryTemplates, or an empty Optional if the category has no active message configuration.
+	 */
+	public Optional<CategoryTemplates> getCategoryTemplates(final Category category) {
+		return ofNullable(category).map(categoryTemplates::get);
+	}
+}
@@ -0,0 +1,7 @@
+package se.sundsvall.disturbance.service.message.template;
+
+public enum MessageType {
+	NEW,
+	UPDATE,
+	CLOSE
+}
@@ -0,0 +1,116 @@
+package se.sundsvall.disturbance.service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import org.springframework.stereotype.Component;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.service.message.template.MessageType;
+
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+/**
+ * Meters for disturbances and the notifications they cause.
+ *
+ * The message counters and the messages per request summary are tagged with municipality, category and type (the event
+ * that caused the messages: new, update or close). Sent messages are counted by the MessageOutboxDispatcher, since they
+ * are sent after the transaction that rendered them.
+ */
+@Component
+public class DisturbanceMetrics {
+
+	static final String METRIC_MESSAGES_RENDERED = "disturbance.messages.rendered";
+	static final String METRIC_MESSAGES_SUPPRESSED = "disturbance.messages.suppressed";
+	static final String METRIC_MESSAGES_PER_REQUEST = "disturbance.messages.per.request";
+	static final String METRIC_AFFECTEDS_PER_DISTURBANCE = "disturbance.affecteds.per.disturbance";
+
+	static final String TAG_MUNICIPALITY = "municipality";
+	static final String TAG_CATEGORY = "category";
+	static final String TAG_TYPE = "type";
+	static final String TAG_REASON = "reason";
+	static final String REASON_OPT_OUT = "opt-out";
+	static final String REASON_INACTIVE_CATEGORY = "inactive-category";
+
+	private final MeterRegistry meterRegistry;
+
+	public DisturbanceMetrics(final MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Count rendered messages.
+	 *
+	 * @param municipalityId the municipality ID.
+	 * @param category       the category of the disturbance.
+	 * @param messageType    the type of the messages.
+	 * @param count          the number of rendered messages.
+	 */
+	public void messagesRendered(final String municipalityId, final Category category, final MessageType messageType, final int count) {
+		meterRegistry.counter(METRIC_MESSAGES_RENDERED, TAG_MUNICIPALITY, municipalityId, TAG_CATEGORY, tagValue(category), TAG_TYPE, tagValue(messageType)).increment(count);
+	}
+
+	/**
+	 * Count messages that were not rendered, since the affected person/organization has opted out of them.
+	 *
+	 * @param municipalityId the municipality ID.
+	 * @param category       the category of the disturbance.
+	 * @param messageType    the type of the messages.
+	 * @param count          the number of suppressed messages.
+	 */
+	public void messagesSuppressedByOptOut(final String municipalityId, final Category category, final MessageType messageType, final int count) {
+		messagesSuppressed(municipalityId, category, messageType, REASON_OPT_OUT, count);
+	}
+
+	/**
+	 * Count messages that were not rendered, since the category has no active message configuration.
+	 *
+	 * @param municipalityId the municipality ID.
+	 * @param category       the category of the disturbance.
+	 * @param messageType    the type of the messages.
+	 * @param count          the number of suppressed messages (i.e. the number of affecteds).
+	 */
+	public void messagesSuppressedByInactiveCategory(final String municipalityId, final Category category, final MessageType messageType, final int count) {
+		messagesSuppressed(municipalityId, category, messageType, REASON_INACTIVE_CATEGORY, count);
+	}
+
+	/**
+	 * Record the number of messages in a MessageRequest.
+	 *
+	 * @param municipalityId the municipality ID.
+	 * @param category       the category of the disturbance.
+	 * @param messageType    the type of the messages.
+	 * @param messageCount   the number of messages in the request.
+	 */
+	public void messageRequest(final String municipalityId, final Category category, final MessageType messageType, final int messageCount) {
+		DistributionSummary.builder(METRIC_MESSAGES_PER_REQUEST)
+			.baseUnit("messages")
+			.tags(TAG_MUNICIPALITY, municipalityId, TAG_CATEGORY, tagValue(category), TAG_TYPE, tagValue(messageType))
+			.register(meterRegistry)
+			.record(messageCount);
+	}
+
+	/**
+	 * Record the number of affecteds of a created or updated disturbance.
+	 *
+	 * @param municipalityId the municipality ID.
+	 * @param category       the category of the disturbance.
+	 * @param affectedCount  the number of affecteds.
+	 */
+	public void affecteds(final String municipalityId, final Category category, final int affectedCount) {
+		DistributionSummary.builder(METRIC_AFFECTEDS_PER_DISTURBANCE)
+			.baseUnit("affecteds")
+			.tags(TAG_MUNICIPALITY, municipalityId, TAG_CATEGORY, tagValue(category))
+			.register(meterRegistry)
+			.record(affectedCount);
+	}
+
+	private void messagesSuppressed(final String municipalityId, final Category category, final MessageType messageType, final String reason, final int count) {
+		if (count > 0) {
+			meterRegistry.counter(METRIC_MESSAGES_SUPPRESSED, TAG_MUNICIPALITY, municipalityId, TAG_CATEGORY, tagValue(category), TAG_TYPE, tagValue(messageType), TAG_REASON, reason).increment(count);
+		}
+	}
+
+	private static String tagValue(final Object value) {
+		return lowerCase(Objects.toString(value, "none"));
+	}
+}
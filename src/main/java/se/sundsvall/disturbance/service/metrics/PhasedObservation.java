@@ -0,0 +1,141 @@
+package se.sundsvall.disturbance.service.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.sundsvall.disturbance.api.model.Category;
+
+import static java.util.stream.Collectors.joining;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+/**
+ * An observation of a service operation that is performed in several phases.
+ *
+ * Each phase is observed as a child observation named "[name].phase" with a phase key value, which becomes a child
+ * span when tracing is enabled and a timer when metrics are enabled. When the observation is stopped, the accumulated
+ * duration of each phase is added to the operation observation as a "phase.[phase].ms" key value (span attribute), and
+ * written as one debug log line. A phase that is entered more than once (e.g. messaging) is accumulated.
+ *
+ * An instance must only be used by the thread that started it.
+ */
+public final class PhasedObservation {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PhasedObservation.class);
+
+	static final String PHASE_SUFFIX = ".phase";
+	static final String KEY_MUNICIPALITY = "municipality";
+	static final String KEY_CATEGORY = "category";
+	static final String KEY_PHASE = "phase";
+	static final String KEY_PHASE_DURATION = "phase.%s.ms";
+
+	private final ObservationRegistry observationRegistry;
+	private final String name;
+	private final String municipalityId;
+	private final Category category;
+	private final Observation observation;
+	private final Observation.Scope scope;
+	private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+	private final long startNanos = System.nanoTime();
+
+	private PhasedObservation(final ObservationRegistry observationRegistry, final String name, final String municipalityId, final Category category) {
+		this.observationRegistry = observationRegistry;
+		this.name = name;
+		this.municipalityId = municipalityId;
+		this.category = category;
+		this.observation = Observation.createNotStarted(name, observationRegistry)
+			.lowCardinalityKeyValue(KEY_MUNICIPALITY, String.valueOf(municipalityId))
+			.lowCardinalityKeyValue(KEY_CATEGORY, lowerCase(String.valueOf(category)))
+			.start();
+		this.scope = observation.openScope();
+	}
+
+	/**
+	 * Start an observation of an operation.
+	 *
+	 * @param  observationRegistry the observation registry.
+	 * @param  name                the name of the operation observation (e.g. "disturbance.update").
+	 * @param  municipalityId      the municipality ID.
+	 * @param  category            the category of the disturbance.
+	 * @return                     the started PhasedObservation.
+	 */
+	public static PhasedObservation start(final ObservationRegistry observationRegistry, final String name, final String municipalityId, final Category category) {
+		return new PhasedObservation(observationRegistry, name, municipalityId, category);
+	}
+
+	/**
+	 * Observe a phase of the operation.
+	 *
+	 * @param  phase    the name of the phase.
+	 * @param  supplier the phase.
+	 * @return          the result of the phase.
+	 */
+	public <T> T phase(final String phase, final Supplier<T> supplier) {
+		final var phaseObservation = Observation.createNotStarted(name + PHASE_SUFFIX, observationRegistry)
+			.parentObservation(observation)
+			.lowCardinalityKeyValue(KEY_PHASE, phase)
+			.start();
+		final var phaseScope = phaseObservation.openScope();
+		final var phaseStartNanos = System.nanoTime();
+		try {
+			return supplier.get();
+		} catch (final RuntimeException e) {
+			phaseObservation.error(e);
+			throw e;
+		} finally {
+			phaseNanos.merge(phase, System.nanoTime() - phaseStartNanos, Long::sum);
+			phaseScope.close();
+			phaseObservation.stop();
+		}
+	}
+
+	/**
+	 * Observe a phase of the operation.
+	 *
+	 * @param phase    the name of the phase.
+	 * @param runnable the phase.
+	 */
+	public void phase(final String phase, final Runnable runnable) {
+		phase(phase, () -> {
+			runnable.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Signal that the operation failed.
+	 *
+	 * @param throwable the error.
+	 */
+	public void error(final Throwable throwable) {
+		observation.error(throwable);
+	}
+
+	/**
+	 * Stop the observation, and add the phase durations to it.
+	 */
+	public void stop() {
+		phaseNanos.forEach((phase, nanos) -> observation.highCardinalityKeyValue(KEY_PHASE_DURATION.formatted(phase), toMillis(nanos)));
+		scope.close();
+		observation.stop();
+
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Observed '{}' for municipalityId '{}' and category '{}': total={}ms, {}", name, municipalityId, category, toMillis(System.nanoTime() - startNanos),
+				phaseNanos.entrySet().stream()
+					.map(entry -> "%s=%sms".formatted(entry.getKey(), toMillis(entry.getValue())))
+					.collect(joining(", ")));
+		}
+	}
+
+	Map<String, Long> getPhaseNanos() {
+		return Map.copyOf(phaseNanos);
+	}
+
+	private static String toMillis(final long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000d);
+	}
+}
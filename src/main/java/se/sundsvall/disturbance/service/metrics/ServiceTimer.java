@@ -0,0 +1,50 @@
+package se.sundsvall.disturbance.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Records the duration of service method invocations as "disturbance.service" timers, tagged with class, method and
+ * exception (the simple name of the thrown exception, or "none").
+ */
+class ServiceTimer implements MethodInterceptor {
+
+	static final String METRIC_SERVICE = "disturbance.service";
+	static final String TAG_CLASS = "class";
+	static final String TAG_METHOD = "method";
+	static final String TAG_EXCEPTION = "exception";
+	static final String NO_EXCEPTION = "none";
+
+	private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+	ServiceTimer(final ObjectProvider<MeterRegistry> meterRegistryProvider) {
+		this.meterRegistryProvider = meterRegistryProvider;
+	}
+
+	@Override
+	public Object invoke(final MethodInvocation invocation) throws Throwable {
+		final var meterRegistry = meterRegistryProvider.getIfAvailable();
+		if (isNull(meterRegistry)) {
+			return invocation.proceed();
+		}
+
+		final var sample = Timer.start(meterRegistry);
+		var exception = NO_EXCEPTION;
+		try {
+			return invocation.proceed();
+		} catch (final Throwable e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			sample.stop(meterRegistry.timer(METRIC_SERVICE,
+				TAG_CLASS, invocation.getMethod().getDeclaringClass().getSimpleName(),
+				TAG_METHOD, invocation.getMethod().getName(),
+				TAG_EXCEPTION, exception));
+		}
+	}
+}
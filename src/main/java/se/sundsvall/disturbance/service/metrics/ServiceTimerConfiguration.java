@@ -0,0 +1,48 @@
+package se.sundsvall.disturbance.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+import se.sundsvall.disturbance.service.DisturbanceService;
+import se.sundsvall.disturbance.service.SubscriptionService;
+
+/**
+ * Times all public methods of the DisturbanceService and the SubscriptionService with the {@link ServiceTimer}.
+ *
+ * The advisor is an infrastructure bean, so it is applied by the same auto proxy creator as the transaction advisor. It
+ * is ordered before the transaction advisor, so the timers include the commit (where the changes are flushed).
+ */
+@Configuration(proxyBeanMethods = false)
+public class ServiceTimerConfiguration {
+
+	static final Set<Class<?>> TIMED_SERVICES = Set.of(DisturbanceService.class, SubscriptionService.class);
+
+	@Bean
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	static Advisor serviceTimerAdvisor(final ObjectProvider<MeterRegistry> meterRegistryProvider) {
+		final var advisor = new DefaultPointcutAdvisor(new TimedServicePointcut(), new ServiceTimer(meterRegistryProvider));
+		advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return advisor;
+	}
+
+	static class TimedServicePointcut extends StaticMethodMatcherPointcut {
+
+		@Override
+		public boolean matches(final Method method, final Class<?> targetClass) {
+			return TIMED_SERVICES.contains(ClassUtils.getUserClass(targetClass)) &&
+				TIMED_SERVICES.contains(method.getDeclaringClass()) &&
+				Modifier.isPublic(method.getModifiers());
+		}
+	}
+}
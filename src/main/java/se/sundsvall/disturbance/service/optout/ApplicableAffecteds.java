@@ -0,0 +1,18 @@
+package se.sundsvall.disturbance.service.optout;
+
+import java.util.List;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+
+/**
+ * The affecteds that belong to a person/organization with an applicable subscription.
+ *
+ * @param affecteds the applicable affecteds (in the provided order).
+ * @param optedOut  the number of affecteds that were left out because of a matching opt-out. Affecteds without a
+ *                  subscription are not counted.
+ */
+public record ApplicableAffecteds(List<AffectedEntity> affecteds, int optedOut) {
+
+	public static ApplicableAffecteds empty() {
+		return new ApplicableAffecteds(List.of(), 0);
+	}
+}
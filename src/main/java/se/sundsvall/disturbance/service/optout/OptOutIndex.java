@@ -0,0 +1,161 @@
+package se.sundsvall.disturbance.service.optout;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.collections4.ListUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.sundsvall.disturbance.integration.db.SubscriptionRepository;
+import se.sundsvall.disturbance.integration.db.model.OptOutSettingsEntity;
+import se.sundsvall.disturbance.integration.db.model.SubscriptionOptOutRow;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Per-municipality in-memory index from partyId to the compiled opt-out rules of that party's subscription.
+ *
+ * Parties are loaded lazily (in chunks) the first time they are requested. Only parties with a subscription are
+ * indexed: a party without a subscription is looked up again on every request, so a subscription that is created on
+ * another instance is found immediately. Changes made by this instance are written through to the index after the
+ * surrounding transaction has committed. Since updates and deletes made by other instances can't be seen, each
+ * municipality index is discarded when it has reached the configured time to live.
+ */
+@Component
+public class OptOutIndex {
+
+	private static final int PARTY_ID_CHUNK_SIZE = 1000;
+
+	private final SubscriptionRepository subscriptionRepository;
+	private final OptOutIndexProperties properties;
+	private final Clock clock;
+	private final Map<String, MunicipalityIndex> municipalityIndexes = new ConcurrentHashMap<>();
+
+	@Autowired
+	public OptOutIndex(final SubscriptionRepository subscriptionRepository, final OptOutIndexProperties properties) {
+		this(subscriptionRepository, properties, Clock.systemUTC());
+	}
+
+	OptOutIndex(final SubscriptionRepository subscriptionRepository, final OptOutIndexProperties properties, final Clock clock) {
+		this.subscriptionRepository = subscriptionRepository;
+		this.properties = properties;
+		this.clock = clock;
+	}
+
+	/**
+	 * Get the compiled opt-out rules for the provided partyIds. Parties that are not present in the index (including all
+	 * parties without a subscription) are fetched from the database.
+	 *
+	 * @param  municipalityId the municipality ID.
+	 * @param  partyIds       the partyIds to get rules for.
+	 * @return                a map from partyId to OptOutRules. PartyIds without a subscription are not present in the map.
+	 */
+	public Map<String, OptOutRules> getOptOutRules(final String municipalityId, final Collection<String> partyIds) {
+		final var index = getMunicipalityIndex(municipalityId);
+
+		final var missingPartyIds = partyIds.stream()
+			.filter(partyId -> !index.entries().containsKey(partyId))
+			.distinct()
+			.toList();
+
+		if (!missingPartyIds.isEmpty()) {
+			load(municipalityId, missingPartyIds).forEach(index.entries()::putIfAbsent);
+		}
+
+		final var result = new HashMap<String, OptOutRules>();
+		partyIds.forEach(partyId -> {
+			final var rules = index.entries().get(partyId);
+			if (nonNull(rules)) {
+				result.put(partyId, rules);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Write the opt-out settings of a created or updated subscription to the index, when the current transaction commits.
+	 *
+	 * @param municipalityId the municipality ID.
+	 * @param partyId        the partyId of the subscription.
+	 * @param optOutSettings the opt-out settings of the subscription.
+	 */
+	public void put(final String municipalityId, final String partyId, final Collection<OptOutSettingsEntity> optOutSettings) {
+		final var rules = OptOutRules.compile(optOutSettings);
+		afterCommit(() -> getMunicipalityIndex(municipalityId).entries().put(partyId, rules));
+	}
+
+	/**
+	 * Remove a deleted subscription from the index, when the current transaction commits.
+	 *
+	 * @param municipalityId the municipality ID.
+	 * @param partyId        the partyId of the subscription.
+	 */
+	public void remove(final String municipalityId, final String partyId) {
+		afterCommit(() -> getMunicipalityIndex(municipalityId).entries().remove(partyId));
+	}
+
+	private MunicipalityIndex getMunicipalityIndex(final String municipalityId) {
+		final var now = clock.instant();
+		return municipalityIndexes.compute(municipalityId, (key, index) -> (isNull(index) || index.isExpired(now, properties)) ? MunicipalityIndex.create(now) : index);
+	}
+
+	private Map<String, OptOutRules> load(final String municipalityId, final List<String> partyIds) {
+		final var optOutSettingsByPartyId = new HashMap<String, Map<Long, OptOutSettingsEntity>>();
+
+		ListUtils.partition(partyIds, PARTY_ID_CHUNK_SIZE).forEach(chunk -> subscriptionRepository.findOptOutRowsByMunicipalityIdAndPartyIdIn(municipalityId, chunk)
+			.forEach(row -> addOptOutRow(optOutSettingsByPartyId.computeIfAbsent(row.partyId(), key -> new HashMap<>()), row)));
+
+		// Parties without a subscription are left out, so that they are not indexed.
+		final var result = new HashMap<String, OptOutRules>();
+		optOutSettingsByPartyId.forEach((partyId, optOutSettings) -> result.put(partyId, OptOutRules.compile(optOutSettings.values())));
+		return result;
+	}
+
+	private static void addOptOutRow(final Map<Long, OptOutSettingsEntity> optOutSettings, final SubscriptionOptOutRow row) {
+		if (isNull(row.optOutSettingId())) {
+			// Subscription without opt-out settings.
+			return;
+		}
+
+		final var optOutSetting = optOutSettings.computeIfAbsent(row.optOutSettingId(), id -> OptOutSettingsEntity.create()
+			.withId(id)
+			.withCategory(row.category())
+			.withOptOuts(new HashMap<>()));
+
+		if (nonNull(row.optOutKey())) {
+			optOutSetting.getOptOuts().put(row.optOutKey(), row.optOutValue());
+		}
+	}
+
+	private static void afterCommit(final Runnable runnable) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			runnable.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				runnable.run();
+			}
+		});
+	}
+
+	private record MunicipalityIndex(Map<String, OptOutRules> entries, Instant created) {
+
+		static MunicipalityIndex create(final Instant created) {
+			return new MunicipalityIndex(new ConcurrentHashMap<>(), created);
+		}
+
+		boolean isExpired(final Instant now, final OptOutIndexProperties properties) {
+			return nonNull(properties.timeToLive()) && !now.isBefore(created.plus(properties.timeToLive()));
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package se.sundsvall.disturbance.service.optout;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("subscription.opt-out-index")
+public record OptOutIndexProperties(Duration timeToLive) {
+}
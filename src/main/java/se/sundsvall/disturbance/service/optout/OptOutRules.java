@@ -0,0 +1,85 @@
+package se.sundsvall.disturbance.service.optout;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.OptOutSettingsEntity;
+
+import static java.util.Collections.emptySet;
+import static java.util.Objects.isNull;
+import static org.apache.commons.collections4.MapUtils.isEmpty;
+
+/**
+ * Compiled (immutable) representation of the opt-out settings on a subscription.
+ *
+ * An opt-out setting without values opts out of a whole category, and is compiled into a category bitmask. An opt-out
+ * setting with a single "facilityId" value opts out of that facility within the category, and is compiled into a hash
+ * set per category. Opt-out settings with other values can never match a disturbance and are therefore dropped.
+ */
+public final class OptOutRules {
+
+	static final String FACILITY_ID = "facilityId";
+
+	private static final OptOutRules NO_OPT_OUTS = new OptOutRules(0L, new EnumMap<>(Category.class));
+
+	private final long categoryMask;
+	private final Map<Category, Set<String>> facilityIds;
+
+	private OptOutRules(final long categoryMask, final Map<Category, Set<String>> facilityIds) {
+		this.categoryMask = categoryMask;
+		this.facilityIds = facilityIds;
+	}
+
+	/**
+	 * Compile opt-out settings into OptOutRules.
+	 *
+	 * @param  optOutSettings the opt-out settings of a subscription (may be null).
+	 * @return                the compiled OptOutRules.
+	 */
+	public static OptOutRules compile(final Collection<OptOutSettingsEntity> optOutSettings) {
+		if (isNull(optOutSettings) || optOutSettings.isEmpty()) {
+			return NO_OPT_OUTS;
+		}
+
+		var categoryMask = 0L;
+		final var facilityIds = new EnumMap<Category, Set<String>>(Category.class);
+
+		for (final var optOutSetting : optOutSettings) {
+			if (isNull(optOutSetting) || isNull(optOutSetting.getCategory())) {
+				continue;
+			}
+
+			final var optOuts = optOutSetting.getOptOuts();
+			if (isEmpty(optOuts)) {
+				categoryMask |= bit(optOutSetting.getCategory());
+			} else if ((optOuts.size() == 1) && optOuts.containsKey(FACILITY_ID) && Objects.nonNull(optOuts.get(FACILITY_ID))) {
+				facilityIds.computeIfAbsent(optOutSetting.getCategory(), category -> new HashSet<>()).add(optOuts.get(FACILITY_ID));
+			}
+		}
+
+		return new OptOutRules(categoryMask, facilityIds);
+	}
+
+	/**
+	 * Returns true if these rules opts out of messages for the provided category and facilityId.
+	 *
+	 * @param  category   the category of the disturbance.
+	 * @param  facilityId the facilityId of the affected.
+	 * @return            true if there is a matching opt-out, false otherwise.
+	 */
+	public boolean matches(final Category category, final String facilityId) {
+		if (isNull(category)) {
+			return false;
+		}
+
+		return ((categoryMask & bit(category)) != 0) || facilityIds.getOrDefault(category, emptySet()).contains(facilityId);
+	}
+
+	private static long bit(final Category category) {
+		return 1L << category.ordinal();
+	}
+}
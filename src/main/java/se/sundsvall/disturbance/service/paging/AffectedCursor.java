@@ -0,0 +1,48 @@
+package se.sundsvall.disturbance.service.paging;
+
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.disturbance.integration.db.model.AffectedRow;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Base64.getUrlDecoder;
+import static java.util.Base64.getUrlEncoder;
+import static java.util.Objects.isNull;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Keyset cursor, pointing at the last affected (ordered by id) of a page. The cursor is exposed to the API clients as an
+ * opaque (URL safe Base64-encoded) string.
+ *
+ * @param id the id of the last affected on the page.
+ */
+public record AffectedCursor(long id) {
+
+	private static final String ERROR_INVALID_CURSOR = "Invalid cursor:'%s'!";
+
+	public static AffectedCursor of(final AffectedRow affectedRow) {
+		return new AffectedCursor(affectedRow.id());
+	}
+
+	/**
+	 * Decode a cursor string.
+	 *
+	 * @param  cursor the encoded cursor.
+	 * @return        the decoded AffectedCursor, or null if cursor is null.
+	 * @throws        Problem with status BAD_REQUEST if the cursor can't be decoded.
+	 */
+	public static AffectedCursor decode(final String cursor) {
+		if (isNull(cursor)) {
+			return null;
+		}
+
+		try {
+			return new AffectedCursor(Long.parseLong(new String(getUrlDecoder().decode(cursor), UTF_8)));
+		} catch (final RuntimeException e) {
+			throw Problem.valueOf(BAD_REQUEST, ERROR_INVALID_CURSOR.formatted(cursor));
+		}
+	}
+
+	public String encode() {
+		return getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(UTF_8));
+	}
+}
@@ -0,0 +1,13 @@
+package se.sundsvall.disturbance.service.paging;
+
+import java.util.List;
+import se.sundsvall.disturbance.api.model.Affected;
+
+/**
+ * One page of affecteds.
+ *
+ * @param affecteds the affecteds on this page.
+ * @param next      the cursor to use for fetching the next page, or null if this is the last page.
+ */
+public record AffectedPage(List<Affected> affecteds, String next) {
+}
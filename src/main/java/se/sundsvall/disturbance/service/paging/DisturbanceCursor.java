@@ -0,0 +1,68 @@
+package se.sundsvall.disturbance.service.paging;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceSummaryRow;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.ZoneId.systemDefault;
+import static java.util.Base64.getUrlDecoder;
+import static java.util.Base64.getUrlEncoder;
+import static java.util.Objects.isNull;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Keyset cursor, pointing at the last disturbance (ordered by created and id) of a page. The cursor is exposed to the
+ * API clients as an opaque (URL safe Base64-encoded) string.
+ *
+ * @param created the created timestamp of the last disturbance on the page.
+ * @param id      the id of the last disturbance on the page.
+ */
+public record DisturbanceCursor(OffsetDateTime created, long id) {
+
+	private static final String DELIMITER = "|";
+	private static final String ERROR_INVALID_CURSOR = "Invalid cursor:'%s'!";
+
+	public static DisturbanceCursor of(final DisturbanceEntity disturbanceEntity) {
+		return new DisturbanceCursor(disturbanceEntity.getCreated(), disturbanceEntity.getId());
+	}
+
+	public static DisturbanceCursor of(final DisturbanceSummaryRow disturbanceSummaryRow) {
+		return new DisturbanceCursor(disturbanceSummaryRow.created(), disturbanceSummaryRow.id());
+	}
+
+	public static DisturbanceCursor of(final DisturbanceArchiveEntity disturbanceArchiveEntity) {
+		return new DisturbanceCursor(disturbanceArchiveEntity.getCreated(), disturbanceArchiveEntity.getId());
+	}
+
+	/**
+	 * Decode a cursor string.
+	 *
+	 * @param  cursor the encoded cursor.
+	 * @return        the decoded DisturbanceCursor, or null if cursor is null.
+	 * @throws        Problem with status BAD_REQUEST if the cursor can't be decoded.
+	 */
+	public static DisturbanceCursor decode(final String cursor) {
+		if (isNull(cursor)) {
+			return null;
+		}
+
+		try {
+			final var decoded = new String(getUrlDecoder().decode(cursor), UTF_8);
+			final var delimiterIndex = decoded.indexOf(DELIMITER);
+
+			return new DisturbanceCursor(
+				Instant.parse(decoded.substring(0, delimiterIndex)).atZone(systemDefault()).toOffsetDateTime(),
+				Long.parseLong(decoded.substring(delimiterIndex + 1)));
+		} catch (final RuntimeException e) {
+			throw Problem.valueOf(BAD_REQUEST, ERROR_INVALID_CURSOR.formatted(cursor));
+		}
+	}
+
+	public String encode() {
+		return getUrlEncoder().withoutPadding().encodeToString((created.toInstant() + DELIMITER + id).getBytes(UTF_8));
+	}
+}
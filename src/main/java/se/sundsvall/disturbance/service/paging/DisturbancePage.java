@@ -0,0 +1,13 @@
+package se.sundsvall.disturbance.service.paging;
+
+import java.util.List;
+import se.sundsvall.disturbance.api.model.Disturbance;
+
+/**
+ * One page of disturbances.
+ *
+ * @param disturbances the disturbances on this page.
+ * @param next         the cursor to use for fetching the next page, or null if this is the last page.
+ */
+public record DisturbancePage(List<Disturbance> disturbances, String next) {
+}
@@ -0,0 +1,77 @@
+package se.sundsvall.disturbance.service.party;
+
+import java.util.Collection;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import se.sundsvall.disturbance.integration.db.PartyDisturbanceRepository;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
+import static se.sundsvall.disturbance.api.model.Status.CLOSED;
+
+/**
+ * Index from (municipalityId, partyId) to the ids of the non-closed (and not deleted) disturbances where the party is
+ * affected, stored in the party_disturbance table.
+ *
+ * The index is updated with per-party deltas in the same transaction as the change of the disturbance, so it is
+ * consistent on every instance without any invalidation. A party is added when it gets affecteds in a disturbance and
+ * removed when its last affected is removed. All parties of a disturbance are removed when the disturbance is closed or
+ * deleted. Disturbances that are removed by the database cleaner or archived are removed from the index together with
+ * their affecteds.
+ */
+@Component
+public class PartyDisturbanceIndex {
+
+	private final PartyDisturbanceRepository partyDisturbanceRepository;
+
+	public PartyDisturbanceIndex(final PartyDisturbanceRepository partyDisturbanceRepository) {
+		this.partyDisturbanceRepository = partyDisturbanceRepository;
+	}
+
+	/**
+	 * Get the ids of the non-closed (and not deleted) disturbances where the party is affected.
+	 *
+	 * @param  municipalityId the municipality ID.
+	 * @param  partyId        the partyId.
+	 * @return                the disturbance ids.
+	 */
+	public Set<Long> getDisturbanceIds(final String municipalityId, final String partyId) {
+		return Set.copyOf(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(municipalityId, partyId));
+	}
+
+	/**
+	 * Add parties that got affecteds in a disturbance. Nothing is added for a closed disturbance.
+	 *
+	 * @param disturbanceEntity the (saved) disturbance.
+	 * @param partyIds          the partyIds of the added affecteds.
+	 */
+	public void add(final DisturbanceEntity disturbanceEntity, final Collection<String> partyIds) {
+		if (isEmpty(partyIds) || CLOSED.equals(disturbanceEntity.getStatus())) {
+			return;
+		}
+		partyDisturbanceRepository.insertByDisturbanceIdAndPartyIdIn(disturbanceEntity.getId(), partyIds);
+	}
+
+	/**
+	 * Remove parties that got affecteds removed from a disturbance. Parties that still have affecteds in the disturbance
+	 * are kept.
+	 *
+	 * @param disturbanceEntity the disturbance.
+	 * @param partyIds          the partyIds of the removed affecteds.
+	 */
+	public void remove(final DisturbanceEntity disturbanceEntity, final Collection<String> partyIds) {
+		if (isEmpty(partyIds)) {
+			return;
+		}
+		partyDisturbanceRepository.deleteByDisturbanceIdAndPartyIdIn(disturbanceEntity.getId(), partyIds);
+	}
+
+	/**
+	 * Remove all parties of a disturbance that is closed or deleted.
+	 *
+	 * @param disturbanceEntity the disturbance.
+	 */
+	public void removeAll(final DisturbanceEntity disturbanceEntity) {
+		partyDisturbanceRepository.deleteByDisturbanceId(disturbanceEntity.getId());
+	}
+}
@@ -0,0 +1,19 @@
+package se.sundsvall.disturbance.service.util;
+
+import java.util.List;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+
+/**
+ * The difference between an old and a new list of affecteds, where two affecteds are considered equal if they have the
+ * same partyId, reference and facilityId (ignoring case).
+ *
+ * @param added    the new affecteds that don't exist in the old list.
+ * @param removed  the old affecteds that don't exist in the new list.
+ * @param retained the old affecteds that exist in the new list.
+ */
+public record AffectedEntitiesDiff(List<AffectedEntity> added, List<AffectedEntity> removed, List<AffectedEntity> retained) {
+
+	public boolean isChanged() {
+		return !added.isEmpty() || !removed.isEmpty();
+	}
+}
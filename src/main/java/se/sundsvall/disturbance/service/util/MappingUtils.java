@@ -1,7 +1,9 @@
 package se.sundsvall.disturbance.service.util;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import org.apache.commons.lang3.Strings;
+import java.util.Set;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
 
@@ -13,31 +15,6 @@ public final class MappingUtils {
 
 	private MappingUtils() {}
 
-	/**
-	 * Returns all removed AffectedEntity elements from oldDisturbanceEntity.getAffectedEntities(), when comparing with
-	 * newDisturbanceEntity.getAffectedEntities().
-	 *
-	 * E.g.
-	 *
-	 * oldDisturbanceEntity.getAffectedEntities() contains: <ELEMENT-1>, <ELEMENT-2>, <ELEMENT-3>
-	 * newDisturbanceEntity.getAffectedEntities() contains: <ELEMENT-1>, <ELEMENT-3>
-	 *
-	 * Result: This method will return [<ELEMENT-2>]
-	 *
-	 * @param  oldDisturbanceEntity the old DisturbanceEntity.
-	 * @param  newDisturbanceEntity the new DisturbanceEntity.
-	 * @return                      Returns the difference (removed elements) from oldDisturbanceEntity.
-	 */
-	public static List<AffectedEntity> getRemovedAffectedEntities(final DisturbanceEntity oldDisturbanceEntity, final DisturbanceEntity newDisturbanceEntity) {
-		// If affectedEntities in newDisturbanceEntity isn't set (i.e. is null), just return an empty list.
-		if (isNull(newDisturbanceEntity.getAffectedEntities())) {
-			return emptyList();
-		}
-		return ofNullable(oldDisturbanceEntity.getAffectedEntities()).orElse(emptyList()).stream()
-			.filter(oldEntity -> !existsInList(oldEntity, newDisturbanceEntity.getAffectedEntities()))
-			.toList();
-	}
-
 	/**
 	 * Returns all added AffectedEntity elements from newDisturbanceEntity.getAffectedEntities(), when comparing with
 	 * oldDisturbanceEntity.getAffectedEntities().
@@ -61,15 +38,77 @@ public final class MappingUtils {
 		if (isNull(newDisturbanceEntity) || isNull(newDisturbanceEntity.getAffectedEntities())) {
 			return emptyList();
 		}
-		return newDisturbanceEntity.getAffectedEntities().stream()
-			.filter(newEntity -> !existsInList(newEntity, oldDisturbanceEntity.getAffectedEntities()))
-			.toList();
+		return diffAffectedEntities(oldDisturbanceEntity.getAffectedEntities(), newDisturbanceEntity.getAffectedEntities()).added();
+	}
+
+	/**
+	 * Returns all AffectedEntity elements in newAffectedEntities that don't exist in oldAffectedEntities.
+	 *
+	 * @param  oldAffectedEntities the old AffectedEntity elements.
+	 * @param  newAffectedEntities the new AffectedEntity elements.
+	 * @return                     Returns the added elements from newAffectedEntities.
+	 */
+	public static List<AffectedEntity> getAddedAffectedEntities(final List<AffectedEntity> oldAffectedEntities, final List<AffectedEntity> newAffectedEntities) {
+		return diffAffectedEntities(oldAffectedEntities, newAffectedEntities).added();
 	}
 
-	private static boolean existsInList(final AffectedEntity objectToCheck, final List<AffectedEntity> list) {
-		return ofNullable(list).orElse(emptyList()).stream()
-			.anyMatch(entity -> Strings.CI.equals(entity.getPartyId(), objectToCheck.getPartyId()) &&
-				Strings.CI.equals(entity.getReference(), objectToCheck.getReference()) &&
-				Strings.CI.equals(entity.getFacilityId(), objectToCheck.getFacilityId()));
+	/**
+	 * Returns the added, removed and retained AffectedEntity elements when comparing newAffectedEntities with
+	 * oldAffectedEntities. Two elements are equal if they have the same partyId, reference and facilityId (ignoring case).
+	 *
+	 * Each list is hashed (by case folded keys) once, so the cost is linear in the size of the lists. If newAffectedEntities
+	 * is null, nothing is added or removed.
+	 *
+	 * @param  oldAffectedEntities the old AffectedEntity elements.
+	 * @param  newAffectedEntities the new AffectedEntity elements.
+	 * @return                     Returns the difference between the lists.
+	 */
+	public static AffectedEntitiesDiff diffAffectedEntities(final List<AffectedEntity> oldAffectedEntities, final List<AffectedEntity> newAffectedEntities) {
+		final var oldEntities = ofNullable(oldAffectedEntities).orElse(emptyList());
+		if (isNull(newAffectedEntities)) {
+			return new AffectedEntitiesDiff(emptyList(), emptyList(), List.copyOf(oldEntities));
+		}
+
+		final var oldKeys = toKeys(oldEntities);
+		final var newKeys = toKeys(newAffectedEntities);
+
+		final var added = new ArrayList<AffectedEntity>();
+		newAffectedEntities.forEach(newEntity -> {
+			if (!oldKeys.contains(Key.of(newEntity))) {
+				added.add(newEntity);
+			}
+		});
+
+		final var removed = new ArrayList<AffectedEntity>();
+		final var retained = new ArrayList<AffectedEntity>();
+		oldEntities.forEach(oldEntity -> (newKeys.contains(Key.of(oldEntity)) ? retained : removed).add(oldEntity));
+
+		return new AffectedEntitiesDiff(added, removed, retained);
+	}
+
+	private static Set<Key> toKeys(final List<AffectedEntity> affectedEntities) {
+		final Set<Key> keys = HashSet.newHashSet(affectedEntities.size());
+		affectedEntities.forEach(entity -> keys.add(Key.of(entity)));
+		return keys;
+	}
+
+	/**
+	 * Case folded partyId, reference and facilityId. Each character is folded as in String.equalsIgnoreCase, so keys are
+	 * equal exactly when the values are equal ignoring case.
+	 */
+	private record Key(String partyId, String reference, String facilityId) {
+
+		static Key of(final AffectedEntity entity) {
+			return new Key(fold(entity.getPartyId()), fold(entity.getReference()), fold(entity.getFacilityId()));
+		}
+
+		private static String fold(final String value) {
+			if (isNull(value)) {
+				return null;
+			}
+			final var builder = new StringBuilder(value.length());
+			value.codePoints().forEach(codePoint -> builder.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint))));
+			return builder.toString();
+		}
 	}
 }
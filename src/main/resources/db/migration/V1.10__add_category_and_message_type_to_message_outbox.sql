@@ -0,0 +1,7 @@
+-- The category of the disturbance and the type of the messages in each chunk, used to tag the dispatch metrics.
+-- Chunks enqueued before this migration have neither.
+alter table message_outbox
+    add column category varchar(255);
+
+alter table message_outbox
+    add column message_type varchar(255);
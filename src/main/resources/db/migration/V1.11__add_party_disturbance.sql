@@ -0,0 +1,25 @@
+-- Index from (municipality_id, party_id) to the non-closed (and not deleted) disturbances where the party is affected.
+-- One row per party and disturbance, maintained in the same transaction as the changes of the disturbance.
+create table party_disturbance
+(
+    id              bigint       not null auto_increment,
+    municipality_id varchar(255) not null,
+    party_id        varchar(255) not null,
+    disturbance_id  bigint       not null,
+    primary key (id)
+) engine = InnoDB;
+
+alter table if exists party_disturbance
+   add constraint uk_party_disturbance_municipality_id_party_id_disturbance_id unique (municipality_id, party_id, disturbance_id);
+
+create index party_disturbance_disturbance_id_index
+   on party_disturbance (disturbance_id);
+
+-- Index the parties of every disturbance that is neither closed nor deleted.
+insert into party_disturbance (municipality_id, party_id, disturbance_id)
+select distinct d.municipality_id, a.party_id, d.id
+from disturbance d
+         join affected a on a.parent_id = d.id
+where d.deleted = false
+  and d.status <> 'CLOSED'
+  and a.party_id is not null;
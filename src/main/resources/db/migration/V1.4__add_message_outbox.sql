@@ -0,0 +1,16 @@
+create table message_outbox
+(
+    id              bigint        not null auto_increment,
+    municipality_id varchar(255)  not null,
+    batch_id        varchar(255)  not null,
+    payload         longtext      not null,
+    status          varchar(255)  not null,
+    attempts        integer       not null,
+    next_attempt    datetime(6)   not null,
+    last_error      varchar(1024),
+    created         datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+create index message_outbox_status_next_attempt_index
+    on message_outbox (status, next_attempt);
@@ -0,0 +1,46 @@
+-- Guard: the unique keys below can not be added while duplicates exist. Fail with a clear diagnostic before any index
+-- is changed, so that the duplicates (found by the queries in the conditions) can be resolved and the migration rerun.
+DELIMITER //
+begin not atomic
+    if exists (select 1
+               from disturbance
+               group by municipality_id, category, disturbance_id
+               having count(*) > 1) then
+        signal sqlstate '45000' set message_text =
+            'Duplicate disturbance rows on (municipality_id, category, disturbance_id), resolve them before migrating';
+    end if;
+
+    if exists (select 1
+               from subscription
+               group by municipality_id, party_id
+               having count(*) > 1) then
+        signal sqlstate '45000' set message_text =
+            'Duplicate subscription rows on (municipality_id, party_id), resolve them before migrating';
+    end if;
+end //
+DELIMITER ;
+
+-- disturbance: lookups are made on (municipality_id, category, disturbance_id) and lists are filtered on
+-- (municipality_id, status, category), which makes the single column indexes redundant.
+alter table if exists disturbance
+   add constraint uk_disturbance_municipality_id_category_disturbance_id unique (municipality_id, category, disturbance_id);
+
+create index disturbance_municipality_id_status_category_created_index
+   on disturbance (municipality_id, status, category, created);
+
+drop index if exists disturbance_id_index on disturbance;
+drop index if exists municipality_id_index on disturbance;
+drop index if exists category_index on disturbance;
+
+-- affected: disturbances are looked up by party_id (and joined on parent_id).
+create index affected_party_id_parent_id_index
+   on affected (party_id, parent_id);
+
+drop index if exists party_id_index on affected;
+
+-- subscription: a party can only have one subscription per municipality.
+alter table if exists subscription
+   add constraint uk_subscription_municipality_id_party_id unique (municipality_id, party_id);
+
+drop index if exists party_id_index on subscription;
+drop index if exists municipality_id_index on subscription;
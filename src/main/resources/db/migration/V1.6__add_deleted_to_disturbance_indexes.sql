@@ -0,0 +1,10 @@
+-- disturbance: soft-deleted disturbances are filtered out by all reads, so deleted is a part of the list index. MariaDB
+-- has no partial indexes, so the (low cardinality) deleted column is placed right after municipality_id instead.
+create index disturbance_municipality_id_deleted_status_category_created_index
+   on disturbance (municipality_id, deleted, status, category, created);
+
+drop index if exists disturbance_municipality_id_status_category_created_index on disturbance;
+
+-- disturbance: the retention policies select expired disturbances on (deleted, status, created/updated).
+create index disturbance_deleted_status_created_index
+   on disturbance (deleted, status, created);
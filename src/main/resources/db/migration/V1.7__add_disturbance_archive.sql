@@ -0,0 +1,26 @@
+-- Archived disturbances. The affecteds are stored as a GZIP-compressed JSON array per disturbance, so the archive
+-- doesn't need an affected table (and index) of its own.
+create table disturbance_archive
+(
+    id                 bigint        not null auto_increment,
+    municipality_id    varchar(255)  not null,
+    disturbance_id     varchar(255)  not null,
+    category           varchar(255)  not null,
+    title              varchar(255),
+    description        varchar(8192) not null,
+    status             varchar(255)  not null,
+    planned_start_date datetime(6),
+    planned_stop_date  datetime(6),
+    created            datetime(6),
+    updated            datetime(6),
+    archived           datetime(6)   not null,
+    affected_count     integer       not null,
+    affecteds          longblob      not null,
+    primary key (id)
+) engine = InnoDB;
+
+create index disturbance_archive_municipality_id_created_index
+    on disturbance_archive (municipality_id, created);
+
+create index disturbance_archive_municipality_id_category_disturbance_id_index
+    on disturbance_archive (municipality_id, category, disturbance_id);
@@ -0,0 +1,14 @@
+-- Change counter per municipality, used as ETag for the disturbance lists.
+create table disturbance_change_counter
+(
+    municipality_id varchar(255) not null,
+    version         bigint       not null,
+    modified        datetime(6)  not null,
+    primary key (municipality_id)
+) engine = InnoDB;
+
+-- Start a counter for every municipality that already has disturbances.
+insert into disturbance_change_counter (municipality_id, version, modified)
+select municipality_id, 1, now(6)
+from disturbance
+group by municipality_id;
@@ -0,0 +1,11 @@
+-- One outbox row per chunk (request) of messages instead of one row per message. The payload is a serialized
+-- MessageRequest and message_count is the number of messages in it.
+alter table message_outbox
+    add column message_count integer not null default 1;
+
+alter table message_outbox
+    alter column message_count drop default;
+
+-- Wrap the payload (a single serialized Message) of the existing rows in a MessageRequest.
+update message_outbox
+set payload = concat('{"messages":[', payload, ']}');
@@ -18,6 +18,7 @@ import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
 import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.service.DisturbanceArchiveService;
 import se.sundsvall.disturbance.service.DisturbanceService;
 
 import static java.util.UUID.randomUUID;
@@ -41,6 +42,9 @@ class DisturbanceResourceFailuresTest {
 	@MockitoBean
 	private DisturbanceService disturbanceServiceMock;
 
+	@MockitoBean
+	private DisturbanceArchiveService disturbanceArchiveServiceMock;
+
 	@Autowired
 	private WebTestClient webTestClient;
 
@@ -598,4 +602,125 @@ class DisturbanceResourceFailuresTest {
 
 		verifyNoInteractions(disturbanceServiceMock);
 	}
+
+	@Test
+	void getDisturbancesInvalidLimit() {
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH)
+				.queryParam("limit", 0)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactly(
+				tuple("getDisturbances.limit", "must be greater than or equal to 1"));
+
+		verifyNoInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getArchivedDisturbancesInvalidLimit() {
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/archive")
+				.queryParam("limit", 1001)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactly(
+				tuple("getArchivedDisturbances.limit", "must be less than or equal to 1000"));
+
+		verifyNoInteractions(disturbanceServiceMock, disturbanceArchiveServiceMock);
+	}
+
+	@Test
+	void getAffectedsInvalidParameters() {
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/{category}/{disturbanceId}/affecteds")
+				.queryParam("partyId", "invalid-uuid")
+				.queryParam("limit", 0)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID, "category", Category.ELECTRICITY, "disturbanceId", "disturbanceId")))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactlyInAnyOrder(
+				tuple("getAffecteds.limit", "must be greater than or equal to 1"),
+				tuple("getAffecteds.partyId", "not a valid UUID"));
+
+		verifyNoInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void addAffectedsEmptyBody() {
+
+		// Act
+		webTestClient.post()
+			.uri(builder -> builder.path(PATH + "/{category}/{disturbanceId}/affecteds").build(Map.of("municipalityId", MUNICIPALITY_ID, "category", Category.ELECTRICITY, "disturbanceId", "disturbanceId")))
+			.contentType(APPLICATION_JSON)
+			.bodyValue(List.of())
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON);
+
+		// Assert
+		verifyNoInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void removeAffectedsInvalidPartyId() {
+
+		// Act
+		final var response = webTestClient.delete()
+			.uri(builder -> builder.path(PATH + "/{category}/{disturbanceId}/affecteds")
+				.queryParam("partyId", "invalid-uuid")
+				.build(Map.of("municipalityId", MUNICIPALITY_ID, "category", Category.ELECTRICITY, "disturbanceId", "disturbanceId")))
+			.exchange()
+			.expectStatus().isBadRequest()
+			.expectHeader().contentType(APPLICATION_PROBLEM_JSON)
+			.expectBody(ConstraintViolationProblem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response.getTitle()).isEqualTo("Constraint Violation");
+		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(response.getViolations())
+			.extracting(Violation::field, Violation::message)
+			.containsExactly(tuple("removeAffecteds.partyId", "not a valid UUID"));
+
+		verifyNoInteractions(disturbanceServiceMock);
+	}
 }
@@ -1,7 +1,12 @@
 package se.sundsvall.disturbance.api;
 
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -11,23 +16,39 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import se.sundsvall.disturbance.Application;
+import se.sundsvall.disturbance.api.model.Affected;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Disturbance;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
 import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceVersionRow;
+import se.sundsvall.disturbance.service.DisturbanceArchiveService;
 import se.sundsvall.disturbance.service.DisturbanceService;
+import se.sundsvall.disturbance.service.conditional.DisturbanceETag;
+import se.sundsvall.disturbance.service.paging.AffectedPage;
+import se.sundsvall.disturbance.service.paging.DisturbancePage;
 
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MODIFIED_SINCE;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
+import static org.springframework.http.HttpHeaders.LINK;
 import static org.springframework.http.MediaType.ALL_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 
 @AutoConfigureWebTestClient
 @SpringBootTest(classes = Application.class, webEnvironment = RANDOM_PORT)
@@ -36,13 +57,24 @@ class DisturbanceResourceTest {
 
 	private static final String PATH = "/{municipalityId}/disturbances";
 	private static final String MUNICIPALITY_ID = "2281";
+	private static final OffsetDateTime CREATED = OffsetDateTime.of(2021, 9, 23, 9, 5, 48, 0, ZoneOffset.UTC);
+	private static final OffsetDateTime UPDATED = CREATED.plusHours(1);
+	private static final DisturbanceETag DISTURBANCE_ETAG = new DisturbanceETag("42", OffsetDateTime.of(2021, 9, 23, 9, 5, 48, 0, ZoneOffset.UTC));
 
 	@MockitoBean
 	private DisturbanceService disturbanceServiceMock;
 
+	@MockitoBean
+	private DisturbanceArchiveService disturbanceArchiveServiceMock;
+
 	@Autowired
 	private WebTestClient webTestClient;
 
+	@BeforeEach
+	void setup() {
+		when(disturbanceServiceMock.findETag(any())).thenReturn(DISTURBANCE_ETAG);
+	}
+
 	@Test
 	void getByPartyId() {
 
@@ -58,7 +90,8 @@ class DisturbanceResourceTest {
 			.expectBodyList(Disturbance.class).hasSize(0);
 
 		// Assert
-		verify(disturbanceServiceMock).findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, null, null);
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID);
+		verify(disturbanceServiceMock).findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, null, null, true);
 		verifyNoMoreInteractions(disturbanceServiceMock);
 	}
 
@@ -82,7 +115,30 @@ class DisturbanceResourceTest {
 			.expectBodyList(Disturbance.class).hasSize(0);
 
 		// Assert
-		verify(disturbanceServiceMock).findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter);
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID);
+		verify(disturbanceServiceMock).findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter, true);
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getByPartyIdWithAllAffecteds() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+
+		// Act
+		webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/affecteds/{partyId}")
+				.queryParam("ownAffectedsOnly", false)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID, "partyId", partyId)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBodyList(Disturbance.class).hasSize(0);
+
+		// Assert
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID);
+		verify(disturbanceServiceMock).findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, null, null, false);
 		verifyNoMoreInteractions(disturbanceServiceMock);
 	}
 
@@ -93,6 +149,7 @@ class DisturbanceResourceTest {
 		final var category = Category.COMMUNICATION;
 		final var disturbanceId = "12345";
 
+		when(disturbanceServiceMock.findETag(any(), any(), any())).thenReturn(Optional.of(DisturbanceETag.of(new DisturbanceVersionRow(1L, CREATED, UPDATED))));
 		when(disturbanceServiceMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Disturbance.create()
 			.withCategory(category)
 			.withId(disturbanceId));
@@ -109,7 +166,101 @@ class DisturbanceResourceTest {
 		// Assert
 		assertThat(response).isNotNull();
 
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID, category, disturbanceId);
 		verify(disturbanceServiceMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getWithETagAndLastModified() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var eTag = DisturbanceETag.of(new DisturbanceVersionRow(1L, CREATED, UPDATED));
+
+		when(disturbanceServiceMock.findETag(any(), any(), any())).thenReturn(Optional.of(eTag));
+		when(disturbanceServiceMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Disturbance.create()
+			.withCategory(category)
+			.withId(disturbanceId)
+			.withCreated(CREATED)
+			.withUpdated(UPDATED));
+
+		// Act
+		webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/{category}/{disturbanceId}").build(Map.of("municipalityId", MUNICIPALITY_ID, "category", category, "disturbanceId", disturbanceId)))
+			.header(IF_NONE_MATCH, "\"41\"")
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().valueEquals(ETAG, "\"" + eTag.value() + "\"")
+			.expectHeader().valueEquals(LAST_MODIFIED, "Thu, 23 Sep 2021 10:05:48 GMT")
+			.expectBody(Disturbance.class);
+
+		// Assert
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID, category, disturbanceId);
+		verify(disturbanceServiceMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getNotModified() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var eTag = DisturbanceETag.of(new DisturbanceVersionRow(1L, CREATED, UPDATED));
+
+		when(disturbanceServiceMock.findETag(any(), any(), any())).thenReturn(Optional.of(eTag));
+
+		// Act
+		webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/{category}/{disturbanceId}").build(Map.of("municipalityId", MUNICIPALITY_ID, "category", category, "disturbanceId", disturbanceId)))
+			.header(IF_NONE_MATCH, "\"" + eTag.value() + "\"")
+			.exchange()
+			.expectStatus().isNotModified()
+			.expectHeader().valueEquals(ETAG, "\"" + eTag.value() + "\"")
+			.expectBody().isEmpty();
+
+		// Assert
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID, category, disturbanceId);
+		verify(disturbanceServiceMock, never()).findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any());
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getByPartyIdNotModified() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+
+		// Act
+		webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/affecteds/{partyId}").build(Map.of("municipalityId", MUNICIPALITY_ID, "partyId", partyId)))
+			.header(IF_NONE_MATCH, "\"42\"")
+			.exchange()
+			.expectStatus().isNotModified()
+			.expectBody().isEmpty();
+
+		// Assert
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID);
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getByStatusAndCategoryNotModifiedSince() {
+
+		// Act
+		webTestClient.get()
+			.uri(builder -> builder.path(PATH).build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.header(IF_MODIFIED_SINCE, "Thu, 23 Sep 2021 09:05:48 GMT")
+			.exchange()
+			.expectStatus().isNotModified()
+			.expectHeader().valueEquals(LAST_MODIFIED, "Thu, 23 Sep 2021 09:05:48 GMT")
+			.expectBody().isEmpty();
+
+		// Assert
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID);
+		verifyNoMoreInteractions(disturbanceServiceMock);
 	}
 
 	@Test
@@ -214,6 +365,337 @@ class DisturbanceResourceTest {
 			.expectBodyList(Disturbance.class).hasSize(0);
 
 		// Assert
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID);
 		verify(disturbanceServiceMock).findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, statusFilter, categoryFilter);
 	}
+
+	@Test
+	void getByStatusAndCategoryWithLimit() {
+
+		// Arrange
+		final var categoryFilter = List.of(Category.ELECTRICITY);
+		final var disturbances = List.of(Disturbance.create().withId("disturbanceId1"), Disturbance.create().withId("disturbanceId2"));
+
+		when(disturbanceServiceMock.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, categoryFilter, 2, null)).thenReturn(new DisturbancePage(disturbances, "next-cursor"));
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH)
+				.queryParam("category", categoryFilter)
+				.queryParam("limit", 2)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().value(LINK, link -> assertThat(link).matches("<http://localhost:\\d+/2281/disturbances\\?category=ELECTRICITY&limit=2&cursor=next-cursor>; rel=\"next\""))
+			.expectBodyList(Disturbance.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).extracting(Disturbance::getId).containsExactly("disturbanceId1", "disturbanceId2");
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID);
+		verify(disturbanceServiceMock).findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, categoryFilter, 2, null);
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getLastPageByStatusAndCategory() {
+
+		// Arrange
+		final var disturbances = List.of(Disturbance.create().withId("disturbanceId1"));
+
+		when(disturbanceServiceMock.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, 100, "cursor")).thenReturn(new DisturbancePage(disturbances, null));
+
+		// Act
+		webTestClient.get()
+			.uri(builder -> builder.path(PATH)
+				.queryParam("cursor", "cursor")
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().doesNotExist(LINK)
+			.expectBodyList(Disturbance.class).hasSize(1);
+
+		// Assert
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID);
+		verify(disturbanceServiceMock).findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, 100, "cursor");
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getArchivedDisturbances() {
+
+		// Arrange
+		final var categoryFilter = List.of(Category.ELECTRICITY);
+		final var disturbances = List.of(Disturbance.create().withId("disturbanceId1"), Disturbance.create().withId("disturbanceId2"));
+
+		when(disturbanceArchiveServiceMock.findArchivedDisturbances(MUNICIPALITY_ID, categoryFilter, "disturbanceId", 2, null)).thenReturn(new DisturbancePage(disturbances, "next-cursor"));
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/archive")
+				.queryParam("category", categoryFilter)
+				.queryParam("disturbanceId", "disturbanceId")
+				.queryParam("limit", 2)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().value(LINK, link -> assertThat(link).matches("<http://localhost:\\d+/2281/disturbances/archive\\?category=ELECTRICITY&disturbanceId=disturbanceId&limit=2&cursor=next-cursor>; rel=\"next\""))
+			.expectBodyList(Disturbance.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).extracting(Disturbance::getId).containsExactly("disturbanceId1", "disturbanceId2");
+		verify(disturbanceArchiveServiceMock).findArchivedDisturbances(MUNICIPALITY_ID, categoryFilter, "disturbanceId", 2, null);
+		verifyNoMoreInteractions(disturbanceArchiveServiceMock, disturbanceServiceMock);
+	}
+
+	@Test
+	void getLastPageOfArchivedDisturbances() {
+
+		// Arrange
+		final var disturbances = List.of(Disturbance.create().withId("disturbanceId1"));
+
+		when(disturbanceArchiveServiceMock.findArchivedDisturbances(MUNICIPALITY_ID, null, null, 100, "cursor")).thenReturn(new DisturbancePage(disturbances, null));
+
+		// Act
+		webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/archive")
+				.queryParam("cursor", "cursor")
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().doesNotExist(LINK)
+			.expectBodyList(Disturbance.class).hasSize(1);
+
+		// Assert
+		verify(disturbanceArchiveServiceMock).findArchivedDisturbances(MUNICIPALITY_ID, null, null, 100, "cursor");
+		verifyNoMoreInteractions(disturbanceArchiveServiceMock, disturbanceServiceMock);
+	}
+
+	@Test
+	void getAffecteds() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		final var affecteds = List.of(Affected.create().withPartyId(partyId).withFacilityId("facilityId").withReference("reference-1"),
+			Affected.create().withPartyId(partyId).withFacilityId("facilityId").withReference("reference-2"));
+
+		when(disturbanceServiceMock.findAffecteds(MUNICIPALITY_ID, Category.ELECTRICITY, "disturbanceId", partyId, "facilityId", 2, null)).thenReturn(new AffectedPage(affecteds, "next-cursor"));
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/{category}/{disturbanceId}/affecteds")
+				.queryParam("partyId", partyId)
+				.queryParam("facilityId", "facilityId")
+				.queryParam("limit", 2)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID, "category", Category.ELECTRICITY, "disturbanceId", "disturbanceId")))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().value(LINK, link -> assertThat(link).matches("<http://localhost:\\d+/2281/disturbances/ELECTRICITY/disturbanceId/affecteds\\?partyId=%s&facilityId=facilityId&limit=2&cursor=next-cursor>; rel=\"next\"".formatted(partyId)))
+			.expectBodyList(Affected.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).extracting(Affected::getReference).containsExactly("reference-1", "reference-2");
+		verify(disturbanceServiceMock).findAffecteds(MUNICIPALITY_ID, Category.ELECTRICITY, "disturbanceId", partyId, "facilityId", 2, null);
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getLastPageOfAffecteds() {
+
+		// Arrange
+		final var affecteds = List.of(Affected.create().withPartyId(randomUUID().toString()).withReference("reference-1"));
+
+		when(disturbanceServiceMock.findAffecteds(MUNICIPALITY_ID, Category.ELECTRICITY, "disturbanceId", null, null, 100, "cursor")).thenReturn(new AffectedPage(affecteds, null));
+
+		// Act
+		webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/{category}/{disturbanceId}/affecteds")
+				.queryParam("cursor", "cursor")
+				.build(Map.of("municipalityId", MUNICIPALITY_ID, "category", Category.ELECTRICITY, "disturbanceId", "disturbanceId")))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().doesNotExist(LINK)
+			.expectBodyList(Affected.class).hasSize(1);
+
+		// Assert
+		verify(disturbanceServiceMock).findAffecteds(MUNICIPALITY_ID, Category.ELECTRICITY, "disturbanceId", null, null, 100, "cursor");
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void addAffecteds() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var body = List.of(Affected.create().withPartyId(randomUUID().toString()).withReference("reference-1").withFacilityId("facilityId-1"));
+
+		// Act
+		webTestClient.post()
+			.uri(builder -> builder.path(PATH + "/{category}/{disturbanceId}/affecteds").build(Map.of("municipalityId", MUNICIPALITY_ID, "category", category, "disturbanceId", disturbanceId)))
+			.contentType(APPLICATION_JSON)
+			.bodyValue(body)
+			.exchange()
+			.expectStatus().isNoContent()
+			.expectBody().isEmpty();
+
+		// Assert
+		verify(disturbanceServiceMock).addAffecteds(MUNICIPALITY_ID, category, disturbanceId, body);
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void removeAffecteds() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var partyId = randomUUID().toString();
+
+		// Act
+		webTestClient.delete()
+			.uri(builder -> builder.path(PATH + "/{category}/{disturbanceId}/affecteds")
+				.queryParam("partyId", partyId)
+				.queryParam("facilityId", "facilityId-1")
+				.build(Map.of("municipalityId", MUNICIPALITY_ID, "category", category, "disturbanceId", disturbanceId)))
+			.exchange()
+			.expectStatus().isNoContent()
+			.expectBody().isEmpty();
+
+		// Assert
+		verify(disturbanceServiceMock).removeAffecteds(MUNICIPALITY_ID, category, disturbanceId, partyId, "facilityId-1");
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getSummariesByStatusAndCategory() {
+
+		// Arrange
+		final var categoryFilter = List.of(Category.COMMUNICATION);
+		final var statusFilter = List.of(Status.OPEN);
+		final var disturbances = List.of(Disturbance.create().withId("disturbanceId1").withAffectedCount(3));
+
+		when(disturbanceServiceMock.findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, statusFilter, categoryFilter)).thenReturn(disturbances);
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH)
+				.queryParam("category", categoryFilter)
+				.queryParam("status", statusFilter)
+				.queryParam("includeAffecteds", false)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBodyList(Disturbance.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).extracting(Disturbance::getId, Disturbance::getAffectedCount, Disturbance::getAffecteds).containsExactly(tuple("disturbanceId1", 3, null));
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID);
+		verify(disturbanceServiceMock).findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, statusFilter, categoryFilter);
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void getSummariesByStatusAndCategoryWithLimit() {
+
+		// Arrange
+		final var disturbances = List.of(Disturbance.create().withId("disturbanceId1").withAffectedCount(3));
+
+		when(disturbanceServiceMock.findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, 1, null)).thenReturn(new DisturbancePage(disturbances, "next-cursor"));
+
+		// Act
+		webTestClient.get()
+			.uri(builder -> builder.path(PATH)
+				.queryParam("includeAffecteds", false)
+				.queryParam("limit", 1)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectHeader().value(LINK, link -> assertThat(link).matches("<http://localhost:\\d+/2281/disturbances\\?includeAffecteds=false&limit=1&cursor=next-cursor>; rel=\"next\""))
+			.expectBodyList(Disturbance.class).hasSize(1);
+
+		// Assert
+		verify(disturbanceServiceMock).findETag(MUNICIPALITY_ID);
+		verify(disturbanceServiceMock).findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, 1, null);
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void exportAsJson() {
+
+		// Arrange
+		final var statusFilter = List.of(Status.OPEN);
+		doAnswer(invocation -> {
+			final Consumer<Disturbance> consumer = invocation.getArgument(3);
+			consumer.accept(Disturbance.create().withId("disturbanceId1"));
+			consumer.accept(Disturbance.create().withId("disturbanceId2"));
+			return null;
+		}).when(disturbanceServiceMock).exportByMunicipalityIdAndStatusAndCategory(eq(MUNICIPALITY_ID), eq(statusFilter), eq(null), any());
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/export")
+				.queryParam("status", statusFilter)
+				.build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_JSON)
+			.expectBodyList(Disturbance.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).extracting(Disturbance::getId).containsExactly("disturbanceId1", "disturbanceId2");
+		verify(disturbanceServiceMock).exportByMunicipalityIdAndStatusAndCategory(eq(MUNICIPALITY_ID), eq(statusFilter), eq(null), any());
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
+
+	@Test
+	void exportAsNdjson() {
+
+		// Arrange
+		doAnswer(invocation -> {
+			final Consumer<Disturbance> consumer = invocation.getArgument(3);
+			consumer.accept(Disturbance.create().withId("disturbanceId1"));
+			consumer.accept(Disturbance.create().withId("disturbanceId2"));
+			return null;
+		}).when(disturbanceServiceMock).exportByMunicipalityIdAndStatusAndCategory(eq(MUNICIPALITY_ID), eq(null), eq(null), any());
+
+		// Act
+		final var response = webTestClient.get()
+			.uri(builder -> builder.path(PATH + "/export").build(Map.of("municipalityId", MUNICIPALITY_ID)))
+			.accept(APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentType(APPLICATION_NDJSON)
+			.expectBody(String.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response.lines())
+			.hasSize(2)
+			.allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"))
+			.satisfies(lines -> {
+				assertThat(lines.get(0)).contains("\"id\":\"disturbanceId1\"");
+				assertThat(lines.get(1)).contains("\"id\":\"disturbanceId2\"");
+			});
+		verify(disturbanceServiceMock).exportByMunicipalityIdAndStatusAndCategory(eq(MUNICIPALITY_ID), eq(null), eq(null), any());
+		verifyNoMoreInteractions(disturbanceServiceMock);
+	}
 }
@@ -47,6 +47,7 @@ class DisturbanceTest {
 		final var status = Status.CLOSED;
 		final var title = "Title";
 		final var affecteds = List.of(Affected.create());
+		final var affectedCount = 1;
 		final var plannedStartDate = now(systemDefault());
 		final var plannedStopDate = now(systemDefault());
 
@@ -57,6 +58,7 @@ class DisturbanceTest {
 			.withId(id)
 			.withMunicipalityId(municipalityId)
 			.withAffecteds(affecteds)
+			.withAffectedCount(affectedCount)
 			.withPlannedStartDate(plannedStartDate)
 			.withPlannedStopDate(plannedStopDate)
 			.withStatus(status)
@@ -65,6 +67,7 @@ class DisturbanceTest {
 
 		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
 		assertThat(bean.getAffecteds()).isEqualTo(affecteds);
+		assertThat(bean.getAffectedCount()).isEqualTo(affectedCount);
 		assertThat(bean.getCategory()).isEqualByComparingTo(category);
 		assertThat(bean.getCreated()).isEqualTo(created);
 		assertThat(bean.getDescription()).isEqualTo(description);
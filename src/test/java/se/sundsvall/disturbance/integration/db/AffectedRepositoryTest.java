@@ -0,0 +1,58 @@
+package se.sundsvall.disturbance.integration.db;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+
+/**
+ * Affected repository tests.
+ *
+ * @see src/test/resources/db/testdata.sql for data setup.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/scripts/truncate.sql",
+	"/db/scripts/testdata-junit.sql"
+})
+class AffectedRepositoryTest {
+
+	private static final String PARTY_ID_1 = "0d64beb2-3aea-11ec-8d3d-0242ac130003"; // Exists in "disturbance-2".
+	private static final String PARTY_ID_3 = "0d64c42a-3aea-11ec-8d3d-0242ac130003"; // Exists in "disturbance-2".
+
+	@Autowired
+	private AffectedRepository affectedRepository;
+
+	@Test
+	void findByDisturbanceIdAndPartyIdIn() {
+		final var affecteds = affectedRepository.findByDisturbanceIdAndPartyIdIn(2L, Set.of(PARTY_ID_1, PARTY_ID_3, "unknown-party"));
+
+		assertThat(affecteds)
+			.extracting(AffectedEntity::getPartyId, AffectedEntity::getReference, AffectedEntity::getFacilityId)
+			.containsExactly(
+				tuple(PARTY_ID_1, "Streetname 11", "facility-11"),
+				tuple(PARTY_ID_3, "Streetname 33", "facility-33"));
+	}
+
+	@Test
+	void findByDisturbanceIdAndPartyIdInWhenNotFound() {
+		assertThat(affectedRepository.findByDisturbanceIdAndPartyIdIn(2L, Set.of("unknown-party"))).isEmpty();
+		assertThat(affectedRepository.findByDisturbanceIdAndPartyIdIn(-1L, Set.of(PARTY_ID_1))).isEmpty();
+	}
+
+	@Test
+	void countByDisturbanceId() {
+		assertThat(affectedRepository.countByDisturbanceId(2L)).isEqualTo(3);
+		assertThat(affectedRepository.countByDisturbanceId(-1L)).isZero();
+	}
+}
@@ -0,0 +1,106 @@
+package se.sundsvall.disturbance.integration.db;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.ArchivedAffected;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+import static se.sundsvall.disturbance.api.model.Category.WATER;
+import static se.sundsvall.disturbance.api.model.Status.CLOSED;
+
+/**
+ * Disturbance archive repository tests.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/scripts/truncate.sql"
+})
+class DisturbanceArchiveRepositoryTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private DisturbanceArchiveRepository disturbanceArchiveRepository;
+
+	@BeforeEach
+	void setup() {
+		final var created = now(systemDefault()).minusYears(3).truncatedTo(MILLIS);
+
+		disturbanceArchiveRepository.saveAllAndFlush(List.of(
+			createDisturbanceArchiveEntity(MUNICIPALITY_ID, ELECTRICITY, "disturbance-1", 0, created),
+			createDisturbanceArchiveEntity(MUNICIPALITY_ID, WATER, "disturbance-2", 1, created.plusDays(1)),
+			createDisturbanceArchiveEntity(MUNICIPALITY_ID, ELECTRICITY, "disturbance-3", 2, created.plusDays(1)),
+			createDisturbanceArchiveEntity(MUNICIPALITY_ID, ELECTRICITY, "disturbance-1", 3, created.plusDays(2)),
+			createDisturbanceArchiveEntity("2260", ELECTRICITY, "disturbance-1", 1, created)));
+	}
+
+	@Test
+	void findByMunicipalityId() {
+
+		final var firstPage = disturbanceArchiveRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, null, null, null, null, 2);
+
+		assertThat(firstPage)
+			.extracting(DisturbanceArchiveEntity::getDisturbanceId)
+			.containsExactly("disturbance-1", "disturbance-2");
+
+		final var last = firstPage.getLast();
+		final var secondPage = disturbanceArchiveRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, null, null, last.getCreated(), last.getId(), 2);
+
+		assertThat(secondPage)
+			.extracting(DisturbanceArchiveEntity::getDisturbanceId)
+			.containsExactly("disturbance-3", "disturbance-1");
+		assertThat(secondPage.getLast().getAffecteds()).hasSize(3);
+		assertThat(secondPage.getLast().getAffectedCount()).isEqualTo(3);
+	}
+
+	@Test
+	void findByMunicipalityIdAndCategoryAndDisturbanceId() {
+
+		final var result = disturbanceArchiveRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, List.of(ELECTRICITY), "disturbance-1", null, null, 10);
+
+		assertThat(result)
+			.extracting(DisturbanceArchiveEntity::getAffectedCount)
+			.containsExactly(0, 3);
+	}
+
+	@Test
+	void findByMunicipalityIdNoMatch() {
+		assertThat(disturbanceArchiveRepository.findByMunicipalityIdAndCategoryAndDisturbanceId("1234", null, null, null, null, 10)).isEmpty();
+	}
+
+	private static DisturbanceArchiveEntity createDisturbanceArchiveEntity(final String municipalityId, final Category category, final String disturbanceId, final int affectedCount, final OffsetDateTime created) {
+		final var affecteds = IntStream.range(0, affectedCount)
+			.mapToObj(i -> new ArchivedAffected("partyId-" + i, "reference-" + i, null, null))
+			.toList();
+
+		return DisturbanceArchiveEntity.create()
+			.withMunicipalityId(municipalityId)
+			.withCategory(category)
+			.withDisturbanceId(disturbanceId)
+			.withStatus(CLOSED)
+			.withTitle("title")
+			.withDescription("description")
+			.withCreated(created)
+			.withUpdated(created.plusHours(1))
+			.withArchived(now(systemDefault()))
+			.withAffectedCount(affectedCount)
+			.withAffecteds(affecteds);
+	}
+}
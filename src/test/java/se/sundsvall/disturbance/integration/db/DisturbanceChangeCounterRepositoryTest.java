@@ -0,0 +1,67 @@
+package se.sundsvall.disturbance.integration.db;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+
+/**
+ * Disturbance change counter repository tests.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/scripts/truncate.sql"
+})
+class DisturbanceChangeCounterRepositoryTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String OTHER_MUNICIPALITY_ID = "2260";
+
+	@Autowired
+	private DisturbanceChangeCounterRepository disturbanceChangeCounterRepository;
+
+	@Test
+	void increment() {
+		final var modified = now(systemDefault()).truncatedTo(MILLIS);
+
+		disturbanceChangeCounterRepository.increment(MUNICIPALITY_ID, modified.minusMinutes(1));
+		disturbanceChangeCounterRepository.increment(MUNICIPALITY_ID, modified);
+		disturbanceChangeCounterRepository.increment(OTHER_MUNICIPALITY_ID, modified);
+
+		final var result = disturbanceChangeCounterRepository.findById(MUNICIPALITY_ID).orElseThrow();
+		assertThat(result.getVersion()).isEqualTo(2);
+		assertThat(result.getModified()).isEqualTo(modified);
+		assertThat(disturbanceChangeCounterRepository.findById(OTHER_MUNICIPALITY_ID).orElseThrow().getVersion()).isEqualTo(1);
+	}
+
+	@Test
+	void incrementAll() {
+		final var modified = now(systemDefault()).truncatedTo(MILLIS);
+
+		disturbanceChangeCounterRepository.increment(MUNICIPALITY_ID, modified.minusMinutes(1));
+		disturbanceChangeCounterRepository.increment(OTHER_MUNICIPALITY_ID, modified.minusMinutes(1));
+
+		assertThat(disturbanceChangeCounterRepository.incrementAll(modified)).isEqualTo(2);
+
+		assertThat(disturbanceChangeCounterRepository.findAll())
+			.allSatisfy(disturbanceChangeCounterEntity -> {
+				assertThat(disturbanceChangeCounterEntity.getVersion()).isEqualTo(2);
+				assertThat(disturbanceChangeCounterEntity.getModified()).isEqualTo(modified);
+			});
+	}
+
+	@Test
+	void findByIdWhenNoChanges() {
+		assertThat(disturbanceChangeCounterRepository.findById(MUNICIPALITY_ID)).isEmpty();
+	}
+}
@@ -7,12 +7,17 @@ import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.AffectedRow;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceSummaryRow;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.ZoneId.systemDefault;
@@ -51,6 +56,9 @@ class DisturbanceRepositoryTest {
 	@Autowired
 	private DisturbanceRepository disturbanceRepository;
 
+	@Autowired
+	private PartyDisturbanceRepository partyDisturbanceRepository;
+
 	@Test
 	void findByMunicipalityIdAndCategoryAndDisturbanceId() {
 		final var disturbanceOptional = disturbanceRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, COMMUNICATION, DISTURBANCE_ID_2);
@@ -59,6 +67,24 @@ class DisturbanceRepositoryTest {
 		assertAsDisturbanceEntity2(disturbanceOptional.get());
 	}
 
+	@Test
+	void findVersionByMunicipalityIdAndCategoryAndDisturbanceId() {
+		final var versionOptional = disturbanceRepository.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, COMMUNICATION, DISTURBANCE_ID_2);
+
+		assertThat(versionOptional).isPresent();
+		assertThat(versionOptional.get().id()).isEqualTo(2L);
+		assertThat(versionOptional.get().created()).isEqualTo(getOffsetDateTime(2021, 9, 23, 9, 5, 48, 198000000));
+		assertThat(versionOptional.get().updated()).isEqualTo(getOffsetDateTime(2021, 9, 24, 9, 5, 48, 298000000));
+	}
+
+	@Test
+	void findVersionByMunicipalityIdAndCategoryAndDisturbanceIdWhenDeleted() {
+		disturbanceRepository.save(disturbanceRepository.findById(2L).orElseThrow().withDeleted(true));
+		disturbanceRepository.flush();
+
+		assertThat(disturbanceRepository.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, COMMUNICATION, DISTURBANCE_ID_2)).isEmpty();
+	}
+
 	@Test
 	void persistAndFetch() {
 
@@ -109,7 +135,7 @@ class DisturbanceRepositoryTest {
 
 	@Test
 	void findByPartyIdFilterByCategoryAndStatusWithCategoryFilterAndStatusFilter() {
-		final var disturbances = disturbanceRepository.findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(MUNICIPALITY_ID, PARTY_ID_1, List.of(COMMUNICATION), List.of(OPEN));
+		final var disturbances = disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, PARTY_ID_1), List.of(COMMUNICATION), List.of(OPEN));
 		assertThat(disturbances)
 			.isNotEmpty()
 			.hasSize(1)
@@ -118,7 +144,7 @@ class DisturbanceRepositoryTest {
 
 	@Test
 	void findByPartyIdFilterByCategoryAndStatusWithEmptyCategoryAndEmptyStatus() {
-		final var disturbances = disturbanceRepository.findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(MUNICIPALITY_ID, PARTY_ID_2, emptyList(), emptyList());
+		final var disturbances = disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, PARTY_ID_2), emptyList(), emptyList());
 		assertThat(disturbances)
 			.isNotEmpty()
 			.hasSize(1)
@@ -127,7 +153,7 @@ class DisturbanceRepositoryTest {
 
 	@Test
 	void findByPartyIdFilterByCategoryAndStatusWithMultipleCategoriesAndMultipleStatuses() {
-		final var disturbances = disturbanceRepository.findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(MUNICIPALITY_ID, PARTY_ID_2, List.of(COMMUNICATION, ELECTRICITY), List.of(OPEN,
+		final var disturbances = disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, PARTY_ID_2), List.of(COMMUNICATION, ELECTRICITY), List.of(OPEN,
 			CLOSED));
 		assertThat(disturbances)
 			.isNotEmpty()
@@ -137,7 +163,7 @@ class DisturbanceRepositoryTest {
 
 	@Test
 	void findByPartyIdFilterByCategoryAndStatusWithCategoryFilter() {
-		final var disturbances = disturbanceRepository.findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(MUNICIPALITY_ID, PARTY_ID_1, List.of(COMMUNICATION), null);
+		final var disturbances = disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, PARTY_ID_1), List.of(COMMUNICATION), null);
 		assertThat(disturbances)
 			.isNotEmpty()
 			.hasSize(1)
@@ -146,7 +172,7 @@ class DisturbanceRepositoryTest {
 
 	@Test
 	void findByPartyIdFilterByCategoryAndStatusWithStatusFilter() {
-		final var disturbances = disturbanceRepository.findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(MUNICIPALITY_ID, PARTY_ID_2, null, List.of(OPEN));
+		final var disturbances = disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, PARTY_ID_2), null, List.of(OPEN));
 		assertThat(disturbances)
 			.isNotEmpty()
 			.hasSize(1)
@@ -155,13 +181,87 @@ class DisturbanceRepositoryTest {
 
 	@Test
 	void findByPartyIdFilterByCategoryAndStatusWithNoStatusFilterAndNoCategoryFilter() {
-		final var disturbances = disturbanceRepository.findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(MUNICIPALITY_ID, PARTY_ID_2, null, null);
+		final var disturbances = disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, PARTY_ID_2), null, null);
 		assertThat(disturbances)
 			.isNotEmpty()
 			.hasSize(1)
 			.allSatisfy(this::assertAsDisturbanceEntity2);
 	}
 
+	@Test
+	void findIdsByMunicipalityIdAndAffectedEntitiesPartyId() {
+		assertThat(disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, PARTY_ID_1)).containsExactly(2L);
+		assertThat(disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId("2260", PARTY_ID_1)).isEmpty();
+		assertThat(disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, "unknown-partyId")).isEmpty();
+	}
+
+	@Test
+	void findIdsByMunicipalityIdAndAffectedEntitiesPartyIdWhenDeleted() {
+		disturbanceRepository.save(disturbanceRepository.findById(2L).orElseThrow().withDeleted(true));
+		disturbanceRepository.flush();
+
+		assertThat(disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, PARTY_ID_1)).isEmpty();
+	}
+
+	@Test
+	void findByMunicipalityIdAndIdInAndCategoryInAndStatusIn() {
+		assertThat(disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, List.of(2L, 3L, 4L), null, null))
+			.extracting(DisturbanceEntity::getId)
+			.containsExactlyInAnyOrder(2L, 3L, 4L);
+		assertThat(disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, List.of(2L, 3L, 4L), List.of(COMMUNICATION), List.of(OPEN)))
+			.hasSize(1)
+			.allSatisfy(this::assertAsDisturbanceEntity2);
+		assertThat(disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn("2260", List.of(2L, 3L, 4L), null, null)).isEmpty();
+		assertThat(disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, List.of(-1L), null, null)).isEmpty();
+	}
+
+	@Test
+	void findAffectedRowsByDisturbanceIdInAndPartyId() {
+		assertThat(disturbanceRepository.findAffectedRowsByDisturbanceIdInAndPartyId(List.of(2L, 3L), PARTY_ID_1))
+			.extracting(AffectedRow::disturbanceId, AffectedRow::partyId, AffectedRow::reference, AffectedRow::facilityId, AffectedRow::coordinates)
+			.containsExactly(tuple(2L, PARTY_ID_1, "Streetname 11", "facility-11", "coordinate-11"));
+		assertThat(disturbanceRepository.findAffectedRowsByDisturbanceIdInAndPartyId(List.of(3L, 4L), PARTY_ID_1)).isEmpty();
+		assertThat(disturbanceRepository.findAffectedRowsByDisturbanceIdInAndPartyId(List.of(2L), "unknown-partyId")).isEmpty();
+	}
+
+	@Test
+	void findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId() {
+		final var disturbance = disturbanceRepository.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, COMMUNICATION, DISTURBANCE_ID_2);
+
+		assertThat(disturbance).isPresent();
+		assertThat(disturbance.get().getId()).isEqualTo(2L);
+		assertThat(disturbance.get().getStatus()).isEqualTo(OPEN);
+		assertThat(disturbanceRepository.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID_2)).isEmpty();
+	}
+
+	@Test
+	void findAffectedRowsByDisturbanceIdAndIdGreaterThan() {
+		final var firstPage = disturbanceRepository.findAffectedRowsByDisturbanceIdAndIdGreaterThan(2L, null, null, 0L, Limit.of(2));
+		assertThat(firstPage)
+			.extracting(AffectedRow::disturbanceId, AffectedRow::partyId, AffectedRow::reference, AffectedRow::facilityId, AffectedRow::coordinates)
+			.containsExactly(
+				tuple(2L, PARTY_ID_1, "Streetname 11", "facility-11", "coordinate-11"),
+				tuple(2L, PARTY_ID_2, "Streetname 22", "facility-22", "coordinate-22"));
+
+		final var lastPage = disturbanceRepository.findAffectedRowsByDisturbanceIdAndIdGreaterThan(2L, null, null, firstPage.getLast().id(), Limit.of(2));
+		assertThat(lastPage)
+			.extracting(AffectedRow::partyId)
+			.containsExactly("0d64c42a-3aea-11ec-8d3d-0242ac130003");
+		assertThat(lastPage.getFirst().id()).isGreaterThan(firstPage.getLast().id());
+	}
+
+	@Test
+	void findAffectedRowsByDisturbanceIdAndIdGreaterThanWithFilters() {
+		assertThat(disturbanceRepository.findAffectedRowsByDisturbanceIdAndIdGreaterThan(2L, PARTY_ID_2, null, 0L, Limit.of(10)))
+			.extracting(AffectedRow::partyId)
+			.containsExactly(PARTY_ID_2);
+		assertThat(disturbanceRepository.findAffectedRowsByDisturbanceIdAndIdGreaterThan(2L, null, "facility-33", 0L, Limit.of(10)))
+			.extracting(AffectedRow::facilityId)
+			.containsExactly("facility-33");
+		assertThat(disturbanceRepository.findAffectedRowsByDisturbanceIdAndIdGreaterThan(2L, PARTY_ID_2, "facility-33", 0L, Limit.of(10))).isEmpty();
+		assertThat(disturbanceRepository.findAffectedRowsByDisturbanceIdAndIdGreaterThan(-1L, null, null, 0L, Limit.of(10))).isEmpty();
+	}
+
 	@Test
 	void findAllFilteredByCategory() {
 		final var disturbances = disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, List.of(COMMUNICATION));
@@ -205,24 +305,223 @@ class DisturbanceRepositoryTest {
 	}
 
 	@Test
-	void deleteByCreatedBeforeAndStatusIn() {
+	void findPagesFilteredByCategory() {
+		final var firstPage = disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, List.of(ELECTRICITY), null, null, 4);
+
+		assertThat(firstPage)
+			.extracting(DisturbanceEntity::getId)
+			.containsExactly(3L, 5L, 6L, 7L);
+
+		final var secondPage = disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, List.of(ELECTRICITY), firstPage.getLast().getCreated(), firstPage.getLast().getId(), 4);
+
+		assertThat(secondPage)
+			.extracting(DisturbanceEntity::getId)
+			.containsExactly(8L, 9L, 10L, 12L);
+
+		final var lastPage = disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, List.of(ELECTRICITY), secondPage.getLast().getCreated(), secondPage.getLast().getId(), 4);
+
+		assertThat(lastPage)
+			.extracting(DisturbanceEntity::getId)
+			.containsExactly(13L);
+	}
+
+	@Test
+	void findPagesOrderedByCreated() {
+
+		// Disturbance 14 and 15 are created after the other disturbances.
+		final var firstPage = disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, null, null, 12);
+
+		assertThat(firstPage)
+			.extracting(DisturbanceEntity::getId)
+			.containsExactly(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L);
+
+		final var secondPage = disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, firstPage.getLast().getCreated(), firstPage.getLast().getId(), 12);
+
+		assertThat(secondPage)
+			.extracting(DisturbanceEntity::getId)
+			.containsExactly(14L, 15L);
+	}
+
+	@Test
+	void findSummariesFilteredByCategory() {
+		final var summaries = disturbanceRepository.findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, List.of(ELECTRICITY), null, null, null);
+
+		assertThat(summaries)
+			.extracting(DisturbanceSummaryRow::id, DisturbanceSummaryRow::disturbanceId, DisturbanceSummaryRow::category, DisturbanceSummaryRow::affectedCount)
+			.containsExactly(
+				tuple(3L, "disturbance-3", ELECTRICITY, 1L),
+				tuple(5L, "disturbance-5", ELECTRICITY, 3L),
+				tuple(6L, "disturbance-6", ELECTRICITY, 3L),
+				tuple(7L, "disturbance-7", ELECTRICITY, 3L),
+				tuple(8L, "disturbance-8", ELECTRICITY, 3L),
+				tuple(9L, "disturbance-9", ELECTRICITY, 6L),
+				tuple(10L, "disturbance-10", ELECTRICITY, 0L),
+				tuple(12L, "disturbance-12", ELECTRICITY, 3L),
+				tuple(13L, "disturbance-13", ELECTRICITY, 1L));
+	}
+
+	@Test
+	void findSummaryPagesFilteredByStatusAndCategory() {
+		final var firstPage = disturbanceRepository.findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, List.of(OPEN), List.of(COMMUNICATION), null, null, 1);
+
+		assertThat(firstPage).hasSize(1).first().satisfies(summary -> {
+			assertThat(summary.id()).isEqualTo(2L);
+			assertThat(summary.municipalityId()).isEqualTo(MUNICIPALITY_ID);
+			assertThat(summary.disturbanceId()).isEqualTo(DISTURBANCE_ID_2);
+			assertThat(summary.status()).isEqualTo(OPEN);
+			assertThat(summary.title()).isEqualTo("Title");
+			assertThat(summary.description()).isEqualTo("Description");
+			assertThat(summary.created()).isNotNull();
+			assertThat(summary.affectedCount()).isEqualTo(3L);
+		});
+
+		final var secondPage = disturbanceRepository.findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, List.of(OPEN), List.of(COMMUNICATION), firstPage.getLast().created(), firstPage.getLast().id(), 1);
+
+		assertThat(secondPage)
+			.extracting(DisturbanceSummaryRow::id, DisturbanceSummaryRow::affectedCount)
+			.containsExactly(tuple(11L, 3L));
+	}
+
+	@Test
+	void streamFilteredByStatusAndCategory() {
+		try (final var disturbances = disturbanceRepository.streamByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, List.of(OPEN), List.of(COMMUNICATION))) {
+			assertThat(disturbances.toList())
+				.extracting(DisturbanceEntity::getId, disturbanceEntity -> disturbanceEntity.getAffectedEntities().size())
+				.containsExactly(
+					tuple(2L, 3),
+					tuple(11L, 3));
+		}
+	}
+
+	@Test
+	void streamAndDetach() {
+		try (final var disturbances = disturbanceRepository.streamByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null)) {
+			final var ids = disturbances
+				.peek(disturbanceRepository::detach)
+				.map(DisturbanceEntity::getId)
+				.toList();
+
+			assertThat(ids).containsExactly(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L);
+		}
+
+		assertThat(disturbanceRepository.findById(2L)).hasValueSatisfying(this::assertAsDisturbanceEntity2);
+	}
+
+	@Test
+	void findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan() {
+
+		// Arrange
+		final var expiryDate = now(systemDefault()).minusMonths(24);
+		final var allCategories = List.of(Category.values());
+
+		// Act
+		final var ids = disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(allCategories, List.of(CLOSED), expiryDate, 0L, Limit.of(10));
+
+		// Assert (disturbance 14 is older than 24 months too, but OPEN).
+		assertThat(ids).containsExactly(15L);
+		assertThat(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(allCategories, List.of(CLOSED), expiryDate, 15L, Limit.of(10))).isEmpty();
+		assertThat(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(List.of(ELECTRICITY), List.of(CLOSED), expiryDate, 0L, Limit.of(10))).isEmpty();
+		assertThat(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(allCategories, List.of(CLOSED, OPEN), expiryDate, 0L, Limit.of(1))).containsExactly(14L);
+	}
+
+	@Test
+	void findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThanExcludesDeleted() {
+
+		// Arrange
+		final var expiryDate = now(systemDefault()).minusMonths(24);
+		disturbanceRepository.save(disturbanceRepository.findById(15L).orElseThrow().withDeleted(true));
+		disturbanceRepository.flush();
+
+		// Act
+		final var ids = disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(List.of(Category.values()), List.of(CLOSED), expiryDate, 0L, Limit.of(10));
+
+		// Assert
+		assertThat(ids).isEmpty();
+	}
+
+	@Test
+	void findDeletedIdsByCategoryInAndStatusInAndUpdatedBeforeAndIdGreaterThan() {
+
+		// Arrange
+		final var allCategories = List.of(Category.values());
+		final var allStatuses = List.of(Status.values());
+		disturbanceRepository.save(disturbanceRepository.findById(3L).orElseThrow().withDeleted(true));
+		disturbanceRepository.flush();
+
+		// Act (disturbance 3 is deleted now, i.e. after the first expiry date but before the second).
+		final var idsDeletedBeforeYesterday = disturbanceRepository.findDeletedIdsByCategoryInAndStatusInAndUpdatedBeforeAndIdGreaterThan(allCategories, allStatuses, now(systemDefault()).minusDays(1), 0L, Limit.of(10));
+		final var idsDeletedBeforeTomorrow = disturbanceRepository.findDeletedIdsByCategoryInAndStatusInAndUpdatedBeforeAndIdGreaterThan(allCategories, allStatuses, now(systemDefault()).plusDays(1), 0L, Limit.of(10));
+
+		// Assert
+		assertThat(idsDeletedBeforeYesterday).isEmpty();
+		assertThat(idsDeletedBeforeTomorrow).containsExactly(3L);
+	}
+
+	@Test
+	void deletedDisturbancesAreNotRead() {
 
 		// Arrange
-		final var deleteOlderThanMonths = 24;
-		final var expiryDate = now(systemDefault()).minusMonths(deleteOlderThanMonths);
-		final var disturbanceNotEligibleForDelete = disturbanceRepository.findById(14L).get();
-		final var disturbanceEligibleForDelete = disturbanceRepository.findById(15L).get();
+		disturbanceRepository.save(disturbanceRepository.findById(2L).orElseThrow().withDeleted(true));
+		disturbanceRepository.flush();
+
+		// Act and assert
+		assertThat(disturbanceRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, COMMUNICATION, DISTURBANCE_ID_2)).isEmpty();
+		assertThat(disturbanceRepository.existsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, COMMUNICATION, DISTURBANCE_ID_2)).isTrue();
+		assertThat(disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, List.of(2L), null, null)).isEmpty();
+		assertThat(disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null))
+			.hasSize(13)
+			.extracting(DisturbanceEntity::getId)
+			.doesNotContain(2L);
+		assertThat(disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, null, null, 1))
+			.extracting(DisturbanceEntity::getId)
+			.containsExactly(3L);
+		assertThat(disturbanceRepository.findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, null, null, null))
+			.hasSize(13)
+			.extracting(DisturbanceSummaryRow::id)
+			.doesNotContain(2L);
+		try (final var disturbances = disturbanceRepository.streamByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null)) {
+			assertThat(disturbances.map(DisturbanceEntity::getId)).hasSize(13).doesNotContain(2L);
+		}
+	}
 
-		// Assert that both is older than 24 months.
-		assertThat(disturbanceEligibleForDelete.getCreated()).isBefore(expiryDate);
-		assertThat(disturbanceNotEligibleForDelete.getCreated()).isBefore(expiryDate);
+	@Test
+	void findMunicipalityIdsByIdIn() {
 
 		// Act
-		disturbanceRepository.deleteByCreatedBeforeAndStatusIn(expiryDate, CLOSED);
+		final var municipalityIds = disturbanceRepository.findMunicipalityIdsByIdIn(List.of(5L, 15L, 999L));
+
+		// Assert
+		assertThat(municipalityIds).containsExactly(MUNICIPALITY_ID);
+	}
+
+	@Test
+	void deleteAffectedByDisturbanceIdInAndDeleteByIdIn() {
+
+		// Arrange
+		final var disturbanceIds = List.of(5L, 15L);
+
+		// Act (disturbance 5 has 3 affecteds and disturbance 15 has 1).
+		final var deletedAffectedsFirstChunk = disturbanceRepository.deleteAffectedByDisturbanceIdIn(disturbanceIds, 3);
+		final var deletedAffectedsSecondChunk = disturbanceRepository.deleteAffectedByDisturbanceIdIn(disturbanceIds, 3);
+		final var deletedDisturbances = disturbanceRepository.deleteByIdIn(disturbanceIds);
+
+		// Assert
+		assertThat(deletedAffectedsFirstChunk).isEqualTo(3);
+		assertThat(deletedAffectedsSecondChunk).isEqualTo(1);
+		assertThat(deletedDisturbances).isEqualTo(2);
+		assertThat(disturbanceRepository.findAllById(disturbanceIds)).isEmpty();
+		assertThat(disturbanceRepository.findById(14L)).hasValueSatisfying(disturbanceEntity -> assertThat(disturbanceEntity.getAffectedEntities()).hasSize(2));
+	}
+
+	@Test
+	void deletePartyDisturbanceByDisturbanceIdIn() {
+
+		// Act (disturbance 5 has 3 parties in the party index and the closed disturbance 15 has none).
+		final var deletedPartyDisturbances = disturbanceRepository.deletePartyDisturbanceByDisturbanceIdIn(List.of(5L, 15L));
 
 		// Assert
-		assertThat(disturbanceRepository.findById(disturbanceEligibleForDelete.getId())).isNotPresent();
-		assertThat(disturbanceRepository.findById(disturbanceNotEligibleForDelete.getId())).isPresent();
+		assertThat(deletedPartyDisturbances).isEqualTo(3);
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, "00000001-0000-1000-8000-00805f9b34fb")).containsExactlyInAnyOrder(6L, 8L, 12L);
 	}
 
 	private void assertAsDisturbanceEntity2(final DisturbanceEntity disturbanceEntity) {
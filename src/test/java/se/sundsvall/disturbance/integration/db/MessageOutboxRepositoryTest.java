@@ -0,0 +1,159 @@
+package se.sundsvall.disturbance.integration.db;
+
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.DEAD;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.IN_FLIGHT;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.PENDING;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/scripts/truncate.sql",
+	"/db/scripts/testdata-junit.sql"
+})
+class MessageOutboxRepositoryTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Autowired
+	private MessageOutboxRepository messageOutboxRepository;
+
+	@Test
+	void findDueForUpdate() {
+
+		// Arrange
+		final var now = now(systemDefault());
+		final var due1 = messageOutboxRepository.save(createEntity(PENDING, now.minusMinutes(2)));
+		final var due2 = messageOutboxRepository.save(createEntity(PENDING, now.minusMinutes(1)));
+		final var due3 = messageOutboxRepository.save(createEntity(PENDING, now.minusMinutes(3)));
+		messageOutboxRepository.save(createEntity(PENDING, now.plusMinutes(1)));
+		messageOutboxRepository.save(createEntity(DEAD, now.minusMinutes(1)));
+		final var expiredLease = messageOutboxRepository.save(createEntity(IN_FLIGHT, now.minusMinutes(1)));
+		messageOutboxRepository.save(createEntity(IN_FLIGHT, now.plusMinutes(5)));
+
+		// Act
+		final var result = messageOutboxRepository.findDueForUpdate(now, 10);
+
+		// Assert
+		assertThat(result)
+			.extracting(MessageOutboxEntity::getId)
+			.containsExactly(due1.getId(), due2.getId(), due3.getId(), expiredLease.getId());
+	}
+
+	@Test
+	void findDueForUpdateWithLimit() {
+
+		// Arrange
+		final var now = now(systemDefault());
+		final var due1 = messageOutboxRepository.save(createEntity(PENDING, now.minusMinutes(1)));
+		final var due2 = messageOutboxRepository.save(createEntity(PENDING, now.minusMinutes(1)));
+		messageOutboxRepository.save(createEntity(PENDING, now.minusMinutes(1)));
+
+		// Act
+		final var result = messageOutboxRepository.findDueForUpdate(now, 2);
+
+		// Assert
+		assertThat(result)
+			.extracting(MessageOutboxEntity::getId)
+			.containsExactly(due1.getId(), due2.getId());
+	}
+
+	@Test
+	void deleteSentChunk() {
+
+		// Arrange
+		final var entity = messageOutboxRepository.saveAndFlush(createEntity(IN_FLIGHT, now(systemDefault())));
+
+		// Act
+		messageOutboxRepository.deleteSentChunk(entity.getId());
+
+		// Assert
+		assertThat(messageOutboxRepository.existsById(entity.getId())).isFalse();
+	}
+
+	@Test
+	void updateFailedChunk() {
+
+		// Arrange
+		final var entity = messageOutboxRepository.saveAndFlush(createEntity(IN_FLIGHT, now(systemDefault())));
+		final var nextAttempt = now(systemDefault()).plusMinutes(10).truncatedTo(MILLIS);
+
+		// Act
+		messageOutboxRepository.updateFailedChunk(entity.getId(), PENDING, 2, "error", nextAttempt);
+
+		// Assert
+		assertThat(messageOutboxRepository.findById(entity.getId())).hasValueSatisfying(persisted -> {
+			assertThat(persisted.getStatus()).isEqualTo(PENDING);
+			assertThat(persisted.getAttempts()).isEqualTo(2);
+			assertThat(persisted.getLastError()).isEqualTo("error");
+			assertThat(persisted.getNextAttempt()).isCloseTo(nextAttempt, within(1, SECONDS));
+		});
+	}
+
+	@Test
+	void updateFailedChunkWhenChunkIsRemoved() {
+
+		// Arrange
+		final var entity = messageOutboxRepository.saveAndFlush(createEntity(IN_FLIGHT, now(systemDefault())));
+		messageOutboxRepository.deleteSentChunk(entity.getId());
+
+		// Act
+		messageOutboxRepository.updateFailedChunk(entity.getId(), PENDING, 1, "error", now(systemDefault()));
+
+		// Assert
+		assertThat(messageOutboxRepository.existsById(entity.getId())).isFalse();
+	}
+
+	@Test
+	void persist() {
+
+		// Arrange
+		final var entity = createEntity(PENDING, now(systemDefault()));
+
+		// Act
+		final var result = messageOutboxRepository.saveAndFlush(entity);
+
+		// Assert
+		assertThat(messageOutboxRepository.findById(result.getId())).hasValueSatisfying(persisted -> {
+			assertThat(persisted.getBatchId()).isEqualTo(entity.getBatchId());
+			assertThat(persisted.getCreated()).isNotNull();
+			assertThat(persisted.getMunicipalityId()).isEqualTo(MUNICIPALITY_ID);
+			assertThat(persisted.getCategory()).isEqualTo(ELECTRICITY);
+			assertThat(persisted.getMessageType()).isEqualTo("NEW");
+			assertThat(persisted.getPayload()).isEqualTo(entity.getPayload());
+			assertThat(persisted.getMessageCount()).isOne();
+			assertThat(persisted.getStatus()).isEqualTo(PENDING);
+		});
+	}
+
+	private static MessageOutboxEntity createEntity(final MessageOutboxStatus status, final OffsetDateTime nextAttempt) {
+		return MessageOutboxEntity.create()
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withCategory(ELECTRICITY)
+			.withMessageType("NEW")
+			.withBatchId(randomUUID().toString())
+			.withPayload("{\"messages\":[{\"subject\":\"subject\"}]}")
+			.withMessageCount(1)
+			.withStatus(status)
+			.withNextAttempt(nextAttempt);
+	}
+}
@@ -0,0 +1,108 @@
+package se.sundsvall.disturbance.integration.db;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+
+/**
+ * PartyDisturbance repository tests.
+ *
+ * @see src/test/resources/db/testdata-junit.sql for data setup.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/scripts/truncate.sql",
+	"/db/scripts/testdata-junit.sql"
+})
+class PartyDisturbanceRepositoryTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String PARTY_ID_1 = "0d64beb2-3aea-11ec-8d3d-0242ac130003"; // Exists in "disturbance-2".
+	private static final String PARTY_ID_3 = "0d64c42a-3aea-11ec-8d3d-0242ac130003"; // Exists in "disturbance-2".
+	private static final String PARTY_ID_OPEN_AND_CLOSED = "c76ae496-3aed-11ec-8d3d-0242ac130003"; // Exists in "disturbance-3" (OPEN) and "disturbance-4" (CLOSED).
+	private static final String PARTY_ID_OPEN_AND_PLANNED = "00000001-0000-1000-8000-00805f9b34fb"; // Exists in "disturbance-5", "-6", "-8" (OPEN) and "-12" (PLANNED).
+
+	@Autowired
+	private PartyDisturbanceRepository partyDisturbanceRepository;
+
+	@Autowired
+	private AffectedRepository affectedRepository;
+
+	@Autowired
+	private DisturbanceRepository disturbanceRepository;
+
+	@Test
+	void findDisturbanceIdsByMunicipalityIdAndPartyId() {
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID_OPEN_AND_PLANNED)).containsExactlyInAnyOrder(5L, 6L, 8L, 12L);
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID_OPEN_AND_CLOSED)).containsExactly(3L);
+	}
+
+	@Test
+	void findDisturbanceIdsByMunicipalityIdAndPartyIdWhenNotFound() {
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId("2260", PARTY_ID_OPEN_AND_PLANNED)).isEmpty();
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, "unknown-party")).isEmpty();
+	}
+
+	@Test
+	void insertByDisturbanceIdAndPartyIdIn() {
+
+		// Arrange
+		affectedRepository.save(AffectedEntity.create().withPartyId("new-party").withReference("reference").withDisturbanceEntity(disturbanceRepository.getReferenceById(2L)));
+
+		// Act
+		final var result = partyDisturbanceRepository.insertByDisturbanceIdAndPartyIdIn(2L, Set.of("new-party", PARTY_ID_1, "unknown-party"));
+
+		// Assert (only the new party is added, the present party is ignored)
+		assertThat(result).isOne();
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, "new-party")).containsExactly(2L);
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID_1)).containsExactly(2L);
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, "unknown-party")).isEmpty();
+	}
+
+	@Test
+	void insertByDisturbanceIdAndPartyIdInWhenClosed() {
+
+		// Act
+		final var result = partyDisturbanceRepository.insertByDisturbanceIdAndPartyIdIn(4L, Set.of(PARTY_ID_OPEN_AND_CLOSED));
+
+		// Assert
+		assertThat(result).isZero();
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID_OPEN_AND_CLOSED)).containsExactly(3L);
+	}
+
+	@Test
+	void deleteByDisturbanceIdAndPartyIdIn() {
+
+		// Arrange
+		affectedRepository.deleteAll(affectedRepository.findByDisturbanceIdAndPartyIdIn(2L, Set.of(PARTY_ID_1)));
+
+		// Act
+		final var result = partyDisturbanceRepository.deleteByDisturbanceIdAndPartyIdIn(2L, Set.of(PARTY_ID_1, PARTY_ID_3));
+
+		// Assert (the party that still has affecteds is kept)
+		assertThat(result).isOne();
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID_1)).isEmpty();
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID_3)).containsExactly(2L);
+	}
+
+	@Test
+	void deleteByDisturbanceId() {
+
+		// Act
+		final var result = partyDisturbanceRepository.deleteByDisturbanceId(5L);
+
+		// Assert
+		assertThat(result).isEqualTo(3);
+		assertThat(partyDisturbanceRepository.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID_OPEN_AND_PLANNED)).containsExactlyInAnyOrder(6L, 8L, 12L);
+	}
+}
@@ -0,0 +1,194 @@
+package se.sundsvall.disturbance.integration.db;
+
+import generated.se.sundsvall.messaging.Message;
+import generated.se.sundsvall.messaging.MessageRequest;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.OptOutSettingsEntity;
+import se.sundsvall.disturbance.scheduler.MessageOutboxSchedulerProperties;
+import se.sundsvall.disturbance.service.message.MessageOutbox;
+import tools.jackson.databind.json.JsonMapper;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase.Replace.NONE;
+import static se.sundsvall.disturbance.api.model.Category.COMMUNICATION;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+import static se.sundsvall.disturbance.api.model.Status.OPEN;
+import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toParty;
+import static se.sundsvall.disturbance.service.message.template.MessageType.NEW;
+
+/**
+ * Verifies the number of SQL statements executed by the repository methods, including the statements needed to
+ * initialize the (lazy) collections that are used by the services.
+ *
+ * @see src/test/resources/db/testdata-junit.sql for data setup.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/scripts/truncate.sql",
+	"/db/scripts/testdata-junit.sql"
+})
+class RepositoryStatementCountTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String PARTY_ID = "0d64beb2-3aea-11ec-8d3d-0242ac130003"; // Has a subscription and exists in "disturbance-2".
+
+	@Autowired
+	private DisturbanceRepository disturbanceRepository;
+
+	@Autowired
+	private SubscriptionRepository subscriptionRepository;
+
+	@Autowired
+	private MessageOutboxRepository messageOutboxRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setup() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void findByMunicipalityIdAndCategoryAndDisturbanceId() {
+		final var disturbanceEntity = disturbanceRepository.findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, COMMUNICATION, "disturbance-2");
+
+		assertThat(disturbanceEntity).hasValueSatisfying(entity -> assertThat(entity.getAffectedEntities()).hasSize(3));
+		assertThat(statistics.getPrepareStatementCount()).isOne();
+	}
+
+	@Test
+	void existsByMunicipalityIdAndCategoryAndDisturbanceId() {
+		assertThat(disturbanceRepository.existsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, COMMUNICATION, "disturbance-2")).isTrue();
+		assertThat(statistics.getPrepareStatementCount()).isOne();
+	}
+
+	@Test
+	void findByMunicipalityIdAndIdInAndCategoryInAndStatusIn() {
+		final var disturbanceIds = disturbanceRepository.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, PARTY_ID);
+		statistics.clear();
+
+		final var disturbanceEntities = disturbanceRepository.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, disturbanceIds, null, null);
+
+		assertThat(disturbanceEntities).isNotEmpty();
+		assertThat(countAffectedEntities(disturbanceEntities)).isPositive();
+
+		// One statement for the disturbances and one (batched) statement for all their affecteds.
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void findByMunicipalityIdAndStatusAndCategory() {
+		final var disturbanceEntities = disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null);
+
+		assertThat(disturbanceEntities).hasSize(14);
+		assertThat(countAffectedEntities(disturbanceEntities)).isEqualTo(33);
+
+		// One statement for the disturbances and one (batched) statement for all their affecteds.
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void findPageByMunicipalityIdAndStatusAndCategory() {
+		final var disturbanceEntities = disturbanceRepository.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, List.of(ELECTRICITY), null, null, 4);
+
+		assertThat(disturbanceEntities).hasSize(4);
+		assertThat(countAffectedEntities(disturbanceEntities)).isEqualTo(10);
+
+		// One statement for the disturbances and one (batched) statement for all their affecteds.
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void streamByMunicipalityIdAndStatusAndCategory() {
+		try (final var disturbanceEntities = disturbanceRepository.streamByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, List.of(OPEN), List.of(COMMUNICATION))) {
+			assertThat(countAffectedEntities(disturbanceEntities.toList())).isEqualTo(6);
+		}
+
+		assertThat(statistics.getPrepareStatementCount()).isOne();
+	}
+
+	@Test
+	void findSummariesByMunicipalityIdAndStatusAndCategory() {
+		assertThat(disturbanceRepository.findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, null, null, null)).hasSize(14);
+		assertThat(statistics.getPrepareStatementCount()).isOne();
+	}
+
+	@Test
+	void findSubscriptionByMunicipalityIdAndPartyId() {
+		final var subscriptionEntity = subscriptionRepository.findByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID);
+
+		assertThat(subscriptionEntity).hasValueSatisfying(entity -> assertThat(entity.getOptOutSettings())
+			.extracting(OptOutSettingsEntity::getOptOuts)
+			.containsExactly(Map.of("facilityId", "facility-11")));
+
+		// One statement for the subscription (with opt-out settings) and one (batched) statement for the opt-outs.
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void findSubscriptionByMunicipalityIdAndId() {
+		final var subscriptionEntity = subscriptionRepository.findByMunicipalityIdAndId(MUNICIPALITY_ID, 1L);
+
+		assertThat(subscriptionEntity).hasValueSatisfying(entity -> assertThat(entity.getOptOutSettings())
+			.extracting(OptOutSettingsEntity::getOptOuts)
+			.containsExactly(Map.of("facilityId", "facility-11")));
+
+		// One statement for the subscription (with opt-out settings) and one (batched) statement for the opt-outs.
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void existsSubscriptionByMunicipalityIdAndPartyId() {
+		assertThat(subscriptionRepository.existsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, PARTY_ID)).isTrue();
+		assertThat(statistics.getPrepareStatementCount()).isOne();
+	}
+
+	@Test
+	void findOptOutRowsByMunicipalityIdAndPartyIdIn() {
+		assertThat(subscriptionRepository.findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, List.of(PARTY_ID))).hasSize(1);
+		assertThat(statistics.getPrepareStatementCount()).isOne();
+	}
+
+	@Test
+	void enqueueMessageOutbox() {
+		final var properties = new MessageOutboxSchedulerProperties(8, 5, Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofMinutes(5), 500, 4, false, false);
+		final var messageOutbox = new MessageOutbox(messageOutboxRepository, event -> {}, properties, JsonMapper.builder().build());
+		final var messages = IntStream.range(0, 10_000)
+			.mapToObj(i -> new Message().party(toParty(randomUUID().toString())).subject("subject").message("message"))
+			.toList();
+
+		messageOutbox.enqueue(MUNICIPALITY_ID, COMMUNICATION, NEW, new MessageRequest().messages(messages));
+		messageOutboxRepository.flush();
+
+		// One (IDENTITY) insert per chunk of 500 messages, not one per message.
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(20);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(20);
+	}
+
+	private static int countAffectedEntities(final List<DisturbanceEntity> disturbanceEntities) {
+		return disturbanceEntities.stream()
+			.mapToInt(disturbanceEntity -> disturbanceEntity.getAffectedEntities().size())
+			.sum();
+	}
+}
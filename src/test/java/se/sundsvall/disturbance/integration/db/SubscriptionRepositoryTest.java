@@ -11,6 +11,7 @@ import org.springframework.test.context.jdbc.Sql;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.integration.db.model.OptOutSettingsEntity;
 import se.sundsvall.disturbance.integration.db.model.SubscriptionEntity;
+import se.sundsvall.disturbance.integration.db.model.SubscriptionOptOutRow;
 
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -122,4 +123,30 @@ class SubscriptionRepositoryTest {
 		// Assert
 		assertThat(result).isNotPresent();
 	}
+
+	@Test
+	void findOptOutRowsByMunicipalityIdAndPartyIdIn() {
+
+		// Act
+		final var result = subscriptionRepository.findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, List.of(PARTY_ID, "does-not-exist"));
+
+		// Assert
+		assertThat(result).containsExactly(new SubscriptionOptOutRow(PARTY_ID, 1L, Category.ELECTRICITY, "facilityId", "facility-11"));
+	}
+
+	@Test
+	void findOptOutRowsByMunicipalityIdAndPartyIdInForSubscriptionWithoutOptOuts() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		subscriptionRepository.save(SubscriptionEntity.create()
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withPartyId(partyId));
+
+		// Act
+		final var result = subscriptionRepository.findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, List.of(partyId));
+
+		// Assert
+		assertThat(result).containsExactly(new SubscriptionOptOutRow(partyId, null, null, null, null));
+	}
 }
@@ -0,0 +1,51 @@
+package se.sundsvall.disturbance.integration.db.converter;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.disturbance.integration.db.model.ArchivedAffected;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ArchivedAffectedsConverterTest {
+
+	private final ArchivedAffectedsConverter archivedAffectedsConverter = new ArchivedAffectedsConverter();
+
+	@Test
+	void testConvertToDatabaseColumnAndBack() {
+		final var archivedAffecteds = List.of(
+			new ArchivedAffected("partyId-1", "reference-1", "facilityId-1", "coordinates-1"),
+			new ArchivedAffected("partyId-2", "reference-2", null, null));
+
+		final var dbData = archivedAffectedsConverter.convertToDatabaseColumn(archivedAffecteds);
+
+		assertThat(dbData).isNotEmpty();
+		assertThat(archivedAffectedsConverter.convertToEntityAttribute(dbData)).isEqualTo(archivedAffecteds);
+	}
+
+	@Test
+	void testConvertToDatabaseColumnAndBack_whenEmptyList() {
+		final var dbData = archivedAffectedsConverter.convertToDatabaseColumn(List.of());
+
+		assertThat(archivedAffectedsConverter.convertToEntityAttribute(dbData)).isEmpty();
+	}
+
+	@Test
+	void testConvertToDatabaseColumn_whenNullValue_shouldReturnNull() {
+		assertThat(archivedAffectedsConverter.convertToDatabaseColumn(null)).isNull();
+	}
+
+	@Test
+	void testConvertToEntityAttribute_whenNullValue_shouldReturnNull() {
+		assertThat(archivedAffectedsConverter.convertToEntityAttribute(null)).isNull();
+	}
+
+	@Test
+	void testConvertToEntityAttribute_whenNotCompressed() {
+		final var dbData = "[]".getBytes();
+
+		assertThatExceptionOfType(UncheckedIOException.class)
+			.isThrownBy(() -> archivedAffectedsConverter.convertToEntityAttribute(dbData));
+	}
+}
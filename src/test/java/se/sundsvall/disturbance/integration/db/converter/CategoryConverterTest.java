@@ -43,4 +43,10 @@ class CategoryConverterTest {
 			.isThrownBy(() -> categoryConverter.convertToEntityAttribute("noMatch"))
 			.withMessage("No enum constant se.sundsvall.disturbance.api.model.Category.noMatch");
 	}
+
+	@Test
+	void testConvertToEntityAttribute_whenNullValue_shouldReturnNull() {
+		final var communication = categoryConverter.convertToEntityAttribute(null);
+		assertThat(communication).isNull();
+	}
 }
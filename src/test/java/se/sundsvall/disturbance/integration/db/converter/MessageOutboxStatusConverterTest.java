@@ -0,0 +1,38 @@
+package se.sundsvall.disturbance.integration.db.converter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class MessageOutboxStatusConverterTest {
+
+	private final MessageOutboxStatusConverter messageOutboxStatusConverter = new MessageOutboxStatusConverter();
+
+	@ParameterizedTest
+	@EnumSource(MessageOutboxStatus.class)
+	void testConvertToDatabaseColumn(MessageOutboxStatus status) {
+		assertThat(messageOutboxStatusConverter.convertToDatabaseColumn(status)).isEqualTo(status.name());
+	}
+
+	@Test
+	void testConvertToDatabaseColumn_whenNullValue_shouldReturnNull() {
+		assertThat(messageOutboxStatusConverter.convertToDatabaseColumn(null)).isNull();
+	}
+
+	@ParameterizedTest
+	@EnumSource(MessageOutboxStatus.class)
+	void testConvertToEntityAttribute(MessageOutboxStatus status) {
+		assertThat(messageOutboxStatusConverter.convertToEntityAttribute(status.name())).isEqualTo(status);
+	}
+
+	@Test
+	void testConvertToEntityAttribute_whenMissingValue_should() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+			.isThrownBy(() -> messageOutboxStatusConverter.convertToEntityAttribute("noMatch"))
+			.withMessage("No enum constant se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.noMatch");
+	}
+}
@@ -0,0 +1,96 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.AllOf.allOf;
+
+class DisturbanceArchiveEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> now(systemDefault()).plusDays(new Random().nextInt()), OffsetDateTime.class);
+	}
+
+	@Test
+	void testBean() {
+		assertThat(DisturbanceArchiveEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var affectedCount = 1;
+		final var affecteds = List.of(new ArchivedAffected("partyId", "reference", "facilityId", "coordinates"));
+		final var archived = now(systemDefault());
+		final var category = Category.COMMUNICATION;
+		final var created = now(systemDefault());
+		final var description = "description";
+		final var disturbanceId = "disturbanceId";
+		final var id = 1L;
+		final var municipalityId = "municipalityId";
+		final var plannedStartDate = now(systemDefault());
+		final var plannedStopDate = now(systemDefault());
+		final var status = Status.CLOSED;
+		final var title = "title";
+		final var updated = now(systemDefault());
+
+		final var bean = DisturbanceArchiveEntity.create()
+			.withAffectedCount(affectedCount)
+			.withAffecteds(affecteds)
+			.withArchived(archived)
+			.withCategory(category)
+			.withCreated(created)
+			.withDescription(description)
+			.withDisturbanceId(disturbanceId)
+			.withId(id)
+			.withMunicipalityId(municipalityId)
+			.withPlannedStartDate(plannedStartDate)
+			.withPlannedStopDate(plannedStopDate)
+			.withStatus(status)
+			.withTitle(title)
+			.withUpdated(updated);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getAffectedCount()).isEqualTo(affectedCount);
+		assertThat(bean.getAffecteds()).isEqualTo(affecteds);
+		assertThat(bean.getArchived()).isEqualTo(archived);
+		assertThat(bean.getCategory()).isEqualByComparingTo(category);
+		assertThat(bean.getCreated()).isEqualTo(created);
+		assertThat(bean.getDescription()).isEqualTo(description);
+		assertThat(bean.getDisturbanceId()).isEqualTo(disturbanceId);
+		assertThat(bean.getId()).isEqualTo(id);
+		assertThat(bean.getMunicipalityId()).isEqualTo(municipalityId);
+		assertThat(bean.getPlannedStartDate()).isEqualTo(plannedStartDate);
+		assertThat(bean.getPlannedStopDate()).isEqualTo(plannedStopDate);
+		assertThat(bean.getStatus()).isEqualByComparingTo(status);
+		assertThat(bean.getTitle()).isEqualTo(title);
+		assertThat(bean.getUpdated()).isEqualTo(updated);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(DisturbanceArchiveEntity.create()).hasAllNullFieldsOrPropertiesExcept("id", "affectedCount");
+		assertThat(new DisturbanceArchiveEntity()).hasAllNullFieldsOrPropertiesExcept("id", "affectedCount");
+	}
+}
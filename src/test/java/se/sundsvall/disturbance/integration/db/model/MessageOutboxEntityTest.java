@@ -0,0 +1,119 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import java.time.OffsetDateTime;
+import java.util.Random;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.AllOf.allOf;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.PENDING;
+
+class MessageOutboxEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> now(systemDefault()).plusDays(new Random().nextInt()), OffsetDateTime.class);
+	}
+
+	@Test
+	void testBean() {
+		assertThat(MessageOutboxEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(MessageOutboxEntity.create()).hasAllNullFieldsOrPropertiesExcept("attempts", "messageCount");
+		assertThat(new MessageOutboxEntity()).hasAllNullFieldsOrPropertiesExcept("attempts", "messageCount");
+	}
+
+	@Test
+	void testBuilders() {
+
+		final var id = 1L;
+		final var municipalityId = "municipalityId";
+		final var batchId = randomUUID().toString();
+		final var category = ELECTRICITY;
+		final var messageType = "NEW";
+		final var payload = "{}";
+		final var messageCount = 2;
+		final var attempts = 3;
+		final var nextAttempt = now(systemDefault());
+		final var lastError = "lastError";
+		final var created = now(systemDefault()).minusDays(1);
+		final var bean = MessageOutboxEntity.create()
+			.withAttempts(attempts)
+			.withBatchId(batchId)
+			.withCategory(category)
+			.withCreated(created)
+			.withId(id)
+			.withLastError(lastError)
+			.withMessageCount(messageCount)
+			.withMessageType(messageType)
+			.withMunicipalityId(municipalityId)
+			.withNextAttempt(nextAttempt)
+			.withPayload(payload)
+			.withStatus(PENDING);
+
+		assertThat(bean.getAttempts()).isEqualTo(attempts);
+		assertThat(bean.getBatchId()).isEqualTo(batchId);
+		assertThat(bean.getCategory()).isEqualTo(category);
+		assertThat(bean.getCreated()).isEqualTo(created);
+		assertThat(bean.getId()).isEqualTo(id);
+		assertThat(bean.getLastError()).isEqualTo(lastError);
+		assertThat(bean.getMessageCount()).isEqualTo(messageCount);
+		assertThat(bean.getMessageType()).isEqualTo(messageType);
+		assertThat(bean.getMunicipalityId()).isEqualTo(municipalityId);
+		assertThat(bean.getNextAttempt()).isEqualTo(nextAttempt);
+		assertThat(bean.getPayload()).isEqualTo(payload);
+		assertThat(bean.getStatus()).isEqualTo(PENDING);
+	}
+
+	@Test
+	void testIdHasCorrectAnnotationsAndValues() {
+		final var id = FieldUtils.getDeclaredField(MessageOutboxEntity.class, "id", true);
+		assertThat(id.getAnnotations()).hasSize(3);
+
+		final var idDeclaredAnnotation = id.getDeclaredAnnotation(Id.class);
+		assertThat(idDeclaredAnnotation).isNotNull();
+
+		final var generatedValue = id.getDeclaredAnnotation(GeneratedValue.class);
+		assertThat(generatedValue.strategy()).isEqualTo(GenerationType.IDENTITY);
+
+		final var column = id.getDeclaredAnnotation(Column.class);
+		assertThat(column.name()).isEqualTo("id");
+	}
+
+	@Test
+	void testPayloadHasCorrectAnnotationsAndValues() {
+		final var payload = FieldUtils.getDeclaredField(MessageOutboxEntity.class, "payload", true);
+		assertThat(payload.getAnnotations()).hasSize(2);
+		assertThat(payload.getDeclaredAnnotation(Lob.class)).isNotNull();
+
+		final var column = payload.getDeclaredAnnotation(Column.class);
+		assertThat(column.name()).isEqualTo("payload");
+		assertThat(column.nullable()).isFalse();
+	}
+}
@@ -0,0 +1,52 @@
+package se.sundsvall.disturbance.integration.db.model;
+
+import org.junit.jupiter.api.Test;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.AllOf.allOf;
+
+class PartyDisturbanceEntityTest {
+
+	@Test
+	void testBean() {
+		assertThat(PartyDisturbanceEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var id = 1L;
+		final var municipalityId = "municipalityId";
+		final var partyId = "partyId";
+		final var disturbanceId = 42L;
+
+		final var bean = PartyDisturbanceEntity.create()
+			.withDisturbanceId(disturbanceId)
+			.withId(id)
+			.withMunicipalityId(municipalityId)
+			.withPartyId(partyId);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getDisturbanceId()).isEqualTo(disturbanceId);
+		assertThat(bean.getId()).isEqualTo(id);
+		assertThat(bean.getMunicipalityId()).isEqualTo(municipalityId);
+		assertThat(bean.getPartyId()).isEqualTo(partyId);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(PartyDisturbanceEntity.create()).hasAllNullFieldsOrPropertiesExcept("disturbanceId");
+		assertThat(new PartyDisturbanceEntity()).hasAllNullFieldsOrPropertiesExcept("disturbanceId");
+	}
+}
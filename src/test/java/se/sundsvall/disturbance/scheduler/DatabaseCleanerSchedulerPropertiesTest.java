@@ -1,13 +1,19 @@
 package se.sundsvall.disturbance.scheduler;
 
+import java.time.Duration;
+import java.time.Period;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import se.sundsvall.disturbance.Application;
+import se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerProperties.RetentionPolicy;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static se.sundsvall.disturbance.api.model.Category.WATER;
+import static se.sundsvall.disturbance.api.model.Status.PLANNED;
 
 @SpringBootTest(classes = Application.class, webEnvironment = RANDOM_PORT)
 @ActiveProfiles("junit")
@@ -20,5 +26,11 @@ class DatabaseCleanerSchedulerPropertiesTest {
 	void testProperties() {
 		assertThat(properties.deleteDisturbancesOlderThanMonths()).isEqualTo(66);
 		assertThat(properties.cron()).isEqualTo("-");
+		assertThat(properties.chunkSize()).isEqualTo(10);
+		assertThat(properties.maxDuration()).isEqualTo(Duration.ofMinutes(1));
+		assertThat(properties.chunkPause()).isZero();
+		assertThat(properties.retentionPolicies()).containsExactly(
+			new RetentionPolicy("deleted", null, null, true, Period.ofDays(7), false),
+			new RetentionPolicy("planned-water", List.of(WATER), List.of(PLANNED), false, Period.ofMonths(6), false));
 	}
 }
@@ -1,54 +1,234 @@
 package se.sundsvall.disturbance.scheduler;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.DisturbanceChangeCounterRepository;
 import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
+import se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerProperties.RetentionPolicy;
+import se.sundsvall.disturbance.service.DisturbanceArchiveService;
+import se.sundsvall.disturbance.service.cache.DisturbanceCache;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.ZoneId.systemDefault;
 import static java.time.temporal.ChronoUnit.SECONDS;
+import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.api.model.Category.WATER;
 import static se.sundsvall.disturbance.api.model.Status.CLOSED;
+import static se.sundsvall.disturbance.api.model.Status.PLANNED;
+import static se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerService.DEFAULT_POLICY_NAME;
+import static se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerService.METRIC_ARCHIVED;
+import static se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerService.METRIC_CHUNK;
+import static se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerService.METRIC_ROWS;
+import static se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerService.TABLE_AFFECTED;
+import static se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerService.TABLE_DISTURBANCE;
+import static se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerService.TAG_POLICY;
+import static se.sundsvall.disturbance.scheduler.DatabaseCleanerSchedulerService.TAG_TABLE;
 
 @ExtendWith(MockitoExtension.class)
 class DatabaseCleanerSchedulerServiceTest {
 
-	@Mock
-	private DatabaseCleanerSchedulerProperties properties;
+	private static final int DELETE_DISTURBANCES_OLDER_THAN_MONTHS = 12;
+	private static final int CHUNK_SIZE = 2;
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String OTHER_MUNICIPALITY_ID = "2262";
+	private static final List<Category> ALL_CATEGORIES = List.of(Category.values());
+	private static final List<Status> ALL_STATUSES = List.of(Status.values());
+	private static final RetentionPolicy DELETED_POLICY = new RetentionPolicy("deleted", null, null, true, Period.ofDays(30), false);
+	private static final RetentionPolicy PLANNED_WATER_POLICY = new RetentionPolicy("planned-water", List.of(WATER), List.of(PLANNED), false, Period.ofMonths(6), false);
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
 	@Mock
 	private DisturbanceRepository disturbanceRepository;
 
+	@Mock
+	private DisturbanceChangeCounterRepository disturbanceChangeCounterRepository;
+
+	@Mock
+	private DisturbanceArchiveService disturbanceArchiveService;
+
+	@Mock
+	private DisturbanceCache disturbanceCache;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
 	@Captor
 	private ArgumentCaptor<OffsetDateTime> expiryDateCaptor;
 
-	@InjectMocks
-	private DatabaseCleanerSchedulerService databaseCleanerSchedulerService;
-
 	@Test
 	void execute() {
 
 		// Arrange
-		final var deleteDisturbancesOlderThanMonths = 12;
-		when(properties.deleteDisturbancesOlderThanMonths()).thenReturn(deleteDisturbancesOlderThanMonths);
+		final var databaseCleanerSchedulerService = createService(Duration.ofMinutes(1), null);
+
+		when(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(List.of(CLOSED)), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)))).thenReturn(List.of(1L, 2L));
+		when(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(List.of(CLOSED)), any(), eq(2L), eq(Limit.of(CHUNK_SIZE)))).thenReturn(List.of(5L));
+		when(disturbanceArchiveService.archive(List.of(1L, 2L))).thenReturn(List.of(DisturbanceArchiveEntity.create().withAffectedCount(3), DisturbanceArchiveEntity.create().withAffectedCount(2)));
+		when(disturbanceArchiveService.archive(List.of(5L))).thenReturn(List.of(DisturbanceArchiveEntity.create()));
+
+		// Act
+		databaseCleanerSchedulerService.execute();
+
+		// Assert
+		final var inOrder = inOrder(disturbanceRepository, disturbanceArchiveService);
+		inOrder.verify(disturbanceRepository).findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(List.of(CLOSED)), expiryDateCaptor.capture(), eq(0L), eq(Limit.of(CHUNK_SIZE)));
+		inOrder.verify(disturbanceArchiveService).archive(List.of(1L, 2L));
+		inOrder.verify(disturbanceRepository).findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(List.of(CLOSED)), any(), eq(2L), eq(Limit.of(CHUNK_SIZE)));
+		inOrder.verify(disturbanceArchiveService).archive(List.of(5L));
+		verifyNoMoreInteractions(disturbanceRepository, disturbanceArchiveService);
+		verifyNoInteractions(disturbanceChangeCounterRepository, disturbanceCache, transactionManager);
+
+		assertThat(expiryDateCaptor.getValue()).isCloseTo(now(systemDefault()).minusMonths(DELETE_DISTURBANCES_OLDER_THAN_MONTHS), within(2, SECONDS));
+		assertThat(meterRegistry.get(METRIC_ROWS).tags(TAG_TABLE, TABLE_AFFECTED, TAG_POLICY, DEFAULT_POLICY_NAME).counter().count()).isEqualTo(5);
+		assertThat(meterRegistry.get(METRIC_ROWS).tags(TAG_TABLE, TABLE_DISTURBANCE, TAG_POLICY, DEFAULT_POLICY_NAME).counter().count()).isEqualTo(3);
+		assertThat(meterRegistry.get(METRIC_ARCHIVED).tag(TAG_POLICY, DEFAULT_POLICY_NAME).counter().count()).isEqualTo(3);
+		assertThat(meterRegistry.get(METRIC_CHUNK).tag(TAG_POLICY, DEFAULT_POLICY_NAME).timer().count()).isEqualTo(2);
+	}
+
+	@Test
+	void executeWithDeletingPolicy() {
+
+		// Arrange
+		final var databaseCleanerSchedulerService = createService(Duration.ofMinutes(1), List.of(PLANNED_WATER_POLICY));
+
+		when(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(List.of(CLOSED)), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)))).thenReturn(emptyList());
+		when(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(List.of(WATER)), eq(List.of(PLANNED)), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)))).thenReturn(List.of(1L, 2L));
+		when(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(List.of(WATER)), eq(List.of(PLANNED)), any(), eq(2L), eq(Limit.of(CHUNK_SIZE)))).thenReturn(emptyList());
+		when(disturbanceRepository.findMunicipalityIdsByIdIn(List.of(1L, 2L))).thenReturn(Set.of(MUNICIPALITY_ID));
+		when(disturbanceRepository.deleteAffectedByDisturbanceIdIn(List.of(1L, 2L), CHUNK_SIZE)).thenReturn(2, 2, 1);
+		when(disturbanceRepository.deleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+
+		// Act
+		databaseCleanerSchedulerService.execute();
+
+		// Assert
+		final var inOrder = inOrder(disturbanceRepository);
+		inOrder.verify(disturbanceRepository).findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(List.of(CLOSED)), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)));
+		inOrder.verify(disturbanceRepository).findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(List.of(WATER)), eq(List.of(PLANNED)), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)));
+		inOrder.verify(disturbanceRepository).findMunicipalityIdsByIdIn(List.of(1L, 2L));
+		inOrder.verify(disturbanceRepository, times(3)).deleteAffectedByDisturbanceIdIn(List.of(1L, 2L), CHUNK_SIZE);
+		inOrder.verify(disturbanceRepository).deletePartyDisturbanceByDisturbanceIdIn(List.of(1L, 2L));
+		inOrder.verify(disturbanceRepository).deleteByIdIn(List.of(1L, 2L));
+		inOrder.verify(disturbanceRepository).findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(List.of(WATER)), eq(List.of(PLANNED)), any(), eq(2L), eq(Limit.of(CHUNK_SIZE)));
+		verifyNoMoreInteractions(disturbanceRepository);
+		verify(disturbanceChangeCounterRepository).increment(eq(MUNICIPALITY_ID), any());
+		verifyNoMoreInteractions(disturbanceChangeCounterRepository);
+		verify(disturbanceCache).invalidateAll();
+		verifyNoInteractions(disturbanceArchiveService);
+
+		// The chunk is removed in one transaction, and the change counters are incremented in another.
+		verify(transactionManager, times(2)).getTransaction(any());
+		verify(transactionManager, times(2)).commit(any());
+
+		assertThat(meterRegistry.get(METRIC_ROWS).tags(TAG_TABLE, TABLE_AFFECTED, TAG_POLICY, PLANNED_WATER_POLICY.name()).counter().count()).isEqualTo(5);
+		assertThat(meterRegistry.get(METRIC_ROWS).tags(TAG_TABLE, TABLE_DISTURBANCE, TAG_POLICY, PLANNED_WATER_POLICY.name()).counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void executeWithRetentionPolicies() {
+
+		// Arrange
+		final var databaseCleanerSchedulerService = createService(Duration.ofMinutes(1), List.of(DELETED_POLICY, PLANNED_WATER_POLICY));
+
+		when(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(List.of(CLOSED)), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)))).thenReturn(emptyList());
+		when(disturbanceRepository.findDeletedIdsByCategoryInAndStatusInAndUpdatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(ALL_STATUSES), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)))).thenReturn(List.of(3L));
+		when(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(List.of(WATER)), eq(List.of(PLANNED)), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)))).thenReturn(List.of(4L));
+		when(disturbanceRepository.findMunicipalityIdsByIdIn(List.of(3L))).thenReturn(Set.of(MUNICIPALITY_ID));
+		when(disturbanceRepository.findMunicipalityIdsByIdIn(List.of(4L))).thenReturn(Set.of(MUNICIPALITY_ID, OTHER_MUNICIPALITY_ID));
+		when(disturbanceRepository.deleteAffectedByDisturbanceIdIn(List.of(3L), CHUNK_SIZE)).thenReturn(1);
+		when(disturbanceRepository.deleteAffectedByDisturbanceIdIn(List.of(4L), CHUNK_SIZE)).thenReturn(0);
+		when(disturbanceRepository.deleteByIdIn(List.of(3L))).thenReturn(1);
+		when(disturbanceRepository.deleteByIdIn(List.of(4L))).thenReturn(1);
+
+		// Act
+		databaseCleanerSchedulerService.execute();
+
+		// Assert
+		final var inOrder = inOrder(disturbanceRepository);
+		inOrder.verify(disturbanceRepository).findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(List.of(CLOSED)), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)));
+		inOrder.verify(disturbanceRepository).findDeletedIdsByCategoryInAndStatusInAndUpdatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(ALL_STATUSES), expiryDateCaptor.capture(), eq(0L), eq(Limit.of(CHUNK_SIZE)));
+		inOrder.verify(disturbanceRepository).findMunicipalityIdsByIdIn(List.of(3L));
+		inOrder.verify(disturbanceRepository).deleteAffectedByDisturbanceIdIn(List.of(3L), CHUNK_SIZE);
+		inOrder.verify(disturbanceRepository).deletePartyDisturbanceByDisturbanceIdIn(List.of(3L));
+		inOrder.verify(disturbanceRepository).deleteByIdIn(List.of(3L));
+		inOrder.verify(disturbanceRepository).findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(List.of(WATER)), eq(List.of(PLANNED)), expiryDateCaptor.capture(), eq(0L), eq(Limit.of(CHUNK_SIZE)));
+		inOrder.verify(disturbanceRepository).findMunicipalityIdsByIdIn(List.of(4L));
+		inOrder.verify(disturbanceRepository).deleteAffectedByDisturbanceIdIn(List.of(4L), CHUNK_SIZE);
+		inOrder.verify(disturbanceRepository).deletePartyDisturbanceByDisturbanceIdIn(List.of(4L));
+		inOrder.verify(disturbanceRepository).deleteByIdIn(List.of(4L));
+		verifyNoMoreInteractions(disturbanceRepository);
+		// The change counter of each municipality is incremented once per run.
+		verify(disturbanceChangeCounterRepository).increment(eq(MUNICIPALITY_ID), any());
+		verify(disturbanceChangeCounterRepository).increment(eq(OTHER_MUNICIPALITY_ID), any());
+		verifyNoMoreInteractions(disturbanceChangeCounterRepository);
+		verify(disturbanceCache).invalidateAll();
+
+		assertThat(expiryDateCaptor.getAllValues().getFirst()).isCloseTo(now(systemDefault()).minusDays(30), within(2, SECONDS));
+		assertThat(expiryDateCaptor.getAllValues().getLast()).isCloseTo(now(systemDefault()).minusMonths(6), within(2, SECONDS));
+		assertThat(meterRegistry.get(METRIC_ROWS).tags(TAG_TABLE, TABLE_DISTURBANCE, TAG_POLICY, DELETED_POLICY.name()).counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get(METRIC_ROWS).tags(TAG_TABLE, TABLE_DISTURBANCE, TAG_POLICY, PLANNED_WATER_POLICY.name()).counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void executeWhenNothingToRemove() {
+
+		// Arrange
+		final var databaseCleanerSchedulerService = createService(Duration.ofMinutes(1), null);
+
+		when(disturbanceRepository.findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(List.of(CLOSED)), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)))).thenReturn(emptyList());
 
 		// Act
 		databaseCleanerSchedulerService.execute();
 
 		// Assert
-		verify(disturbanceRepository).deleteByCreatedBeforeAndStatusIn(expiryDateCaptor.capture(), eq(CLOSED));
+		verify(disturbanceRepository).findIdsByCategoryInAndStatusInAndCreatedBeforeAndIdGreaterThan(eq(ALL_CATEGORIES), eq(List.of(CLOSED)), any(), eq(0L), eq(Limit.of(CHUNK_SIZE)));
+		verifyNoMoreInteractions(disturbanceRepository);
+		verifyNoInteractions(disturbanceChangeCounterRepository, disturbanceCache, transactionManager);
+		assertThat(meterRegistry.find(METRIC_CHUNK).timer()).isNull();
+	}
+
+	@Test
+	void executeWhenTimeBudgetIsExceeded() {
+
+		// Arrange
+		final var databaseCleanerSchedulerService = createService(Duration.ZERO, List.of(DELETED_POLICY));
+
+		// Act
+		databaseCleanerSchedulerService.execute();
+
+		// Assert
+		verifyNoMoreInteractions(disturbanceRepository);
+	}
 
-		final var expiryDate = expiryDateCaptor.getValue();
-		assertThat(expiryDate).isCloseTo(now(systemDefault()).minusMonths(deleteDisturbancesOlderThanMonths), within(2, SECONDS));
+	private DatabaseCleanerSchedulerService createService(final Duration maxDuration, final List<RetentionPolicy> retentionPolicies) {
+		final var properties = new DatabaseCleanerSchedulerProperties(DELETE_DISTURBANCES_OLDER_THAN_MONTHS, "-", CHUNK_SIZE, maxDuration, Duration.ZERO, retentionPolicies);
+		return new DatabaseCleanerSchedulerService(properties, disturbanceRepository, disturbanceChangeCounterRepository, disturbanceArchiveService, disturbanceCache, meterRegistry, transactionManager);
 	}
 }
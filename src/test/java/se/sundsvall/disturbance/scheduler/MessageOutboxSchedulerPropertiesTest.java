@@ -0,0 +1,54 @@
+package se.sundsvall.disturbance.scheduler;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import se.sundsvall.disturbance.Application;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(classes = Application.class, webEnvironment = RANDOM_PORT)
+@ActiveProfiles("junit")
+class MessageOutboxSchedulerPropertiesTest {
+
+	@Autowired
+	private MessageOutboxSchedulerProperties properties;
+
+	@Test
+	void testProperties() {
+		assertThat(properties.batchSize()).isEqualTo(100);
+		assertThat(properties.maxAttempts()).isEqualTo(5);
+		assertThat(properties.initialBackoff()).isEqualTo(Duration.ofMinutes(1));
+		assertThat(properties.maxBackoff()).isEqualTo(Duration.ofMinutes(10));
+		assertThat(properties.lease()).isEqualTo(Duration.ofMinutes(5));
+		assertThat(properties.chunkSize()).isEqualTo(50);
+		assertThat(properties.maxConcurrentChunks()).isEqualTo(2);
+		assertThat(properties.dispatchOnCommit()).isFalse();
+		assertThat(properties.synchronousDispatchOnCommit()).isFalse();
+	}
+
+	@Test
+	void batchSizeLessThanMaxConcurrentChunks() {
+		final var exception = assertThrows(IllegalArgumentException.class, () -> new MessageOutboxSchedulerProperties(2, 5, Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofMinutes(5), 500, 4, false, false));
+
+		assertThat(exception.getMessage()).isEqualTo("scheduler.messageoutbox.batchSize (2) must be at least maxConcurrentChunks (4), or the chunks of a dispatch are never sent in parallel");
+	}
+
+	@Test
+	void chunkSizeNotPositive() {
+		final var exception = assertThrows(IllegalArgumentException.class, () -> new MessageOutboxSchedulerProperties(8, 5, Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofMinutes(5), 0, 4, false, false));
+
+		assertThat(exception.getMessage()).isEqualTo("scheduler.messageoutbox.chunkSize (0) and maxConcurrentChunks (4) must be positive");
+	}
+
+	@Test
+	void leaseNotPositive() {
+		final var exception = assertThrows(IllegalArgumentException.class, () -> new MessageOutboxSchedulerProperties(8, 5, Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ZERO, 500, 4, false, false));
+
+		assertThat(exception.getMessage()).isEqualTo("scheduler.messageoutbox.lease (PT0S) must be positive");
+	}
+}
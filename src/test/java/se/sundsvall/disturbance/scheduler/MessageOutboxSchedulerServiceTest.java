@@ -0,0 +1,53 @@
+package se.sundsvall.disturbance.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.disturbance.service.message.MessageOutboxDispatcher;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessageOutboxSchedulerServiceTest {
+
+	@Mock
+	private MessageOutboxSchedulerProperties properties;
+
+	@Mock
+	private MessageOutboxDispatcher messageOutboxDispatcher;
+
+	@InjectMocks
+	private MessageOutboxSchedulerService messageOutboxSchedulerService;
+
+	@Test
+	void execute() {
+
+		// Arrange
+		when(properties.batchSize()).thenReturn(10);
+		when(messageOutboxDispatcher.dispatch()).thenReturn(10, 10, 3);
+
+		// Act
+		messageOutboxSchedulerService.execute();
+
+		// Assert
+		verify(messageOutboxDispatcher, times(3)).dispatch();
+	}
+
+	@Test
+	void executeWhenOutboxIsEmpty() {
+
+		// Arrange
+		when(properties.batchSize()).thenReturn(10);
+		when(messageOutboxDispatcher.dispatch()).thenReturn(0);
+
+		// Act
+		messageOutboxSchedulerService.execute();
+
+		// Assert
+		verify(messageOutboxDispatcher).dispatch();
+	}
+}
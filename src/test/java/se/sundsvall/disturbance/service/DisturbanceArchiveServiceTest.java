@@ -0,0 +1,171 @@
+package se.sundsvall.disturbance.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.disturbance.api.model.Affected;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.DisturbanceArchiveRepository;
+import se.sundsvall.disturbance.integration.db.DisturbanceChangeCounterRepository;
+import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.ArchivedAffected;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.service.cache.DisturbanceCache;
+import se.sundsvall.disturbance.service.paging.DisturbanceCursor;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DisturbanceArchiveServiceTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Mock
+	private DisturbanceRepository disturbanceRepositoryMock;
+
+	@Mock
+	private DisturbanceArchiveRepository disturbanceArchiveRepositoryMock;
+
+	@Mock
+	private DisturbanceChangeCounterRepository disturbanceChangeCounterRepositoryMock;
+
+	@Mock
+	private DisturbanceCache disturbanceCacheMock;
+
+	@InjectMocks
+	private DisturbanceArchiveService disturbanceArchiveService;
+
+	@Captor
+	private ArgumentCaptor<List<DisturbanceArchiveEntity>> disturbanceArchiveEntitiesCaptor;
+
+	@Test
+	void archive() {
+
+		// Arrange
+		final var disturbanceIds = List.of(1L, 2L);
+		final var created = now(systemDefault()).minusYears(2);
+		final var disturbanceEntities = List.of(
+			DisturbanceEntity.create()
+				.withId(1L)
+				.withMunicipalityId(MUNICIPALITY_ID)
+				.withCategory(Category.ELECTRICITY)
+				.withDisturbanceId("disturbanceId1")
+				.withStatus(Status.CLOSED)
+				.withTitle("title")
+				.withDescription("description")
+				.withCreated(created)
+				.withAffectedEntities(List.of(
+					AffectedEntity.create().withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1").withCoordinates("coordinates-1"),
+					AffectedEntity.create().withPartyId("partyId-2").withReference("reference-2"))),
+			DisturbanceEntity.create()
+				.withId(2L)
+				.withMunicipalityId(MUNICIPALITY_ID)
+				.withCategory(Category.WATER)
+				.withDisturbanceId("disturbanceId2")
+				.withStatus(Status.CLOSED)
+				.withCreated(created));
+
+		when(disturbanceRepositoryMock.findAllById(disturbanceIds)).thenReturn(disturbanceEntities);
+
+		// Act
+		final var result = disturbanceArchiveService.archive(disturbanceIds);
+
+		// Assert
+		final var inOrder = inOrder(disturbanceRepositoryMock, disturbanceArchiveRepositoryMock, disturbanceChangeCounterRepositoryMock, disturbanceCacheMock);
+		inOrder.verify(disturbanceRepositoryMock).findAllById(disturbanceIds);
+		inOrder.verify(disturbanceArchiveRepositoryMock).saveAll(disturbanceArchiveEntitiesCaptor.capture());
+		inOrder.verify(disturbanceRepositoryMock).deleteAffectedByDisturbanceIdIn(disturbanceIds, Integer.MAX_VALUE);
+		inOrder.verify(disturbanceRepositoryMock).deletePartyDisturbanceByDisturbanceIdIn(disturbanceIds);
+		inOrder.verify(disturbanceRepositoryMock).deleteByIdIn(disturbanceIds);
+		inOrder.verify(disturbanceChangeCounterRepositoryMock).incrementAll(result.getFirst().getArchived());
+		inOrder.verify(disturbanceCacheMock).invalidateAll();
+		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceArchiveRepositoryMock, disturbanceChangeCounterRepositoryMock, disturbanceCacheMock);
+
+		assertThat(result).isSameAs(disturbanceArchiveEntitiesCaptor.getValue());
+		assertThat(result)
+			.extracting(DisturbanceArchiveEntity::getMunicipalityId, DisturbanceArchiveEntity::getCategory, DisturbanceArchiveEntity::getDisturbanceId, DisturbanceArchiveEntity::getStatus, DisturbanceArchiveEntity::getCreated, DisturbanceArchiveEntity::getAffectedCount)
+			.containsExactly(
+				tuple(MUNICIPALITY_ID, Category.ELECTRICITY, "disturbanceId1", Status.CLOSED, created, 2),
+				tuple(MUNICIPALITY_ID, Category.WATER, "disturbanceId2", Status.CLOSED, created, 0));
+		assertThat(result.getFirst().getAffecteds()).containsExactly(
+			new ArchivedAffected("partyId-1", "reference-1", "facilityId-1", "coordinates-1"),
+			new ArchivedAffected("partyId-2", "reference-2", null, null));
+		assertThat(result.getLast().getAffecteds()).isEmpty();
+		assertThat(result).allSatisfy(disturbanceArchiveEntity -> assertThat(disturbanceArchiveEntity.getArchived()).isCloseTo(now(systemDefault()), within(2, SECONDS)));
+	}
+
+	@Test
+	void findArchivedDisturbancesPage() {
+
+		// Arrange
+		final var created = LocalDateTime.of(2021, 9, 23, 9, 5, 48).atZone(systemDefault()).toOffsetDateTime();
+		final var cursor = new DisturbanceCursor(created, 1L).encode();
+		final var categoryFilter = List.of(Category.ELECTRICITY);
+		final var disturbanceArchiveEntities = List.of(
+			DisturbanceArchiveEntity.create().withId(2L).withCreated(created).withDisturbanceId("disturbanceId2").withAffecteds(List.of(new ArchivedAffected("partyId", "reference", null, null))),
+			DisturbanceArchiveEntity.create().withId(3L).withCreated(created).withDisturbanceId("disturbanceId3"),
+			DisturbanceArchiveEntity.create().withId(4L).withCreated(created).withDisturbanceId("disturbanceId4"));
+
+		when(disturbanceArchiveRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any(), any(), any(), eq(3))).thenReturn(disturbanceArchiveEntities);
+
+		// Act
+		final var result = disturbanceArchiveService.findArchivedDisturbances(MUNICIPALITY_ID, categoryFilter, "disturbanceId", 2, cursor);
+
+		// Assert
+		assertThat(result.disturbances())
+			.extracting(Disturbance::getId)
+			.containsExactly("disturbanceId2", "disturbanceId3");
+		assertThat(result.disturbances().getFirst().getAffecteds())
+			.extracting(Affected::getPartyId, Affected::getReference)
+			.containsExactly(tuple("partyId", "reference"));
+		assertThat(DisturbanceCursor.decode(result.next())).isEqualTo(new DisturbanceCursor(created, 3L));
+
+		verify(disturbanceArchiveRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, categoryFilter, "disturbanceId", created, 1L, 3);
+		verifyNoMoreInteractions(disturbanceArchiveRepositoryMock);
+		verifyNoInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void findArchivedDisturbancesLastPage() {
+
+		// Arrange
+		final var disturbanceArchiveEntities = List.of(DisturbanceArchiveEntity.create().withId(2L).withCreated(now(systemDefault())).withDisturbanceId("disturbanceId2"));
+
+		when(disturbanceArchiveRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any(), any(), any(), eq(3))).thenReturn(disturbanceArchiveEntities);
+
+		// Act
+		final var result = disturbanceArchiveService.findArchivedDisturbances(MUNICIPALITY_ID, null, null, 2, null);
+
+		// Assert
+		assertThat(result.disturbances())
+			.extracting(Disturbance::getId)
+			.containsExactly("disturbanceId2");
+		assertThat(result.next()).isNull();
+
+		verify(disturbanceArchiveRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, null, null, null, null, 3);
+		verifyNoMoreInteractions(disturbanceArchiveRepositoryMock);
+		verifyNoInteractions(disturbanceRepositoryMock);
+	}
+}
@@ -1,17 +1,29 @@
 package se.sundsvall.disturbance.service;
 
+import io.micrometer.observation.ObservationRegistry;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import se.sundsvall.dept44.problem.ThrowableProblem;
 import se.sundsvall.disturbance.api.model.Affected;
 import se.sundsvall.disturbance.api.model.Category;
@@ -19,28 +31,44 @@ import se.sundsvall.disturbance.api.model.Disturbance;
 import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
 import se.sundsvall.disturbance.api.model.Status;
+import se.sundsvall.disturbance.integration.db.AffectedRepository;
+import se.sundsvall.disturbance.integration.db.DisturbanceChangeCounterRepository;
 import se.sundsvall.disturbance.integration.db.DisturbanceRepository;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.AffectedRow;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceChangeCounterEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceSummaryRow;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceVersionRow;
+import se.sundsvall.disturbance.service.cache.DisturbanceCache;
+import se.sundsvall.disturbance.service.conditional.DisturbanceETag;
 import se.sundsvall.disturbance.service.mapper.DisturbanceMapper;
 import se.sundsvall.disturbance.service.message.SendMessageLogic;
+import se.sundsvall.disturbance.service.metrics.DisturbanceMetrics;
+import se.sundsvall.disturbance.service.paging.AffectedCursor;
+import se.sundsvall.disturbance.service.paging.DisturbanceCursor;
+import se.sundsvall.disturbance.service.party.PartyDisturbanceIndex;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
 import static java.util.Collections.emptyList;
 import static java.util.Optional.empty;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.groups.Tuple.tuple;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_COMMITTED;
 import static se.sundsvall.disturbance.service.mapper.DisturbanceMapper.toDisturbanceEntity;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,9 +79,27 @@ class DisturbanceServiceTest {
 	@Mock
 	private DisturbanceRepository disturbanceRepositoryMock;
 
+	@Mock
+	private AffectedRepository affectedRepositoryMock;
+
+	@Mock
+	private DisturbanceChangeCounterRepository disturbanceChangeCounterRepositoryMock;
+
+	@Mock
+	private DisturbanceCache disturbanceCacheMock;
+
+	@Mock
+	private PartyDisturbanceIndex partyDisturbanceIndexMock;
+
 	@Mock
 	private SendMessageLogic sendMessageLogicMock;
 
+	@Mock
+	private DisturbanceMetrics disturbanceMetricsMock;
+
+	@Spy
+	private ObservationRegistry observationRegistry = ObservationRegistry.create();
+
 	@InjectMocks
 	private DisturbanceService disturbanceService;
 
@@ -67,12 +113,16 @@ class DisturbanceServiceTest {
 		final var category = Category.COMMUNICATION;
 		final var disturbanceId = "12345";
 		final var status = Status.OPEN;
+		final var created = LocalDateTime.of(2021, 9, 23, 9, 5, 48, 198_000_000).atZone(systemDefault()).toOffsetDateTime();
 
 		final var disturbanceEntity = DisturbanceEntity.create()
 			.withDisturbanceId(disturbanceId)
 			.withCategory(category)
-			.withStatus(status);
+			.withStatus(status)
+			.withCreated(created);
 
+		when(disturbanceRepositoryMock.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(new DisturbanceVersionRow(42L, created, null)));
+		when(disturbanceCacheMock.get(any(), any(), any(), any())).thenAnswer(invocation -> invocation.<Supplier<Disturbance>>getArgument(3).get());
 		when(disturbanceRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(disturbanceEntity));
 
 		// Act
@@ -83,11 +133,77 @@ class DisturbanceServiceTest {
 		assertThat(disturbance.getCategory()).isEqualByComparingTo(Category.COMMUNICATION);
 		assertThat(disturbance.getId()).isEqualTo(disturbanceId);
 
+		verify(disturbanceRepositoryMock).findVersionByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verify(disturbanceCacheMock).get(eq(MUNICIPALITY_ID), eq(category), eq(disturbanceId), any());
 		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
-		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceCacheMock);
 		verifyNoInteractions(sendMessageLogicMock);
 	}
 
+	@Test
+	void findByMunicipalityIdAndCategoryAndDisturbanceIdFromCache() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var created = LocalDateTime.of(2021, 9, 23, 9, 5, 48, 198_000_000).atZone(systemDefault()).toOffsetDateTime();
+		final var cachedDisturbance = Disturbance.create()
+			.withId(disturbanceId)
+			.withCategory(category)
+			.withCreated(created)
+			.withUpdated(created.plusHours(1));
+
+		when(disturbanceRepositoryMock.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(new DisturbanceVersionRow(42L, created, created.plusHours(1))));
+		when(disturbanceCacheMock.get(any(), any(), any(), any())).thenReturn(cachedDisturbance);
+
+		// Act
+		final var disturbance = disturbanceService.findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+
+		// Assert
+		assertThat(disturbance).isSameAs(cachedDisturbance);
+
+		verify(disturbanceRepositoryMock).findVersionByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verify(disturbanceCacheMock).get(eq(MUNICIPALITY_ID), eq(category), eq(disturbanceId), any());
+		verifyNoMoreInteractions(disturbanceRepositoryMock, disturbanceCacheMock);
+		verifyNoInteractions(sendMessageLogicMock);
+	}
+
+	@Test
+	void findByMunicipalityIdAndCategoryAndDisturbanceIdWhenCacheIsStale() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var created = LocalDateTime.of(2021, 9, 23, 9, 5, 48, 198_000_000).atZone(systemDefault()).toOffsetDateTime();
+		final var updated = created.plusHours(1);
+		// The cached disturbance was changed by another instance.
+		final var staleDisturbance = Disturbance.create()
+			.withId(disturbanceId)
+			.withCategory(category)
+			.withCreated(created);
+		final var disturbanceEntity = DisturbanceEntity.create()
+			.withDisturbanceId(disturbanceId)
+			.withCategory(category)
+			.withCreated(created)
+			.withUpdated(updated);
+
+		when(disturbanceRepositoryMock.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(new DisturbanceVersionRow(42L, created, updated)));
+		when(disturbanceCacheMock.get(any(), any(), any(), any())).thenReturn(staleDisturbance);
+		when(disturbanceCacheMock.reload(any(), any(), any(), any())).thenAnswer(invocation -> invocation.<Supplier<Disturbance>>getArgument(3).get());
+		when(disturbanceRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(disturbanceEntity));
+
+		// Act
+		final var disturbance = disturbanceService.findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+
+		// Assert
+		assertThat(disturbance.getUpdated()).isEqualTo(updated);
+		assertThat(DisturbanceETag.of(disturbance)).isEqualTo(DisturbanceETag.of(new DisturbanceVersionRow(42L, created, updated)));
+
+		verify(disturbanceCacheMock).get(eq(MUNICIPALITY_ID), eq(category), eq(disturbanceId), any());
+		verify(disturbanceCacheMock).reload(eq(MUNICIPALITY_ID), eq(category), eq(disturbanceId), any());
+		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+	}
+
 	@Test
 	void findByMunicipalityIdAndCategoryAndDisturbanceIdNotFound() {
 
@@ -95,7 +211,7 @@ class DisturbanceServiceTest {
 		final var category = Category.COMMUNICATION;
 		final var disturbanceId = "12345";
 
-		when(disturbanceRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(empty());
+		when(disturbanceRepositoryMock.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(empty());
 
 		// Act
 		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> disturbanceService.findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId));
@@ -104,9 +220,79 @@ class DisturbanceServiceTest {
 		assertThat(throwableProblem.getMessage()).isEqualTo("Not Found: No disturbance found for category:'COMMUNICATION' and id:'12345'!");
 		assertThat(throwableProblem.getStatus()).isEqualTo(NOT_FOUND);
 
-		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verify(disturbanceRepositoryMock).findVersionByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
-		verifyNoInteractions(sendMessageLogicMock);
+		verifyNoInteractions(sendMessageLogicMock, disturbanceCacheMock);
+	}
+
+	@Test
+	void findETagForDisturbance() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var updated = LocalDateTime.of(2021, 9, 23, 9, 5, 48, 198_000_000).atZone(systemDefault()).toOffsetDateTime();
+
+		when(disturbanceRepositoryMock.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(new DisturbanceVersionRow(42L, updated.minusDays(1), updated)));
+
+		// Act
+		final var result = disturbanceService.findETag(MUNICIPALITY_ID, category, disturbanceId);
+
+		// Assert
+		assertThat(result).contains(new DisturbanceETag(updated.minusDays(1).toInstant().toEpochMilli() + "-" + updated.toInstant().toEpochMilli(), updated));
+
+		verify(disturbanceRepositoryMock).findVersionByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(disturbanceChangeCounterRepositoryMock, disturbanceCacheMock, partyDisturbanceIndexMock);
+	}
+
+	@Test
+	void findETagForDisturbanceNotFound() {
+
+		// Arrange
+		when(disturbanceRepositoryMock.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(empty());
+
+		// Act
+		final var result = disturbanceService.findETag(MUNICIPALITY_ID, Category.COMMUNICATION, "12345");
+
+		// Assert
+		assertThat(result).isEmpty();
+	}
+
+	@Test
+	void findETagForMunicipality() {
+
+		// Arrange
+		final var modified = now(systemDefault());
+
+		when(disturbanceChangeCounterRepositoryMock.findById(any())).thenReturn(Optional.of(DisturbanceChangeCounterEntity.create()
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withVersion(7L)
+			.withModified(modified)));
+
+		// Act
+		final var result = disturbanceService.findETag(MUNICIPALITY_ID);
+
+		// Assert
+		assertThat(result).isEqualTo(new DisturbanceETag("7", modified));
+
+		verify(disturbanceChangeCounterRepositoryMock).findById(MUNICIPALITY_ID);
+		verifyNoMoreInteractions(disturbanceChangeCounterRepositoryMock);
+		verifyNoInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void findETagForMunicipalityWithoutChanges() {
+
+		// Arrange
+		when(disturbanceChangeCounterRepositoryMock.findById(any())).thenReturn(empty());
+
+		// Act
+		final var result = disturbanceService.findETag(MUNICIPALITY_ID);
+
+		// Assert
+		assertThat(result).isEqualTo(DisturbanceETag.initial());
+		assertThat(result.lastModifiedMillis()).isEqualTo(-1);
 	}
 
 	@Test
@@ -127,7 +313,7 @@ class DisturbanceServiceTest {
 
 		final var disturbanceEntity = toDisturbanceEntity(MUNICIPALITY_ID, disturbanceCreateRequest);
 
-		when(disturbanceRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(empty());
+		when(disturbanceRepositoryMock.existsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(false);
 		when(disturbanceRepositoryMock.save(any())).thenReturn(disturbanceEntity);
 
 		// Act
@@ -136,11 +322,15 @@ class DisturbanceServiceTest {
 		// Assert
 		assertThat(disturbance).isNotNull();
 
-		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
+		verify(disturbanceRepositoryMock).existsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
 		verify(disturbanceRepositoryMock).save(disturbanceEntityCaptor.capture());
 		verify(sendMessageLogicMock).sendCreateMessageToAllApplicableAffecteds(disturbanceEntity);
 
 		verifyNoMoreInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
+		verify(disturbanceChangeCounterRepositoryMock).increment(eq(MUNICIPALITY_ID), any());
+		verify(disturbanceCacheMock).invalidate(MUNICIPALITY_ID, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
+		verify(disturbanceMetricsMock).affecteds(MUNICIPALITY_ID, Category.COMMUNICATION, 3);
+		verify(partyDisturbanceIndexMock).add(disturbanceEntity, Set.of("partyId-1", "partyId-2", "partyId-3"));
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
 		assertThat(disturbanceEntityCaptorValue).isNotNull();
@@ -179,7 +369,7 @@ class DisturbanceServiceTest {
 
 		final var disturbanceEntity = toDisturbanceEntity(MUNICIPALITY_ID, disturbanceCreateRequest);
 
-		when(disturbanceRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(empty());
+		when(disturbanceRepositoryMock.existsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(false);
 		when(disturbanceRepositoryMock.save(any())).thenReturn(disturbanceEntity);
 
 		// Act
@@ -188,10 +378,11 @@ class DisturbanceServiceTest {
 		// Assert
 		assertThat(disturbance).isNotNull();
 
-		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
+		verify(disturbanceRepositoryMock).existsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
 		verify(disturbanceRepositoryMock).save(disturbanceEntityCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
 		verifyNoInteractions(sendMessageLogicMock); // No interactions here if status is CLOSED.
+		verify(partyDisturbanceIndexMock).add(disturbanceEntity, Set.of("partyId-1", "partyId-2", "partyId-3")); // Ignored by the index if status is CLOSED.
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
 		assertThat(disturbanceEntityCaptorValue).isNotNull();
@@ -229,7 +420,7 @@ class DisturbanceServiceTest {
 
 		final var disturbanceEntity = toDisturbanceEntity(MUNICIPALITY_ID, disturbanceCreateRequest);
 
-		when(disturbanceRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(empty());
+		when(disturbanceRepositoryMock.existsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(false);
 		when(disturbanceRepositoryMock.save(any())).thenReturn(disturbanceEntity);
 
 		// Act
@@ -238,11 +429,12 @@ class DisturbanceServiceTest {
 		// Assert
 		assertThat(disturbance).isNotNull();
 
-		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
+		verify(disturbanceRepositoryMock).existsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
 		verify(disturbanceRepositoryMock).save(disturbanceEntityCaptor.capture());
 
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
 		verifyNoInteractions(sendMessageLogicMock); // No interactions here if status is PLANNED.
+		verify(partyDisturbanceIndexMock).add(disturbanceEntity, Set.of("partyId-1", "partyId-2", "partyId-3"));
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
 		assertThat(disturbanceEntityCaptorValue).isNotNull();
@@ -280,7 +472,7 @@ class DisturbanceServiceTest {
 				Affected.create().withPartyId("partyId-2").withReference("reference-2"),
 				Affected.create().withPartyId("partyId-3").withReference("reference-3")));
 
-		when(disturbanceRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(DisturbanceEntity.create()));
+		when(disturbanceRepositoryMock.existsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(true);
 
 		// Act
 		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> disturbanceService.createDisturbance(MUNICIPALITY_ID, disturbanceCreateRequest));
@@ -289,8 +481,9 @@ class DisturbanceServiceTest {
 		assertThat(throwableProblem.getMessage()).isEqualTo("Conflict: A disturbance with category:'COMMUNICATION' and id:'id' already exists!");
 		assertThat(throwableProblem.getStatus()).isEqualTo(CONFLICT);
 
-		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
+		verify(disturbanceRepositoryMock).existsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, disturbanceCreateRequest.getCategory(), disturbanceCreateRequest.getId());
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(disturbanceChangeCounterRepositoryMock, disturbanceCacheMock, partyDisturbanceIndexMock);
 		verifyNoInteractions(sendMessageLogicMock);
 	}
 
@@ -302,10 +495,11 @@ class DisturbanceServiceTest {
 		final var partyId = "partyId";
 		final var statusFilter = List.of(Status.OPEN);
 
-		when(disturbanceRepositoryMock.findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(any(), any(), any(), any())).thenReturn(createDisturbanceEntities());
+		when(partyDisturbanceIndexMock.getDisturbanceIds(any(), any())).thenReturn(Set.of(1L, 2L));
+		when(disturbanceRepositoryMock.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(any(), any(), any(), any())).thenReturn(createDisturbanceEntities());
 
 		// Act
-		final var disturbances = disturbanceService.findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter);
+		final var disturbances = disturbanceService.findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter, false);
 
 		// Assert
 		assertThat(disturbances).isNotNull();
@@ -316,11 +510,106 @@ class DisturbanceServiceTest {
 		assertThat(disturbances.get(1).getId()).isEqualTo("disturbanceId2");
 		assertThat(disturbances.get(1).getStatus()).isEqualByComparingTo(Status.OPEN);
 
-		verify(disturbanceRepositoryMock).findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter);
+		verify(partyDisturbanceIndexMock).getDisturbanceIds(MUNICIPALITY_ID, partyId);
+		verify(disturbanceRepositoryMock).findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, Set.of(1L, 2L), categoryFilter, statusFilter);
+		verifyNoMoreInteractions(disturbanceRepositoryMock, partyDisturbanceIndexMock);
+		verifyNoInteractions(sendMessageLogicMock, disturbanceChangeCounterRepositoryMock);
+	}
+
+	@ParameterizedTest
+	@NullAndEmptySource
+	@MethodSource("statusFiltersWithClosed")
+	void findByPartyIdAndCategoryWhenClosedIsIncluded(final List<Status> statusFilter) {
+
+		// Arrange
+		final var categoryFilter = List.of(Category.COMMUNICATION);
+		final var partyId = "partyId";
+
+		when(disturbanceRepositoryMock.findIdsByMunicipalityIdAndAffectedEntitiesPartyId(any(), any())).thenReturn(List.of(1L, 2L));
+		when(disturbanceRepositoryMock.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(any(), any(), any(), any())).thenReturn(createDisturbanceEntities());
+
+		// Act
+		final var disturbances = disturbanceService.findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter, false);
+
+		// Assert (the party index only holds non-closed disturbances)
+		assertThat(disturbances).extracting(Disturbance::getId).containsExactly("disturbanceId1", "disturbanceId2");
+
+		verify(disturbanceRepositoryMock).findIdsByMunicipalityIdAndAffectedEntitiesPartyId(MUNICIPALITY_ID, partyId);
+		verify(disturbanceRepositoryMock).findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, Set.of(1L, 2L), categoryFilter, statusFilter);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(partyDisturbanceIndexMock, sendMessageLogicMock);
+	}
+
+	private static Stream<List<Status>> statusFiltersWithClosed() {
+		return Stream.of(List.of(Status.CLOSED), List.of(Status.OPEN, Status.CLOSED));
+	}
+
+	@Test
+	void findByPartyIdAndCategoryWithOwnAffectedsOnly() {
+
+		// Arrange
+		final var categoryFilter = List.of(Category.COMMUNICATION);
+		final var partyId = "partyId";
+		final var statusFilter = List.of(Status.OPEN);
+		final var otherAffectedEntity = AffectedEntity.create().withPartyId("otherPartyId").withReference("otherReference");
+		final var disturbanceEntities = List.of(
+			DisturbanceEntity.create()
+				.withId(1L)
+				.withDisturbanceId("disturbanceId1")
+				.withCategory(Category.COMMUNICATION)
+				.withStatus(Status.OPEN)
+				.withAffectedEntities(List.of(otherAffectedEntity)),
+			DisturbanceEntity.create()
+				.withId(2L)
+				.withDisturbanceId("disturbanceId2")
+				.withCategory(Category.COMMUNICATION)
+				.withStatus(Status.OPEN)
+				.withAffectedEntities(List.of(otherAffectedEntity)));
+
+		when(partyDisturbanceIndexMock.getDisturbanceIds(any(), any())).thenReturn(Set.of(1L, 2L));
+		when(disturbanceRepositoryMock.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(any(), any(), any(), any())).thenReturn(disturbanceEntities);
+		when(disturbanceRepositoryMock.findAffectedRowsByDisturbanceIdInAndPartyId(any(), any())).thenReturn(List.of(
+			new AffectedRow(10L, 2L, partyId, "reference", "facilityId", "coordinates")));
+
+		// Act
+		final var disturbances = disturbanceService.findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter, true);
+
+		// Assert
+		assertThat(disturbances).extracting(Disturbance::getId).containsExactly("disturbanceId1", "disturbanceId2");
+		assertThat(disturbances.get(0).getAffecteds()).isEmpty();
+		assertThat(disturbances.get(1).getAffecteds()).containsExactly(Affected.create()
+			.withPartyId(partyId)
+			.withReference("reference")
+			.withFacilityId("facilityId")
+			.withCoordinates("coordinates"));
+
+		verify(partyDisturbanceIndexMock).getDisturbanceIds(MUNICIPALITY_ID, partyId);
+		verify(disturbanceRepositoryMock).findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, Set.of(1L, 2L), categoryFilter, statusFilter);
+		verify(disturbanceRepositoryMock).findAffectedRowsByDisturbanceIdInAndPartyId(List.of(1L, 2L), partyId);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
 		verifyNoInteractions(sendMessageLogicMock);
 	}
 
+	@Test
+	void findByPartyIdAndCategoryNotInIndex() {
+
+		// Arrange
+		final var categoryFilter = List.of(Category.COMMUNICATION);
+		final var partyId = "partyId";
+		final var statusFilter = List.of(Status.OPEN);
+
+		when(partyDisturbanceIndexMock.getDisturbanceIds(any(), any())).thenReturn(Set.of());
+
+		// Act
+		final var disturbances = disturbanceService.findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter, true);
+
+		// Assert
+		assertThat(disturbances).isNotNull().isEmpty();
+
+		verify(partyDisturbanceIndexMock).getDisturbanceIds(MUNICIPALITY_ID, partyId);
+		verifyNoInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
+	}
+
 	@Test
 	void findByPartyIdAndCategoryNotFound() {
 
@@ -329,19 +618,260 @@ class DisturbanceServiceTest {
 		final var partyId = "partyId";
 		final var statusFilter = List.of(Status.OPEN);
 
-		when(disturbanceRepositoryMock.findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(any(), any(), any(), any())).thenReturn(emptyList());
+		when(partyDisturbanceIndexMock.getDisturbanceIds(any(), any())).thenReturn(Set.of(1L));
+		when(disturbanceRepositoryMock.findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(any(), any(), any(), any())).thenReturn(emptyList());
 
 		// Act
-		final var disturbances = disturbanceService.findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter);
+		final var disturbances = disturbanceService.findByMunicipalityIdAndPartyIdAndCategoryAndStatus(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter, true);
 
 		// Assert
 		assertThat(disturbances).isNotNull().isEmpty();
 
-		verify(disturbanceRepositoryMock).findByMunicipalityIdAndAffectedEntitiesPartyIdAndCategoryInAndStatusIn(MUNICIPALITY_ID, partyId, categoryFilter, statusFilter);
+		verify(disturbanceRepositoryMock).findByMunicipalityIdAndIdInAndCategoryInAndStatusIn(MUNICIPALITY_ID, Set.of(1L), categoryFilter, statusFilter);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
 		verifyNoInteractions(sendMessageLogicMock);
 	}
 
+	@Test
+	void addAffecteds() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var existingAffectedEntity = AffectedEntity.create().withId(1L).withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1");
+		final var disturbanceEntity = DisturbanceEntity.create()
+			.withId(2L)
+			.withCategory(category)
+			.withDisturbanceId(disturbanceId)
+			.withStatus(Status.OPEN);
+		final var affecteds = List.of(
+			Affected.create().withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1"),
+			Affected.create().withPartyId("partyId-1").withReference("reference-2").withFacilityId("facilityId-2").withCoordinates("coordinate-2"),
+			Affected.create().withPartyId("partyId-2").withReference("reference-3").withFacilityId("facilityId-3").withCoordinates("coordinate-3"));
+		final var expectedAddedAffecteds = List.of(
+			AffectedEntity.create().withPartyId("partyId-1").withReference("reference-2").withFacilityId("facilityId-2").withCoordinates("coordinate-2"),
+			AffectedEntity.create().withPartyId("partyId-2").withReference("reference-3").withFacilityId("facilityId-3").withCoordinates("coordinate-3"));
+
+		when(disturbanceRepositoryMock.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(disturbanceEntity));
+		when(affectedRepositoryMock.findByDisturbanceIdAndPartyIdIn(anyLong(), any())).thenReturn(List.of(existingAffectedEntity));
+		when(affectedRepositoryMock.countByDisturbanceId(anyLong())).thenReturn(3L);
+
+		// Act
+		disturbanceService.addAffecteds(MUNICIPALITY_ID, category, disturbanceId, affecteds);
+
+		// Assert
+		verify(disturbanceRepositoryMock).findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verify(affectedRepositoryMock).findByDisturbanceIdAndPartyIdIn(2L, Set.of("partyId-1", "partyId-2"));
+		verify(sendMessageLogicMock).sendCreateMessageToProvidedApplicableAffecteds(disturbanceEntity, expectedAddedAffecteds);
+		verify(affectedRepositoryMock).saveAll(expectedAddedAffecteds);
+		verify(disturbanceRepositoryMock).save(disturbanceEntity);
+		verify(disturbanceChangeCounterRepositoryMock).increment(eq(MUNICIPALITY_ID), any());
+		verify(disturbanceCacheMock).invalidate(MUNICIPALITY_ID, category, disturbanceId);
+		verify(affectedRepositoryMock).countByDisturbanceId(2L);
+		verify(disturbanceMetricsMock).affecteds(MUNICIPALITY_ID, category, 3);
+		verify(partyDisturbanceIndexMock).add(disturbanceEntity, Set.of("partyId-1", "partyId-2"));
+		verifyNoMoreInteractions(disturbanceRepositoryMock, affectedRepositoryMock, sendMessageLogicMock, partyDisturbanceIndexMock);
+
+		assertThat(disturbanceEntity.getUpdated()).isNotNull();
+		assertThat(disturbanceEntity.getUpdated()).isEqualTo(disturbanceEntity.getUpdated().truncatedTo(MILLIS));
+		assertThat(disturbanceEntity.getAffectedEntities()).isNull();
+	}
+
+	@Test
+	void addAffectedsWhenStatusIsPlanned() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var disturbanceEntity = DisturbanceEntity.create()
+			.withId(2L)
+			.withCategory(category)
+			.withDisturbanceId(disturbanceId)
+			.withStatus(Status.PLANNED);
+		final var affecteds = List.of(Affected.create().withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1"));
+		final var expectedAddedAffecteds = List.of(AffectedEntity.create().withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1"));
+
+		when(disturbanceRepositoryMock.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(disturbanceEntity));
+		when(affectedRepositoryMock.findByDisturbanceIdAndPartyIdIn(anyLong(), any())).thenReturn(emptyList());
+
+		// Act
+		disturbanceService.addAffecteds(MUNICIPALITY_ID, category, disturbanceId, affecteds);
+
+		// Assert
+		verify(affectedRepositoryMock).findByDisturbanceIdAndPartyIdIn(2L, Set.of("partyId-1"));
+		verify(affectedRepositoryMock).saveAll(expectedAddedAffecteds);
+		verify(partyDisturbanceIndexMock).add(disturbanceEntity, Set.of("partyId-1"));
+		verifyNoInteractions(sendMessageLogicMock);
+	}
+
+	@Test
+	void addAffectedsWhenAllAffectedsExist() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var disturbanceEntity = DisturbanceEntity.create()
+			.withId(2L)
+			.withCategory(category)
+			.withDisturbanceId(disturbanceId)
+			.withStatus(Status.OPEN);
+		final var affecteds = List.of(Affected.create().withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1"));
+
+		when(disturbanceRepositoryMock.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(disturbanceEntity));
+		when(affectedRepositoryMock.findByDisturbanceIdAndPartyIdIn(anyLong(), any()))
+			.thenReturn(List.of(AffectedEntity.create().withId(1L).withPartyId("partyId-1").withReference("REFERENCE-1").withFacilityId("facilityId-1")));
+
+		// Act
+		disturbanceService.addAffecteds(MUNICIPALITY_ID, category, disturbanceId, affecteds);
+
+		// Assert
+		verify(disturbanceRepositoryMock).findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verify(affectedRepositoryMock).findByDisturbanceIdAndPartyIdIn(2L, Set.of("partyId-1"));
+		verifyNoMoreInteractions(disturbanceRepositoryMock, affectedRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, disturbanceChangeCounterRepositoryMock, disturbanceCacheMock, partyDisturbanceIndexMock, disturbanceMetricsMock);
+	}
+
+	@Test
+	void addAffectedsWhenStatusIsClosed() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var disturbanceEntity = DisturbanceEntity.create()
+			.withCategory(category)
+			.withDisturbanceId(disturbanceId)
+			.withStatus(Status.CLOSED);
+		final var affecteds = List.of(Affected.create().withPartyId("partyId-1").withReference("reference-1"));
+
+		when(disturbanceRepositoryMock.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(disturbanceEntity));
+
+		// Act
+		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> disturbanceService.addAffecteds(MUNICIPALITY_ID, category, disturbanceId, affecteds));
+
+		// Assert
+		assertThat(throwableProblem.getMessage()).isEqualTo("Conflict: The disturbance with category:'COMMUNICATION' and id:'12345' is closed! No updates are allowed on closed disturbances!");
+		assertThat(throwableProblem.getStatus()).isEqualTo(CONFLICT);
+
+		verify(disturbanceRepositoryMock).findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(affectedRepositoryMock, sendMessageLogicMock, disturbanceChangeCounterRepositoryMock, disturbanceCacheMock, partyDisturbanceIndexMock);
+	}
+
+	@Test
+	void addAffectedsWhenDisturbanceDoesntExist() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var affecteds = List.of(Affected.create().withPartyId("partyId-1").withReference("reference-1"));
+
+		when(disturbanceRepositoryMock.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(empty());
+
+		// Act
+		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> disturbanceService.addAffecteds(MUNICIPALITY_ID, category, disturbanceId, affecteds));
+
+		// Assert
+		assertThat(throwableProblem.getMessage()).isEqualTo("Not Found: No disturbance found for category:'COMMUNICATION' and id:'12345'!");
+		assertThat(throwableProblem.getStatus()).isEqualTo(NOT_FOUND);
+
+		verifyNoInteractions(affectedRepositoryMock, sendMessageLogicMock, disturbanceChangeCounterRepositoryMock, disturbanceCacheMock, partyDisturbanceIndexMock);
+	}
+
+	@Test
+	void removeAffecteds() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var partyAffectedEntities = List.of(
+			AffectedEntity.create().withId(1L).withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1"),
+			AffectedEntity.create().withId(2L).withPartyId("partyId-1").withReference("reference-2").withFacilityId("facilityId-2"));
+		final var disturbanceEntity = DisturbanceEntity.create()
+			.withId(2L)
+			.withCategory(category)
+			.withDisturbanceId(disturbanceId)
+			.withStatus(Status.OPEN);
+
+		when(disturbanceRepositoryMock.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(disturbanceEntity));
+		when(affectedRepositoryMock.findByDisturbanceIdAndPartyIdIn(anyLong(), any())).thenReturn(partyAffectedEntities);
+		when(affectedRepositoryMock.countByDisturbanceId(anyLong())).thenReturn(1L);
+
+		// Act
+		disturbanceService.removeAffecteds(MUNICIPALITY_ID, category, disturbanceId, "partyId-1", null);
+
+		// Assert
+		verify(disturbanceRepositoryMock).findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verify(affectedRepositoryMock).findByDisturbanceIdAndPartyIdIn(2L, Set.of("partyId-1"));
+		verify(sendMessageLogicMock).sendCloseMessageToProvidedApplicableAffecteds(disturbanceEntity, partyAffectedEntities);
+		verify(affectedRepositoryMock).deleteAll(partyAffectedEntities);
+		verify(disturbanceRepositoryMock).save(disturbanceEntity);
+		verify(disturbanceChangeCounterRepositoryMock).increment(eq(MUNICIPALITY_ID), any());
+		verify(disturbanceCacheMock).invalidate(MUNICIPALITY_ID, category, disturbanceId);
+		verify(affectedRepositoryMock).countByDisturbanceId(2L);
+		verify(disturbanceMetricsMock).affecteds(MUNICIPALITY_ID, category, 1);
+		verify(partyDisturbanceIndexMock).remove(disturbanceEntity, Set.of("partyId-1"));
+		verifyNoMoreInteractions(disturbanceRepositoryMock, affectedRepositoryMock, sendMessageLogicMock, partyDisturbanceIndexMock);
+
+		assertThat(disturbanceEntity.getUpdated()).isEqualTo(disturbanceEntity.getUpdated().truncatedTo(MILLIS));
+	}
+
+	@Test
+	void removeAffectedsForOneFacility() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var affectedEntity1 = AffectedEntity.create().withId(1L).withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1");
+		final var affectedEntity2 = AffectedEntity.create().withId(2L).withPartyId("partyId-1").withReference("reference-2").withFacilityId("facilityId-2");
+		final var disturbanceEntity = DisturbanceEntity.create()
+			.withId(2L)
+			.withCategory(category)
+			.withDisturbanceId(disturbanceId)
+			.withStatus(Status.PLANNED);
+
+		when(disturbanceRepositoryMock.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(disturbanceEntity));
+		when(affectedRepositoryMock.findByDisturbanceIdAndPartyIdIn(anyLong(), any())).thenReturn(List.of(affectedEntity1, affectedEntity2));
+
+		// Act
+		disturbanceService.removeAffecteds(MUNICIPALITY_ID, category, disturbanceId, "partyId-1", "FACILITYID-2");
+
+		// Assert
+		verify(affectedRepositoryMock).deleteAll(List.of(affectedEntity2));
+		verify(disturbanceRepositoryMock).save(disturbanceEntity);
+		verify(disturbanceCacheMock).invalidate(MUNICIPALITY_ID, category, disturbanceId);
+
+		// The index keeps the party while it is still affected through facilityId-1.
+		verify(partyDisturbanceIndexMock).remove(disturbanceEntity, Set.of("partyId-1"));
+
+		// No messages are sent for PLANNED disturbances.
+		verifyNoInteractions(sendMessageLogicMock);
+	}
+
+	@Test
+	void removeAffectedsWhenNoAffectedsMatch() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var disturbanceEntity = DisturbanceEntity.create()
+			.withId(2L)
+			.withCategory(category)
+			.withDisturbanceId(disturbanceId)
+			.withStatus(Status.OPEN);
+
+		when(disturbanceRepositoryMock.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(disturbanceEntity));
+		when(affectedRepositoryMock.findByDisturbanceIdAndPartyIdIn(anyLong(), any())).thenReturn(emptyList());
+
+		// Act
+		disturbanceService.removeAffecteds(MUNICIPALITY_ID, category, disturbanceId, "partyId-1", null);
+
+		// Assert
+		verify(disturbanceRepositoryMock).findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verify(affectedRepositoryMock).findByDisturbanceIdAndPartyIdIn(2L, Set.of("partyId-1"));
+		verifyNoMoreInteractions(disturbanceRepositoryMock, affectedRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock, disturbanceChangeCounterRepositoryMock, disturbanceCacheMock, partyDisturbanceIndexMock, disturbanceMetricsMock);
+	}
+
 	@Test
 	void deleteByDisturbanceByIdAndCategory() {
 
@@ -364,6 +894,9 @@ class DisturbanceServiceTest {
 		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
 		verify(disturbanceRepositoryMock).save(disturbanceEntityCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
+		verify(disturbanceChangeCounterRepositoryMock).increment(eq(MUNICIPALITY_ID), any());
+		verify(disturbanceCacheMock).invalidate(MUNICIPALITY_ID, category, disturbanceId);
+		verify(partyDisturbanceIndexMock).removeAll(disturbanceEntity);
 		verifyNoInteractions(sendMessageLogicMock);
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
@@ -392,6 +925,7 @@ class DisturbanceServiceTest {
 
 		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(disturbanceChangeCounterRepositoryMock, disturbanceCacheMock, partyDisturbanceIndexMock);
 		verifyNoInteractions(sendMessageLogicMock);
 	}
 
@@ -450,6 +984,10 @@ class DisturbanceServiceTest {
 		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
 		verify(disturbanceRepositoryMock).save(disturbanceEntityCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
+		verify(disturbanceChangeCounterRepositoryMock).increment(eq(MUNICIPALITY_ID), any());
+		verify(disturbanceCacheMock).invalidate(MUNICIPALITY_ID, category, disturbanceId);
+		verify(partyDisturbanceIndexMock).removeAll(existingDisturbanceEntity);
+		verifyNoMoreInteractions(partyDisturbanceIndexMock);
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
 		assertThat(disturbanceEntityCaptorValue).isNotNull();
@@ -528,6 +1066,10 @@ class DisturbanceServiceTest {
 		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
 		verify(disturbanceRepositoryMock).save(disturbanceEntityCaptor.capture());
 		verifyNoMoreInteractions(disturbanceRepositoryMock, sendMessageLogicMock);
+		verify(disturbanceChangeCounterRepositoryMock).increment(eq(MUNICIPALITY_ID), any());
+		verify(disturbanceCacheMock).invalidate(MUNICIPALITY_ID, category, disturbanceId);
+		verify(partyDisturbanceIndexMock).add(existingDisturbanceEntity, Set.of());
+		verify(partyDisturbanceIndexMock).remove(existingDisturbanceEntity, Set.of("partyId-1"));
 
 		final var disturbanceEntityCaptorValue = disturbanceEntityCaptor.getValue();
 		assertThat(disturbanceEntityCaptorValue).isNotNull();
@@ -618,6 +1160,8 @@ class DisturbanceServiceTest {
 		verify(sendMessageLogicMock).sendCreateMessageToProvidedApplicableAffecteds(disturbanceEntityCaptor.capture(), eq(List.of(e4)));
 		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
 		verify(disturbanceRepositoryMock).save(disturbanceEntityCaptor.capture());
+		verify(partyDisturbanceIndexMock).add(existingDisturbanceEntity, Set.of("partyId-4"));
+		verify(partyDisturbanceIndexMock).remove(existingDisturbanceEntity, Set.of());
 
 		// Loop through the captor values (for sendMessageLogicMock and disturbanceRepositoryMock).
 		disturbanceEntityCaptor.getAllValues().stream().forEach(updatedEntity -> {
@@ -639,6 +1183,101 @@ class DisturbanceServiceTest {
 		});
 	}
 
+	@Test
+	void updateDisturbanceWhenNothingIsChanged() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var plannedStartDate = LocalDateTime.of(2021, 10, 12, 18, 30, 0).atOffset(now(systemDefault()).getOffset());
+		final var disturbanceUpdateRequest = DisturbanceUpdateRequest.create()
+			.withTitle("title")
+			.withPlannedStartDate(plannedStartDate)
+			.withStatus(se.sundsvall.disturbance.api.model.Status.OPEN)
+			.withAffecteds(List.of(Affected.create().withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1")));
+		final var existingDisturbanceEntity = DisturbanceEntity.create()
+			.withCategory(category)
+			.withDisturbanceId(disturbanceId)
+			.withStatus(Status.OPEN)
+			.withTitle("title")
+			.withDescription("description")
+			.withPlannedStartDate(plannedStartDate)
+			.withAffectedEntities(new ArrayList<>(List.of(AffectedEntity.create().withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1"))));
+
+		when(disturbanceRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(existingDisturbanceEntity));
+		when(disturbanceRepositoryMock.save(any())).thenReturn(existingDisturbanceEntity);
+
+		// Act
+		final var updatedDisturbance = disturbanceService.updateDisturbance(MUNICIPALITY_ID, category, disturbanceId, disturbanceUpdateRequest);
+
+		// Assert
+		assertThat(updatedDisturbance.getTitle()).isEqualTo("title");
+
+		verify(disturbanceRepositoryMock).save(existingDisturbanceEntity);
+		verifyNoInteractions(sendMessageLogicMock, disturbanceChangeCounterRepositoryMock, disturbanceCacheMock, disturbanceMetricsMock, partyDisturbanceIndexMock);
+	}
+
+	@Test
+	void updateDisturbanceWhenOnlyLetterCaseIsChanged() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceId = "12345";
+		final var disturbanceUpdateRequest = DisturbanceUpdateRequest.create().withTitle("TITLE");
+		final var existingDisturbanceEntity = DisturbanceEntity.create()
+			.withCategory(category)
+			.withDisturbanceId(disturbanceId)
+			.withStatus(Status.OPEN)
+			.withTitle("title");
+
+		when(disturbanceRepositoryMock.findByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(existingDisturbanceEntity));
+		when(disturbanceRepositoryMock.save(any())).thenReturn(existingDisturbanceEntity);
+
+		// Act
+		disturbanceService.updateDisturbance(MUNICIPALITY_ID, category, disturbanceId, disturbanceUpdateRequest);
+
+		// Assert
+		verify(disturbanceChangeCounterRepositoryMock).increment(eq(MUNICIPALITY_ID), any());
+		verify(disturbanceCacheMock).invalidate(MUNICIPALITY_ID, category, disturbanceId);
+		verifyNoInteractions(sendMessageLogicMock); // The content is not changed (letter case is ignored), so no messages are sent.
+	}
+
+	@Test
+	void changeCounterIsIncrementedBeforeCommit() {
+
+		// Arrange
+		final var category = Category.COMMUNICATION;
+		final var disturbanceEntity = DisturbanceEntity.create()
+			.withId(2L)
+			.withCategory(category)
+			.withStatus(Status.PLANNED);
+		final var affecteds = List.of(Affected.create().withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1"));
+
+		when(disturbanceRepositoryMock.findWithoutAffectedsByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(disturbanceEntity));
+		when(affectedRepositoryMock.findByDisturbanceIdAndPartyIdIn(anyLong(), any())).thenReturn(emptyList());
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			// Act
+			disturbanceService.addAffecteds(MUNICIPALITY_ID, category, "12345", affecteds);
+			disturbanceService.addAffecteds(MUNICIPALITY_ID, category, "67890", affecteds);
+
+			// Assert
+			verifyNoInteractions(disturbanceChangeCounterRepositoryMock);
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+			// The counter is incremented once, even if two disturbances in the municipality were changed.
+			verify(disturbanceChangeCounterRepositoryMock).increment(eq(MUNICIPALITY_ID), any());
+			verifyNoMoreInteractions(disturbanceChangeCounterRepositoryMock);
+		} finally {
+			TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCompletion(STATUS_COMMITTED));
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+	}
+
 	@Test
 	void updateDisturbanceWhenDisturbanceDoesntExist() {
 
@@ -659,6 +1298,7 @@ class DisturbanceServiceTest {
 
 		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(disturbanceChangeCounterRepositoryMock, disturbanceCacheMock, partyDisturbanceIndexMock);
 		verifyNoInteractions(sendMessageLogicMock);
 	}
 
@@ -688,6 +1328,7 @@ class DisturbanceServiceTest {
 
 		verify(disturbanceRepositoryMock).findByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
 		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(disturbanceChangeCounterRepositoryMock, disturbanceCacheMock, partyDisturbanceIndexMock);
 		verifyNoInteractions(sendMessageLogicMock);
 	}
 
@@ -869,6 +1510,234 @@ class DisturbanceServiceTest {
 		}
 	}
 
+	@Test
+	void findPageByCategoryAndStatus() {
+
+		// Arrange
+		final var created = LocalDateTime.of(2021, 9, 23, 9, 5, 48).atZone(systemDefault()).toOffsetDateTime();
+		final var cursor = new DisturbanceCursor(created, 1L).encode();
+		final var statusFilter = List.of(Status.OPEN);
+		final var categoryFilter = List.of(Category.ELECTRICITY);
+		final var disturbanceEntities = List.of(
+			DisturbanceEntity.create().withId(2L).withCreated(created).withDisturbanceId("disturbanceId2"),
+			DisturbanceEntity.create().withId(3L).withCreated(created).withDisturbanceId("disturbanceId3"),
+			DisturbanceEntity.create().withId(4L).withCreated(created).withDisturbanceId("disturbanceId4"));
+
+		when(disturbanceRepositoryMock.findByMunicipalityIdAndStatusAndCategory(any(), any(), any(), any(), any(), eq(3))).thenReturn(disturbanceEntities);
+
+		// Act
+		final var result = disturbanceService.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, statusFilter, categoryFilter, 2, cursor);
+
+		// Assert
+		assertThat(result.disturbances())
+			.extracting(Disturbance::getId)
+			.containsExactly("disturbanceId2", "disturbanceId3");
+		assertThat(DisturbanceCursor.decode(result.next())).isEqualTo(new DisturbanceCursor(created, 3L));
+
+		verify(disturbanceRepositoryMock).findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, statusFilter, categoryFilter, created, 1L, 3);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void findLastPageByCategoryAndStatus() {
+
+		// Arrange
+		final var disturbanceEntities = List.of(DisturbanceEntity.create().withId(2L).withCreated(now(systemDefault())).withDisturbanceId("disturbanceId2"));
+
+		when(disturbanceRepositoryMock.findByMunicipalityIdAndStatusAndCategory(any(), any(), any(), any(), any(), eq(3))).thenReturn(disturbanceEntities);
+
+		// Act
+		final var result = disturbanceService.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, 2, null);
+
+		// Assert
+		assertThat(result.disturbances())
+			.extracting(Disturbance::getId)
+			.containsExactly("disturbanceId2");
+		assertThat(result.next()).isNull();
+
+		verify(disturbanceRepositoryMock).findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, null, null, 3);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void findPageByCategoryAndStatusWithInvalidCursor() {
+
+		// Act
+		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> disturbanceService.findByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, 2, "invalid-cursor"));
+
+		// Assert
+		assertThat(throwableProblem.getMessage()).isEqualTo("Bad Request: Invalid cursor:'invalid-cursor'!");
+		assertThat(throwableProblem.getStatus()).isEqualTo(BAD_REQUEST);
+
+		verifyNoInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void findAffectedsPage() {
+
+		// Arrange
+		final var category = Category.ELECTRICITY;
+		final var disturbanceId = "disturbanceId";
+		final var cursor = new AffectedCursor(10L).encode();
+		final var affectedRows = List.of(
+			new AffectedRow(11L, 1L, "partyId-1", "reference-1", "facilityId-1", "coordinates-1"),
+			new AffectedRow(12L, 1L, "partyId-2", "reference-2", "facilityId-2", "coordinates-2"),
+			new AffectedRow(13L, 1L, "partyId-3", "reference-3", "facilityId-3", "coordinates-3"));
+
+		when(disturbanceRepositoryMock.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(new DisturbanceVersionRow(1L, now(systemDefault()), null)));
+		when(disturbanceRepositoryMock.findAffectedRowsByDisturbanceIdAndIdGreaterThan(anyLong(), any(), any(), anyLong(), any())).thenReturn(affectedRows);
+
+		// Act
+		final var result = disturbanceService.findAffecteds(MUNICIPALITY_ID, category, disturbanceId, "partyId", "facilityId", 2, cursor);
+
+		// Assert
+		assertThat(result.affecteds())
+			.extracting(Affected::getPartyId, Affected::getReference, Affected::getFacilityId, Affected::getCoordinates)
+			.containsExactly(
+				tuple("partyId-1", "reference-1", "facilityId-1", "coordinates-1"),
+				tuple("partyId-2", "reference-2", "facilityId-2", "coordinates-2"));
+		assertThat(AffectedCursor.decode(result.next())).isEqualTo(new AffectedCursor(12L));
+
+		verify(disturbanceRepositoryMock).findVersionByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verify(disturbanceRepositoryMock).findAffectedRowsByDisturbanceIdAndIdGreaterThan(1L, "partyId", "facilityId", 10L, Limit.of(3));
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void findLastAffectedsPage() {
+
+		// Arrange
+		final var category = Category.ELECTRICITY;
+		final var disturbanceId = "disturbanceId";
+		final var affectedRows = List.of(new AffectedRow(11L, 1L, "partyId-1", "reference-1", "facilityId-1", "coordinates-1"));
+
+		when(disturbanceRepositoryMock.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(Optional.of(new DisturbanceVersionRow(1L, now(systemDefault()), null)));
+		when(disturbanceRepositoryMock.findAffectedRowsByDisturbanceIdAndIdGreaterThan(anyLong(), any(), any(), anyLong(), any())).thenReturn(affectedRows);
+
+		// Act
+		final var result = disturbanceService.findAffecteds(MUNICIPALITY_ID, category, disturbanceId, null, null, 2, null);
+
+		// Assert
+		assertThat(result.affecteds())
+			.extracting(Affected::getPartyId)
+			.containsExactly("partyId-1");
+		assertThat(result.next()).isNull();
+
+		verify(disturbanceRepositoryMock).findVersionByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verify(disturbanceRepositoryMock).findAffectedRowsByDisturbanceIdAndIdGreaterThan(1L, null, null, 0L, Limit.of(3));
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void findAffectedsWhenDisturbanceNotFound() {
+
+		// Arrange
+		final var category = Category.ELECTRICITY;
+		final var disturbanceId = "disturbanceId";
+
+		when(disturbanceRepositoryMock.findVersionByMunicipalityIdAndCategoryAndDisturbanceId(any(), any(), any())).thenReturn(empty());
+
+		// Act
+		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> disturbanceService.findAffecteds(MUNICIPALITY_ID, category, disturbanceId, null, null, 2, null));
+
+		// Assert
+		assertThat(throwableProblem.getMessage()).isEqualTo("Not Found: No disturbance found for category:'ELECTRICITY' and id:'disturbanceId'!");
+		assertThat(throwableProblem.getStatus()).isEqualTo(NOT_FOUND);
+
+		verify(disturbanceRepositoryMock).findVersionByMunicipalityIdAndCategoryAndDisturbanceId(MUNICIPALITY_ID, category, disturbanceId);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void findAffectedsWithInvalidCursor() {
+
+		// Act
+		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> disturbanceService.findAffecteds(MUNICIPALITY_ID, Category.ELECTRICITY, "disturbanceId", null, null, 2, "invalid-cursor"));
+
+		// Assert
+		assertThat(throwableProblem.getMessage()).isEqualTo("Bad Request: Invalid cursor:'invalid-cursor'!");
+		assertThat(throwableProblem.getStatus()).isEqualTo(BAD_REQUEST);
+
+		verifyNoInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void findSummariesByCategoryAndStatus() {
+
+		// Arrange
+		final var created = now(systemDefault());
+		final var statusFilter = List.of(Status.OPEN);
+		final var categoryFilter = List.of(Category.ELECTRICITY);
+		final var disturbanceSummaryRows = List.of(
+			new DisturbanceSummaryRow(2L, MUNICIPALITY_ID, "disturbanceId2", Category.ELECTRICITY, "title", "description", Status.OPEN, null, null, created, null, 5L));
+
+		when(disturbanceRepositoryMock.findSummariesByMunicipalityIdAndStatusAndCategory(any(), any(), any(), any(), any(), any())).thenReturn(disturbanceSummaryRows);
+
+		// Act
+		final var result = disturbanceService.findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, statusFilter, categoryFilter);
+
+		// Assert
+		assertThat(result)
+			.extracting(Disturbance::getId, Disturbance::getAffectedCount, Disturbance::getAffecteds)
+			.containsExactly(tuple("disturbanceId2", 5, null));
+
+		verify(disturbanceRepositoryMock).findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, statusFilter, categoryFilter, null, null, null);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void findSummaryPageByCategoryAndStatus() {
+
+		// Arrange
+		final var created = LocalDateTime.of(2021, 9, 23, 9, 5, 48).atZone(systemDefault()).toOffsetDateTime();
+		final var cursor = new DisturbanceCursor(created, 1L).encode();
+		final var disturbanceSummaryRows = List.of(
+			new DisturbanceSummaryRow(2L, MUNICIPALITY_ID, "disturbanceId2", Category.ELECTRICITY, null, "description", Status.OPEN, null, null, created, null, 1L),
+			new DisturbanceSummaryRow(3L, MUNICIPALITY_ID, "disturbanceId3", Category.ELECTRICITY, null, "description", Status.OPEN, null, null, created, null, 0L));
+
+		when(disturbanceRepositoryMock.findSummariesByMunicipalityIdAndStatusAndCategory(any(), any(), any(), any(), any(), eq(2))).thenReturn(disturbanceSummaryRows);
+
+		// Act
+		final var result = disturbanceService.findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, 1, cursor);
+
+		// Assert
+		assertThat(result.disturbances())
+			.extracting(Disturbance::getId, Disturbance::getAffectedCount)
+			.containsExactly(tuple("disturbanceId2", 1));
+		assertThat(DisturbanceCursor.decode(result.next())).isEqualTo(new DisturbanceCursor(created, 2L));
+
+		verify(disturbanceRepositoryMock).findSummariesByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, null, null, created, 1L, 2);
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+	}
+
+	@Test
+	void exportByCategoryAndStatus() {
+
+		// Arrange
+		final var statusFilter = List.of(Status.OPEN);
+		final var categoryFilter = List.of(Category.ELECTRICITY);
+		final var disturbanceEntities = createDisturbanceEntities();
+		final var closed = new AtomicBoolean();
+		final var exported = new ArrayList<Disturbance>();
+
+		when(disturbanceRepositoryMock.streamByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, statusFilter, categoryFilter))
+			.thenReturn(disturbanceEntities.stream().onClose(() -> closed.set(true)));
+
+		// Act
+		disturbanceService.exportByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, statusFilter, categoryFilter, exported::add);
+
+		// Assert
+		assertThat(exported)
+			.extracting(Disturbance::getId)
+			.containsExactlyElementsOf(disturbanceEntities.stream().map(DisturbanceEntity::getDisturbanceId).toList());
+		assertThat(closed).isTrue();
+
+		verify(disturbanceRepositoryMock).streamByMunicipalityIdAndStatusAndCategory(MUNICIPALITY_ID, statusFilter, categoryFilter);
+		disturbanceEntities.forEach(disturbanceEntity -> verify(disturbanceRepositoryMock).detach(disturbanceEntity));
+		verifyNoMoreInteractions(disturbanceRepositoryMock);
+		verifyNoInteractions(sendMessageLogicMock);
+	}
+
 	private List<DisturbanceEntity> createDisturbanceEntities() {
 		return List.of(
 			DisturbanceEntity.create()
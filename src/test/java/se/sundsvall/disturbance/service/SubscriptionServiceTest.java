@@ -3,6 +3,7 @@ package se.sundsvall.disturbance.service;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -13,16 +14,22 @@ import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.SubscriptionCreateRequest;
 import se.sundsvall.disturbance.api.model.SubscriptionUpdateRequest;
 import se.sundsvall.disturbance.integration.db.SubscriptionRepository;
+import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.OptOutSettingsEntity;
 import se.sundsvall.disturbance.integration.db.model.SubscriptionEntity;
+import se.sundsvall.disturbance.service.optout.OptOutIndex;
+import se.sundsvall.disturbance.service.optout.OptOutRules;
 
+import static java.util.Collections.emptyList;
 import static java.util.Optional.empty;
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
@@ -35,6 +42,9 @@ class SubscriptionServiceTest {
 	@Mock
 	private SubscriptionRepository subscriptionRepository;
 
+	@Mock
+	private OptOutIndex optOutIndex;
+
 	@InjectMocks
 	private SubscriptionService subscriptionService;
 
@@ -45,9 +55,11 @@ class SubscriptionServiceTest {
 		final var municipalityId = "2281";
 		final var partyId = randomUUID().toString();
 		final var subscriptionCreateRequest = SubscriptionCreateRequest.create().withPartyId(partyId);
-		final var subscriptionEntity = SubscriptionEntity.create();
+		final var subscriptionEntity = SubscriptionEntity.create()
+			.withPartyId(partyId)
+			.withOptOutSettings(List.of(OptOutSettingsEntity.create().withCategory(Category.COMMUNICATION)));
 
-		when(subscriptionRepository.findByMunicipalityIdAndPartyId(any(), any())).thenReturn(empty());
+		when(subscriptionRepository.existsByMunicipalityIdAndPartyId(any(), any())).thenReturn(false);
 		when(subscriptionRepository.save(any())).thenReturn(subscriptionEntity);
 
 		// Act
@@ -56,8 +68,9 @@ class SubscriptionServiceTest {
 		// Assert
 		assertThat(result).isNotNull();
 
-		verify(subscriptionRepository).findByMunicipalityIdAndPartyId(municipalityId, partyId);
+		verify(subscriptionRepository).existsByMunicipalityIdAndPartyId(municipalityId, partyId);
 		verify(subscriptionRepository).save(any(SubscriptionEntity.class));
+		verify(optOutIndex).put(municipalityId, subscriptionEntity.getPartyId(), subscriptionEntity.getOptOutSettings());
 	}
 
 	@Test
@@ -68,7 +81,7 @@ class SubscriptionServiceTest {
 		final var partyId = randomUUID().toString();
 		final var subscriptionCreateRequest = SubscriptionCreateRequest.create().withPartyId(partyId);
 
-		when(subscriptionRepository.findByMunicipalityIdAndPartyId(any(), any())).thenReturn(Optional.of(SubscriptionEntity.create()));
+		when(subscriptionRepository.existsByMunicipalityIdAndPartyId(any(), any())).thenReturn(true);
 
 		// Act
 		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> subscriptionService.create(municipalityId, subscriptionCreateRequest));
@@ -78,8 +91,9 @@ class SubscriptionServiceTest {
 		assertThat(throwableProblem.getMessage()).isEqualTo("Conflict: A subscription entity for partyId:'%s' already exists!".formatted(partyId));
 		assertThat(throwableProblem.getStatus()).isEqualTo(CONFLICT);
 
-		verify(subscriptionRepository).findByMunicipalityIdAndPartyId(municipalityId, partyId);
+		verify(subscriptionRepository).existsByMunicipalityIdAndPartyId(municipalityId, partyId);
 		verify(subscriptionRepository, never()).save(any());
+		verifyNoInteractions(optOutIndex);
 	}
 
 	@Test
@@ -173,7 +187,7 @@ class SubscriptionServiceTest {
 		// Arrange
 		final var id = 1L;
 		final var municipalityId = "2281";
-		final var entity = SubscriptionEntity.create();
+		final var entity = SubscriptionEntity.create().withPartyId(randomUUID().toString());
 
 		when(subscriptionRepository.findByMunicipalityIdAndId(municipalityId, id)).thenReturn(Optional.of(entity));
 
@@ -183,6 +197,7 @@ class SubscriptionServiceTest {
 		// Assert
 		verify(subscriptionRepository).findByMunicipalityIdAndId(municipalityId, id);
 		verify(subscriptionRepository).delete(entity);
+		verify(optOutIndex).remove(municipalityId, entity.getPartyId());
 	}
 
 	@Test
@@ -229,6 +244,7 @@ class SubscriptionServiceTest {
 
 		verify(subscriptionRepository).findByMunicipalityIdAndId(municipalityId, id);
 		verify(subscriptionRepository).save(any(SubscriptionEntity.class));
+		verify(optOutIndex).put(municipalityId, subscriptionEntity.getPartyId(), subscriptionEntity.getOptOutSettings());
 	}
 
 	@Test
@@ -254,186 +270,50 @@ class SubscriptionServiceTest {
 	}
 
 	@Test
-	void hasApplicableSubscription() {
+	void getApplicableAffecteds() {
 
 		// Arrange
-		final var partyId = randomUUID().toString();
 		final var municipalityId = "2281";
-		final var subscriptionEntity = SubscriptionEntity.create()
-			.withPartyId(partyId);
-
-		when(subscriptionRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId)).thenReturn(Optional.of(subscriptionEntity));
+		final var partyIdWithSubscription = randomUUID().toString();
+		final var partyIdWithCategoryOptOut = randomUUID().toString();
+		final var partyIdWithFacilityOptOut = randomUUID().toString();
+		final var partyIdWithoutSubscription = randomUUID().toString();
+		final var affectedWithSubscription = AffectedEntity.create().withPartyId(partyIdWithSubscription).withFacilityId("facility-1");
+		final var affectedWithCategoryOptOut = AffectedEntity.create().withPartyId(partyIdWithCategoryOptOut).withFacilityId("facility-2");
+		final var affectedWithFacilityOptOut = AffectedEntity.create().withPartyId(partyIdWithFacilityOptOut).withFacilityId("facility-3");
+		final var affectedWithOtherFacility = AffectedEntity.create().withPartyId(partyIdWithFacilityOptOut).withFacilityId("facility-4");
+		final var affectedWithoutSubscription = AffectedEntity.create().withPartyId(partyIdWithoutSubscription).withFacilityId("facility-5");
+		final var affectedWithoutPartyId = AffectedEntity.create().withFacilityId("facility-6");
+		final var affectedEntities = List.of(affectedWithSubscription, affectedWithCategoryOptOut, affectedWithFacilityOptOut, affectedWithOtherFacility, affectedWithoutSubscription, affectedWithoutPartyId);
+
+		when(optOutIndex.getOptOutRules(eq(municipalityId), any())).thenReturn(Map.of(
+			partyIdWithSubscription, OptOutRules.compile(emptyList()),
+			partyIdWithCategoryOptOut, OptOutRules.compile(List.of(OptOutSettingsEntity.create().withCategory(ELECTRICITY))),
+			partyIdWithFacilityOptOut, OptOutRules.compile(List.of(
+				OptOutSettingsEntity.create().withCategory(ELECTRICITY).withOptOuts(Map.of("facilityId", "facility-3")),
+				OptOutSettingsEntity.create().withCategory(DISTRICT_COOLING)))));
 
 		// Act
-		final var result = subscriptionService.hasApplicableSubscription(municipalityId, partyId, ELECTRICITY, "some-facilityId");
+		final var result = subscriptionService.getApplicableAffecteds(municipalityId, ELECTRICITY, affectedEntities);
 
 		// Assert
-		assertThat(result).isTrue();
+		assertThat(result.affecteds()).containsExactly(affectedWithSubscription, affectedWithOtherFacility);
+		assertThat(result.optedOut()).isEqualTo(2);
 
-		verify(subscriptionRepository).findByMunicipalityIdAndPartyId(municipalityId, partyId);
+		verify(optOutIndex).getOptOutRules(municipalityId, Set.of(partyIdWithSubscription, partyIdWithCategoryOptOut, partyIdWithFacilityOptOut, partyIdWithoutSubscription));
+		verifyNoInteractions(subscriptionRepository);
 	}
 
 	@Test
-	void hasApplicableSubscriptionWithNoMatchingCategoryOptOut() {
-
-		// Arrange
-		final var partyId = randomUUID().toString();
-		final var municipalityId = "2281";
-		final var subscriptionEntity = SubscriptionEntity.create()
-			.withPartyId(partyId)
-			.withOptOutSettings(List.of(OptOutSettingsEntity.create()
-				.withCategory(DISTRICT_COOLING)));
-
-		when(subscriptionRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId)).thenReturn(Optional.of(subscriptionEntity));
+	void getApplicableAffectedsWithEmptyList() {
 
 		// Act
-		final var result = subscriptionService.hasApplicableSubscription(municipalityId, partyId, ELECTRICITY, "some-facilityId");
+		final var result = subscriptionService.getApplicableAffecteds("2281", ELECTRICITY, List.of());
 
 		// Assert
-		assertThat(result).isTrue();
-
-		verify(subscriptionRepository).findByMunicipalityIdAndPartyId(municipalityId, partyId);
-	}
-
-	@Test
-	void hasApplicableSubscriptionWithNoMatchingCategoryAndFacilityIdOptOut() {
-
-		// Arrange
-		final var partyId = randomUUID().toString();
-		final var municipalityId = "2281";
-		final var subscriptionEntity = SubscriptionEntity.create()
-			.withPartyId(partyId)
-			.withOptOutSettings(List.of(OptOutSettingsEntity.create()
-				.withCategory(DISTRICT_COOLING)
-				.withOptOuts(Map.of("facilityId", "12345"))));
+		assertThat(result.affecteds()).isEmpty();
+		assertThat(result.optedOut()).isZero();
 
-		when(subscriptionRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId)).thenReturn(Optional.of(subscriptionEntity));
-
-		// Act
-		final var result = subscriptionService.hasApplicableSubscription(municipalityId, partyId, ELECTRICITY, "some-facilityId");
-
-		// Assert
-		assertThat(result).isTrue();
-
-		verify(subscriptionRepository).findByMunicipalityIdAndPartyId(municipalityId, partyId);
-	}
-
-	@Test
-	void hasApplicableSubscriptionWithNoSubscription() {
-
-		// Arrange
-		final var partyId = randomUUID().toString();
-		final var municipalityId = "2281";
-
-		when(subscriptionRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId)).thenReturn(empty());
-
-		// Act
-		final var result = subscriptionService.hasApplicableSubscription(municipalityId, partyId, DISTRICT_COOLING, "some-facilityId");
-
-		// Assert
-		assertThat(result).isFalse();
-
-		verify(subscriptionRepository).findByMunicipalityIdAndPartyId(municipalityId, partyId);
-	}
-
-	@Test
-	void hasApplicableSubscriptionWithMatchingCategoryOptOut() {
-
-		// Arrange
-		final var partyId = randomUUID().toString();
-		final var municipalityId = "2281";
-		final var subscriptionEntity = SubscriptionEntity.create()
-			.withPartyId(partyId)
-			.withOptOutSettings(List.of(OptOutSettingsEntity.create()
-				.withCategory(DISTRICT_COOLING)));
-
-		when(subscriptionRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId)).thenReturn(Optional.of(subscriptionEntity));
-
-		// Act
-		final var result = subscriptionService.hasApplicableSubscription(municipalityId, partyId, DISTRICT_COOLING, "some-facilityId");
-
-		// Assert
-		assertThat(result).isFalse();
-
-		verify(subscriptionRepository).findByMunicipalityIdAndPartyId(municipalityId, partyId);
-	}
-
-	@Test
-	void hasApplicableSubscriptionWithMatchingCategoryAndFacilityIdOptOut() {
-
-		// Arrange
-		final var partyId = randomUUID().toString();
-		final var municipalityId = "2281";
-		final var subscriptionEntity = SubscriptionEntity.create()
-			.withPartyId(partyId)
-			.withOptOutSettings(List.of(OptOutSettingsEntity.create()
-				.withCategory(DISTRICT_COOLING)
-				.withOptOuts(Map.of("facilityId", "12345"))));
-
-		when(subscriptionRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId)).thenReturn(Optional.of(subscriptionEntity));
-
-		// Act
-		final var result = subscriptionService.hasApplicableSubscription(municipalityId, partyId, DISTRICT_COOLING, "12345");
-
-		// Assert
-		assertThat(result).isFalse();
-
-		verify(subscriptionRepository).findByMunicipalityIdAndPartyId(municipalityId, partyId);
-	}
-
-	@Test
-	void hasApplicableSubscriptionWithAllMatchingOptOutsPlusSomeMorePropertiesThatDoesNotMatch() {
-
-		// Arrange
-		final var partyId = randomUUID().toString();
-		final var municipalityId = "2281";
-		final var subscriptionEntity = SubscriptionEntity.create()
-			.withPartyId(partyId)
-			.withOptOutSettings(List.of(
-				OptOutSettingsEntity.create()
-					.withCategory(DISTRICT_COOLING)
-					.withOptOuts(Map.of(
-						"facilityId", "12345",
-						"property1", "value1",
-						"property2", "value2"))));
-
-		when(subscriptionRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId)).thenReturn(Optional.of(subscriptionEntity));
-
-		// Act
-		final var result = subscriptionService.hasApplicableSubscription(municipalityId, partyId, DISTRICT_COOLING, "12345");
-
-		// Assert
-		assertThat(result).isTrue();
-
-		verify(subscriptionRepository).findByMunicipalityIdAndPartyId(municipalityId, partyId);
-	}
-
-	@Test
-	void hasApplicableSubscriptionWithOneMatchingOptOutAndOneNoMatchingOptOut() {
-
-		// Arrange
-		final var partyId = randomUUID().toString();
-		final var municipalityId = "2281";
-		final var subscriptionEntity = SubscriptionEntity.create()
-			.withPartyId(partyId)
-			.withOptOutSettings(List.of(
-				OptOutSettingsEntity.create()
-					.withCategory(DISTRICT_COOLING)
-					.withOptOuts(Map.of(
-						"facilityId", "12345")),
-				OptOutSettingsEntity.create()
-					.withCategory(DISTRICT_COOLING)
-					.withOptOuts(Map.of(
-						"facilityId", "67890"))));
-
-		when(subscriptionRepository.findByMunicipalityIdAndPartyId(municipalityId, partyId)).thenReturn(Optional.of(subscriptionEntity));
-
-		// Act
-		final var result = subscriptionService.hasApplicableSubscription(municipalityId, partyId, DISTRICT_COOLING, "12345");
-
-		// Assert
-		assertThat(result).isFalse();
-
-		verify(subscriptionRepository).findByMunicipalityIdAndPartyId(municipalityId, partyId);
+		verifyNoInteractions(optOutIndex, subscriptionRepository);
 	}
 }
@@ -0,0 +1,180 @@
+package se.sundsvall.disturbance.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.disturbance.api.model.Disturbance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+import static se.sundsvall.disturbance.api.model.Category.WATER;
+import static se.sundsvall.disturbance.service.cache.DisturbanceCache.CACHE_NAME;
+
+@ExtendWith(MockitoExtension.class)
+class DisturbanceCacheTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String DISTURBANCE_ID = "disturbanceId";
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Mock
+	private Supplier<Disturbance> loaderMock;
+
+	private DisturbanceCache disturbanceCache;
+
+	@BeforeEach
+	void setup() {
+		disturbanceCache = new DisturbanceCache(new DisturbanceCacheProperties(1000, Duration.ofMinutes(1)), meterRegistry);
+	}
+
+	@AfterEach
+	void cleanup() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void get() {
+
+		// Arrange
+		final var disturbance = Disturbance.create().withId(DISTURBANCE_ID);
+		when(loaderMock.get()).thenReturn(disturbance);
+
+		// Act
+		final var first = disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+		final var second = disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+
+		// Assert
+		assertThat(first).isSameAs(disturbance);
+		assertThat(second).isSameAs(disturbance);
+		verify(loaderMock).get();
+
+		assertThat(meterRegistry.get("cache.gets").tags("cache", CACHE_NAME, "result", "hit").functionCounter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("cache.gets").tags("cache", CACHE_NAME, "result", "miss").functionCounter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void reload() {
+
+		// Arrange
+		final var stale = Disturbance.create().withId(DISTURBANCE_ID);
+		final var fresh = Disturbance.create().withId(DISTURBANCE_ID);
+		when(loaderMock.get()).thenReturn(stale, fresh);
+		disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+
+		// Act
+		final var reloaded = disturbanceCache.reload(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+		final var cached = disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+
+		// Assert
+		assertThat(reloaded).isSameAs(fresh);
+		assertThat(cached).isSameAs(fresh);
+		verify(loaderMock, times(2)).get();
+	}
+
+	@Test
+	void getWithOtherKey() {
+
+		// Arrange
+		when(loaderMock.get()).thenReturn(Disturbance.create().withId(DISTURBANCE_ID));
+
+		// Act
+		disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+		disturbanceCache.get(MUNICIPALITY_ID, WATER, DISTURBANCE_ID, loaderMock);
+		disturbanceCache.get("2260", ELECTRICITY, DISTURBANCE_ID, loaderMock);
+
+		// Assert
+		verify(loaderMock, times(3)).get();
+	}
+
+	@Test
+	void getWhenLoaderThrows() {
+
+		// Arrange
+		when(loaderMock.get()).thenThrow(Problem.valueOf(NOT_FOUND, "Not found"));
+
+		// Act
+		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock));
+
+		// Assert
+		assertThat(throwableProblem.getStatus()).isEqualTo(NOT_FOUND);
+		assertThrows(ThrowableProblem.class, () -> disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock));
+		verify(loaderMock, times(2)).get();
+	}
+
+	@Test
+	void invalidate() {
+
+		// Arrange
+		when(loaderMock.get()).thenReturn(Disturbance.create().withId(DISTURBANCE_ID));
+		disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+
+		// Act
+		disturbanceCache.invalidate(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID);
+
+		// Assert
+		disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+		verify(loaderMock, times(2)).get();
+	}
+
+	@Test
+	void invalidateWithinTransaction() {
+
+		// Arrange
+		when(loaderMock.get()).thenReturn(Disturbance.create().withId(DISTURBANCE_ID));
+		disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+		TransactionSynchronizationManager.initSynchronization();
+
+		// Act
+		disturbanceCache.invalidate(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID);
+
+		// Assert
+		final var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		assertThat(synchronizations).hasSize(1);
+		TransactionSynchronizationManager.clearSynchronization();
+
+		// Not invalidated before commit.
+		disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+		verify(loaderMock).get();
+
+		TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+
+		disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+		verify(loaderMock, times(2)).get();
+	}
+
+	@Test
+	void invalidateAll() {
+
+		// Arrange
+		when(loaderMock.get()).thenReturn(Disturbance.create().withId(DISTURBANCE_ID));
+		disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+		disturbanceCache.get(MUNICIPALITY_ID, WATER, DISTURBANCE_ID, loaderMock);
+
+		// Act
+		disturbanceCache.invalidateAll();
+
+		// Assert
+		disturbanceCache.get(MUNICIPALITY_ID, ELECTRICITY, DISTURBANCE_ID, loaderMock);
+		disturbanceCache.get(MUNICIPALITY_ID, WATER, DISTURBANCE_ID, loaderMock);
+		verify(loaderMock, times(4)).get();
+	}
+}
@@ -0,0 +1,81 @@
+package se.sundsvall.disturbance.service.conditional;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.disturbance.api.model.Disturbance;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceChangeCounterEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceVersionRow;
+
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DisturbanceETagTest {
+
+	private static final OffsetDateTime CREATED = LocalDateTime.of(2021, 9, 23, 9, 5, 48, 198_000_000).atZone(systemDefault()).toOffsetDateTime();
+
+	@Test
+	void ofDisturbanceVersionRow() {
+
+		// Arrange
+		final var updated = CREATED.plusHours(1);
+
+		// Act
+		final var eTag = DisturbanceETag.of(new DisturbanceVersionRow(42L, CREATED, updated));
+
+		// Assert
+		assertThat(eTag.value()).isEqualTo(CREATED.toInstant().toEpochMilli() + "-" + updated.toInstant().toEpochMilli());
+		assertThat(eTag.lastModified()).isEqualTo(updated);
+		assertThat(eTag.lastModifiedMillis()).isEqualTo(updated.toInstant().toEpochMilli());
+	}
+
+	@Test
+	void ofDisturbanceVersionRowNeverUpdated() {
+
+		// Act
+		final var eTag = DisturbanceETag.of(new DisturbanceVersionRow(42L, CREATED, null));
+
+		// Assert
+		assertThat(eTag.value()).isEqualTo(CREATED.toInstant().toEpochMilli() + "-0");
+		assertThat(eTag.lastModified()).isEqualTo(CREATED);
+	}
+
+	@Test
+	void ofDisturbanceVersionRowWithoutTimestamps() {
+
+		// Act
+		final var eTag = DisturbanceETag.of(new DisturbanceVersionRow(42L, null, null));
+
+		// Assert
+		assertThat(eTag.value()).isEqualTo("0-0");
+		assertThat(eTag.lastModifiedMillis()).isEqualTo(-1);
+	}
+
+	@Test
+	void ofDisturbance() {
+
+		// Arrange
+		final var updated = CREATED.plusHours(1);
+
+		// Act
+		final var eTag = DisturbanceETag.of(Disturbance.create().withCreated(CREATED).withUpdated(updated));
+
+		// Assert
+		assertThat(eTag).isEqualTo(DisturbanceETag.of(new DisturbanceVersionRow(42L, CREATED, updated)));
+	}
+
+	@Test
+	void ofDisturbanceChangeCounterEntity() {
+
+		// Act
+		final var eTag = DisturbanceETag.of(DisturbanceChangeCounterEntity.create().withMunicipalityId("2281").withVersion(7L).withModified(CREATED));
+
+		// Assert
+		assertThat(eTag).isEqualTo(new DisturbanceETag("7", CREATED));
+	}
+
+	@Test
+	void initial() {
+		assertThat(DisturbanceETag.initial()).isEqualTo(new DisturbanceETag("0", null));
+	}
+}
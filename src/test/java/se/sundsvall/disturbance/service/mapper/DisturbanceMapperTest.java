@@ -11,7 +11,11 @@ import se.sundsvall.disturbance.api.model.DisturbanceCreateRequest;
 import se.sundsvall.disturbance.api.model.DisturbanceUpdateRequest;
 import se.sundsvall.disturbance.api.model.Status;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
+import se.sundsvall.disturbance.integration.db.model.AffectedRow;
+import se.sundsvall.disturbance.integration.db.model.ArchivedAffected;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceSummaryRow;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.ZoneId.systemDefault;
@@ -65,6 +69,158 @@ class DisturbanceMapperTest {
 				tuple("facilityId-2", "coordinate-2", "partyId-2", "reference-2"));
 	}
 
+	@Test
+	void toDisturbancesWithAffectedRows() {
+
+		final var disturbanceEntity1 = DisturbanceEntity.create()
+			.withId(1L)
+			.withDisturbanceId("disturbanceId-1")
+			.withCategory(Category.COMMUNICATION)
+			.withStatus(Status.OPEN)
+			.withAffectedEntities(List.of(AffectedEntity.create().withPartyId("partyId-2")));
+
+		final var disturbanceEntity2 = DisturbanceEntity.create()
+			.withId(2L)
+			.withDisturbanceId("disturbanceId-2")
+			.withCategory(Category.ELECTRICITY)
+			.withStatus(Status.PLANNED);
+
+		final var affectedRows = List.of(
+			new AffectedRow(10L, 1L, "partyId-1", "reference-1", "facilityId-1", "coordinate-1"),
+			new AffectedRow(11L, 1L, "partyId-1", "reference-2", "facilityId-2", "coordinate-2"));
+
+		final var disturbances = DisturbanceMapper.toDisturbances(List.of(disturbanceEntity1, disturbanceEntity2), affectedRows);
+
+		assertThat(disturbances).hasSize(2);
+		assertThat(disturbances.get(0).getId()).isEqualTo("disturbanceId-1");
+		assertThat(disturbances.get(0).getCategory()).isEqualByComparingTo(Category.COMMUNICATION);
+		assertThat(disturbances.get(0).getStatus()).isEqualByComparingTo(Status.OPEN);
+		assertThat(disturbances.get(0).getAffecteds())
+			.extracting(Affected::getFacilityId, Affected::getCoordinates, Affected::getPartyId, Affected::getReference)
+			.containsExactly(
+				tuple("facilityId-1", "coordinate-1", "partyId-1", "reference-1"),
+				tuple("facilityId-2", "coordinate-2", "partyId-1", "reference-2"));
+		assertThat(disturbances.get(1).getId()).isEqualTo("disturbanceId-2");
+		assertThat(disturbances.get(1).getAffecteds()).isEmpty();
+	}
+
+	@Test
+	void toDisturbanceFromSummaryRow() {
+
+		final var plannedStartDate = now(systemDefault()).plusDays(1);
+		final var plannedStopDate = now(systemDefault()).plusDays(2);
+		final var created = now(systemDefault());
+		final var updated = now(systemDefault()).plusHours(1);
+
+		final var disturbanceSummaryRow = new DisturbanceSummaryRow(1L, "2281", "disturbanceId", Category.COMMUNICATION, "title", "description", Status.OPEN,
+			plannedStartDate, plannedStopDate, created, updated, 42L);
+
+		final var disturbance = DisturbanceMapper.toDisturbance(disturbanceSummaryRow);
+
+		assertThat(disturbance.getMunicipalityId()).isEqualTo("2281");
+		assertThat(disturbance.getCategory()).isEqualByComparingTo(Category.COMMUNICATION);
+		assertThat(disturbance.getId()).isEqualTo("disturbanceId");
+		assertThat(disturbance.getTitle()).isEqualTo("title");
+		assertThat(disturbance.getDescription()).isEqualTo("description");
+		assertThat(disturbance.getStatus()).isEqualByComparingTo(Status.OPEN);
+		assertThat(disturbance.getPlannedStartDate()).isEqualTo(plannedStartDate);
+		assertThat(disturbance.getPlannedStopDate()).isEqualTo(plannedStopDate);
+		assertThat(disturbance.getCreated()).isEqualTo(created);
+		assertThat(disturbance.getUpdated()).isEqualTo(updated);
+		assertThat(disturbance.getAffectedCount()).isEqualTo(42);
+		assertThat(disturbance.getAffecteds()).isNull();
+	}
+
+	@Test
+	void toDisturbanceFromArchiveEntity() {
+
+		final var plannedStartDate = now(systemDefault()).plusDays(1);
+		final var plannedStopDate = now(systemDefault()).plusDays(2);
+		final var created = now(systemDefault());
+		final var updated = now(systemDefault()).plusHours(1);
+
+		final var disturbanceArchiveEntity = DisturbanceArchiveEntity.create()
+			.withId(1L)
+			.withMunicipalityId("2281")
+			.withDisturbanceId("disturbanceId")
+			.withCategory(Category.COMMUNICATION)
+			.withTitle("title")
+			.withDescription("description")
+			.withStatus(Status.CLOSED)
+			.withPlannedStartDate(plannedStartDate)
+			.withPlannedStopDate(plannedStopDate)
+			.withCreated(created)
+			.withUpdated(updated)
+			.withArchived(updated.plusYears(2))
+			.withAffectedCount(2)
+			.withAffecteds(List.of(
+				new ArchivedAffected("partyId-1", "reference-1", "facilityId-1", "coordinate-1"),
+				new ArchivedAffected("partyId-2", "reference-2", null, null)));
+
+		final var disturbance = DisturbanceMapper.toDisturbance(disturbanceArchiveEntity);
+
+		assertThat(disturbance.getMunicipalityId()).isEqualTo("2281");
+		assertThat(disturbance.getCategory()).isEqualByComparingTo(Category.COMMUNICATION);
+		assertThat(disturbance.getId()).isEqualTo("disturbanceId");
+		assertThat(disturbance.getTitle()).isEqualTo("title");
+		assertThat(disturbance.getDescription()).isEqualTo("description");
+		assertThat(disturbance.getStatus()).isEqualByComparingTo(Status.CLOSED);
+		assertThat(disturbance.getPlannedStartDate()).isEqualTo(plannedStartDate);
+		assertThat(disturbance.getPlannedStopDate()).isEqualTo(plannedStopDate);
+		assertThat(disturbance.getCreated()).isEqualTo(created);
+		assertThat(disturbance.getUpdated()).isEqualTo(updated);
+		assertThat(disturbance.getAffecteds())
+			.extracting(Affected::getFacilityId, Affected::getCoordinates, Affected::getPartyId, Affected::getReference)
+			.containsExactly(
+				tuple("facilityId-1", "coordinate-1", "partyId-1", "reference-1"),
+				tuple(null, null, "partyId-2", "reference-2"));
+	}
+
+	@Test
+	void toDisturbanceArchiveEntity() {
+
+		final var plannedStartDate = now(systemDefault()).minusYears(2);
+		final var plannedStopDate = now(systemDefault()).minusYears(2).plusDays(1);
+		final var created = now(systemDefault()).minusYears(2).minusDays(1);
+		final var updated = now(systemDefault()).minusYears(2).plusDays(2);
+		final var archived = now(systemDefault());
+
+		final var disturbanceEntity = DisturbanceEntity.create()
+			.withId(1L)
+			.withMunicipalityId("2281")
+			.withDisturbanceId("disturbanceId")
+			.withCategory(Category.COMMUNICATION)
+			.withTitle("title")
+			.withDescription("description")
+			.withStatus(Status.CLOSED)
+			.withPlannedStartDate(plannedStartDate)
+			.withPlannedStopDate(plannedStopDate)
+			.withCreated(created)
+			.withUpdated(updated)
+			.withAffectedEntities(List.of(
+				AffectedEntity.create().withPartyId("partyId-1").withReference("reference-1").withFacilityId("facilityId-1").withCoordinates("coordinate-1"),
+				AffectedEntity.create().withPartyId("partyId-2").withReference("reference-2")));
+
+		final var disturbanceArchiveEntity = DisturbanceMapper.toDisturbanceArchiveEntity(disturbanceEntity, archived);
+
+		assertThat(disturbanceArchiveEntity.getId()).isZero();
+		assertThat(disturbanceArchiveEntity.getMunicipalityId()).isEqualTo("2281");
+		assertThat(disturbanceArchiveEntity.getDisturbanceId()).isEqualTo("disturbanceId");
+		assertThat(disturbanceArchiveEntity.getCategory()).isEqualByComparingTo(Category.COMMUNICATION);
+		assertThat(disturbanceArchiveEntity.getTitle()).isEqualTo("title");
+		assertThat(disturbanceArchiveEntity.getDescription()).isEqualTo("description");
+		assertThat(disturbanceArchiveEntity.getStatus()).isEqualByComparingTo(Status.CLOSED);
+		assertThat(disturbanceArchiveEntity.getPlannedStartDate()).isEqualTo(plannedStartDate);
+		assertThat(disturbanceArchiveEntity.getPlannedStopDate()).isEqualTo(plannedStopDate);
+		assertThat(disturbanceArchiveEntity.getCreated()).isEqualTo(created);
+		assertThat(disturbanceArchiveEntity.getUpdated()).isEqualTo(updated);
+		assertThat(disturbanceArchiveEntity.getArchived()).isEqualTo(archived);
+		assertThat(disturbanceArchiveEntity.getAffectedCount()).isEqualTo(2);
+		assertThat(disturbanceArchiveEntity.getAffecteds()).containsExactly(
+			new ArchivedAffected("partyId-1", "reference-1", "facilityId-1", "coordinate-1"),
+			new ArchivedAffected("partyId-2", "reference-2", null, null));
+	}
+
 	@Test
 	void toDisturbanceEntityFromDisturbanceCreateRequest() {
 
@@ -221,7 +377,7 @@ class DisturbanceMapperTest {
 		assertThat(mergedDisturbanceEntity.getPlannedStopDate()).isEqualTo(newEntity.getPlannedStopDate());
 		assertThat(mergedDisturbanceEntity.getStatus()).isEqualTo(newEntity.getStatus());
 		assertThat(mergedDisturbanceEntity.getTitle()).isEqualTo(newEntity.getTitle());
-		assertThat(mergedDisturbanceEntity.getUpdated()).isEqualTo(oldEntity.getUpdated());
+		assertThat(mergedDisturbanceEntity.getUpdated()).isCloseTo(now(systemDefault()), within(2, SECONDS)); // Changed, since the affecteds are changed.
 	}
 
 	@Test
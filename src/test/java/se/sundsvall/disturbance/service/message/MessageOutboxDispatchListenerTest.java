@@ -0,0 +1,118 @@
+package se.sundsvall.disturbance.service.message;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.disturbance.scheduler.MessageOutboxSchedulerProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessageOutboxDispatchListenerTest {
+
+	private static final int BATCH_SIZE = 10;
+	private static final MessagesEnqueuedEvent EVENT = new MessagesEnqueuedEvent("2281", "batchId", 1, 1);
+
+	@Mock
+	private MessageOutboxDispatcher messageOutboxDispatcherMock;
+
+	@Mock
+	private MessageOutboxSchedulerProperties propertiesMock;
+
+	private MessageOutboxDispatchListener messageOutboxDispatchListener;
+
+	@AfterEach
+	void cleanup() {
+		if (messageOutboxDispatchListener != null) {
+			messageOutboxDispatchListener.close();
+		}
+	}
+
+	@Test
+	void onMessagesEnqueued() {
+
+		// Arrange
+		when(propertiesMock.batchSize()).thenReturn(BATCH_SIZE);
+		when(messageOutboxDispatcherMock.dispatch()).thenReturn(BATCH_SIZE, 1);
+		messageOutboxDispatchListener = new MessageOutboxDispatchListener(messageOutboxDispatcherMock, propertiesMock);
+
+		// Act
+		messageOutboxDispatchListener.onMessagesEnqueued(EVENT);
+
+		// Assert
+		verify(messageOutboxDispatcherMock, timeout(5000).times(2)).dispatch();
+		messageOutboxDispatchListener.close();
+		verifyNoMoreInteractions(messageOutboxDispatcherMock);
+	}
+
+	@Test
+	void onMessagesEnqueuedWhileDispatching() throws InterruptedException {
+
+		// Arrange
+		final var dispatching = new CountDownLatch(1);
+		final var proceed = new CountDownLatch(1);
+		when(propertiesMock.batchSize()).thenReturn(BATCH_SIZE);
+		when(messageOutboxDispatcherMock.dispatch()).thenAnswer(invocation -> {
+			dispatching.countDown();
+			proceed.await(5, TimeUnit.SECONDS);
+			return 1;
+		});
+		messageOutboxDispatchListener = new MessageOutboxDispatchListener(messageOutboxDispatcherMock, propertiesMock);
+
+		// Act
+		messageOutboxDispatchListener.onMessagesEnqueued(EVENT);
+		assertThat(dispatching.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// Events that arrive while dispatching are coalesced into one more dispatch.
+		messageOutboxDispatchListener.onMessagesEnqueued(EVENT);
+		messageOutboxDispatchListener.onMessagesEnqueued(EVENT);
+		proceed.countDown();
+
+		// Assert
+		verify(messageOutboxDispatcherMock, timeout(5000).times(2)).dispatch();
+		messageOutboxDispatchListener.close();
+		verifyNoMoreInteractions(messageOutboxDispatcherMock);
+	}
+
+	@Test
+	void onMessagesEnqueuedWhenDispatchFails() {
+
+		// Arrange
+		when(propertiesMock.batchSize()).thenReturn(BATCH_SIZE);
+		when(messageOutboxDispatcherMock.dispatch()).thenThrow(new IllegalStateException("Database unavailable")).thenReturn(0);
+		messageOutboxDispatchListener = new MessageOutboxDispatchListener(messageOutboxDispatcherMock, propertiesMock);
+
+		// Act
+		messageOutboxDispatchListener.onMessagesEnqueued(EVENT);
+		verify(messageOutboxDispatcherMock, timeout(5000)).dispatch();
+		messageOutboxDispatchListener.onMessagesEnqueued(EVENT);
+
+		// Assert
+		verify(messageOutboxDispatcherMock, timeout(5000).times(2)).dispatch();
+	}
+
+	@Test
+	void onMessagesEnqueuedWithSynchronousDispatch() {
+
+		// Arrange
+		when(propertiesMock.synchronousDispatchOnCommit()).thenReturn(true);
+		when(propertiesMock.batchSize()).thenReturn(BATCH_SIZE);
+		when(messageOutboxDispatcherMock.dispatch()).thenReturn(1);
+		messageOutboxDispatchListener = new MessageOutboxDispatchListener(messageOutboxDispatcherMock, propertiesMock);
+
+		// Act
+		messageOutboxDispatchListener.onMessagesEnqueued(EVENT);
+
+		// Assert
+		verify(messageOutboxDispatcherMock, times(1)).dispatch();
+	}
+}
@@ -0,0 +1,371 @@
+package se.sundsvall.disturbance.service.message;
+
+import generated.se.sundsvall.messaging.Message;
+import generated.se.sundsvall.messaging.MessageRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.integration.messaging.MessagingClient;
+import se.sundsvall.disturbance.scheduler.MessageOutboxSchedulerProperties;
+import se.sundsvall.disturbance.service.message.limiter.MessagingLimiter;
+import tools.jackson.databind.json.JsonMapper;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.api.model.Category.COMMUNICATION;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.DEAD;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.IN_FLIGHT;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.PENDING;
+import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toParty;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.METRIC_CHUNK;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.METRIC_MESSAGES;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.OUTCOME_FAILURE;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.OUTCOME_SUCCESS;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.TAG_CATEGORY;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.TAG_MUNICIPALITY;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.TAG_OUTCOME;
+import static se.sundsvall.disturbance.service.message.MessageOutboxDispatcher.TAG_TYPE;
+import static se.sundsvall.disturbance.service.message.template.MessageType.UPDATE;
+
+@ExtendWith(MockitoExtension.class)
+class MessageOutboxDispatcherTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final int BATCH_SIZE = 100;
+	private static final int MAX_ATTEMPTS = 3;
+	private static final int CHUNK_SIZE = 2;
+	private static final int MAX_CONCURRENT_CHUNKS = 2;
+	private static final Duration LEASE = Duration.ofMinutes(5);
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Mock
+	private MessageOutboxRepository messageOutboxRepositoryMock;
+
+	@Mock
+	private MessagingClient messagingClientMock;
+
+	@Mock
+	private MessagingLimiter messagingLimiterMock;
+
+	@Mock
+	private MessagingLimiter.Permit permitMock;
+
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
+
+	@Captor
+	private ArgumentCaptor<MessageRequest> messageRequestCaptor;
+
+	@Captor
+	private ArgumentCaptor<List<MessageOutboxEntity>> entitiesCaptor;
+
+	private final AtomicLong ids = new AtomicLong();
+
+	private MessageOutboxDispatcher messageOutboxDispatcher;
+
+	@BeforeEach
+	void setup() {
+		final var properties = new MessageOutboxSchedulerProperties(BATCH_SIZE, MAX_ATTEMPTS, Duration.ofMinutes(1), Duration.ofMinutes(10), LEASE, CHUNK_SIZE, MAX_CONCURRENT_CHUNKS, false, false);
+		messageOutboxDispatcher = new MessageOutboxDispatcher(messageOutboxRepositoryMock, messagingClientMock, properties, jsonMapper, meterRegistry, messagingLimiterMock, transactionManagerMock);
+	}
+
+	@Test
+	void dispatch() {
+
+		// Arrange
+		final var message1 = createMessage("subject-1");
+		final var message2 = createMessage("subject-2");
+		final var message3 = createMessage("subject-3");
+		final var entity1 = createEntity("batch-1", List.of(message1, message3), 0);
+		final var entity2 = createEntity("batch-2", List.of(message2), 0);
+
+		when(messageOutboxRepositoryMock.findDueForUpdate(any(), eq(BATCH_SIZE))).thenReturn(List.of(entity1, entity2));
+		when(messagingLimiterMock.acquire(MUNICIPALITY_ID)).thenReturn(permitMock);
+
+		// Act
+		final var result = messageOutboxDispatcher.dispatch();
+
+		// Assert
+		assertThat(result).isEqualTo(2);
+
+		verify(messagingClientMock, times(2)).sendMessage(eq(MUNICIPALITY_ID), messageRequestCaptor.capture());
+		verify(messageOutboxRepositoryMock).findDueForUpdate(any(), eq(BATCH_SIZE));
+		verify(messageOutboxRepositoryMock).deleteSentChunk(entity1.getId());
+		verify(messageOutboxRepositoryMock).deleteSentChunk(entity2.getId());
+		verifyNoMoreInteractions(messageOutboxRepositoryMock);
+
+		// The chunks were leased when they were claimed, and the claim, and each chunk, were completed in a transaction of their own.
+		assertThat(List.of(entity1, entity2)).allSatisfy(entity -> {
+			assertThat(entity.getStatus()).isEqualTo(IN_FLIGHT);
+			assertThat(entity.getNextAttempt()).isCloseTo(now(systemDefault()).plus(LEASE), within(2, SECONDS));
+		});
+		verify(transactionManagerMock, times(3)).getTransaction(any());
+		assertThat(messageRequestCaptor.getAllValues())
+			.extracting(MessageRequest::getMessages)
+			.containsExactlyInAnyOrder(List.of(message1, message3), List.of(message2));
+		assertThat(meterRegistry.counter(METRIC_MESSAGES, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "communication", TAG_TYPE, "update", TAG_OUTCOME, OUTCOME_SUCCESS).count()).isEqualTo(3);
+		assertThat(meterRegistry.timer(METRIC_CHUNK, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "communication", TAG_TYPE, "update", TAG_OUTCOME, OUTCOME_SUCCESS).count()).isEqualTo(2);
+
+		verify(messagingLimiterMock, times(2)).acquire(MUNICIPALITY_ID);
+		verify(permitMock, times(2)).release(any(), eq(false));
+	}
+
+	@Test
+	void dispatchWhenOneChunkFails() {
+
+		// Arrange
+		final var messages = IntStream.rangeClosed(1, 5).mapToObj(i -> createMessage("subject-" + i)).toList();
+		final var entities = List.of(
+			createEntity("batch-1", messages.subList(0, 2), 0),
+			createEntity("batch-1", messages.subList(2, 4), 0),
+			createEntity("batch-1", messages.subList(4, 5), 0));
+
+		when(messageOutboxRepositoryMock.findDueForUpdate(any(), eq(BATCH_SIZE))).thenReturn(entities);
+		when(messagingLimiterMock.acquire(MUNICIPALITY_ID)).thenReturn(permitMock);
+		// The second chunk (messages 3 and 4) fails.
+		when(messagingClientMock.sendMessage(eq(MUNICIPALITY_ID), any())).thenAnswer(invocation -> {
+			final MessageRequest messageRequest = invocation.getArgument(1);
+			if (messageRequest.getMessages().contains(messages.get(2))) {
+				throw new IllegalStateException("Service unavailable");
+			}
+			return null;
+		});
+
+		// Act
+		final var result = messageOutboxDispatcher.dispatch();
+
+		// Assert
+		assertThat(result).isEqualTo(3);
+
+		verify(messagingClientMock, times(3)).sendMessage(eq(MUNICIPALITY_ID), messageRequestCaptor.capture());
+		verify(messageOutboxRepositoryMock).deleteSentChunk(entities.get(0).getId());
+		verify(messageOutboxRepositoryMock).deleteSentChunk(entities.get(2).getId());
+		verify(messageOutboxRepositoryMock).updateFailedChunk(entities.get(1).getId(), PENDING, 1, "java.lang.IllegalStateException: Service unavailable", entities.get(1).getNextAttempt());
+		verify(messageOutboxRepositoryMock, never()).deleteSentChunk(entities.get(1).getId());
+
+		assertThat(entities.get(1).getStatus()).isEqualTo(PENDING);
+		assertThat(messageRequestCaptor.getAllValues())
+			.extracting(MessageRequest::getMessages)
+			.containsExactlyInAnyOrder(messages.subList(0, 2), messages.subList(2, 4), messages.subList(4, 5));
+		assertThat(entities.get(1).getAttempts()).isEqualTo(1);
+		assertThat(entities.get(0).getAttempts()).isZero();
+		assertThat(entities.get(2).getAttempts()).isZero();
+		assertThat(meterRegistry.counter(METRIC_MESSAGES, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "communication", TAG_TYPE, "update", TAG_OUTCOME, OUTCOME_SUCCESS).count()).isEqualTo(3);
+		assertThat(meterRegistry.counter(METRIC_MESSAGES, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "communication", TAG_TYPE, "update", TAG_OUTCOME, OUTCOME_FAILURE).count()).isEqualTo(2);
+		assertThat(meterRegistry.timer(METRIC_CHUNK, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "communication", TAG_TYPE, "update", TAG_OUTCOME, OUTCOME_SUCCESS).count()).isEqualTo(2);
+		assertThat(meterRegistry.timer(METRIC_CHUNK, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "communication", TAG_TYPE, "update", TAG_OUTCOME, OUTCOME_FAILURE).count()).isEqualTo(1);
+	}
+
+	@Test
+	void dispatchWithProductionDefaults() throws IOException {
+
+		// Arrange
+		final var properties = bindProductionDefaults();
+		final var dispatcher = new MessageOutboxDispatcher(messageOutboxRepositoryMock, messagingClientMock, properties, jsonMapper, meterRegistry, messagingLimiterMock, transactionManagerMock);
+		final var messages = IntStream.range(0, 40_000).mapToObj(i -> createMessage("subject-" + i)).toList();
+		new MessageOutbox(messageOutboxRepositoryMock, event -> {}, properties, jsonMapper).enqueue(MUNICIPALITY_ID, COMMUNICATION, UPDATE, new MessageRequest().messages(messages));
+		verify(messageOutboxRepositoryMock).saveAll(entitiesCaptor.capture());
+		final var chunks = entitiesCaptor.getValue();
+
+		final var inFlight = new AtomicInteger();
+		final var maxInFlight = new AtomicInteger();
+		when(messageOutboxRepositoryMock.findDueForUpdate(any(), eq(properties.batchSize()))).thenReturn(chunks.subList(0, properties.batchSize()));
+		when(messagingLimiterMock.acquire(MUNICIPALITY_ID)).thenReturn(permitMock);
+		when(messagingClientMock.sendMessage(eq(MUNICIPALITY_ID), any())).thenAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			Thread.sleep(50);
+			inFlight.decrementAndGet();
+			return null;
+		});
+
+		// Act
+		final var result = dispatcher.dispatch();
+
+		// Assert
+		assertThat(chunks).hasSize(40_000 / properties.chunkSize());
+		assertThat(result).isEqualTo(properties.batchSize());
+		// The chunks of one dispatch are sent in parallel.
+		assertThat(maxInFlight).hasValue(properties.maxConcurrentChunks());
+		assertThat(properties.maxConcurrentChunks()).isGreaterThan(1);
+		verify(messagingClientMock, times(properties.batchSize())).sendMessage(eq(MUNICIPALITY_ID), any());
+	}
+
+	@Test
+	void dispatchChunkWithoutCategoryAndMessageType() {
+
+		// Arrange (a chunk enqueued before the category and the message type were stored)
+		final var entity = createEntity("batch-1", List.of(createMessage("subject")), 0).withCategory(null).withMessageType(null);
+
+		when(messageOutboxRepositoryMock.findDueForUpdate(any(), eq(BATCH_SIZE))).thenReturn(List.of(entity));
+		when(messagingLimiterMock.acquire(MUNICIPALITY_ID)).thenReturn(permitMock);
+
+		// Act
+		messageOutboxDispatcher.dispatch();
+
+		// Assert
+		assertThat(meterRegistry.counter(METRIC_MESSAGES, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "none", TAG_TYPE, "none", TAG_OUTCOME, OUTCOME_SUCCESS).count()).isOne();
+		assertThat(meterRegistry.timer(METRIC_CHUNK, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "none", TAG_TYPE, "none", TAG_OUTCOME, OUTCOME_SUCCESS).count()).isOne();
+	}
+
+	@Test
+	void dispatchWhenNothingToSend() {
+
+		// Arrange
+		when(messageOutboxRepositoryMock.findDueForUpdate(any(), anyInt())).thenReturn(List.of());
+
+		// Act
+		final var result = messageOutboxDispatcher.dispatch();
+
+		// Assert
+		assertThat(result).isZero();
+
+		verify(messageOutboxRepositoryMock).findDueForUpdate(any(), eq(BATCH_SIZE));
+		verifyNoMoreInteractions(messageOutboxRepositoryMock);
+		verifyNoInteractions(messagingClientMock, messagingLimiterMock);
+	}
+
+	@Test
+	void dispatchWhenSendFails() {
+
+		// Arrange
+		final var entity = createEntity("batch-1", List.of(createMessage("subject")), 0);
+
+		when(messageOutboxRepositoryMock.findDueForUpdate(any(), eq(BATCH_SIZE))).thenReturn(List.of(entity));
+		when(messagingLimiterMock.acquire(MUNICIPALITY_ID)).thenReturn(permitMock);
+		when(messagingClientMock.sendMessage(eq(MUNICIPALITY_ID), any())).thenThrow(new IllegalStateException("Service unavailable"));
+
+		// Act
+		final var result = messageOutboxDispatcher.dispatch();
+
+		// Assert
+		assertThat(result).isEqualTo(1);
+		assertThat(entity.getStatus()).isEqualTo(PENDING);
+		assertThat(entity.getAttempts()).isEqualTo(1);
+		assertThat(entity.getLastError()).isEqualTo("java.lang.IllegalStateException: Service unavailable");
+		assertThat(entity.getNextAttempt()).isCloseTo(now(systemDefault()).plusMinutes(1), within(2, SECONDS));
+
+		verify(messageOutboxRepositoryMock).updateFailedChunk(entity.getId(), PENDING, 1, "java.lang.IllegalStateException: Service unavailable", entity.getNextAttempt());
+		verify(messageOutboxRepositoryMock, never()).deleteSentChunk(anyLong());
+		verify(messagingLimiterMock).acquire(MUNICIPALITY_ID);
+		verify(permitMock).release(any(), eq(true));
+	}
+
+	@Test
+	void dispatchWhenSendFailsOnLastAttempt() {
+
+		// Arrange
+		final var entity = createEntity("batch-1", List.of(createMessage("subject")), MAX_ATTEMPTS - 1).withNextAttempt(now(systemDefault()).minusMinutes(1));
+
+		when(messageOutboxRepositoryMock.findDueForUpdate(any(), eq(BATCH_SIZE))).thenReturn(List.of(entity));
+		when(messagingLimiterMock.acquire(MUNICIPALITY_ID)).thenReturn(permitMock);
+		when(messagingClientMock.sendMessage(eq(MUNICIPALITY_ID), any())).thenThrow(new IllegalStateException("Service unavailable"));
+
+		// Act
+		messageOutboxDispatcher.dispatch();
+
+		// Assert
+		assertThat(entity.getStatus()).isEqualTo(DEAD);
+		assertThat(entity.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+
+		verify(messageOutboxRepositoryMock).updateFailedChunk(eq(entity.getId()), eq(DEAD), eq(MAX_ATTEMPTS), any(), any());
+	}
+
+	@Test
+	void dispatchWhenCompletingChunkFails() {
+
+		// Arrange
+		final var entity = createEntity("batch-1", List.of(createMessage("subject")), 0);
+
+		when(messageOutboxRepositoryMock.findDueForUpdate(any(), eq(BATCH_SIZE))).thenReturn(List.of(entity));
+		when(messagingLimiterMock.acquire(MUNICIPALITY_ID)).thenReturn(permitMock);
+		doThrow(new IllegalStateException("Database unavailable")).when(messageOutboxRepositoryMock).deleteSentChunk(entity.getId());
+
+		// Act
+		final var result = messageOutboxDispatcher.dispatch();
+
+		// Assert
+		assertThat(result).isEqualTo(1);
+
+		// The chunk keeps its lease, and is claimed again when the lease has expired.
+		assertThat(entity.getStatus()).isEqualTo(IN_FLIGHT);
+		assertThat(entity.getNextAttempt()).isCloseTo(now(systemDefault()).plus(LEASE), within(2, SECONDS));
+		verify(messagingClientMock).sendMessage(eq(MUNICIPALITY_ID), any());
+		verify(permitMock).release(any(), eq(false));
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+		"1, PT1M",
+		"2, PT2M",
+		"3, PT4M",
+		"4, PT8M",
+		"5, PT10M",
+		"100, PT10M"
+	})
+	void calculateBackoff(int attempts, Duration expectedBackoff) {
+		assertThat(messageOutboxDispatcher.calculateBackoff(attempts)).isEqualTo(expectedBackoff);
+	}
+
+	private static MessageOutboxSchedulerProperties bindProductionDefaults() throws IOException {
+		final var propertySources = new YamlPropertySourceLoader().load("application.yaml", new ClassPathResource("application.yaml"));
+		return new Binder(ConfigurationPropertySources.from(propertySources)).bind("scheduler.messageoutbox", MessageOutboxSchedulerProperties.class).get();
+	}
+
+	private MessageOutboxEntity createEntity(final String batchId, final List<Message> messages, final int attempts) {
+		return MessageOutboxEntity.create()
+			.withId(ids.incrementAndGet())
+			.withMunicipalityId(MUNICIPALITY_ID)
+			.withCategory(COMMUNICATION)
+			.withMessageType(UPDATE.name())
+			.withBatchId(batchId)
+			.withPayload(jsonMapper.writeValueAsString(new MessageRequest().messages(messages)))
+			.withMessageCount(messages.size())
+			.withStatus(PENDING)
+			.withAttempts(attempts);
+	}
+
+	private static Message createMessage(final String subject) {
+		return new Message()
+			.party(toParty("00000001-0000-1000-8000-00805f9b34fb"))
+			.subject(subject)
+			.message("message");
+	}
+}
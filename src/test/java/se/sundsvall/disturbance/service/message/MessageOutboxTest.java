@@ -0,0 +1,145 @@
+package se.sundsvall.disturbance.service.message;
+
+import generated.se.sundsvall.messaging.Message;
+import generated.se.sundsvall.messaging.MessageRequest;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import se.sundsvall.disturbance.integration.db.MessageOutboxRepository;
+import se.sundsvall.disturbance.integration.db.model.MessageOutboxEntity;
+import se.sundsvall.disturbance.scheduler.MessageOutboxSchedulerProperties;
+import tools.jackson.databind.json.JsonMapper;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.api.model.Category.COMMUNICATION;
+import static se.sundsvall.disturbance.integration.db.model.MessageOutboxStatus.PENDING;
+import static se.sundsvall.disturbance.integration.messaging.mapper.MessagingMapper.toParty;
+import static se.sundsvall.disturbance.service.message.template.MessageType.NEW;
+
+@ExtendWith(MockitoExtension.class)
+class MessageOutboxTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	@Mock
+	private MessageOutboxRepository messageOutboxRepositoryMock;
+
+	@Mock
+	private ApplicationEventPublisher applicationEventPublisherMock;
+
+	@Mock
+	private MessageOutboxSchedulerProperties propertiesMock;
+
+	@Captor
+	private ArgumentCaptor<List<MessageOutboxEntity>> messageOutboxEntitiesCaptor;
+
+	@Captor
+	private ArgumentCaptor<MessagesEnqueuedEvent> messagesEnqueuedEventCaptor;
+
+	private MessageOutbox messageOutbox;
+
+	@BeforeEach
+	void setup() {
+		messageOutbox = new MessageOutbox(messageOutboxRepositoryMock, applicationEventPublisherMock, propertiesMock, jsonMapper);
+	}
+
+	@Test
+	void enqueue() {
+
+		// Arrange
+		final var message1 = createMessage("00000001-0000-1000-8000-00805f9b34fb", "subject-1");
+		final var message2 = createMessage("00000002-0000-1000-8000-00805f9b34fb", "subject-2");
+		when(propertiesMock.chunkSize()).thenReturn(10);
+
+		// Act
+		messageOutbox.enqueue(MUNICIPALITY_ID, COMMUNICATION, NEW, new MessageRequest().messages(List.of(message1, message2)));
+
+		// Assert
+		verify(messageOutboxRepositoryMock).saveAll(messageOutboxEntitiesCaptor.capture());
+		verifyNoInteractions(applicationEventPublisherMock);
+
+		final var entities = messageOutboxEntitiesCaptor.getValue();
+		assertThat(entities).hasSize(1).allSatisfy(entity -> {
+			assertThat(entity.getMunicipalityId()).isEqualTo(MUNICIPALITY_ID);
+			assertThat(entity.getCategory()).isEqualTo(COMMUNICATION);
+			assertThat(entity.getMessageType()).isEqualTo("NEW");
+			assertThat(entity.getBatchId()).isNotBlank();
+			assertThat(entity.getMessageCount()).isEqualTo(2);
+			assertThat(entity.getStatus()).isEqualTo(PENDING);
+			assertThat(entity.getAttempts()).isZero();
+			assertThat(entity.getNextAttempt()).isCloseTo(now(systemDefault()), within(2, SECONDS));
+		});
+		assertThat(jsonMapper.readValue(entities.getFirst().getPayload(), MessageRequest.class).getMessages()).containsExactly(message1, message2);
+	}
+
+	@Test
+	void enqueueInChunks() {
+
+		// Arrange
+		final var messages = IntStream.rangeClosed(1, 5)
+			.mapToObj(i -> createMessage("0000000%s-0000-1000-8000-00805f9b34fb".formatted(i), "subject-" + i))
+			.toList();
+		when(propertiesMock.chunkSize()).thenReturn(2);
+
+		// Act
+		messageOutbox.enqueue(MUNICIPALITY_ID, COMMUNICATION, NEW, new MessageRequest().messages(messages));
+
+		// Assert
+		verify(messageOutboxRepositoryMock).saveAll(messageOutboxEntitiesCaptor.capture());
+
+		final var entities = messageOutboxEntitiesCaptor.getValue();
+		assertThat(entities)
+			.extracting(MessageOutboxEntity::getMessageCount)
+			.containsExactly(2, 2, 1);
+		assertThat(entities)
+			.extracting(MessageOutboxEntity::getBatchId)
+			.containsOnly(entities.getFirst().getBatchId());
+		assertThat(entities)
+			.extracting(entity -> jsonMapper.readValue(entity.getPayload(), MessageRequest.class).getMessages())
+			.containsExactly(messages.subList(0, 2), messages.subList(2, 4), messages.subList(4, 5));
+	}
+
+	@Test
+	void enqueueWithDispatchOnCommit() {
+
+		// Arrange
+		when(propertiesMock.chunkSize()).thenReturn(10);
+		when(propertiesMock.dispatchOnCommit()).thenReturn(true);
+
+		// Act
+		messageOutbox.enqueue(MUNICIPALITY_ID, COMMUNICATION, NEW, new MessageRequest().messages(List.of(createMessage("00000001-0000-1000-8000-00805f9b34fb", "subject"))));
+
+		// Assert
+		verify(messageOutboxRepositoryMock).saveAll(messageOutboxEntitiesCaptor.capture());
+		verify(applicationEventPublisherMock).publishEvent(messagesEnqueuedEventCaptor.capture());
+
+		final var event = messagesEnqueuedEventCaptor.getValue();
+		assertThat(event.municipalityId()).isEqualTo(MUNICIPALITY_ID);
+		assertThat(event.batchId()).isEqualTo(messageOutboxEntitiesCaptor.getValue().getFirst().getBatchId());
+		assertThat(event.messageCount()).isOne();
+		assertThat(event.chunkCount()).isOne();
+	}
+
+	private static Message createMessage(final String partyId, final String subject) {
+		return new Message()
+			.party(toParty(partyId))
+			.subject(subject)
+			.message("message");
+	}
+}
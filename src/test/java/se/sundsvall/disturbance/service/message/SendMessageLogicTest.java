@@ -9,8 +9,10 @@ import generated.se.sundsvall.messaging.Sms;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,24 +20,25 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import se.sundsvall.disturbance.api.model.Category;
 import se.sundsvall.disturbance.api.model.Status;
 import se.sundsvall.disturbance.integration.db.model.AffectedEntity;
 import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
-import se.sundsvall.disturbance.integration.messaging.MessagingClient;
 import se.sundsvall.disturbance.integration.messaging.mapper.Filter;
 import se.sundsvall.disturbance.service.SubscriptionService;
-import se.sundsvall.disturbance.service.message.configuration.MessageConfiguration;
 import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping;
 import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping.CategoryConfig;
+import se.sundsvall.disturbance.service.message.template.CategoryTemplates;
+import se.sundsvall.disturbance.service.message.template.MessageTemplates;
+import se.sundsvall.disturbance.service.message.template.MessageType;
+import se.sundsvall.disturbance.service.metrics.DisturbanceMetrics;
+import se.sundsvall.disturbance.service.optout.ApplicableAffecteds;
 
 import static java.time.ZoneId.systemDefault;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -61,10 +64,13 @@ class SendMessageLogicTest {
 	private SubscriptionService subscriptionServiceMock;
 
 	@Mock
-	private MessageConfiguration messageConfigurationMock;
+	private MessageTemplates messageTemplatesMock;
 
 	@Mock
-	private MessagingClient messagingClientMock;
+	private MessageOutbox messageOutboxMock;
+
+	@Mock
+	private DisturbanceMetrics disturbanceMetricsMock;
 
 	@InjectMocks
 	private SendMessageLogic sendMessageLogic;
@@ -75,29 +81,21 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
-		// Let 3 of these affecteds have an applicable subscription.
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6)).thenReturn(true);
-		// Let 3 of these affecteds be without an applicable subscription.
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1)).thenReturn(false);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3)).thenReturn(false);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5)).thenReturn(false);
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
 
-		// Setup message properties mock
-		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		// Let the affecteds with facilityId 2, 4, 6 have an applicable subscription.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities())).thenReturn(filterByFacilityIds(disturbanceEntity.getAffectedEntities(), 2, 4, 6));
 
 		sendMessageLogic.sendCloseMessageToAllApplicableAffecteds(disturbanceEntity);
 
-		verify(messageConfigurationMock, times(3)).getCategoryConfig(CATEGORY);
-		verify(messagingClientMock).sendMessage(eq(MUNICIPALITY_ID), messageRequestCaptor.capture());
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6);
-		verifyNoMoreInteractions(messageConfigurationMock, subscriptionServiceMock, messagingClientMock);
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verify(messageOutboxMock).enqueue(eq(MUNICIPALITY_ID), eq(CATEGORY), eq(MessageType.CLOSE), messageRequestCaptor.capture());
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities());
+		verify(disturbanceMetricsMock).messagesSuppressedByOptOut(MUNICIPALITY_ID, CATEGORY, MessageType.CLOSE, 0);
+		verify(disturbanceMetricsMock).messagesRendered(MUNICIPALITY_ID, CATEGORY, MessageType.CLOSE, 3);
+		verify(disturbanceMetricsMock).messageRequest(MUNICIPALITY_ID, CATEGORY, MessageType.CLOSE, 3);
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock, messageOutboxMock, disturbanceMetricsMock);
 
 		/**
 		 * Assert sent messages.
@@ -156,16 +154,18 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affected affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
+
+		// Let all affecteds be without an applicable subscription, where two of them have a matching opt-out.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities())).thenReturn(new ApplicableAffecteds(List.of(), 2));
+
 		sendMessageLogic.sendCloseMessageToAllApplicableAffecteds(disturbanceEntity);
 
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6);
-		verifyNoMoreInteractions(messageConfigurationMock, subscriptionServiceMock);
-		verifyNoInteractions(messagingClientMock);
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities());
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock);
+		verifyNoInteractions(messageOutboxMock);
 	}
 
 	@Test
@@ -174,12 +174,8 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5)).thenReturn(false);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 6)).thenReturn(true);
-
-		// Setup message properties mock
-		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
 
 		// AffectedEntity1. This entity has a subscription.
 		final var affectedEntity1 = new AffectedEntity();
@@ -205,14 +201,15 @@ class SendMessageLogicTest {
 		// Define a AffectedEntity-override list, where two of them has a subscription (id=4, id=6).
 		final var affectedEntitiesOverride = new ArrayList<>(List.of(affectedEntity1, affectedEntity2, affectedEntity3));
 
+		// Let the affecteds with facilityId 4, 6 have an applicable subscription.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, affectedEntitiesOverride)).thenReturn(filterByFacilityIds(affectedEntitiesOverride, 4, 6));
+
 		sendMessageLogic.sendCloseMessageToProvidedApplicableAffecteds(disturbanceEntity, affectedEntitiesOverride);
 
-		verify(messageConfigurationMock, times(2)).getCategoryConfig(CATEGORY);
-		verify(messagingClientMock).sendMessage(eq(MUNICIPALITY_ID), messageRequestCaptor.capture());
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 6);
-		verifyNoMoreInteractions(messageConfigurationMock, subscriptionServiceMock, messagingClientMock);
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verify(messageOutboxMock).enqueue(eq(MUNICIPALITY_ID), eq(CATEGORY), eq(MessageType.CLOSE), messageRequestCaptor.capture());
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, affectedEntitiesOverride);
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock, messageOutboxMock);
 
 		/**
 		 * Assert sent messages.
@@ -256,6 +253,9 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
+
 		// Define a AffectedEntity-override list with two elements.
 		final var affectedEntitiesOverride = new ArrayList<AffectedEntity>();
 
@@ -275,12 +275,15 @@ class SendMessageLogicTest {
 
 		affectedEntitiesOverride.addAll(List.of(affectedEntity1, affectedEntity2));
 
+		// Let all affecteds be without an applicable subscription, where two of them have a matching opt-out.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, affectedEntitiesOverride)).thenReturn(new ApplicableAffecteds(List.of(), 2));
+
 		sendMessageLogic.sendCloseMessageToProvidedApplicableAffecteds(disturbanceEntity, affectedEntitiesOverride);
 
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2);
-		verifyNoMoreInteractions(subscriptionServiceMock);
-		verifyNoInteractions(messagingClientMock, messageConfigurationMock);
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, affectedEntitiesOverride);
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock);
+		verifyNoInteractions(messageOutboxMock);
 	}
 
 	@Test
@@ -289,29 +292,18 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
-		// Let 3 of these affecteds have an applicable subscription.
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6)).thenReturn(true);
-		// Let 3 of these affecteds be without an applicable subscription.
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1)).thenReturn(false);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3)).thenReturn(false);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5)).thenReturn(false);
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
 
-		// Setup message properties mock
-		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		// Let the affecteds with facilityId 2, 4, 6 have an applicable subscription.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities())).thenReturn(filterByFacilityIds(disturbanceEntity.getAffectedEntities(), 2, 4, 6));
 
 		sendMessageLogic.sendUpdateMessage(disturbanceEntity);
 
-		verify(messageConfigurationMock, times(3)).getCategoryConfig(CATEGORY);
-		verify(messagingClientMock).sendMessage(eq(MUNICIPALITY_ID), messageRequestCaptor.capture());
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6);
-		verifyNoMoreInteractions(messageConfigurationMock, subscriptionServiceMock, messagingClientMock);
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verify(messageOutboxMock).enqueue(eq(MUNICIPALITY_ID), eq(CATEGORY), eq(MessageType.UPDATE), messageRequestCaptor.capture());
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities());
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock, messageOutboxMock);
 
 		/**
 		 * Assert sent messages.
@@ -371,19 +363,18 @@ class SendMessageLogicTest {
 		disturbanceEntity.setPlannedStartDate(null);
 		disturbanceEntity.setPlannedStopDate(null);
 
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2)).thenReturn(true);
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
 
-		// Setup message properties mock
-		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		// Let the affecteds with facilityId 1, 2 have an applicable subscription.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities())).thenReturn(filterByFacilityIds(disturbanceEntity.getAffectedEntities(), 1, 2));
 
 		sendMessageLogic.sendUpdateMessage(disturbanceEntity);
 
-		verify(messageConfigurationMock, times(2)).getCategoryConfig(CATEGORY);
-		verify(messagingClientMock).sendMessage(eq(MUNICIPALITY_ID), messageRequestCaptor.capture());
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2);
-		verifyNoMoreInteractions(messageConfigurationMock, subscriptionServiceMock, messagingClientMock);
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verify(messageOutboxMock).enqueue(eq(MUNICIPALITY_ID), eq(CATEGORY), eq(MessageType.UPDATE), messageRequestCaptor.capture());
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities());
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock, messageOutboxMock);
 
 		/**
 		 * Assert sent messages.
@@ -428,16 +419,18 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
+
+		// Let all affecteds be without an applicable subscription, where two of them have a matching opt-out.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities())).thenReturn(new ApplicableAffecteds(List.of(), 2));
+
 		sendMessageLogic.sendUpdateMessage(disturbanceEntity);
 
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6);
-		verifyNoMoreInteractions(subscriptionServiceMock);
-		verifyNoInteractions(messageConfigurationMock, messagingClientMock);
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities());
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock);
+		verifyNoInteractions(messageOutboxMock);
 	}
 
 	@Test
@@ -446,30 +439,19 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
-		// Let 3 of these affecteds have an applicable subscription.
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6)).thenReturn(true);
-		// Let 3 of these affecteds be without an applicable subscription.
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1)).thenReturn(false);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3)).thenReturn(false);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5)).thenReturn(false);
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
 
-		// Setup message properties mock
-		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		// Let the affecteds with facilityId 2, 4, 6 have an applicable subscription.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities())).thenReturn(filterByFacilityIds(disturbanceEntity.getAffectedEntities(), 2, 4, 6));
 
 		sendMessageLogic.sendCreateMessageToAllApplicableAffecteds(disturbanceEntity);
 
-		verify(messageConfigurationMock, times(3)).getCategoryConfig(CATEGORY);
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
 
-		verify(messagingClientMock).sendMessage(eq(MUNICIPALITY_ID), messageRequestCaptor.capture());
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6);
-		verifyNoMoreInteractions(messageConfigurationMock, subscriptionServiceMock, messagingClientMock);
+		verify(messageOutboxMock).enqueue(eq(MUNICIPALITY_ID), eq(CATEGORY), eq(MessageType.NEW), messageRequestCaptor.capture());
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities());
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock, messageOutboxMock);
 
 		/**
 		 * Assert sent messages.
@@ -528,16 +510,18 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
+
+		// Let all affecteds be without an applicable subscription, where two of them have a matching opt-out.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities())).thenReturn(new ApplicableAffecteds(List.of(), 2));
+
 		sendMessageLogic.sendCreateMessageToAllApplicableAffecteds(disturbanceEntity);
 
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6);
-		verifyNoMoreInteractions(subscriptionServiceMock);
-		verifyNoInteractions(messagingClientMock, messageConfigurationMock);
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, disturbanceEntity.getAffectedEntities());
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock);
+		verifyNoInteractions(messageOutboxMock);
 	}
 
 	@Test
@@ -546,12 +530,8 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5)).thenReturn(false);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 6)).thenReturn(true);
-
-		// Setup message properties mock
-		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(setupCategoryConfig());
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
 
 		// AffectedEntity1. This entity has a subscription.
 		final var affectedEntity1 = new AffectedEntity();
@@ -577,14 +557,15 @@ class SendMessageLogicTest {
 		// Define a AffectedEntity-override list, where two of them has a subscription (id=4, id=6).
 		final var affectedEntitiesOverride = new ArrayList<>(List.of(affectedEntity1, affectedEntity2, affectedEntity3));
 
+		// Let the affecteds with facilityId 4, 6 have an applicable subscription.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, affectedEntitiesOverride)).thenReturn(filterByFacilityIds(affectedEntitiesOverride, 4, 6));
+
 		sendMessageLogic.sendCreateMessageToProvidedApplicableAffecteds(disturbanceEntity, affectedEntitiesOverride);
 
-		verify(messageConfigurationMock, times(2)).getCategoryConfig(CATEGORY);
-		verify(messagingClientMock).sendMessage(eq(MUNICIPALITY_ID), messageRequestCaptor.capture());
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 6);
-		verifyNoMoreInteractions(messageConfigurationMock, subscriptionServiceMock, messagingClientMock);
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verify(messageOutboxMock).enqueue(eq(MUNICIPALITY_ID), eq(CATEGORY), eq(MessageType.NEW), messageRequestCaptor.capture());
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, affectedEntitiesOverride);
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock, messageOutboxMock);
 
 		/**
 		 * Assert sent messages.
@@ -628,6 +609,9 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
+		// Setup message templates mock
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.of(CategoryTemplates.compile(setupCategoryConfig())));
+
 		// Define a AffectedEntity-override list with two elements.
 		final var affectedEntitiesOverride = new ArrayList<AffectedEntity>();
 
@@ -647,12 +631,16 @@ class SendMessageLogicTest {
 
 		affectedEntitiesOverride.addAll(List.of(affectedEntity1, affectedEntity2));
 
+		// Let all affecteds be without an applicable subscription, where two of them have a matching opt-out.
+		when(subscriptionServiceMock.getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, affectedEntitiesOverride)).thenReturn(new ApplicableAffecteds(List.of(), 2));
+
 		sendMessageLogic.sendCreateMessageToProvidedApplicableAffecteds(disturbanceEntity, affectedEntitiesOverride);
 
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2);
-		verifyNoMoreInteractions(subscriptionServiceMock);
-		verifyNoInteractions(messagingClientMock, messageConfigurationMock);
+		verify(subscriptionServiceMock).getApplicableAffecteds(MUNICIPALITY_ID, CATEGORY, affectedEntitiesOverride);
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verify(disturbanceMetricsMock).messagesSuppressedByOptOut(MUNICIPALITY_ID, CATEGORY, MessageType.NEW, 2);
+		verifyNoMoreInteractions(messageTemplatesMock, subscriptionServiceMock, disturbanceMetricsMock);
+		verifyNoInteractions(messageOutboxMock);
 	}
 
 	@Test
@@ -661,31 +649,15 @@ class SendMessageLogicTest {
 		// Set up disturbanceEntity with 6 affecteds.
 		final var disturbanceEntity = setupDisturbanceEntity(1, 2, 3, 4, 5, 6);
 
-		// Let 3 of these affecteds have an applicable subscription.
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4)).thenReturn(true);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6)).thenReturn(true);
-		// Let 3 of these affecteds be without an applicable subscription.
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1)).thenReturn(false);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3)).thenReturn(false);
-		when(subscriptionServiceMock.hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5)).thenReturn(false);
-
-		// Setup message properties mock
-		final var categoryConfigMock = Mockito.mock(CategoryConfig.class);
-		when(categoryConfigMock.isActive()).thenReturn(false);
-		when(messageConfigurationMock.getCategoryConfig(CATEGORY)).thenReturn(categoryConfigMock);
+		// Setup message templates mock (no templates are compiled for inactive categories).
+		when(messageTemplatesMock.getCategoryTemplates(CATEGORY)).thenReturn(Optional.empty());
 
 		sendMessageLogic.sendCreateMessageToAllApplicableAffecteds(disturbanceEntity);
 
-		verify(messageConfigurationMock, times(3)).getCategoryConfig(CATEGORY);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(1).toString(), CATEGORY, "facilityId-" + 1);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(2).toString(), CATEGORY, "facilityId-" + 2);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(3).toString(), CATEGORY, "facilityId-" + 3);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(4).toString(), CATEGORY, "facilityId-" + 4);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(5).toString(), CATEGORY, "facilityId-" + 5);
-		verify(subscriptionServiceMock).hasApplicableSubscription(MUNICIPALITY_ID, uuidFromInt(6).toString(), CATEGORY, "facilityId-" + 6);
-		verifyNoInteractions(messagingClientMock);
-		verifyNoMoreInteractions(messageConfigurationMock);
+		verify(messageTemplatesMock).getCategoryTemplates(CATEGORY);
+		verify(disturbanceMetricsMock).messagesSuppressedByInactiveCategory(MUNICIPALITY_ID, CATEGORY, MessageType.NEW, 6);
+		verifyNoInteractions(subscriptionServiceMock, messageOutboxMock);
+		verifyNoMoreInteractions(messageTemplatesMock, disturbanceMetricsMock);
 	}
 
 	private DisturbanceEntity setupDisturbanceEntity(final int... idNumbersOnAffecteds) {
@@ -730,6 +702,14 @@ class SendMessageLogicTest {
 		return categoryConfig;
 	}
 
+	private static ApplicableAffecteds filterByFacilityIds(final List<AffectedEntity> affectedEntities, final int... idNumbers) {
+		final var facilityIds = Arrays.stream(idNumbers).mapToObj(idNumber -> "facilityId-" + idNumber).toList();
+
+		return new ApplicableAffecteds(affectedEntities.stream()
+			.filter(affectedEntity -> facilityIds.contains(affectedEntity.getFacilityId()))
+			.toList(), 0);
+	}
+
 	private static UUID uuidFromInt(final int integer) {
 
 		final var sb = new StringBuilder();
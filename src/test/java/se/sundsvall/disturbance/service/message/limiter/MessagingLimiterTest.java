@@ -0,0 +1,151 @@
+package se.sundsvall.disturbance.service.message.limiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static se.sundsvall.disturbance.service.message.limiter.MessagingLimiter.METRIC_IN_FLIGHT;
+import static se.sundsvall.disturbance.service.message.limiter.MessagingLimiter.METRIC_LIMIT;
+import static se.sundsvall.disturbance.service.message.limiter.MessagingLimiter.METRIC_QUEUE;
+import static se.sundsvall.disturbance.service.message.limiter.MessagingLimiter.TAG_MUNICIPALITY;
+
+class MessagingLimiterTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final Duration LATENCY_THRESHOLD = Duration.ofMillis(150);
+	private static final Duration FAST = Duration.ofMillis(100);
+	private static final Duration SLOW = Duration.ofMillis(200);
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private MessagingLimiter createLimiter(final int initialLimit, final int maxLimit) {
+		return new MessagingLimiter(new MessagingLimiterProperties(initialLimit, 1, maxLimit, LATENCY_THRESHOLD, 0.5), meterRegistry);
+	}
+
+	@Test
+	void increaseOnFastRequests() {
+
+		// Arrange
+		final var messagingLimiter = createLimiter(2, 10);
+
+		// Act
+		messagingLimiter.acquire(MUNICIPALITY_ID).release(FAST, false);
+		messagingLimiter.acquire(MUNICIPALITY_ID).release(FAST, false);
+
+		// Assert
+		assertThat(messagingLimiter.getLimit(MUNICIPALITY_ID)).isEqualTo(2.9, within(0.01));
+	}
+
+	@Test
+	void decreaseOnceOnSlowOrOverloadedRequestsInSameRound() {
+
+		// Arrange
+		final var messagingLimiter = createLimiter(8, 10);
+		final var permits = IntStream.range(0, 8).mapToObj(i -> messagingLimiter.acquire(MUNICIPALITY_ID)).toList();
+
+		// Act
+		permits.getFirst().release(SLOW, false);
+		permits.subList(1, 8).forEach(permit -> permit.release(FAST, true));
+
+		// Assert
+		assertThat(messagingLimiter.getLimit(MUNICIPALITY_ID)).isEqualTo(4);
+		assertThat(meterRegistry.get(METRIC_IN_FLIGHT).tag(TAG_MUNICIPALITY, MUNICIPALITY_ID).gauge().value()).isZero();
+
+		// A request made after the decrease may decrease the limit again.
+		messagingLimiter.acquire(MUNICIPALITY_ID).release(FAST, true);
+		assertThat(messagingLimiter.getLimit(MUNICIPALITY_ID)).isEqualTo(2);
+	}
+
+	@Test
+	void limitIsBounded() {
+
+		// Arrange
+		final var messagingLimiter = createLimiter(1, 2);
+
+		// Act
+		messagingLimiter.acquire(MUNICIPALITY_ID).release(SLOW, true);
+		final var minimum = messagingLimiter.getLimit(MUNICIPALITY_ID);
+		IntStream.range(0, 10).forEach(i -> messagingLimiter.acquire(MUNICIPALITY_ID).release(FAST, false));
+
+		// Assert
+		assertThat(minimum).isEqualTo(1);
+		assertThat(messagingLimiter.getLimit(MUNICIPALITY_ID)).isEqualTo(2);
+		assertThat(meterRegistry.get(METRIC_LIMIT).tag(TAG_MUNICIPALITY, MUNICIPALITY_ID).gauge().value()).isEqualTo(2);
+	}
+
+	@Test
+	void acquireWaitsForLimitOfSameMunicipality() throws InterruptedException {
+
+		// Arrange
+		final var messagingLimiter = createLimiter(1, 1);
+		final var permit = messagingLimiter.acquire(MUNICIPALITY_ID);
+
+		// Act
+		final var waiting = CompletableFuture.supplyAsync(() -> messagingLimiter.acquire(MUNICIPALITY_ID));
+
+		// Assert
+		awaitQueue(1);
+		assertThat(waiting).isNotDone();
+
+		// Other municipalities are not affected.
+		messagingLimiter.acquire("2260").release(FAST, false);
+
+		permit.release(FAST, false);
+		assertThat(waiting).succeedsWithin(Duration.ofSeconds(5));
+		assertThat(meterRegistry.get(METRIC_QUEUE).tag(TAG_MUNICIPALITY, MUNICIPALITY_ID).gauge().value()).isZero();
+	}
+
+	/**
+	 * Runs rounds of requests against a stand-in for api-messaging. The stand-in handles CAPACITY concurrent requests in
+	 * BASE_LATENCY, queues requests beyond that (the latency grows with the number of requests in flight) and times out
+	 * requests that are slower than TIMEOUT. Each round makes as many concurrent requests as the limit allows.
+	 *
+	 * Without the limiter (a fixed concurrency of 32) every request times out. With the limiter the number of requests in
+	 * flight settles around the capacity, and the throughput is held close to the capacity of the stand-in.
+	 */
+	@Test
+	void holdThroughputAgainstSlowStandIn() {
+
+		// Arrange
+		final var capacity = 8;
+		final var baseLatency = Duration.ofMillis(100);
+		final var timeout = Duration.ofMillis(250);
+		final var messagingLimiter = createLimiter(2, 32);
+		final var maxThroughput = capacity * 1000d / baseLatency.toMillis();
+		final var throughputs = new ArrayList<Double>();
+
+		// Act
+		for (var round = 0; round < 150; round++) {
+			final var concurrency = (int) messagingLimiter.getLimit(MUNICIPALITY_ID);
+			final var permits = IntStream.range(0, concurrency).mapToObj(i -> messagingLimiter.acquire(MUNICIPALITY_ID)).toList();
+			final var latency = standInLatency(concurrency, capacity, baseLatency);
+			final var timedOut = latency.compareTo(timeout) > 0;
+
+			permits.forEach(permit -> permit.release(timedOut ? timeout : latency, timedOut));
+			throughputs.add(timedOut ? 0 : concurrency * 1000d / latency.toMillis());
+		}
+
+		// Assert
+		final var steadyThroughputs = throughputs.subList(50, throughputs.size());
+		assertThat(steadyThroughputs).allSatisfy(throughput -> assertThat(throughput).isPositive());
+		assertThat(steadyThroughputs.stream().mapToDouble(Double::doubleValue).average().orElseThrow()).isGreaterThan(0.75 * maxThroughput);
+		assertThat(standInLatency(32, capacity, baseLatency)).isGreaterThan(timeout);
+	}
+
+	private void awaitQueue(final int expected) throws InterruptedException {
+		final var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (meterRegistry.get(METRIC_QUEUE).tag(TAG_MUNICIPALITY, MUNICIPALITY_ID).gauge().value() != expected && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static Duration standInLatency(final int concurrency, final int capacity, final Duration baseLatency) {
+		return concurrency <= capacity ? baseLatency : baseLatency.multipliedBy(concurrency).dividedBy(capacity);
+	}
+}
@@ -0,0 +1,109 @@
+package se.sundsvall.disturbance.service.message.template;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.apache.commons.text.StringSubstitutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageTemplateTest {
+
+	private static final Map<String, String> VALUES = Map.of(
+		"disturbance.title", "Disturbance",
+		"disturbance.description", "Major disturbance in the central parts of town",
+		"disturbance.plannedStopDate", "2021-11-10 18:30",
+		"disturbance.affected.reference", "reference-1",
+		"newline", "\n");
+
+	private static Stream<Arguments> templateArguments() {
+		return Stream.of(
+			Arguments.of(""),
+			Arguments.of("No variables at all"),
+			Arguments.of("${disturbance.title}"),
+			Arguments.of("Close message for ${disturbance.affected.reference}"),
+			Arguments.of("${disturbance.title}${newline}${disturbance.description}${newline}Planned stop: ${disturbance.plannedStopDate}"),
+			Arguments.of("Unknown variable ${unknown} is kept"),
+			Arguments.of("Unknown variable with default ${unknown:-N/A}"),
+			Arguments.of("Known variable with default ${disturbance.title:-N/A}"),
+			Arguments.of("Escaped variable $${disturbance.title}"),
+			Arguments.of("Unterminated variable ${disturbance.title"),
+			Arguments.of("Dollar sign $ and braces {} without variables"));
+	}
+
+	@ParameterizedTest
+	@MethodSource("templateArguments")
+	void renderGivesSameResultAsStringSubstitutor(String template) {
+
+		// Act
+		final var result = MessageTemplate.compile(template).render(VALUES);
+
+		// Assert
+		assertThat(result).isEqualTo(StringSubstitutor.replace(template, VALUES));
+	}
+
+	@ParameterizedTest
+	@MethodSource("templateArguments")
+	void bindAndRenderGivesSameResultAsStringSubstitutor(String template) {
+
+		// Arrange
+		final var disturbanceValues = new HashMap<>(VALUES);
+		disturbanceValues.remove("disturbance.affected.reference");
+
+		// Act
+		final var result = MessageTemplate.compile(template)
+			.bind(disturbanceValues)
+			.render("disturbance.affected.reference", "reference-1");
+
+		// Assert
+		assertThat(result).isEqualTo(StringSubstitutor.replace(template, VALUES));
+	}
+
+	@Test
+	void renderWithNullValue() {
+
+		// Arrange
+		final var template = MessageTemplate.compile("Message for ${disturbance.affected.reference} and ${other:-default}");
+
+		// Act
+		final var result = template.render("disturbance.affected.reference", null);
+
+		// Assert
+		assertThat(result).isEqualTo("Message for ${disturbance.affected.reference} and default");
+	}
+
+	@Test
+	void bindWithNullValues() {
+
+		// Arrange
+		final var values = new HashMap<String, String>();
+		values.put("disturbance.title", null);
+
+		// Act
+		final var result = MessageTemplate.compile("Title: ${disturbance.title}").render(values);
+
+		// Assert
+		assertThat(result).isEqualTo("Title: ${disturbance.title}");
+	}
+
+	@Test
+	void valuesAreNotSubstitutedRecursively() {
+
+		// Act
+		final var result = MessageTemplate.compile("Title: ${disturbance.title}").render(Map.of(
+			"disturbance.title", "${disturbance.description}",
+			"disturbance.description", "Description"));
+
+		// Assert
+		assertThat(result).isEqualTo("Title: ${disturbance.description}");
+	}
+
+	@Test
+	void compileNull() {
+		assertThat(MessageTemplate.compile(null)).isNull();
+	}
+}
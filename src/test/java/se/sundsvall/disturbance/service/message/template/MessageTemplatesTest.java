@@ -0,0 +1,73 @@
+package se.sundsvall.disturbance.service.message.template;
+
+import generated.se.sundsvall.messaging.Email;
+import generated.se.sundsvall.messaging.MessageSender;
+import generated.se.sundsvall.messaging.Sms;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.service.message.configuration.MessageConfiguration;
+import se.sundsvall.disturbance.service.message.configuration.MessageConfigurationMapping.CategoryConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+import static se.sundsvall.disturbance.api.model.Category.WATER;
+import static se.sundsvall.disturbance.service.message.template.MessageType.CLOSE;
+import static se.sundsvall.disturbance.service.message.template.MessageType.NEW;
+import static se.sundsvall.disturbance.service.message.template.MessageType.UPDATE;
+
+@ExtendWith(MockitoExtension.class)
+class MessageTemplatesTest {
+
+	@Mock
+	private MessageConfiguration messageConfigurationMock;
+
+	@Test
+	void getCategoryTemplates() {
+
+		// Arrange
+		when(messageConfigurationMock.getCategoryConfig(any(Category.class))).thenReturn(null);
+		when(messageConfigurationMock.getCategoryConfig(ELECTRICITY)).thenReturn(setupCategoryConfig(true));
+		when(messageConfigurationMock.getCategoryConfig(WATER)).thenReturn(setupCategoryConfig(false));
+
+		// Act
+		final var messageTemplates = new MessageTemplates(messageConfigurationMock);
+
+		// Assert
+		assertThat(messageTemplates.getCategoryTemplates(WATER)).isEmpty();
+		assertThat(messageTemplates.getCategoryTemplates(null)).isEmpty();
+		assertThat(messageTemplates.getCategoryTemplates(ELECTRICITY)).hasValueSatisfying(categoryTemplates -> {
+			final var values = Map.of("disturbance.title", "Title");
+
+			assertThat(categoryTemplates.getSubject(NEW).render(values)).isEqualTo("New subject Title");
+			assertThat(categoryTemplates.getSubject(UPDATE).render(values)).isEqualTo("Update subject Title");
+			assertThat(categoryTemplates.getSubject(CLOSE).render(values)).isEqualTo("Close subject Title");
+			assertThat(categoryTemplates.getMessage(NEW).render(values)).isEqualTo("New message Title");
+			assertThat(categoryTemplates.getMessage(UPDATE).render(values)).isEqualTo("Update message Title");
+			assertThat(categoryTemplates.getMessage(CLOSE).render(values)).isEqualTo("Close message Title");
+			assertThat(categoryTemplates.toSender()).isEqualTo(new MessageSender()
+				.email(new Email().name("SenderEmailName").address("noreply@host.se"))
+				.sms(new Sms().name("SenderSMSName")));
+		});
+	}
+
+	private static CategoryConfig setupCategoryConfig(boolean active) {
+		final var categoryConfig = new CategoryConfig();
+		categoryConfig.setActive(active);
+		categoryConfig.setMessageClose("Close message ${disturbance.title}");
+		categoryConfig.setMessageNew("New message ${disturbance.title}");
+		categoryConfig.setMessageUpdate("Update message ${disturbance.title}");
+		categoryConfig.setSenderEmailAddress("noreply@host.se");
+		categoryConfig.setSenderEmailName("SenderEmailName");
+		categoryConfig.setSenderSmsName("SenderSMSName");
+		categoryConfig.setSubjectClose("Close subject ${disturbance.title}");
+		categoryConfig.setSubjectNew("New subject ${disturbance.title}");
+		categoryConfig.setSubjectUpdate("Update subject ${disturbance.title}");
+		return categoryConfig;
+	}
+}
@@ -0,0 +1,88 @@
+package se.sundsvall.disturbance.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+import static se.sundsvall.disturbance.service.message.template.MessageType.CLOSE;
+import static se.sundsvall.disturbance.service.message.template.MessageType.NEW;
+import static se.sundsvall.disturbance.service.metrics.DisturbanceMetrics.METRIC_AFFECTEDS_PER_DISTURBANCE;
+import static se.sundsvall.disturbance.service.metrics.DisturbanceMetrics.METRIC_MESSAGES_PER_REQUEST;
+import static se.sundsvall.disturbance.service.metrics.DisturbanceMetrics.METRIC_MESSAGES_RENDERED;
+import static se.sundsvall.disturbance.service.metrics.DisturbanceMetrics.METRIC_MESSAGES_SUPPRESSED;
+import static se.sundsvall.disturbance.service.metrics.DisturbanceMetrics.REASON_INACTIVE_CATEGORY;
+import static se.sundsvall.disturbance.service.metrics.DisturbanceMetrics.REASON_OPT_OUT;
+import static se.sundsvall.disturbance.service.metrics.DisturbanceMetrics.TAG_CATEGORY;
+import static se.sundsvall.disturbance.service.metrics.DisturbanceMetrics.TAG_MUNICIPALITY;
+import static se.sundsvall.disturbance.service.metrics.DisturbanceMetrics.TAG_REASON;
+import static se.sundsvall.disturbance.service.metrics.DisturbanceMetrics.TAG_TYPE;
+
+class DisturbanceMetricsTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final DisturbanceMetrics disturbanceMetrics = new DisturbanceMetrics(meterRegistry);
+
+	@Test
+	void messagesRendered() {
+
+		// Act
+		disturbanceMetrics.messagesRendered(MUNICIPALITY_ID, ELECTRICITY, NEW, 3);
+		disturbanceMetrics.messagesRendered(MUNICIPALITY_ID, ELECTRICITY, NEW, 2);
+
+		// Assert
+		assertThat(meterRegistry.counter(METRIC_MESSAGES_RENDERED, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "electricity", TAG_TYPE, "new").count()).isEqualTo(5);
+	}
+
+	@Test
+	void messagesSuppressed() {
+
+		// Act
+		disturbanceMetrics.messagesSuppressedByOptOut(MUNICIPALITY_ID, ELECTRICITY, CLOSE, 2);
+		disturbanceMetrics.messagesSuppressedByInactiveCategory(MUNICIPALITY_ID, ELECTRICITY, NEW, 4);
+
+		// Assert
+		assertThat(meterRegistry.counter(METRIC_MESSAGES_SUPPRESSED, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "electricity", TAG_TYPE, "close", TAG_REASON, REASON_OPT_OUT).count()).isEqualTo(2);
+		assertThat(meterRegistry.counter(METRIC_MESSAGES_SUPPRESSED, TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "electricity", TAG_TYPE, "new", TAG_REASON, REASON_INACTIVE_CATEGORY).count()).isEqualTo(4);
+	}
+
+	@Test
+	void messagesSuppressedWhenNothingIsSuppressed() {
+
+		// Act
+		disturbanceMetrics.messagesSuppressedByOptOut(MUNICIPALITY_ID, ELECTRICITY, CLOSE, 0);
+
+		// Assert
+		assertThat(meterRegistry.find(METRIC_MESSAGES_SUPPRESSED).meters()).isEmpty();
+	}
+
+	@Test
+	void messageRequest() {
+
+		// Act
+		disturbanceMetrics.messageRequest(MUNICIPALITY_ID, ELECTRICITY, NEW, 10);
+		disturbanceMetrics.messageRequest(MUNICIPALITY_ID, ELECTRICITY, NEW, 20);
+
+		// Assert
+		final var summary = meterRegistry.get(METRIC_MESSAGES_PER_REQUEST).tags(TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "electricity", TAG_TYPE, "new").summary();
+		assertThat(summary.count()).isEqualTo(2);
+		assertThat(summary.totalAmount()).isEqualTo(30);
+		assertThat(summary.max()).isEqualTo(20);
+	}
+
+	@Test
+	void affecteds() {
+
+		// Act
+		disturbanceMetrics.affecteds(MUNICIPALITY_ID, ELECTRICITY, 42);
+
+		// Assert
+		final var summary = meterRegistry.get(METRIC_AFFECTEDS_PER_DISTURBANCE).tags(TAG_MUNICIPALITY, MUNICIPALITY_ID, TAG_CATEGORY, "electricity").summary();
+		assertThat(summary.count()).isEqualTo(1);
+		assertThat(summary.totalAmount()).isEqualTo(42);
+	}
+}
@@ -0,0 +1,107 @@
+package se.sundsvall.disturbance.service.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.dept44.problem.Problem;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+import static se.sundsvall.disturbance.service.metrics.PhasedObservation.KEY_CATEGORY;
+import static se.sundsvall.disturbance.service.metrics.PhasedObservation.KEY_MUNICIPALITY;
+import static se.sundsvall.disturbance.service.metrics.PhasedObservation.KEY_PHASE;
+
+class PhasedObservationTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String NAME = "disturbance.update";
+
+	private final List<Observation.Context> stoppedContexts = new ArrayList<>();
+
+	private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+	@BeforeEach
+	void setup() {
+		observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+			@Override
+			public void onStop(final Observation.Context context) {
+				stoppedContexts.add(context);
+			}
+
+			@Override
+			public boolean supportsContext(final Observation.Context context) {
+				return true;
+			}
+		});
+	}
+
+	@Test
+	void phases() {
+
+		// Arrange
+		final var observation = PhasedObservation.start(observationRegistry, NAME, MUNICIPALITY_ID, ELECTRICITY);
+
+		// Act
+		final var result = observation.phase("load", () -> "loaded");
+		observation.phase("messaging", () -> {});
+		observation.phase("messaging", () -> {});
+		observation.stop();
+
+		// Assert
+		assertThat(result).isEqualTo("loaded");
+		assertThat(observation.getPhaseNanos()).containsOnlyKeys("load", "messaging");
+
+		assertThat(stoppedContexts).extracting(Observation.Context::getName).containsExactly(NAME + ".phase", NAME + ".phase", NAME + ".phase", NAME);
+		assertThat(stoppedContexts.subList(0, 3)).allSatisfy(context -> assertThat(context.getParentObservation().getContextView().getName()).isEqualTo(NAME));
+		assertThat(stoppedContexts.getFirst().getLowCardinalityKeyValue(KEY_PHASE).getValue()).isEqualTo("load");
+
+		final var operationContext = stoppedContexts.getLast();
+		assertThat(operationContext.getLowCardinalityKeyValue(KEY_MUNICIPALITY).getValue()).isEqualTo(MUNICIPALITY_ID);
+		assertThat(operationContext.getLowCardinalityKeyValue(KEY_CATEGORY).getValue()).isEqualTo("electricity");
+		assertThat(operationContext.getHighCardinalityKeyValue("phase.load.ms")).isNotNull();
+		assertThat(operationContext.getHighCardinalityKeyValue("phase.messaging.ms")).isNotNull();
+		assertThat(operationContext.getError()).isNull();
+	}
+
+	@Test
+	void phaseThatThrows() {
+
+		// Arrange
+		final var observation = PhasedObservation.start(observationRegistry, NAME, MUNICIPALITY_ID, ELECTRICITY);
+		final var problem = Problem.valueOf(NOT_FOUND, "Not found");
+
+		// Act
+		assertThrows(ThrowableProblem.class, () -> observation.phase("load", () -> {
+			throw problem;
+		}));
+		observation.error(problem);
+		observation.stop();
+
+		// Assert
+		assertThat(observation.getPhaseNanos()).containsOnlyKeys("load");
+		assertThat(stoppedContexts).extracting(Observation.Context::getError).containsExactly(problem, problem);
+	}
+
+	@Test
+	void phasesWithNoopRegistry() {
+
+		// Arrange
+		final var observation = PhasedObservation.start(ObservationRegistry.NOOP, NAME, MUNICIPALITY_ID, ELECTRICITY);
+
+		// Act
+		final var result = observation.phase("load", () -> "loaded");
+		observation.stop();
+
+		// Assert
+		assertThat(result).isEqualTo("loaded");
+		assertThat(observation.getPhaseNanos()).containsOnlyKeys("load");
+		assertThat(stoppedContexts).isEmpty();
+	}
+}
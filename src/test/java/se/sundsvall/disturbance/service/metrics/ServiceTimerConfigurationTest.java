@@ -0,0 +1,89 @@
+package se.sundsvall.disturbance.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.disturbance.integration.db.SubscriptionRepository;
+import se.sundsvall.disturbance.integration.db.model.SubscriptionEntity;
+import se.sundsvall.disturbance.service.SubscriptionService;
+import se.sundsvall.disturbance.service.optout.OptOutIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.service.metrics.ServiceTimer.METRIC_SERVICE;
+import static se.sundsvall.disturbance.service.metrics.ServiceTimer.NO_EXCEPTION;
+import static se.sundsvall.disturbance.service.metrics.ServiceTimer.TAG_CLASS;
+import static se.sundsvall.disturbance.service.metrics.ServiceTimer.TAG_EXCEPTION;
+import static se.sundsvall.disturbance.service.metrics.ServiceTimer.TAG_METHOD;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceTimerConfigurationTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Mock
+	private SubscriptionRepository subscriptionRepositoryMock;
+
+	@Mock
+	private OptOutIndex optOutIndexMock;
+
+	private SubscriptionService subscriptionService;
+
+	@BeforeEach
+	void setup() {
+		final var meterRegistryProvider = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class);
+
+		final var proxyFactory = new ProxyFactory(new SubscriptionService(subscriptionRepositoryMock, optOutIndexMock));
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAdvisor(ServiceTimerConfiguration.serviceTimerAdvisor(meterRegistryProvider));
+		subscriptionService = (SubscriptionService) proxyFactory.getProxy();
+	}
+
+	@Test
+	void timeServiceMethod() {
+
+		// Arrange
+		when(subscriptionRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, 1L)).thenReturn(Optional.of(SubscriptionEntity.create().withId(1L)));
+
+		// Act
+		subscriptionService.read(MUNICIPALITY_ID, 1L);
+
+		// Assert
+		assertThat(meterRegistry.get(METRIC_SERVICE).tags(TAG_CLASS, "SubscriptionService", TAG_METHOD, "read", TAG_EXCEPTION, NO_EXCEPTION).timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void timeServiceMethodThatThrows() {
+
+		// Arrange
+		when(subscriptionRepositoryMock.findByMunicipalityIdAndId(MUNICIPALITY_ID, 1L)).thenReturn(Optional.empty());
+
+		// Act
+		assertThrows(ThrowableProblem.class, () -> subscriptionService.read(MUNICIPALITY_ID, 1L));
+
+		// Assert
+		assertThat(meterRegistry.get(METRIC_SERVICE).tags(TAG_CLASS, "SubscriptionService", TAG_METHOD, "read").timer().getId().getTag(TAG_EXCEPTION)).isNotEqualTo(NO_EXCEPTION);
+	}
+
+	@Test
+	void doNotTimeObjectMethods() {
+
+		// Act
+		subscriptionService.toString();
+
+		// Assert
+		assertThat(meterRegistry.find(METRIC_SERVICE).meters()).isEmpty();
+	}
+}
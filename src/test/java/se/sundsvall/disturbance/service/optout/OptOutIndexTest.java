@@ -0,0 +1,230 @@
+package se.sundsvall.disturbance.service.optout;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import se.sundsvall.disturbance.integration.db.SubscriptionRepository;
+import se.sundsvall.disturbance.integration.db.model.OptOutSettingsEntity;
+import se.sundsvall.disturbance.integration.db.model.SubscriptionOptOutRow;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.api.model.Category.DISTRICT_COOLING;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+
+@ExtendWith(MockitoExtension.class)
+class OptOutIndexTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+	@Mock
+	private SubscriptionRepository subscriptionRepositoryMock;
+
+	private Clock clockMock;
+
+	private OptOutIndex optOutIndex;
+
+	@BeforeEach
+	void setup() {
+		clockMock = mock(Clock.class);
+		when(clockMock.instant()).thenReturn(NOW);
+		optOutIndex = new OptOutIndex(subscriptionRepositoryMock, new OptOutIndexProperties(Duration.ofMinutes(5)), clockMock);
+	}
+
+	@AfterEach
+	void cleanup() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void getOptOutRules() {
+
+		// Arrange
+		final var partyIdWithSubscription = randomUUID().toString();
+		final var partyIdWithOptOuts = randomUUID().toString();
+		final var partyIdWithoutSubscription = randomUUID().toString();
+
+		when(subscriptionRepositoryMock.findOptOutRowsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), any())).thenReturn(List.of(
+			new SubscriptionOptOutRow(partyIdWithSubscription, null, null, null, null),
+			new SubscriptionOptOutRow(partyIdWithOptOuts, 1L, ELECTRICITY, "facilityId", "facility-1"),
+			new SubscriptionOptOutRow(partyIdWithOptOuts, 2L, DISTRICT_COOLING, null, null)));
+
+		// Act
+		final var result = optOutIndex.getOptOutRules(MUNICIPALITY_ID, List.of(partyIdWithSubscription, partyIdWithOptOuts, partyIdWithoutSubscription));
+
+		// Assert
+		assertThat(result).containsOnlyKeys(partyIdWithSubscription, partyIdWithOptOuts);
+		assertThat(result.get(partyIdWithSubscription).matches(ELECTRICITY, "facility-1")).isFalse();
+		assertThat(result.get(partyIdWithOptOuts).matches(ELECTRICITY, "facility-1")).isTrue();
+		assertThat(result.get(partyIdWithOptOuts).matches(ELECTRICITY, "facility-2")).isFalse();
+		assertThat(result.get(partyIdWithOptOuts).matches(DISTRICT_COOLING, "facility-2")).isTrue();
+
+		verify(subscriptionRepositoryMock).findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, List.of(partyIdWithSubscription, partyIdWithOptOuts, partyIdWithoutSubscription));
+		verifyNoMoreInteractions(subscriptionRepositoryMock);
+	}
+
+	@Test
+	void getOptOutRulesFromIndex() {
+
+		// Arrange
+		final var partyIdWithSubscription = randomUUID().toString();
+		final var partyIdWithoutSubscription = randomUUID().toString();
+		final var partyIds = List.of(partyIdWithSubscription, partyIdWithoutSubscription);
+
+		when(subscriptionRepositoryMock.findOptOutRowsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), any())).thenReturn(List.of(
+			new SubscriptionOptOutRow(partyIdWithSubscription, null, null, null, null)));
+
+		// Act
+		final var firstResult = optOutIndex.getOptOutRules(MUNICIPALITY_ID, partyIds);
+		final var secondResult = optOutIndex.getOptOutRules(MUNICIPALITY_ID, partyIds);
+
+		// Assert
+		assertThat(firstResult).containsOnlyKeys(partyIdWithSubscription);
+		assertThat(secondResult).containsOnlyKeys(partyIdWithSubscription);
+
+		// Only the party with a subscription is indexed, the party without subscription is looked up again.
+		verify(subscriptionRepositoryMock).findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, partyIds);
+		verify(subscriptionRepositoryMock).findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, List.of(partyIdWithoutSubscription));
+		verifyNoMoreInteractions(subscriptionRepositoryMock);
+	}
+
+	@Test
+	void getOptOutRulesWhenSubscriptionIsCreatedElsewhere() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		final var partyIds = List.of(partyId);
+
+		when(subscriptionRepositoryMock.findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, partyIds))
+			.thenReturn(List.of())
+			.thenReturn(List.of(new SubscriptionOptOutRow(partyId, null, null, null, null)));
+
+		// Act
+		final var firstResult = optOutIndex.getOptOutRules(MUNICIPALITY_ID, partyIds);
+		final var secondResult = optOutIndex.getOptOutRules(MUNICIPALITY_ID, partyIds);
+
+		// Assert
+		assertThat(firstResult).isEmpty();
+		assertThat(secondResult).containsOnlyKeys(partyId);
+
+		verify(subscriptionRepositoryMock, times(2)).findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, partyIds);
+	}
+
+	@Test
+	void getOptOutRulesInChunks() {
+
+		// Arrange
+		final var partyIds = IntStream.range(0, 2500)
+			.mapToObj(i -> randomUUID().toString())
+			.toList();
+
+		// Act
+		final var result = optOutIndex.getOptOutRules(MUNICIPALITY_ID, partyIds);
+
+		// Assert
+		assertThat(result).isEmpty();
+
+		verify(subscriptionRepositoryMock, times(3)).findOptOutRowsByMunicipalityIdAndPartyIdIn(eq(MUNICIPALITY_ID), any());
+	}
+
+	@Test
+	void getOptOutRulesWhenExpired() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		final var partyIds = List.of(partyId);
+
+		when(subscriptionRepositoryMock.findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, partyIds)).thenReturn(List.of(
+			new SubscriptionOptOutRow(partyId, null, null, null, null)));
+
+		optOutIndex.getOptOutRules(MUNICIPALITY_ID, partyIds);
+		when(clockMock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(5)));
+
+		// Act
+		optOutIndex.getOptOutRules(MUNICIPALITY_ID, partyIds);
+
+		// Assert
+		verify(subscriptionRepositoryMock, times(2)).findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, partyIds);
+	}
+
+	@Test
+	void put() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+
+		// Act
+		optOutIndex.put(MUNICIPALITY_ID, partyId, List.of(OptOutSettingsEntity.create()
+			.withCategory(ELECTRICITY)
+			.withOptOuts(Map.of("facilityId", "facility-1"))));
+
+		// Assert
+		final var result = optOutIndex.getOptOutRules(MUNICIPALITY_ID, List.of(partyId));
+		assertThat(result).containsOnlyKeys(partyId);
+		assertThat(result.get(partyId).matches(ELECTRICITY, "facility-1")).isTrue();
+
+		verifyNoInteractions(subscriptionRepositoryMock);
+	}
+
+	@Test
+	void putWithinTransaction() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		TransactionSynchronizationManager.initSynchronization();
+
+		// Act
+		optOutIndex.put(MUNICIPALITY_ID, partyId, List.of());
+
+		// Assert
+		final var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		assertThat(synchronizations).hasSize(1);
+
+		TransactionSynchronizationManager.clearSynchronization();
+		TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+
+		assertThat(optOutIndex.getOptOutRules(MUNICIPALITY_ID, List.of(partyId))).containsOnlyKeys(partyId);
+		verifyNoInteractions(subscriptionRepositoryMock);
+	}
+
+	@Test
+	void remove() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		optOutIndex.put(MUNICIPALITY_ID, partyId, List.of());
+
+		// Act
+		optOutIndex.remove(MUNICIPALITY_ID, partyId);
+
+		// Assert
+		assertThat(optOutIndex.getOptOutRules(MUNICIPALITY_ID, List.of(partyId))).isEmpty();
+
+		// The removed party is no longer indexed, and is looked up in the database.
+		verify(subscriptionRepositoryMock).findOptOutRowsByMunicipalityIdAndPartyIdIn(MUNICIPALITY_ID, List.of(partyId));
+		verifyNoMoreInteractions(subscriptionRepositoryMock);
+	}
+}
@@ -0,0 +1,124 @@
+package se.sundsvall.disturbance.service.optout;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import se.sundsvall.disturbance.api.model.Category;
+import se.sundsvall.disturbance.integration.db.model.OptOutSettingsEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.disturbance.api.model.Category.DISTRICT_COOLING;
+import static se.sundsvall.disturbance.api.model.Category.ELECTRICITY;
+
+class OptOutRulesTest {
+
+	@ParameterizedTest
+	@EnumSource(Category.class)
+	void compileWithoutOptOutSettings(Category category) {
+
+		// Act
+		final var nullResult = OptOutRules.compile(null);
+		final var emptyResult = OptOutRules.compile(List.of());
+
+		// Assert
+		assertThat(nullResult.matches(category, "some-facilityId")).isFalse();
+		assertThat(emptyResult.matches(category, "some-facilityId")).isFalse();
+	}
+
+	@ParameterizedTest
+	@EnumSource(Category.class)
+	void compileWithCategoryOptOut(Category category) {
+
+		// Act
+		final var result = OptOutRules.compile(List.of(OptOutSettingsEntity.create().withCategory(category)));
+
+		// Assert
+		for (final var otherCategory : Category.values()) {
+			assertThat(result.matches(otherCategory, "some-facilityId")).isEqualTo(otherCategory == category);
+		}
+	}
+
+	@Test
+	void compileWithNoMatchingCategoryOptOut() {
+
+		// Act
+		final var result = OptOutRules.compile(List.of(OptOutSettingsEntity.create()
+			.withCategory(DISTRICT_COOLING)));
+
+		// Assert
+		assertThat(result.matches(ELECTRICITY, "some-facilityId")).isFalse();
+	}
+
+	@Test
+	void compileWithNoMatchingCategoryAndFacilityIdOptOut() {
+
+		// Act
+		final var result = OptOutRules.compile(List.of(OptOutSettingsEntity.create()
+			.withCategory(DISTRICT_COOLING)
+			.withOptOuts(Map.of("facilityId", "12345"))));
+
+		// Assert
+		assertThat(result.matches(ELECTRICITY, "12345")).isFalse();
+		assertThat(result.matches(DISTRICT_COOLING, "some-facilityId")).isFalse();
+	}
+
+	@Test
+	void compileWithMatchingCategoryAndFacilityIdOptOut() {
+
+		// Act
+		final var result = OptOutRules.compile(List.of(OptOutSettingsEntity.create()
+			.withCategory(DISTRICT_COOLING)
+			.withOptOuts(Map.of("facilityId", "12345"))));
+
+		// Assert
+		assertThat(result.matches(DISTRICT_COOLING, "12345")).isTrue();
+	}
+
+	@Test
+	void compileWithAllMatchingOptOutsPlusSomeMorePropertiesThatDoesNotMatch() {
+
+		// Act
+		final var result = OptOutRules.compile(List.of(OptOutSettingsEntity.create()
+			.withCategory(DISTRICT_COOLING)
+			.withOptOuts(Map.of(
+				"facilityId", "12345",
+				"property1", "value1",
+				"property2", "value2"))));
+
+		// Assert
+		assertThat(result.matches(DISTRICT_COOLING, "12345")).isFalse();
+	}
+
+	@Test
+	void compileWithOneMatchingOptOutAndOneNoMatchingOptOut() {
+
+		// Act
+		final var result = OptOutRules.compile(List.of(
+			OptOutSettingsEntity.create()
+				.withCategory(DISTRICT_COOLING)
+				.withOptOuts(Map.of("facilityId", "12345")),
+			OptOutSettingsEntity.create()
+				.withCategory(DISTRICT_COOLING)
+				.withOptOuts(Map.of("facilityId", "67890"))));
+
+		// Assert
+		assertThat(result.matches(DISTRICT_COOLING, "12345")).isTrue();
+		assertThat(result.matches(DISTRICT_COOLING, "67890")).isTrue();
+		assertThat(result.matches(DISTRICT_COOLING, "other")).isFalse();
+	}
+
+	@Test
+	void matchesWithNullValues() {
+
+		// Arrange
+		final var result = OptOutRules.compile(List.of(OptOutSettingsEntity.create()
+			.withCategory(DISTRICT_COOLING)
+			.withOptOuts(Map.of("facilityId", "12345"))));
+
+		// Act & Assert
+		assertThat(result.matches(null, "12345")).isFalse();
+		assertThat(result.matches(DISTRICT_COOLING, null)).isFalse();
+	}
+}
@@ -0,0 +1,49 @@
+package se.sundsvall.disturbance.service.paging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.disturbance.integration.db.model.AffectedRow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+class AffectedCursorTest {
+
+	@Test
+	void encodeAndDecode() {
+
+		// Arrange
+		final var cursor = AffectedCursor.of(new AffectedRow(42L, 1L, "partyId", "reference", "facilityId", "coordinates"));
+
+		// Act
+		final var encoded = cursor.encode();
+		final var decoded = AffectedCursor.decode(encoded);
+
+		// Assert
+		assertThat(encoded).matches("[A-Za-z0-9_-]+");
+		assertThat(decoded).isEqualTo(cursor);
+		assertThat(decoded.id()).isEqualTo(42L);
+	}
+
+	@Test
+	void decodeNull() {
+		assertThat(AffectedCursor.decode(null)).isNull();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"", "invalid-cursor", "!!!", "YWJj"
+	})
+	void decodeInvalidCursor(String cursor) {
+
+		// Act
+		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> AffectedCursor.decode(cursor));
+
+		// Assert
+		assertThat(throwableProblem.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(throwableProblem.getDetail()).isEqualTo("Invalid cursor:'%s'!".formatted(cursor));
+	}
+}
@@ -0,0 +1,68 @@
+package se.sundsvall.disturbance.service.paging;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import se.sundsvall.dept44.problem.ThrowableProblem;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceArchiveEntity;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+
+import static java.time.ZoneId.systemDefault;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+class DisturbanceCursorTest {
+
+	@Test
+	void encodeAndDecode() {
+
+		// Arrange
+		final var created = LocalDateTime.of(2021, 9, 23, 9, 5, 48, 198_000_000).atZone(systemDefault()).toOffsetDateTime();
+		final var cursor = DisturbanceCursor.of(DisturbanceEntity.create().withId(42L).withCreated(created));
+
+		// Act
+		final var encoded = cursor.encode();
+		final var decoded = DisturbanceCursor.decode(encoded);
+
+		// Assert
+		assertThat(encoded).matches("[A-Za-z0-9_-]+");
+		assertThat(decoded).isEqualTo(cursor);
+		assertThat(decoded.created()).isEqualTo(created);
+		assertThat(decoded.id()).isEqualTo(42L);
+	}
+
+	@Test
+	void ofDisturbanceArchiveEntity() {
+
+		// Arrange
+		final var created = LocalDateTime.of(2021, 9, 23, 9, 5, 48, 198_000_000).atZone(systemDefault()).toOffsetDateTime();
+
+		// Act
+		final var cursor = DisturbanceCursor.of(DisturbanceArchiveEntity.create().withId(42L).withCreated(created));
+
+		// Assert
+		assertThat(cursor).isEqualTo(new DisturbanceCursor(created, 42L));
+		assertThat(DisturbanceCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void decodeNull() {
+		assertThat(DisturbanceCursor.decode(null)).isNull();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"", "invalid-cursor", "!!!", "MjAyMS0wOS0yM1QwNzowNTo0OC4xOThafGFiYw"
+	})
+	void decodeInvalidCursor(String cursor) {
+
+		// Act
+		final var throwableProblem = assertThrows(ThrowableProblem.class, () -> DisturbanceCursor.decode(cursor));
+
+		// Assert
+		assertThat(throwableProblem.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(throwableProblem.getDetail()).isEqualTo("Invalid cursor:'%s'!".formatted(cursor));
+	}
+}
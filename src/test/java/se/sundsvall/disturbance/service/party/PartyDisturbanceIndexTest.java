@@ -0,0 +1,135 @@
+package se.sundsvall.disturbance.service.party;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.sundsvall.disturbance.integration.db.PartyDisturbanceRepository;
+import se.sundsvall.disturbance.integration.db.model.DisturbanceEntity;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.disturbance.api.model.Status.CLOSED;
+import static se.sundsvall.disturbance.api.model.Status.OPEN;
+import static se.sundsvall.disturbance.api.model.Status.PLANNED;
+
+@ExtendWith(MockitoExtension.class)
+class PartyDisturbanceIndexTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+
+	@Mock
+	private PartyDisturbanceRepository partyDisturbanceRepositoryMock;
+
+	@InjectMocks
+	private PartyDisturbanceIndex partyDisturbanceIndex;
+
+	@Test
+	void getDisturbanceIds() {
+
+		// Arrange
+		final var partyId = randomUUID().toString();
+		when(partyDisturbanceRepositoryMock.findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, partyId)).thenReturn(List.of(1L, 2L));
+
+		// Act
+		final var result = partyDisturbanceIndex.getDisturbanceIds(MUNICIPALITY_ID, partyId);
+
+		// Assert
+		assertThat(result).containsExactlyInAnyOrder(1L, 2L);
+		verify(partyDisturbanceRepositoryMock).findDisturbanceIdsByMunicipalityIdAndPartyId(MUNICIPALITY_ID, partyId);
+		verifyNoMoreInteractions(partyDisturbanceRepositoryMock);
+	}
+
+	@Test
+	void add() {
+
+		// Arrange
+		final var disturbanceEntity = DisturbanceEntity.create().withId(1L).withStatus(OPEN);
+		final var partyIds = Set.of("partyId-1", "partyId-2");
+
+		// Act
+		partyDisturbanceIndex.add(disturbanceEntity, partyIds);
+
+		// Assert
+		verify(partyDisturbanceRepositoryMock).insertByDisturbanceIdAndPartyIdIn(1L, partyIds);
+		verifyNoMoreInteractions(partyDisturbanceRepositoryMock);
+	}
+
+	@Test
+	void addWhenPlanned() {
+
+		// Arrange
+		final var disturbanceEntity = DisturbanceEntity.create().withId(1L).withStatus(PLANNED);
+		final var partyIds = Set.of("partyId-1");
+
+		// Act
+		partyDisturbanceIndex.add(disturbanceEntity, partyIds);
+
+		// Assert
+		verify(partyDisturbanceRepositoryMock).insertByDisturbanceIdAndPartyIdIn(1L, partyIds);
+		verifyNoMoreInteractions(partyDisturbanceRepositoryMock);
+	}
+
+	@Test
+	void addWhenClosed() {
+
+		// Act
+		partyDisturbanceIndex.add(DisturbanceEntity.create().withId(1L).withStatus(CLOSED), Set.of("partyId-1"));
+
+		// Assert
+		verifyNoInteractions(partyDisturbanceRepositoryMock);
+	}
+
+	@Test
+	void addWithoutParties() {
+
+		// Act
+		partyDisturbanceIndex.add(DisturbanceEntity.create().withId(1L).withStatus(OPEN), Set.of());
+
+		// Assert
+		verifyNoInteractions(partyDisturbanceRepositoryMock);
+	}
+
+	@Test
+	void remove() {
+
+		// Arrange
+		final var disturbanceEntity = DisturbanceEntity.create().withId(1L).withStatus(OPEN);
+		final var partyIds = Set.of("partyId-1");
+
+		// Act
+		partyDisturbanceIndex.remove(disturbanceEntity, partyIds);
+
+		// Assert
+		verify(partyDisturbanceRepositoryMock).deleteByDisturbanceIdAndPartyIdIn(1L, partyIds);
+		verifyNoMoreInteractions(partyDisturbanceRepositoryMock);
+	}
+
+	@Test
+	void removeWithoutParties() {
+
+		// Act
+		partyDisturbanceIndex.remove(DisturbanceEntity.create().withId(1L).withStatus(OPEN), Set.of());
+
+		// Assert
+		verifyNoInteractions(partyDisturbanceRepositoryMock);
+	}
+
+	@Test
+	void removeAll() {
+
+		// Act
+		partyDisturbanceIndex.removeAll(DisturbanceEntity.create().withId(1L).withStatus(CLOSED));
+
+		// Assert
+		verify(partyDisturbanceRepositoryMock).deleteByDisturbanceId(1L);
+		verifyNoMoreInteractions(partyDisturbanceRepositoryMock);
+	}
+}
@@ -11,7 +11,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 class MappingUtilsTest {
 
 	@Test
-	void getRemovedAffectedEntitiesWhenElementsRemoved() {
+	void getAddedAffectedEntitiesWhenElementsRemoved() {
 
 		final var affectedEntity1 = AffectedEntity.create()
 			.withPartyId("partyId-1")
@@ -38,13 +38,13 @@ class MappingUtilsTest {
 			.withReference("reference-6");
 
 		final var disturbanceEntity1 = DisturbanceEntity.create()
-			.withAffectedEntities(List.of(affectedEntity1, affectedEntity2, affectedEntity3, affectedEntity4, affectedEntity5, affectedEntity6));
+			.withAffectedEntities(List.of(affectedEntity1, affectedEntity3, affectedEntity6));
 
 		final var disturbanceEntity2 = DisturbanceEntity.create()
-			// The following elements are removed compared to disturbanceEntity1: affectedEntity2, affectedEntity4, affectedEntity5
-			.withAffectedEntities(List.of(affectedEntity1, affectedEntity3, affectedEntity6));
+			// The following elements are added compared to disturbanceEntity1: affectedEntity2, affectedEntity4, affectedEntity5
+			.withAffectedEntities(List.of(affectedEntity2, affectedEntity3, affectedEntity4, affectedEntity5, affectedEntity6));
 
-		final var result = MappingUtils.getRemovedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
+		final var result = MappingUtils.getAddedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
 
 		assertThat(result)
 			.isNotNull()
@@ -53,47 +53,33 @@ class MappingUtilsTest {
 	}
 
 	@Test
-	void getRemovedAffectedEntitiesWhenNoElementsAreRemovedButCaseDiffers() {
+	void getAddedAffectedEntitiesFromLists() {
 
-		final var affectedEntity1 = AffectedEntity.create()
+		final var existingAffectedEntity = AffectedEntity.create()
 			.withPartyId("partyId-1")
-			.withReference("reference-1");
-
-		final var affectedEntity2 = AffectedEntity.create()
-			.withPartyId("partyId-2")
-			.withReference("reference-2");
-
-		final var affectedEntity3 = AffectedEntity.create()
-			.withPartyId("partyId-3")
-			.withReference("reference-3");
-
-		// Same as above, but different case.
-		final var affectedEntityOtherCase1 = AffectedEntity.create()
-			.withPartyId("PartyId-1")
-			.withReference("Reference-1");
-
-		final var affectedEntityOtherCase2 = AffectedEntity.create()
-			.withPartyId("PARTYID-2")
-			.withReference("REFERENCE-2");
+			.withReference("reference-1")
+			.withFacilityId("facilityId-1");
 
-		final var affectedEntityOtherCase3 = AffectedEntity.create()
-			.withPartyId("partyid-3")
-			.withReference("reference-3");
-
-		final var disturbanceEntity1 = DisturbanceEntity.create()
-			.withAffectedEntities(List.of(affectedEntity1, affectedEntity2, affectedEntity3));
+		// Same as existingAffectedEntity, but with different case.
+		final var affectedEntity1 = AffectedEntity.create()
+			.withPartyId("PARTYID-1")
+			.withReference("Reference-1")
+			.withFacilityId("FacilityId-1");
 
-		final var disturbanceEntity2 = DisturbanceEntity.create()
-			// All elements have different case, but is equal otherwise.
-			.withAffectedEntities(List.of(affectedEntityOtherCase1, affectedEntityOtherCase2, affectedEntityOtherCase3));
+		final var affectedEntity2 = AffectedEntity.create()
+			.withPartyId("partyId-1")
+			.withReference("reference-1")
+			.withFacilityId("facilityId-2");
 
-		final var result = MappingUtils.getRemovedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
+		final var result = MappingUtils.getAddedAffectedEntities(List.of(existingAffectedEntity), List.of(affectedEntity1, affectedEntity2));
 
-		assertThat(result).isNotNull().isEmpty();
+		assertThat(result)
+			.isNotNull()
+			.containsExactly(affectedEntity2);
 	}
 
 	@Test
-	void getRemovedAffectedEntitiesWhenElementsAdded() {
+	void getAddedAffectedEntitiesWhenNewEntitiesIsNull() {
 
 		final var affectedEntity1 = AffectedEntity.create()
 			.withPartyId("partyId-1")
@@ -103,36 +89,16 @@ class MappingUtilsTest {
 			.withPartyId("partyId-2")
 			.withReference("reference-2");
 
-		final var affectedEntity3 = AffectedEntity.create()
-			.withPartyId("partyId-3")
-			.withReference("reference-3");
-
-		final var affectedEntity4 = AffectedEntity.create()
-			.withPartyId("partyId-4")
-			.withReference("reference-4");
-
-		final var affectedEntity5 = AffectedEntity.create()
-			.withPartyId("partyId-5")
-			.withReference("reference-5");
-
-		final var affectedEntity6 = AffectedEntity.create()
-			.withPartyId("partyId-6")
-			.withReference("reference-6");
-
-		final var disturbanceEntity1 = DisturbanceEntity.create()
-			.withAffectedEntities(List.of(affectedEntity1, affectedEntity3, affectedEntity6));
-
-		final var disturbanceEntity2 = DisturbanceEntity.create()
-			// The following elements are added compared to disturbanceEntity1: affectedEntity2, affectedEntity4, affectedEntity5
-			.withAffectedEntities(List.of(affectedEntity1, affectedEntity2, affectedEntity3, affectedEntity4, affectedEntity5, affectedEntity6));
+		final var disturbanceEntity1 = DisturbanceEntity.create().withAffectedEntities(List.of(affectedEntity1, affectedEntity2));
+		final var disturbanceEntity2 = DisturbanceEntity.create();
 
-		final var result = MappingUtils.getRemovedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
+		final var result = MappingUtils.getAddedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
 
 		assertThat(result).isNotNull().isEmpty();
 	}
 
 	@Test
-	void getRemovedAffectedEntitiesWhenNewEntitiesIsNull() {
+	void getAddedAffectedEntitiesWhenNewEntitiesIsEmptyList() {
 
 		final var affectedEntity1 = AffectedEntity.create()
 			.withPartyId("partyId-1")
@@ -142,17 +108,16 @@ class MappingUtilsTest {
 			.withPartyId("partyId-2")
 			.withReference("reference-2");
 
-		final var disturbanceEntity1 = DisturbanceEntity.create()
-			.withAffectedEntities(List.of(affectedEntity1, affectedEntity2));
-		final var disturbanceEntity2 = DisturbanceEntity.create();
+		final var disturbanceEntity1 = DisturbanceEntity.create().withAffectedEntities(List.of(affectedEntity1, affectedEntity2));
+		final var disturbanceEntity2 = DisturbanceEntity.create().withAffectedEntities(emptyList());
 
-		final var result = MappingUtils.getRemovedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
+		final var result = MappingUtils.getAddedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
 
 		assertThat(result).isNotNull().isEmpty();
 	}
 
 	@Test
-	void getRemovedAffectedEntitiesWhenNewEntitiesIsEmptyList() {
+	void getAddedAffectedEntitiesWhenOldEntitiesIsNull() {
 
 		final var affectedEntity1 = AffectedEntity.create()
 			.withPartyId("partyId-1")
@@ -162,10 +127,10 @@ class MappingUtilsTest {
 			.withPartyId("partyId-2")
 			.withReference("reference-2");
 
-		final var disturbanceEntity1 = DisturbanceEntity.create().withAffectedEntities(List.of(affectedEntity1, affectedEntity2));
-		final var disturbanceEntity2 = DisturbanceEntity.create().withAffectedEntities(emptyList());
+		final var disturbanceEntity1 = DisturbanceEntity.create();
+		final var disturbanceEntity2 = DisturbanceEntity.create().withAffectedEntities(List.of(affectedEntity1, affectedEntity2));
 
-		final var result = MappingUtils.getRemovedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
+		final var result = MappingUtils.getAddedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
 
 		assertThat(result)
 			.isNotNull()
@@ -174,7 +139,7 @@ class MappingUtilsTest {
 	}
 
 	@Test
-	void getAddedAffectedEntitiesWhenElementsRemoved() {
+	void getAddedAffectedEntitiesWhenOldEntitiesIsEmptyList() {
 
 		final var affectedEntity1 = AffectedEntity.create()
 			.withPartyId("partyId-1")
@@ -184,116 +149,90 @@ class MappingUtilsTest {
 			.withPartyId("partyId-2")
 			.withReference("reference-2");
 
-		final var affectedEntity3 = AffectedEntity.create()
-			.withPartyId("partyId-3")
-			.withReference("reference-3");
-
-		final var affectedEntity4 = AffectedEntity.create()
-			.withPartyId("partyId-4")
-			.withReference("reference-4");
-
-		final var affectedEntity5 = AffectedEntity.create()
-			.withPartyId("partyId-5")
-			.withReference("reference-5");
-
-		final var affectedEntity6 = AffectedEntity.create()
-			.withPartyId("partyId-6")
-			.withReference("reference-6");
-
-		final var disturbanceEntity1 = DisturbanceEntity.create()
-			.withAffectedEntities(List.of(affectedEntity1, affectedEntity3, affectedEntity6));
-
-		final var disturbanceEntity2 = DisturbanceEntity.create()
-			// The following elements are added compared to disturbanceEntity1: affectedEntity2, affectedEntity4, affectedEntity5
-			.withAffectedEntities(List.of(affectedEntity2, affectedEntity3, affectedEntity4, affectedEntity5, affectedEntity6));
+		final var disturbanceEntity1 = DisturbanceEntity.create().withAffectedEntities(emptyList());
+		final var disturbanceEntity2 = DisturbanceEntity.create().withAffectedEntities(List.of(affectedEntity1, affectedEntity2));
 
 		final var result = MappingUtils.getAddedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
 
 		assertThat(result)
 			.isNotNull()
-			.hasSize(3)
-			.containsExactly(affectedEntity2, affectedEntity4, affectedEntity5);
+			.hasSize(2)
+			.containsExactly(affectedEntity1, affectedEntity2);
 	}
 
 	@Test
-	void getAddedAffectedEntitiesWhenNewEntitiesIsNull() {
+	void diffAffectedEntities() {
 
 		final var affectedEntity1 = AffectedEntity.create()
 			.withPartyId("partyId-1")
-			.withReference("reference-1");
+			.withReference("reference-1")
+			.withFacilityId("facilityId-1");
 
 		final var affectedEntity2 = AffectedEntity.create()
 			.withPartyId("partyId-2")
 			.withReference("reference-2");
 
-		final var disturbanceEntity1 = DisturbanceEntity.create().withAffectedEntities(List.of(affectedEntity1, affectedEntity2));
-		final var disturbanceEntity2 = DisturbanceEntity.create();
+		// Same as affectedEntity1, but with different case.
+		final var affectedEntity3 = AffectedEntity.create()
+			.withPartyId("PARTYID-1")
+			.withReference("Reference-1")
+			.withFacilityId("FACILITYID-1");
 
-		final var result = MappingUtils.getAddedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
+		// Same as affectedEntity2, but with a facilityId.
+		final var affectedEntity4 = AffectedEntity.create()
+			.withPartyId("partyId-2")
+			.withReference("reference-2")
+			.withFacilityId("facilityId-2");
 
-		assertThat(result).isNotNull().isEmpty();
+		final var result = MappingUtils.diffAffectedEntities(List.of(affectedEntity1, affectedEntity2), List.of(affectedEntity3, affectedEntity4));
+
+		assertThat(result.added()).containsExactly(affectedEntity4);
+		assertThat(result.removed()).containsExactly(affectedEntity2);
+		assertThat(result.retained()).containsExactly(affectedEntity1);
+		assertThat(result.isChanged()).isTrue();
 	}
 
 	@Test
-	void getAddedAffectedEntitiesWhenNewEntitiesIsEmptyList() {
+	void diffAffectedEntitiesWhenNotChanged() {
 
 		final var affectedEntity1 = AffectedEntity.create()
 			.withPartyId("partyId-1")
 			.withReference("reference-1");
 
-		final var affectedEntity2 = AffectedEntity.create()
-			.withPartyId("partyId-2")
-			.withReference("reference-2");
+		final var result = MappingUtils.diffAffectedEntities(List.of(affectedEntity1), List.of(AffectedEntity.create().withPartyId("partyId-1").withReference("REFERENCE-1")));
 
-		final var disturbanceEntity1 = DisturbanceEntity.create().withAffectedEntities(List.of(affectedEntity1, affectedEntity2));
-		final var disturbanceEntity2 = DisturbanceEntity.create().withAffectedEntities(emptyList());
-
-		final var result = MappingUtils.getAddedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
-
-		assertThat(result).isNotNull().isEmpty();
+		assertThat(result.added()).isEmpty();
+		assertThat(result.removed()).isEmpty();
+		assertThat(result.retained()).containsExactly(affectedEntity1);
+		assertThat(result.isChanged()).isFalse();
 	}
 
 	@Test
-	void getAddedAffectedEntitiesWhenOldEntitiesIsNull() {
+	void diffAffectedEntitiesWhenNewEntitiesIsNull() {
 
 		final var affectedEntity1 = AffectedEntity.create()
 			.withPartyId("partyId-1")
 			.withReference("reference-1");
 
-		final var affectedEntity2 = AffectedEntity.create()
-			.withPartyId("partyId-2")
-			.withReference("reference-2");
-
-		final var disturbanceEntity1 = DisturbanceEntity.create();
-		final var disturbanceEntity2 = DisturbanceEntity.create().withAffectedEntities(List.of(affectedEntity1, affectedEntity2));
-
-		final var result = MappingUtils.getAddedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
+		final var result = MappingUtils.diffAffectedEntities(List.of(affectedEntity1), null);
 
-		assertThat(result)
-			.isNotNull()
-			.hasSize(2)
-			.containsExactly(affectedEntity1, affectedEntity2);
+		assertThat(result.added()).isEmpty();
+		assertThat(result.removed()).isEmpty();
+		assertThat(result.retained()).containsExactly(affectedEntity1);
+		assertThat(result.isChanged()).isFalse();
 	}
 
 	@Test
-	void getAddedAffectedEntitiesWhenOldEntitiesIsEmptyList() {
+	void diffAffectedEntitiesWhenOldEntitiesIsNull() {
 
 		final var affectedEntity1 = AffectedEntity.create()
 			.withPartyId("partyId-1")
 			.withReference("reference-1");
 
-		final var affectedEntity2 = AffectedEntity.create()
-			.withPartyId("partyId-2")
-			.withReference("reference-2");
+		final var result = MappingUtils.diffAffectedEntities(null, List.of(affectedEntity1));
 
-		final var disturbanceEntity1 = DisturbanceEntity.create().withAffectedEntities(emptyList());
-		final var disturbanceEntity2 = DisturbanceEntity.create().withAffectedEntities(List.of(affectedEntity1, affectedEntity2));
-
-		final var result = MappingUtils.getAddedAffectedEntities(disturbanceEntity1, disturbanceEntity2);
-
-		assertThat(result)
-			.isNotNull()
-			.hasSize(2)
-			.containsExactly(affectedEntity1, affectedEntity2);
+		assertThat(result.added()).containsExactly(affectedEntity1);
+		assertThat(result.removed()).isEmpty();
+		assertThat(result.retained()).isEmpty();
 	}
 }
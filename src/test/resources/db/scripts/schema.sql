@@ -25,6 +25,47 @@
         primary key (id)
     ) engine=InnoDB;
 
+    create table disturbance_archive (
+        affected_count integer not null,
+        archived datetime(6) not null,
+        created datetime(6),
+        id bigint not null auto_increment,
+        planned_start_date datetime(6),
+        planned_stop_date datetime(6),
+        updated datetime(6),
+        description varchar(8192) not null,
+        category varchar(255) not null check ((category in ('DISTRICT_COOLING','WASTE_MANAGEMENT','ELECTRICITY_TRADE','DISTRICT_HEATING','COMMUNICATION','ELECTRICITY','WATER'))),
+        disturbance_id varchar(255) not null,
+        municipality_id varchar(255) not null,
+        status varchar(255) not null check ((status in ('CLOSED','OPEN','PLANNED'))),
+        title varchar(255),
+        affecteds longblob not null,
+        primary key (id)
+    ) engine=InnoDB;
+
+    create table disturbance_change_counter (
+        modified datetime(6) not null,
+        version bigint not null,
+        municipality_id varchar(255) not null,
+        primary key (municipality_id)
+    ) engine=InnoDB;
+
+    create table message_outbox (
+        attempts integer not null,
+        message_count integer not null,
+        created datetime(6),
+        id bigint not null auto_increment,
+        next_attempt datetime(6) not null,
+        last_error varchar(1024),
+        batch_id varchar(255) not null,
+        category varchar(255) check ((category in ('DISTRICT_COOLING','WASTE_MANAGEMENT','ELECTRICITY_TRADE','DISTRICT_HEATING','COMMUNICATION','ELECTRICITY','WATER'))),
+        message_type varchar(255),
+        municipality_id varchar(255) not null,
+        status varchar(255) not null check ((status in ('PENDING','IN_FLIGHT','DEAD'))),
+        payload longtext not null,
+        primary key (id)
+    ) engine=InnoDB;
+
     create table opt_out_settings (
         id bigint not null auto_increment,
         subscription_id bigint,
@@ -39,6 +80,14 @@
         primary key (opt_out_settings_id, opt_outs_key)
     ) engine=InnoDB;
 
+    create table party_disturbance (
+        disturbance_id bigint not null,
+        id bigint not null auto_increment,
+        municipality_id varchar(255) not null,
+        party_id varchar(255) not null,
+        primary key (id)
+    ) engine=InnoDB;
+
     create table subscription (
         created datetime(6),
         id bigint not null auto_increment,
@@ -48,23 +97,35 @@
         primary key (id)
     ) engine=InnoDB;
 
-    create index party_id_index 
-       on affected (party_id);
+    create index affected_party_id_parent_id_index 
+       on affected (party_id, parent_id);
+
+    create index disturbance_municipality_id_deleted_status_category_created_index 
+       on disturbance (municipality_id, deleted, status, category, created);
+
+    create index disturbance_deleted_status_created_index 
+       on disturbance (deleted, status, created);
+
+    alter table if exists disturbance 
+       add constraint uk_disturbance_municipality_id_category_disturbance_id unique (municipality_id, category, disturbance_id);
+
+    create index disturbance_archive_municipality_id_created_index 
+       on disturbance_archive (municipality_id, created);
 
-    create index disturbance_id_index 
-       on disturbance (disturbance_id);
+    create index disturbance_archive_municipality_id_category_disturbance_id_index 
+       on disturbance_archive (municipality_id, category, disturbance_id);
 
-    create index municipality_id_index 
-       on disturbance (municipality_id);
+    create index message_outbox_status_next_attempt_index 
+       on message_outbox (status, next_attempt);
 
-    create index category_index 
-       on disturbance (category);
+    create index party_disturbance_disturbance_id_index 
+       on party_disturbance (disturbance_id);
 
-    create index party_id_index 
-       on subscription (party_id);
+    alter table if exists party_disturbance 
+       add constraint uk_party_disturbance_municipality_id_party_id_disturbance_id unique (municipality_id, party_id, disturbance_id);
 
-    create index municipality_id_index 
-       on subscription (municipality_id);
+    alter table if exists subscription 
+       add constraint uk_subscription_municipality_id_party_id unique (municipality_id, party_id);
 
     alter table if exists affected 
        add constraint fk_affected_parent_id_disturbance_id 
@@ -1,6 +1,7 @@
 INSERT INTO disturbance(id, municipality_id, category, description, disturbance_id, planned_start_date, planned_stop_date, status, title, deleted, created, updated) VALUES
 
 	-- ReadDisturbanceTest.test1
+	-- ReadDisturbanceTest.test8
 	-- UpdateDisturbanceTest.test7
 	(2, '2281', 'COMMUNICATION', 'Description', 'disturbance-2', '2021-12-31 11:30:45', '2022-01-11 11:30:45', 'OPEN', 'Title', 0, '2021-09-23 09:05:48.198', '2021-09-24 09:05:48.298'),
 	
@@ -68,6 +69,10 @@ INSERT INTO affected (party_id, reference, facility_id, coordinates, parent_id)
 	('affected-2', 'Streetname 22', 'facility-22', 'coordinate-22', 11),
 	('affected-3', 'Streetname 33', 'facility-33', 'coordinate-33', 11);
 
+INSERT INTO party_disturbance (municipality_id, party_id, disturbance_id)
+	SELECT DISTINCT d.municipality_id, a.party_id, d.id FROM disturbance d JOIN affected a ON a.parent_id = d.id
+	WHERE d.deleted = false AND d.status <> 'CLOSED' AND a.party_id IS NOT NULL;
+
 INSERT INTO subscription (id, municipality_id, party_id, created, updated) VALUES
 	(1, '2281', '44f40c52-f550-4fee-860d-eda9c591d6a3', '2023-09-26 16:06:33.220', '2023-09-27 11:21:24.824'),
 	(2, '2281', 'c1236ca-4c44-11ec-81d3-0242ac130003', '2023-09-26 16:06:33.220', '2023-09-27 11:21:24.824'),
@@ -49,6 +49,10 @@ INSERT INTO affected (party_id, reference, facility_id, coordinates, parent_id)
 	('15696203-01e6-4357-a850-bd61660cd737', 'Streetname 22', 'facility-22', 'coordinate-22', 14),
 	('59ebfdb3-d4df-42ad-bc64-90d261360a48', 'Streetname 33', 'facility-33', 'coordinate-33', 15);
 	
+INSERT INTO party_disturbance (municipality_id, party_id, disturbance_id)
+	SELECT DISTINCT d.municipality_id, a.party_id, d.id FROM disturbance d JOIN affected a ON a.parent_id = d.id
+	WHERE d.deleted = false AND d.status <> 'CLOSED' AND a.party_id IS NOT NULL;
+
 INSERT INTO subscription (id, municipality_id, party_id) VALUES
 	(1, '2281', '0d64beb2-3aea-11ec-8d3d-0242ac130003');
 
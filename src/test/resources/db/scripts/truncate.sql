@@ -1,7 +1,11 @@
 SET FOREIGN_KEY_CHECKS = 0; 
 TRUNCATE table affected;
 TRUNCATE table disturbance;
+TRUNCATE table disturbance_archive;
+TRUNCATE table disturbance_change_counter;
+TRUNCATE table message_outbox;
 TRUNCATE table opt_out_settings;
 TRUNCATE table opt_out_settings_key_values;
+TRUNCATE table party_disturbance;
 TRUNCATE table subscription;
 SET FOREIGN_KEY_CHECKS = 1;
\ No newline at end of file